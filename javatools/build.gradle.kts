@@ -151,6 +151,20 @@ sourceSets {
             srcDir(copyGradleWrapper.map { it.destinationDir })
         }
     }
+
+    /**
+     * Manually run programs (e.g. micro-benchmarks) that exercise the runtime internals. They are
+     * compiled as a part of the build to keep them from rotting, but never run by it; use
+     * "java -cp <manualTest runtime classpath> <class> [args]" to run any of them.
+     */
+    register("manualTest") {
+        compileClasspath += main.get().output + main.get().compileClasspath
+        runtimeClasspath += output + compileClasspath + main.get().runtimeClasspath
+    }
+}
+
+tasks.named("check") {
+    dependsOn(tasks.named("compileManualTestJava"))
 }
 
 tasks.processResources {
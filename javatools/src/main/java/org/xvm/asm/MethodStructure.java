@@ -46,6 +46,7 @@ import org.xvm.asm.ast.BinaryAST;
 import org.xvm.asm.ast.BinaryAST.ConstantResolver;
 
 import org.xvm.asm.op.Construct_0;
+import org.xvm.asm.op.FusedOp;
 import org.xvm.asm.op.Nop;
 import org.xvm.asm.op.Var_DN;
 
@@ -644,6 +645,20 @@ public class MethodStructure
         return code.getAssembledOps();
     }
 
+    /**
+     * @return the op-code array for the interpreter to execute, which may contain
+     *         {@link FusedOp fused} ops
+     */
+    public Op[] getExecutableOps() {
+        Code code = ensureCode();
+        if (code == null) {
+            throw new IllegalStateException("Method \"" +
+                getIdentityConstant().getPathString() + "\" has not been compiled");
+        }
+
+        return code.getExecutableOps();
+    }
+
     /**
      * @return the root BinaryAST, or null if none
      */
@@ -2338,6 +2353,25 @@ public class MethodStructure
             return ensureOps();
         }
 
+        /**
+         * @return the array of Ops to be executed by the interpreter; unlike the assembled ops,
+         *         the interpreter is allowed to replace the ops in this array (e.g. with the
+         *         quickened ops)
+         */
+        public Op[] getExecutableOps() {
+            Op[] aop = m_aopExec;
+            if (aop == null) {
+                Op[] aopAsm = ensureOps();
+
+                aop = FusedOp.fuse(aopAsm);
+                if (aop == aopAsm) {
+                    aop = aopAsm.clone();
+                }
+                m_aopExec = aop;
+            }
+            return aop;
+        }
+
         /**
          * @return true iff there are any ops in the code
          */
@@ -2538,7 +2572,8 @@ public class MethodStructure
 
             Op[] aopNew = new Op[cNew];
             System.arraycopy(aop, 0, aopNew, 0, cNew);
-            m_aop = aopNew;
+            m_aop     = aopNew;
+            m_aopExec = null;
             return true;
         }
 
@@ -2639,7 +2674,8 @@ public class MethodStructure
 
             Op[] aopNew = new Op[cNew];
             System.arraycopy(aop, 0, aopNew, 0, cNew);
-            m_aop = aopNew;
+            m_aop     = aopNew;
+            m_aopExec = null;
             return true;
         }
 
@@ -2735,6 +2771,11 @@ public class MethodStructure
          */
         private Op[] m_aop;
 
+        /**
+         * The array of ops to be executed by the interpreter; lazily computed from {@link #m_aop}.
+         */
+        private volatile Op[] m_aopExec;
+
         /**
          * A coding black hole.
          */
@@ -322,6 +322,20 @@ public abstract class Op {
         return true;
     }
 
+    /**
+     * Fuse this op with the op that follows it into a "superinstruction" that the interpreter
+     * dispatches once (see {@link org.xvm.asm.op.FusedOp}). The fused op replaces this op in the
+     * executable op array, while the following op stays at its address, so any jump to it is
+     * still valid. The following op must never return {@link #R_BLOCK}.
+     *
+     * @param opNext  the op that follows this op
+     *
+     * @return the fused op or null if this op cannot be fused with the specified op
+     */
+    public Op fuseWith(Op opNext) {
+        return null;
+    }
+
     /**
      * Invoked as part of the assembly process to register all constants being used by the ops.
      *
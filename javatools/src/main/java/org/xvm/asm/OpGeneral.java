@@ -138,27 +138,75 @@ public abstract class OpGeneral
         try {
             ObjectHandle[] ahArg = frame.getArguments(new int[] {m_nTarget, m_nArgValue}, 2);
 
-            if (frame.isNextRegister(m_nRetValue)) {
-                frame.introduceVarCopy(m_nRetValue, m_nTarget);  // TODO GG type *must* come from the op method
-            }
+            return processBinaryOp(frame, ahArg);
+        } catch (ExceptionHandle.WrapperException e) {
+            return frame.raiseException(e);
+        }
+    }
 
-            if (anyDeferred(ahArg)) {
-                Frame.Continuation stepNext = frameCaller ->
-                    completeBinary(frameCaller, ahArg[0], ahArg[1]);
+    /**
+     * Process the binary op for the arguments that have already been retrieved; this is also
+     * used by the {@link OpQuickened quickened} versions of the op as a fallback.
+     *
+     * @param frame  the current frame
+     * @param ahArg  the target and the argument values (either could be deferred)
+     *
+     * @return the next iPC or any of the R_* values
+     */
+    public int processBinaryOp(Frame frame, ObjectHandle[] ahArg) {
+        if (frame.isNextRegister(m_nRetValue)) {
+            frame.introduceVarCopy(m_nRetValue, m_nTarget);  // TODO GG type *must* come from the op method
+        }
 
-                return new Utils.GetArguments(ahArg, stepNext).doNext(frame);
-            }
+        if (anyDeferred(ahArg)) {
+            Frame.Continuation stepNext = frameCaller ->
+                completeBinary(frameCaller, ahArg[0], ahArg[1]);
 
-            return completeBinary(frame, ahArg[0], ahArg[1]);
-        } catch (ExceptionHandle.WrapperException e) {
-            return frame.raiseException(e);
+            return new Utils.GetArguments(ahArg, stepNext).doNext(frame);
         }
+
+        return completeBinary(frame, ahArg[0], ahArg[1]);
     }
 
     protected int completeBinary(Frame frame, ObjectHandle hTarget, ObjectHandle hArg) {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Called by the binary ops that support quickening when the op completes for the first time.
+     * If the op can be specialized for the operand types, the op replaces itself in the frame's
+     * executable ops with the {@link OpQuickened quickened} version.
+     *
+     * @param frame    the current frame
+     * @param hTarget  the target value
+     * @param hArg     the argument value
+     */
+    protected void quicken(Frame frame, ObjectHandle hTarget, ObjectHandle hArg) {
+        if (!m_fQuickenTried) {
+            // the race is benign: the replacement is atomic and expects this op at the address
+            m_fQuickenTried = true;
+
+            if (OpQuickened.ENABLED) {
+                OpQuickened opQuick = createQuickenedOp(hTarget, hArg);
+                if (opQuick != null) {
+                    OpQuickened.install(frame, opQuick);
+                }
+            }
+        }
+    }
+
+    /**
+     * Create a version of this op specialized for the specified operands.
+     *
+     * @param hTarget  the target value
+     * @param hArg     the argument value
+     *
+     * @return the quickened op or null if the operands are not supported
+     */
+    protected OpQuickened createQuickenedOp(ObjectHandle hTarget, ObjectHandle hArg) {
+        return null;
+    }
+
     @Override
     public void resetSimulation() {
         resetRegister(m_argReturn);
@@ -355,4 +403,9 @@ public abstract class OpGeneral
     private Argument m_argTarget;
     private Argument m_argValue;
     private Argument m_argReturn;
+
+    /**
+     * True iff the op has already tried to {@link #quicken} itself.
+     */
+    private transient boolean m_fQuickenTried;
 }
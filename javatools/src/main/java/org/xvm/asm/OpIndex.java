@@ -33,9 +33,9 @@ import org.xvm.javajit.registers.SingleSlot;
 
 import org.xvm.runtime.CallChain;
 import org.xvm.runtime.Frame;
+import org.xvm.runtime.InlineCache;
 import org.xvm.runtime.ObjectHandle;
 import org.xvm.runtime.ObjectHandle.ExceptionHandle;
-import org.xvm.runtime.ServiceContext;
 import org.xvm.runtime.Utils;
 
 import static java.lang.constant.ConstantDescs.CD_long;
@@ -157,24 +157,14 @@ public abstract class OpIndex
      * Retrieve cached call chain.
      */
     protected CallChain getOpChain(Frame frame, TypeConstant typeTarget) {
-        ServiceContext ctx   = frame.f_context;
-        CallChain      chain = (CallChain) ctx.getOpInfo(this, Category.Chain);
-        if (chain != null) {
-            TypeConstant typePrevTarget = (TypeConstant) ctx.getOpInfo(this, Category.Type);
-            if (typeTarget.equals(typePrevTarget)) {
-                return chain;
-            }
-        }
-        return null;
+        return (CallChain) f_cache.get(frame.f_context.f_container, typeTarget);
     }
 
     /**
      * Cache the specified call chain for the given target.
      */
     protected void saveOpChain(Frame frame, TypeConstant typeTarget, CallChain chain) {
-        ServiceContext ctx = frame.f_context;
-        ctx.setOpInfo(this, Category.Chain, chain);
-        ctx.setOpInfo(this, Category.Type, typeTarget);
+        f_cache.put(frame.f_context.f_container, typeTarget, chain);
     }
 
     @Override
@@ -584,6 +574,8 @@ public abstract class OpIndex
     private Argument m_argIndex;
     private Argument m_argReturn;
 
-    // categories for cached info
-    enum Category {Chain, Type}
+    /**
+     * The inline cache of the call chains keyed by the target type (within a container).
+     */
+    protected final transient InlineCache f_cache = new InlineCache();
 }
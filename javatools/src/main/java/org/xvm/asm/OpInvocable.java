@@ -10,6 +10,9 @@ import java.lang.classfile.Label;
 import java.lang.constant.ClassDesc;
 import java.lang.constant.MethodTypeDesc;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.xvm.asm.Constants.Access;
 
 import org.xvm.asm.constants.CastTypeConstant;
@@ -29,13 +32,14 @@ import org.xvm.javajit.Builder;
 import org.xvm.javajit.JitMethodDesc;
 import org.xvm.javajit.RegisterInfo;
 import org.xvm.javajit.TypeMatrix;
+import org.xvm.javajit.TypeProfile;
 
 import org.xvm.runtime.CallChain;
 import org.xvm.runtime.CallChain.VirtualConstructorChain;
 import org.xvm.runtime.Frame;
+import org.xvm.runtime.InlineCache;
 import org.xvm.runtime.ObjectHandle;
 import org.xvm.runtime.PropertyComposition;
-import org.xvm.runtime.ServiceContext;
 import org.xvm.runtime.TypeComposition;
 
 import org.xvm.runtime.template.xException;
@@ -127,16 +131,19 @@ public abstract class OpInvocable extends Op {
 
     // helper methods
     protected CallChain getCallChain(Frame frame, ObjectHandle hTarget) {
-        ServiceContext  context   = frame.f_context;
-        CallChain       chain     = (CallChain) context.getOpInfo(this, Category.Chain);
-        TypeComposition clazzPrev = (TypeComposition) context.getOpInfo(this, Category.Composition);
-        TypeComposition clazz     = hTarget.getComposition();
-
-        if (chain != null && clazz == clazzPrev) {
+        TypeComposition clazz = hTarget.getComposition();
+        CallChain       chain = (CallChain) f_cache.get(clazz);
+        if (chain != null) {
             return chain;
         }
 
-        context.setOpInfo(this, Category.Composition, clazz);
+        if (TypeProfile.RECORDING && frame.f_function != null) {
+            TypeProfile.Site site = m_site;
+            if (site == null) {
+                m_site = site = TypeProfile.getInstance().ensureSite(frame.f_function, getAddress());
+            }
+            site.record(clazz.getType());
+        }
 
         MethodConstant  idMethod = frame.getConstant(m_nMethodId, MethodConstant.class);
         MethodStructure method   = (MethodStructure) idMethod.getComponent();
@@ -146,13 +153,13 @@ public abstract class OpInvocable extends Op {
         if (method != null && method.getAccess() == Access.PRIVATE) {
             chain = new CallChain(method);
 
-            context.setOpInfo(this, Category.Chain, chain);
+            f_cache.put(clazz, chain);
             return chain;
         }
 
         if (idMethod.getName().equals("construct")) {
             chain = new VirtualConstructorChain(frame.poolContext(), idMethod, hTarget);
-            context.setOpInfo(this, Category.Chain, chain);
+            f_cache.put(clazz, chain);
             return chain;
         }
 
@@ -187,7 +194,7 @@ public abstract class OpInvocable extends Op {
                 "\" on " + hTarget.getType().getValueString()));
         }
 
-        context.setOpInfo(this, Category.Chain, chain);
+        f_cache.put(clazz, chain);
         return chain;
     }
 
@@ -467,6 +474,30 @@ public abstract class OpInvocable extends Op {
             md = jmd.standardMD;
         }
 
+        List<ClassDesc> listRecv = fPrimitive || fUnboxed
+                ? List.of()
+                : computeProfiledReceivers(bctx, typeInvoke, infoMethod, methodName, md,
+                                           fOptimized);
+        if (!listRecv.isEmpty()) {
+            // the call site has only been observed with one or two receiver classes; emit a
+            // guarded direct call for each of them (which makes every call site monomorphic, and
+            // thus inlinable by the JVM) followed by the virtual call for any other receiver;
+            // the arguments are computed just once and stored, so the calls only reload them
+            int   slotTarget = bctx.storeTempValue(code, cdTarget);
+            int[] aSlotParam = new int[md.parameterCount()];
+
+            aSlotParam[0] = bctx.ctxSlot(code);
+            bctx.loadCallArguments(code, jmd, anArgValue);
+            for (int i = aSlotParam.length - 1; i > 0; i--) {
+                aSlotParam[i] = bctx.storeTempValue(code, md.parameterType(i));
+            }
+
+            Builder.invokeGuarded(code, cdTarget, slotTarget, listRecv, cdInvoke,
+                    infoTarget.getType().isJitInterface(), methodName, md, aSlotParam);
+            assignReturns(bctx, code, jmd, cReturns, fCond);
+            return;
+        }
+
         bctx.loadCtx(code);
         bctx.loadCallArguments(code, jmd, anArgValue);
 
@@ -479,12 +510,92 @@ public abstract class OpInvocable extends Op {
             code.invokevirtual(cdInvoke, methodName, md);
         }
 
+        assignReturns(bctx, code, jmd, cReturns, fCond);
+    }
+
+    /**
+     * Assign the return values of the invocation.
+     */
+    private void assignReturns(BuildContext bctx, CodeBuilder code, JitMethodDesc jmd,
+                               int cReturns, boolean fCond) {
         if (cReturns > 0) {
             int[] anRet = isMultiReturn() ? m_anRetValue : new int[] {m_nRetValue};
             bctx.assignReturns(code, jmd, cReturns, anRet, fCond);
         }
     }
 
+    /**
+     * Compute the receiver classes that this call site has been observed with (see
+     * {@link TypeProfile}) and that can be called directly using the same method name and
+     * descriptor as the virtual call.
+     *
+     * @return the ClassDescs of the receiver classes; empty if the call site has not been
+     *         profiled, is megamorphic, or none of the receivers qualify
+     */
+    private List<ClassDesc> computeProfiledReceivers(BuildContext bctx, TypeConstant typeInvoke,
+                                                     MethodInfo infoMethod, String methodName,
+                                                     MethodTypeDesc md, boolean fOptimized) {
+        List<String> listKeys = TypeProfile.getInstance().getReceivers(bctx.methodStruct,
+                                                                       getAddress());
+        if (listKeys.isEmpty()) {
+            return List.of();
+        }
+
+        TypeConstant typeBase = typeInvoke;
+        if (typeInvoke.isSingleUnderlyingClass(true) &&
+                typeInvoke.getSingleUnderlyingClass(true).getComponent()
+                        instanceof ClassStructure clzBase) {
+            typeBase = clzBase.getCanonicalType();
+        }
+
+        List<ClassDesc> listRecv = new ArrayList<>(listKeys.size());
+        for (String key : listKeys) {
+            ClassStructure clz = TypeProfile.resolveClass(bctx.typeSystem, key);
+            if (clz == null) {
+                continue;
+            }
+
+            switch (clz.getFormat()) {
+            case CLASS, CONST, ENUMVALUE:
+                break;
+
+            default:
+                // services must be called via their proxies; the rest are not Java classes
+                continue;
+            }
+
+            TypeConstant typeRecv = clz.getCanonicalType();
+            if (typeRecv.isJitInterface() || !typeRecv.isA(typeBase)) {
+                continue;
+            }
+
+            MethodInfo infoRecv = bctx.getTypeInfo(typeRecv).
+                    getMethodBySignature(infoMethod.getSignature(), true);
+            if (infoRecv == null || infoRecv.isAbstract()) {
+                continue;
+            }
+
+            JitMethodDesc jmdRecv  = infoRecv.getJitDesc(bctx.builder, typeRecv);
+            String        nameRecv = infoRecv.ensureJitMethodName(bctx.typeSystem);
+            if (jmdRecv.isOptimized != fOptimized) {
+                continue;
+            }
+
+            MethodTypeDesc mdRecv;
+            if (fOptimized) {
+                mdRecv    = jmdRecv.optimizedMD;
+                nameRecv += Builder.OPT;
+            } else {
+                mdRecv = jmdRecv.standardMD;
+            }
+
+            if (nameRecv.equals(methodName) && mdRecv.equals(md)) {
+                listRecv.add(bctx.builder.ensureClassDesc(typeRecv));
+            }
+        }
+        return listRecv;
+    }
+
     protected MethodInfo computeMethodInfo(BuildContext bctx, TypeConstant typeTarget) {
         if (typeTarget.containsFormalType(true)) {
             typeTarget = typeTarget.resolveConstraints().ensureAccess(Access.PRIVATE);
@@ -526,6 +637,15 @@ public abstract class OpInvocable extends Op {
     protected Argument       m_argReturn;  // optional
     protected Argument[]     m_aArgReturn; // optional
 
-    // categories for cached info
-    protected enum Category {Chain, Composition}
+    /**
+     * The inline cache of the call chains keyed by the target's TypeComposition; the chains are
+     * held strongly, since some of them (e.g. for private methods and virtual constructors) are
+     * created by the op and not retained by anything else.
+     */
+    protected final transient InlineCache f_cache = new InlineCache(true);
+
+    /**
+     * The receiver type profile of this call site; used only if the profile is being recorded.
+     */
+    private transient TypeProfile.Site m_site;
 }
@@ -7,6 +7,15 @@ import java.io.IOException;
 
 import org.xvm.asm.constants.PropertyConstant;
 
+import org.xvm.runtime.CallChain;
+import org.xvm.runtime.ClassComposition;
+import org.xvm.runtime.ClassComposition.FieldInfo;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.InlineCache;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.GenericHandle;
+import org.xvm.runtime.TypeComposition;
+
 import static org.xvm.util.Handy.readPackedInt;
 import static org.xvm.util.Handy.writePackedLong;
 
@@ -56,7 +65,125 @@ public abstract class OpProperty extends Op {
         return super.toString() + ' ' + Argument.toIdString(m_idProp, m_nPropId);
     }
 
+    // ----- run-time support ----------------------------------------------------------------------
+
+    /**
+     * Retrieve the property value. If the property is a plain field of the target, read the field
+     * directly; otherwise go through the target's template.
+     *
+     * @param frame    the current frame
+     * @param hTarget  the target handle
+     * @param idProp   the property id
+     * @param iReturn  the register id to place the result into
+     *
+     * @return one of the {@link #R_NEXT}, {@link #R_CALL} or {@link #R_EXCEPTION} values
+     */
+    protected int getPropertyValue(Frame frame, ObjectHandle hTarget, PropertyConstant idProp,
+                                   int iReturn) {
+        FieldInfo field = getPlainField(hTarget, idProp, false);
+        if (field != null) {
+            ObjectHandle hValue = ((GenericHandle) hTarget).getField(field.getIndex());
+            if (hValue != null) {
+                return frame.assignValue(iReturn, hValue);
+            }
+            // let the template deal with the un-initialized (e.g. injected) properties
+        }
+        return hTarget.getTemplate().getPropertyValue(frame, hTarget, idProp, iReturn);
+    }
+
+    /**
+     * Set the property value. If the property is a plain field of the target, and the value can
+     * be assigned, write the field directly; otherwise go through the target's template.
+     *
+     * @param frame    the current frame
+     * @param hTarget  the target handle
+     * @param idProp   the property id
+     * @param hValue   the new value
+     *
+     * @return one of the {@link #R_NEXT}, {@link #R_CALL} or {@link #R_EXCEPTION} values
+     */
+    protected int setPropertyValue(Frame frame, ObjectHandle hTarget, PropertyConstant idProp,
+                                   ObjectHandle hValue) {
+        FieldInfo field = getPlainField(hTarget, idProp, true);
+        if (field != null && hTarget.isMutable()
+                && hValue.getUnsafeType().isA(field.getType())) {
+            ((GenericHandle) hTarget).setField(field.getIndex(), hValue);
+            return R_NEXT;
+        }
+        // let the template report any errors
+        return hTarget.getTemplate().setPropertyValue(frame, hTarget, idProp, hValue);
+    }
+
+    /**
+     * Obtain the field that holds the property value for the specified target, if the property
+     * is implemented as a plain field, which can be accessed without the template's help. The
+     * result is cached per target composition.
+     *
+     * @param hTarget  the target handle
+     * @param idProp   the property id
+     * @param fSet     true for the write access; false for the read access
+     *
+     * @return the FieldInfo or null if the access needs to go through the template
+     */
+    protected FieldInfo getPlainField(ObjectHandle hTarget, PropertyConstant idProp, boolean fSet) {
+        if (!(hTarget instanceof GenericHandle)) {
+            return null;
+        }
+
+        TypeComposition clz   = hTarget.getComposition();
+        Object          field = f_cache.get(clz);
+        if (field == null) {
+            field = computePlainField(clz, idProp, fSet);
+            f_cache.put(clz, field);
+        }
+        return field == NO_FIELD ? null : (FieldInfo) field;
+    }
+
+    /**
+     * Compute the plain field for the specified composition (see {@link #getPlainField}).
+     *
+     * @return the FieldInfo or {@link #NO_FIELD}
+     */
+    private static Object computePlainField(TypeComposition clz, PropertyConstant idProp,
+                                            boolean fSet) {
+        if (clz instanceof ClassComposition && clz.getTemplate().isPlainFieldAccess()) {
+            // see ClassTemplate.getPropertyValue() and setPropertyValue(); the struct fields are
+            // set directly
+            boolean fField;
+            if (fSet && clz.isStruct()) {
+                fField = true;
+            } else {
+                CallChain chain = fSet
+                        ? clz.getPropertySetterChain(idProp)
+                        : clz.getPropertyGetterChain(idProp);
+                fField = chain != null && !chain.isNative() && chain.isField();
+            }
+
+            if (fField) {
+                FieldInfo field = clz.getFieldInfo(idProp);
+                if (field != null && !field.isTransient() && !field.isInflated()) {
+                    return field;
+                }
+            }
+        }
+        return NO_FIELD;
+    }
+
+
+    // ----- fields --------------------------------------------------------------------------------
+
+    /**
+     * The cached value for the compositions that have no plain field for the property.
+     */
+    private static final Object NO_FIELD = new Object();
+
     protected int m_nPropId;
 
     protected PropertyConstant m_idProp;
+
+    /**
+     * The inline cache of the plain fields (or {@link #NO_FIELD}) keyed by the target's
+     * TypeComposition.
+     */
+    protected final transient InlineCache f_cache = new InlineCache();
 }
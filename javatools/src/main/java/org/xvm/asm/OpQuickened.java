@@ -0,0 +1,115 @@
+package org.xvm.asm;
+
+
+import java.io.DataOutput;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.xvm.runtime.Frame;
+
+
+/**
+ * Base class for the "quickened" ops: the run-time only versions of generic ops specialized for
+ * the operand types observed by the generic op during its first execution (see
+ * {@link OpGeneral#quicken} and {@link OpTest#quicken}).
+ * <p>
+ * A quickened op replaces the generic op in the executable ops of the method, which are shared by
+ * all the frames executing the method across all the services; the replacement is performed
+ * atomically (see {@link Frame#replaceOp}), and the quickened ops are immutable. If a quickened op
+ * encounters the operands it doesn't support, it reverts the address back to the generic op
+ * (which never tries to quicken itself again) and delegates the execution to it.
+ * <p>
+ * The quickening can be turned off using the "xvm.quicken=false" system property.
+ */
+public abstract class OpQuickened
+        extends Op {
+    /**
+     * Construct a quickened op.
+     *
+     * @param opGeneric  the generic op this op has been specialized from
+     */
+    protected OpQuickened(Op opGeneric) {
+        f_opGeneric = opGeneric;
+    }
+
+    /**
+     * @return the generic op this op has been specialized from
+     */
+    public Op getGenericOp() {
+        return f_opGeneric;
+    }
+
+    /**
+     * Replace the generic op at the current address of the specified frame with the quickened op.
+     *
+     * @param frame    the current frame
+     * @param opQuick  the quickened op
+     */
+    public static void install(Frame frame, OpQuickened opQuick) {
+        if (frame.replaceOp(frame.m_iPC, opQuick.f_opGeneric, opQuick)) {
+            QUICKENED.increment();
+        }
+    }
+
+    /**
+     * Revert the specified address back to the generic op. The caller is responsible for
+     * delegating the execution to the generic op.
+     *
+     * @param frame  the current frame
+     * @param iPC    the address of this op
+     */
+    protected void deoptimize(Frame frame, int iPC) {
+        if (frame.replaceOp(iPC, this, f_opGeneric)) {
+            DEOPTIMIZED.increment();
+        }
+    }
+
+    @Override
+    public void write(DataOutput out, ConstantRegistry registry) {
+        throw new UnsupportedOperationException("run-time only op: " + this);
+    }
+
+    @Override
+    public int getOpCode() {
+        return f_opGeneric.getOpCode();
+    }
+
+    @Override
+    public String toString() {
+        return f_opGeneric.toString();
+    }
+
+    /**
+     * @return the total number of ops that have been quickened
+     */
+    public static long getQuickenedCount() {
+        return QUICKENED.sum();
+    }
+
+    /**
+     * @return the total number of quickened ops that have been reverted to the generic ones
+     */
+    public static long getDeoptimizedCount() {
+        return DEOPTIMIZED.sum();
+    }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * True iff the quickening is enabled.
+     */
+    public static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("xvm.quicken", "true"));
+
+    /**
+     * The global counters.
+     */
+    private static final LongAdder QUICKENED   = new LongAdder();
+    private static final LongAdder DEOPTIMIZED = new LongAdder();
+
+    /**
+     * The generic op.
+     */
+    protected final Op f_opGeneric;
+}
@@ -10,6 +10,10 @@ import java.lang.classfile.Label;
 
 import org.xvm.asm.constants.TypeConstant;
 
+import org.xvm.asm.op.FusedOp;
+import org.xvm.asm.op.JumpFalse;
+import org.xvm.asm.op.JumpTrue;
+
 import org.xvm.javajit.BuildContext;
 import org.xvm.javajit.Builder;
 import org.xvm.javajit.JitFlavor;
@@ -168,19 +172,32 @@ public abstract class OpTest
         try {
             ObjectHandle[] ahArg = frame.getArguments(new int[]{m_nValue1, m_nValue2}, 2);
 
-            TypeConstant typeCommon = calculateCommonType(frame);
+            return processBinaryOp(frame, ahArg);
+        } catch (ExceptionHandle.WrapperException e) {
+            return frame.raiseException(e);
+        }
+    }
 
-            if (anyDeferred(ahArg)) {
-                Frame.Continuation stepNext = frameCaller ->
-                    completeBinaryOp(frame, typeCommon, ahArg[0], ahArg[1]);
+    /**
+     * Process the binary op for the values that have already been retrieved; this is also used by
+     * the {@link OpQuickened quickened} versions of the op as a fallback.
+     *
+     * @param frame  the current frame (the return register must have been introduced)
+     * @param ahArg  the two values (either could be deferred)
+     *
+     * @return the next iPC or any of the R_* values
+     */
+    public int processBinaryOp(Frame frame, ObjectHandle[] ahArg) {
+        TypeConstant typeCommon = calculateCommonType(frame);
 
-                return new Utils.GetArguments(ahArg, stepNext).doNext(frame);
-            }
+        if (anyDeferred(ahArg)) {
+            Frame.Continuation stepNext = frameCaller ->
+                completeBinaryOp(frame, typeCommon, ahArg[0], ahArg[1]);
 
-            return completeBinaryOp(frame, typeCommon, ahArg[0], ahArg[1]);
-        } catch (ExceptionHandle.WrapperException e) {
-            return frame.raiseException(e);
+            return new Utils.GetArguments(ahArg, stepNext).doNext(frame);
         }
+
+        return completeBinaryOp(frame, typeCommon, ahArg[0], ahArg[1]);
     }
 
     protected TypeConstant calculateCommonType(Frame frame) {
@@ -206,6 +223,53 @@ public abstract class OpTest
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Called by the binary ops that support quickening when the op completes for the first time.
+     * If the op can be specialized for the operand types, the op replaces itself in the frame's
+     * executable ops with the {@link OpQuickened quickened} version.
+     *
+     * @param frame    the current frame
+     * @param hValue1  the first value
+     * @param hValue2  the second value
+     */
+    protected void quicken(Frame frame, ObjectHandle hValue1, ObjectHandle hValue2) {
+        if (!m_fQuickenTried) {
+            // the race is benign: the replacement is atomic and expects this op at the address
+            m_fQuickenTried = true;
+
+            if (OpQuickened.ENABLED) {
+                OpQuickened opQuick = createQuickenedOp(frame, hValue1, hValue2);
+                if (opQuick != null) {
+                    OpQuickened.install(frame, opQuick);
+                }
+            }
+        }
+    }
+
+    /**
+     * Create a version of this op specialized for the specified values.
+     *
+     * @param frame    the current frame
+     * @param hValue1  the first value
+     * @param hValue2  the second value
+     *
+     * @return the quickened op or null if the values are not supported
+     */
+    protected OpQuickened createQuickenedOp(Frame frame, ObjectHandle hValue1,
+                                            ObjectHandle hValue2) {
+        return null;
+    }
+
+    @Override
+    public Op fuseWith(Op opNext) {
+        // a binary test that is immediately followed by a conditional jump on its result
+        return isBinaryOp()
+                && (opNext instanceof JumpFalse || opNext instanceof JumpTrue)
+                && ((OpCondJump) opNext).m_nArg == m_nRetValue
+                    ? new FusedOp(this, opNext)
+                    : null;
+    }
+
     /**
      * @return the result type for this Op
      */
@@ -476,4 +540,9 @@ public abstract class OpTest
     protected Argument     m_argVal1;
     protected Argument     m_argVal2;
     protected Argument     m_argReturn;
+
+    /**
+     * True iff the op has already tried to {@link #quicken} itself.
+     */
+    private transient boolean m_fQuickenTried;
 }
@@ -14,7 +14,9 @@ import org.xvm.asm.constants.TypeConstant;
 import org.xvm.javajit.BuildContext;
 
 import org.xvm.javajit.RegisterInfo;
+import org.xvm.runtime.Container;
 import org.xvm.runtime.Frame;
+import org.xvm.runtime.InlineCache;
 import org.xvm.runtime.ServiceContext;
 import org.xvm.runtime.TypeComposition;
 
@@ -135,17 +137,15 @@ public abstract class OpVar
      * @return the corresponding array class composition
      */
     protected TypeComposition getArrayClass(Frame frame, TypeConstant typeList) {
-        ServiceContext  context  = frame.f_context;
-        TypeComposition clzArray = (TypeComposition) context.getOpInfo(this, Category.Composition);
-        TypeConstant    typePrev = (TypeConstant)    context.getOpInfo(this, Category.Type);
+        Container       container = frame.f_context.f_container;
+        TypeComposition clzArray  = (TypeComposition) f_cache.get(container, typeList);
 
-        if (clzArray == null || !typeList.equals(typePrev)) {
+        if (clzArray == null) {
             TypeConstant typeEl = typeList.resolveGenericType("Element");
 
-            clzArray = xArray.INSTANCE.ensureParameterizedClass(context.f_container, typeEl);
+            clzArray = xArray.INSTANCE.ensureParameterizedClass(container, typeEl);
 
-            context.setOpInfo(this, Category.Composition, clzArray);
-            context.setOpInfo(this, Category.Type, typeList);
+            f_cache.put(container, typeList, clzArray);
         }
 
         return clzArray;
@@ -283,6 +283,8 @@ public abstract class OpVar
      */
     protected int m_nType;
 
-    // categories for cached info
-    enum Category {Composition, Type}
+    /**
+     * The inline cache of the array compositions keyed by the sequence type (within a container).
+     */
+    protected final transient InlineCache f_cache = new InlineCache();
 }
@@ -19,6 +19,7 @@ import org.xvm.asm.ast.PropertyExprAST;
 
 import org.xvm.compiler.ast.Context;
 
+import org.xvm.javajit.ClassCache;
 import org.xvm.javajit.TypeSystem;
 
 
@@ -336,6 +337,8 @@ public class PropertyConstant
                 }
             }
         }
+        // the name may depend on the order of the requests; see ClassCache
+        ClassCache.recordJitName(this, sJitName);
         return sJitName;
     }
 
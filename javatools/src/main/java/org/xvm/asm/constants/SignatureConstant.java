@@ -22,6 +22,7 @@ import org.xvm.asm.Constant;
 import org.xvm.asm.ConstantPool;
 import org.xvm.asm.GenericTypeResolver;
 
+import org.xvm.javajit.ClassCache;
 import org.xvm.javajit.TypeSystem;
 
 import org.xvm.util.Hash;
@@ -742,6 +743,8 @@ public class SignatureConstant
                 }
             }
         }
+        // the name depends on the order of the requests; see ClassCache
+        ClassCache.recordJitName(this, sJitName);
         return sJitName;
     }
 
@@ -109,7 +109,7 @@ public class Call_0T
                     invokeNativeT(frame, function, null, Utils.OBJECTS_NONE, m_nRetValue);
             }
 
-            ObjectHandle[] ahVar = new ObjectHandle[function.getMaxVars()];
+            ObjectHandle[] ahVar = frame.allocateVars(function.getMaxVars());
             return frame.callT(function, null, ahVar, m_nRetValue);
         }
 
@@ -137,7 +137,7 @@ public class Call_1T
                 invokeNativeT(frame, function, null, new ObjectHandle[] {hArg}, m_nRetValue);
         }
 
-        ObjectHandle[] ahVar = new ObjectHandle[function.getMaxVars()];
+        ObjectHandle[] ahVar = frame.allocateVars(function.getMaxVars());
         ahVar[0] = hArg;
         return frame.callT(function, null, ahVar, m_nRetValue);
     }
@@ -6,6 +6,7 @@ import java.io.IOException;
 
 import org.xvm.asm.Argument;
 import org.xvm.asm.Constant;
+import org.xvm.asm.OpQuickened;
 import org.xvm.asm.OpTest;
 
 import org.xvm.asm.constants.TypeConstant;
@@ -55,9 +56,18 @@ public class Cmp
     @Override
     protected int completeBinaryOp(Frame frame, TypeConstant type,
                                    ObjectHandle hValue1, ObjectHandle hValue2) {
+        quicken(frame, hValue1, hValue2);
         return type.callCompare(frame, hValue1, hValue2, m_nRetValue);
     }
 
+    @Override
+    protected OpQuickened createQuickenedOp(Frame frame, ObjectHandle hValue1,
+                                            ObjectHandle hValue2) {
+        // the unresolved compile-time type is used, since it must be the same in every frame
+        return Cmp_Quick.create(this, m_typeCommon, frame.poolContext(),
+                m_nValue1, m_nValue2, m_nRetValue, hValue1, hValue2);
+    }
+
     @Override
     protected TypeConstant getResultType(Frame frame) {
         return frame.poolContext().typeOrdered();
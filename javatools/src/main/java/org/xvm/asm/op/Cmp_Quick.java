@@ -0,0 +1,111 @@
+package org.xvm.asm.op;
+
+
+import org.xvm.asm.ConstantPool;
+import org.xvm.asm.OpQuickened;
+import org.xvm.asm.OpTest;
+
+import org.xvm.asm.constants.TypeConstant;
+
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.ExceptionHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
+import org.xvm.runtime.TypeComposition;
+
+import org.xvm.runtime.template.xOrdered;
+
+import org.xvm.runtime.template.numbers.BaseBinaryFP.FloatHandle;
+import org.xvm.runtime.template.numbers.xFloat64;
+import org.xvm.runtime.template.numbers.xInt64;
+
+
+/**
+ * The quickened CMP op specialized for the Int64 and Float64 values, which compares the JavaLong
+ * and FloatHandle values directly rather than through the
+ * {@link TypeConstant#callCompare callCompare} dispatch.
+ */
+public class Cmp_Quick
+        extends OpQuickened {
+    /**
+     * Construct a quickened op.
+     */
+    private Cmp_Quick(Cmp opGeneric, int nValue1, int nValue2, int nRetValue,
+                      TypeComposition clz, boolean fFloat) {
+        super(opGeneric);
+
+        f_nValue1   = nValue1;
+        f_nValue2   = nValue2;
+        f_nRetValue = nRetValue;
+        f_clz       = clz;
+        f_fFloat    = fFloat;
+    }
+
+    /**
+     * Create a quickened op for the specified CMP op.
+     *
+     * @param opGeneric  the generic op
+     * @param type       the op's compile-time type (must not be formal)
+     * @param pool       the current ConstantPool
+     * @param nValue1    the first value register
+     * @param nValue2    the second value register
+     * @param nRetValue  the return register
+     * @param hValue1    the first value observed by the generic op
+     * @param hValue2    the second value observed by the generic op
+     *
+     * @return the quickened op or null if the type or the values are neither Int64 nor Float64
+     */
+    public static Cmp_Quick create(Cmp opGeneric, TypeConstant type, ConstantPool pool,
+                                   int nValue1, int nValue2, int nRetValue,
+                                   ObjectHandle hValue1, ObjectHandle hValue2) {
+        TypeComposition clz = hValue1.getComposition();
+        if (type == null || clz == null || hValue2.getComposition() != clz) {
+            return null;
+        }
+
+        if (clz == xInt64.INSTANCE.getCanonicalClass() && type.equals(pool.typeInt64())) {
+            return new Cmp_Quick(opGeneric, nValue1, nValue2, nRetValue, clz, false);
+        }
+        if (clz == xFloat64.INSTANCE.getCanonicalClass() && type.equals(pool.typeFloat64())) {
+            return new Cmp_Quick(opGeneric, nValue1, nValue2, nRetValue, clz, true);
+        }
+        return null;
+    }
+
+    @Override
+    public int process(Frame frame, int iPC) {
+        try {
+            if (frame.isNextRegister(f_nRetValue)) {
+                frame.introduceResolvedVar(f_nRetValue, frame.poolContext().typeOrdered());
+            }
+
+            ObjectHandle hValue1 = frame.getArgument(f_nValue1);
+            ObjectHandle hValue2 = frame.getArgument(f_nValue2);
+
+            TypeComposition clz = f_clz;
+            if (hValue1.getComposition() != clz || hValue2.getComposition() != clz) {
+                deoptimize(frame, iPC);
+                return ((OpTest) f_opGeneric).processBinaryOp(frame,
+                        new ObjectHandle[] {hValue1, hValue2});
+            }
+
+            int nCompare = f_fFloat
+                    ? Double.compare(((FloatHandle) hValue1).getValue(),
+                                     ((FloatHandle) hValue2).getValue())
+                    : Long.compare(((JavaLong) hValue1).getValue(),
+                                   ((JavaLong) hValue2).getValue());
+            return frame.assignValue(f_nRetValue, xOrdered.makeHandle(nCompare));
+        } catch (ExceptionHandle.WrapperException e) {
+            return frame.raiseException(e);
+        }
+    }
+
+
+    // ----- fields --------------------------------------------------------------------------------
+
+    private final int             f_nValue1;
+    private final int             f_nValue2;
+    private final int             f_nRetValue;
+    private final TypeComposition f_clz;
+    private final boolean         f_fFloat;
+}
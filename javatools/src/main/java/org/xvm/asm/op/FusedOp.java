@@ -0,0 +1,127 @@
+package org.xvm.asm.op;
+
+
+import java.io.DataOutput;
+
+import org.xvm.asm.Op;
+
+import org.xvm.runtime.Frame;
+
+
+/**
+ * A "superinstruction": a run-time only op that executes two adjacent ops with a single dispatch
+ * of the interpreter loop.
+ * <p>
+ * The fused ops are produced by the load-time peephole pass {@link #fuse} (see
+ * {@link Op#fuseWith}), which only affects the array of ops executed by the interpreter; the
+ * assembled ops of a method (used by the compiler, the serialization and the JIT) are never
+ * changed. A fused op takes the place of its first op, and the second op stays at its original
+ * address, so that all the jumps and the exception handlers remain valid.
+ * <p>
+ * The pass can be turned off using the "xvm.fuseOps=false" system property, which allows the
+ * fused dispatch to be measured against the regular one.
+ */
+public class FusedOp
+        extends Op {
+    /**
+     * Construct a fused op.
+     *
+     * @param op1  the first op
+     * @param op2  the op that immediately follows the first op
+     */
+    public FusedOp(Op op1, Op op2) {
+        f_op1 = op1;
+        f_op2 = op2;
+    }
+
+    /**
+     * @return the first of the fused ops
+     */
+    public Op getFirstOp() {
+        return f_op1;
+    }
+
+    /**
+     * @return the second of the fused ops
+     */
+    public Op getSecondOp() {
+        return f_op2;
+    }
+
+    @Override
+    public void write(DataOutput out, ConstantRegistry registry) {
+        throw new UnsupportedOperationException("run-time only op: " + this);
+    }
+
+    @Override
+    public int getOpCode() {
+        return f_op1.getOpCode();
+    }
+
+    @Override
+    public int process(Frame frame, int iPC) {
+        int iResult = f_op1.process(frame, iPC);
+
+        int iPCNext = iPC + 1;
+        if (iResult != R_NEXT && iResult != iPCNext) {
+            // the first op jumped, called, returned, threw or needs to be repeated
+            return iResult;
+        }
+
+        // the second op must observe the same state as if it had been dispatched by the
+        // interpreter loop (e.g. for a call it makes, the return address is based on m_iPC)
+        frame.m_iPC = iPCNext;
+
+        iResult = f_op2.process(frame, iPCNext);
+        return iResult == R_NEXT ? iPCNext + 1 : iResult;
+    }
+
+    @Override
+    public String toString() {
+        return f_op1 + "; " + f_op2;
+    }
+
+
+    // ----- fusion pass ---------------------------------------------------------------------------
+
+    /**
+     * Produce an array of ops for the interpreter to execute, in which the adjacent ops that can be
+     * {@link Op#fuseWith fused} are replaced with the corresponding fused ops.
+     *
+     * @param aop  the assembled ops (never modified)
+     *
+     * @return the array of executable ops, which is the passed array itself if nothing was fused
+     */
+    public static Op[] fuse(Op[] aop) {
+        if (!ENABLED) {
+            return aop;
+        }
+
+        Op[] aopExec = aop;
+        for (int i = 0, c = aop.length - 1; i < c; i++) {
+            Op opFused = aop[i].fuseWith(aop[i + 1]);
+            if (opFused != null) {
+                if (aopExec == aop) {
+                    aopExec = aop.clone();
+                }
+                aopExec[i] = opFused;
+
+                // the second op is already executed by the fused op
+                i++;
+            }
+        }
+        return aopExec;
+    }
+
+    /**
+     * True iff the fusion pass is enabled.
+     */
+    public static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("xvm.fuseOps", "true"));
+
+
+    // ----- fields --------------------------------------------------------------------------------
+
+    private final Op f_op1;
+    private final Op f_op2;
+}
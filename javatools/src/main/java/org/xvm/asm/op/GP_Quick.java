@@ -0,0 +1,121 @@
+package org.xvm.asm.op;
+
+
+import org.xvm.asm.OpGeneral;
+import org.xvm.asm.OpQuickened;
+
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.ExceptionHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
+import org.xvm.runtime.TypeComposition;
+
+import org.xvm.runtime.template.numbers.BaseBinaryFP.FloatHandle;
+import org.xvm.runtime.template.numbers.xFloat64;
+import org.xvm.runtime.template.numbers.xInt64;
+
+
+/**
+ * The quickened GP_ADD, GP_SUB and GP_MUL ops specialized for the Int64 and Float64 operands,
+ * which operate on the JavaLong and FloatHandle values directly rather than through the
+ * {@link org.xvm.runtime.template.numbers.xConstrainedInteger#invokeAdd invokeAdd} (etc.)
+ * dispatch.
+ */
+public class GP_Quick
+        extends OpQuickened {
+    /**
+     * Construct a quickened op.
+     */
+    private GP_Quick(OpGeneral opGeneric, int nTarget, int nArgValue, int nRetValue,
+                     TypeComposition clz, boolean fFloat) {
+        super(opGeneric);
+
+        f_nOp       = opGeneric.getOpCode();
+        f_nTarget   = nTarget;
+        f_nArgValue = nArgValue;
+        f_nRetValue = nRetValue;
+        f_clz       = clz;
+        f_fFloat    = fFloat;
+    }
+
+    /**
+     * Create a quickened op for the specified GP_ADD, GP_SUB or GP_MUL op.
+     *
+     * @param opGeneric  the generic op
+     * @param nTarget    the target register
+     * @param nArgValue  the argument register
+     * @param nRetValue  the return register
+     * @param hTarget    the target value observed by the generic op
+     * @param hArg       the argument value observed by the generic op
+     *
+     * @return the quickened op or null if the values are neither Int64 nor Float64
+     */
+    public static GP_Quick create(OpGeneral opGeneric, int nTarget, int nArgValue, int nRetValue,
+                                  ObjectHandle hTarget, ObjectHandle hArg) {
+        TypeComposition clz = hTarget.getComposition();
+        if (clz == null || hArg.getComposition() != clz) {
+            return null;
+        }
+
+        if (clz == xInt64.INSTANCE.getCanonicalClass()) {
+            return new GP_Quick(opGeneric, nTarget, nArgValue, nRetValue, clz, false);
+        }
+        if (clz == xFloat64.INSTANCE.getCanonicalClass()) {
+            return new GP_Quick(opGeneric, nTarget, nArgValue, nRetValue, clz, true);
+        }
+        return null;
+    }
+
+    @Override
+    public int process(Frame frame, int iPC) {
+        try {
+            ObjectHandle hTarget = frame.getArgument(f_nTarget);
+            ObjectHandle hArg    = frame.getArgument(f_nArgValue);
+
+            TypeComposition clz = f_clz;
+            if (hTarget.getComposition() != clz || hArg.getComposition() != clz) {
+                deoptimize(frame, iPC);
+                return ((OpGeneral) f_opGeneric).processBinaryOp(frame,
+                        new ObjectHandle[] {hTarget, hArg});
+            }
+
+            if (frame.isNextRegister(f_nRetValue)) {
+                frame.introduceVarCopy(f_nRetValue, f_nTarget);
+            }
+
+            ObjectHandle hResult;
+            if (f_fFloat) {
+                double d1 = ((FloatHandle) hTarget).getValue();
+                double d2 = ((FloatHandle) hArg).getValue();
+                hResult = xFloat64.INSTANCE.makeHandle(switch (f_nOp) {
+                    case OP_GP_ADD -> d1 + d2;
+                    case OP_GP_SUB -> d1 - d2;
+                    case OP_GP_MUL -> d1 * d2;
+                    default        -> throw new IllegalStateException();
+                });
+            } else {
+                long l1 = ((JavaLong) hTarget).getValue();
+                long l2 = ((JavaLong) hArg).getValue();
+                hResult = xInt64.makeHandle(switch (f_nOp) {
+                    case OP_GP_ADD -> l1 + l2;
+                    case OP_GP_SUB -> l1 - l2;
+                    case OP_GP_MUL -> l1 * l2;
+                    default        -> throw new IllegalStateException();
+                });
+            }
+            return frame.assignValue(f_nRetValue, hResult);
+        } catch (ExceptionHandle.WrapperException e) {
+            return frame.raiseException(e);
+        }
+    }
+
+
+    // ----- fields --------------------------------------------------------------------------------
+
+    private final int             f_nOp;
+    private final int             f_nTarget;
+    private final int             f_nArgValue;
+    private final int             f_nRetValue;
+    private final TypeComposition f_clz;
+    private final boolean         f_fFloat;
+}
@@ -9,6 +9,7 @@ import java.lang.classfile.CodeBuilder;
 import org.xvm.asm.Argument;
 import org.xvm.asm.Constant;
 import org.xvm.asm.OpGeneral;
+import org.xvm.asm.OpQuickened;
 
 import org.xvm.asm.constants.TypeConstant;
 
@@ -55,9 +56,15 @@ public class GP_Sub
     }
 
     protected int completeBinary(Frame frame, ObjectHandle hTarget, ObjectHandle hArg) {
+        quicken(frame, hTarget, hArg);
         return hTarget.getOpSupport().invokeSub(frame, hTarget, hArg, m_nRetValue);
     }
 
+    @Override
+    protected OpQuickened createQuickenedOp(ObjectHandle hTarget, ObjectHandle hArg) {
+        return GP_Quick.create(this, m_nTarget, m_nArgValue, m_nRetValue, hTarget, hArg);
+    }
+
     // ----- JIT support ---------------------------------------------------------------------------
 
     @Override
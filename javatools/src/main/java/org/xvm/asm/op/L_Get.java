@@ -82,7 +82,7 @@ public class L_Get
             frame.introducePropertyVar(m_nRetValue, A_THIS, m_nPropId);
         }
 
-        return hTarget.getTemplate().getPropertyValue(frame, hTarget, constProperty, m_nRetValue);
+        return getPropertyValue(frame, hTarget, constProperty, m_nRetValue);
     }
 
     @Override
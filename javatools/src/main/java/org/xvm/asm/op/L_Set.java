@@ -80,10 +80,8 @@ public class L_Set
 
             return isDeferred(hValue)
                     ? hValue.proceed(frame, frameCaller ->
-                        hTarget.getTemplate().
-                            setPropertyValue(frameCaller, hTarget, idProp, frameCaller.popStack()))
-                    : hTarget.getTemplate().
-                        setPropertyValue(frame, hTarget, idProp, hValue);
+                        setPropertyValue(frameCaller, hTarget, idProp, frameCaller.popStack()))
+                    : setPropertyValue(frame, hTarget, idProp, hValue);
         } catch (ExceptionHandle.WrapperException e) {
             return frame.raiseException(e);
         }
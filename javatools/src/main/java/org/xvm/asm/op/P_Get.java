@@ -9,6 +9,7 @@ import java.lang.classfile.CodeBuilder;
 
 import org.xvm.asm.Argument;
 import org.xvm.asm.Constant;
+import org.xvm.asm.Op;
 import org.xvm.asm.OpProperty;
 import org.xvm.asm.Scope;
 
@@ -90,18 +91,21 @@ public class P_Get
             }
 
             return isDeferred(hTarget)
-                    ? hTarget.proceed(frame, frameCaller -> {
-                        ObjectHandle hT = frameCaller.popStack();
-                        return hT.getTemplate().getPropertyValue(
-                            frameCaller, hT, constProperty, m_nRetValue);
-                    })
-                    : hTarget.getTemplate().getPropertyValue(
-                            frame, hTarget, constProperty, m_nRetValue);
+                    ? hTarget.proceed(frame, frameCaller ->
+                        getPropertyValue(frameCaller, frameCaller.popStack(), constProperty,
+                                m_nRetValue))
+                    : getPropertyValue(frame, hTarget, constProperty, m_nRetValue);
         } catch (ExceptionHandle.WrapperException e) {
             return frame.raiseException(e);
         }
     }
 
+    @Override
+    public Op fuseWith(Op opNext) {
+        // a property getter that simply returns a property of another object
+        return opNext instanceof Return_1 ? new FusedOp(this, opNext) : null;
+    }
+
     @Override
     public void resetSimulation() {
         resetRegister(m_argReturn);
@@ -86,14 +86,12 @@ public class P_Set
 
             if (anyDeferred(ahArg)) {
                 Frame.Continuation stepNext = frameCaller ->
-                    ahArg[0].getTemplate().setPropertyValue(
-                        frame, ahArg[0], idProp, ahArg[1]);
+                    setPropertyValue(frame, ahArg[0], idProp, ahArg[1]);
 
                 return new Utils.GetArguments(ahArg, stepNext).doNext(frame);
             }
 
-            return ahArg[0].getTemplate().setPropertyValue(
-                frame, ahArg[0], idProp, ahArg[1]);
+            return setPropertyValue(frame, ahArg[0], idProp, ahArg[1]);
         } catch (ExceptionHandle.WrapperException e) {
             return frame.raiseException(e);
         }
@@ -7,6 +7,7 @@ import java.io.IOException;
 import java.lang.classfile.CodeBuilder;
 
 import org.xvm.asm.Constant;
+import org.xvm.asm.Op;
 import org.xvm.asm.OpVar;
 import org.xvm.asm.Register;
 
@@ -52,6 +53,12 @@ public class Var
         return iPC + 1;
     }
 
+    @Override
+    public Op fuseWith(Op opNext) {
+        // "VAR T; MOV value, var" is the most common way to declare a local variable
+        return opNext instanceof Move ? new FusedOp(this, opNext) : null;
+    }
+
     // ----- JIT support ---------------------------------------------------------------------------
 
     @Override
@@ -752,22 +752,7 @@ public class ForEachStatement
         TypeConstant typeElement = getElementType().removeAutoNarrowing();
         if (m_exprRValue.toConstant() instanceof RangeConstant) {
             // code simplification for intrinsic sequential types
-            switch (m_exprRValue.getType().getParamType(0).removeAutoNarrowing().getEcstasyClassName()) {
-            case "numbers.Bit":
-            case "numbers.Nibble":
-            case "text.Char":
-            case "numbers.Int8":
-            case "numbers.Int16":
-            case "numbers.Int32":
-            case "numbers.Int64":
-            case "numbers.Int128":
-            case "numbers.IntN":
-            case "numbers.UInt8":
-            case "numbers.UInt16":
-            case "numbers.UInt32":
-            case "numbers.UInt64":
-            case "numbers.UInt128":
-            case "numbers.UIntN":
+            if (isIntrinsicSequential(m_exprRValue.getType().getParamType(0))) {
                 return emitConstantRange(ctx, fReachable, code, typeElement, errs);
             }
 
@@ -785,6 +770,49 @@ public class ForEachStatement
         return emitVariableRange(ctx, fReachable, code, typeElement, errs);
     }
 
+    /**
+     * @return true iff the specified type is one of the intrinsic sequential types, for which the
+     *         Range logic is known to the compiler
+     */
+    private static boolean isIntrinsicSequential(TypeConstant type) {
+        return switch (type.removeAutoNarrowing().getEcstasyClassName()) {
+            case "numbers.Bit",
+                 "numbers.Nibble",
+                 "text.Char",
+                 "numbers.Int8",
+                 "numbers.Int16",
+                 "numbers.Int32",
+                 "numbers.Int64",
+                 "numbers.Int128",
+                 "numbers.IntN",
+                 "numbers.UInt8",
+                 "numbers.UInt16",
+                 "numbers.UInt32",
+                 "numbers.UInt64",
+                 "numbers.UInt128",
+                 "numbers.UIntN" -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Check whether the Range is created by an inclusive "first..last" expression over an
+     * intrinsic sequential type. Such a Range never escapes the loop, so instead of allocating it
+     * and then asking it for its limits, its fields can be "scalar replaced" by the registers.
+     *
+     * @return the range expression or null if the Range has to be created
+     */
+    private RelOpExpression getScalarReplaceableRange(TypeConstant typeSeq) {
+        if (m_exprRValue instanceof RelOpExpression exprRange
+                && exprRange.getOperator().getId() == Id.I_RANGE_I
+                && isIntrinsicSequential(typeSeq)
+                && exprRange.getExpression1().getType().removeAutoNarrowing().equals(typeSeq)
+                && exprRange.getExpression2().getType().removeAutoNarrowing().equals(typeSeq)) {
+            return exprRange;
+        }
+        return null;
+    }
+
     /**
      * Handle optimized code generation for the Interval type when the Range is a constant value.
      */
@@ -855,31 +883,54 @@ public class ForEachStatement
                                       TypeConstant typeSeq, ErrorListener errs) {
         ConstantPool pool = pool();
 
-        Argument argRange = m_exprRValue.generateArgument(ctx, code, true, errs);
+        Argument regFirstValue;
+        Register regLastValue;
+        Register regDescend = code.createRegister(pool.typeBoolean());
 
-        TypeInfo         infoRange = pool.ensureRangeType(typeSeq).ensureTypeInfo(errs);
-        MethodConstant   idLimits  = findWellKnownMethod(infoRange, "effectiveLimits", errs);
-        PropertyConstant idDescend = findWellKnownProperty(infoRange, "descending", errs);
+        RelOpExpression exprRange = getScalarReplaceableRange(typeSeq);
+        if (exprRange == null) {
+            Argument argRange = m_exprRValue.generateArgument(ctx, code, true, errs);
 
-        if (idLimits == null || idDescend == null) {
-            return false;
-        }
+            TypeInfo         infoRange = pool.ensureRangeType(typeSeq).ensureTypeInfo(errs);
+            MethodConstant   idLimits  = findWellKnownMethod(infoRange, "effectiveLimits", errs);
+            PropertyConstant idDescend = findWellKnownProperty(infoRange, "descending", errs);
 
-        Register regCond       = code.createRegister(pool.typeBoolean());
-        Register regFirstValue = code.createRegister(typeSeq);
-        Register regLastValue  = code.createRegister(typeSeq);
-        code.add(new Var(regCond));
-        code.add(new Var(regFirstValue));
-        code.add(new Var(regLastValue));
-        code.add(new Invoke_0N(argRange, idLimits,
-                    new Argument[] {regCond, regFirstValue, regLastValue}));
+            if (idLimits == null || idDescend == null) {
+                return false;
+            }
 
-        // check if the interval is empty
-        code.add(new JumpFalse(regCond, getEndLabel()));
+            Register regCond  = code.createRegister(pool.typeBoolean());
+            Register regFirst = code.createRegister(typeSeq);
+            regFirstValue     = regFirst;
+            regLastValue      = code.createRegister(typeSeq);
+            code.add(new Var(regCond));
+            code.add(new Var(regFirst));
+            code.add(new Var(regLastValue));
+            code.add(new Invoke_0N(argRange, idLimits,
+                        new Argument[] {regCond, regFirst, regLastValue}));
 
-        Register regDescend = code.createRegister(pool.typeBoolean());
-        code.add(new Var(regDescend));
-        code.add(new P_Get(idDescend, argRange, regDescend));
+            // check if the interval is empty
+            code.add(new JumpFalse(regCond, getEndLabel()));
+
+            code.add(new Var(regDescend));
+            code.add(new P_Get(idDescend, argRange, regDescend));
+        } else {
+            // an inclusive intrinsic Range is never empty, its effective limits are the bounds
+            // themselves, and it descends iff the first bound is greater than the last one:
+            //
+            // VAR_I "last" T _last_             ; a point-in-time copy of the last bound
+            // IS_GT _first_ last -> descend     ; compute the "descending" property
+            Expression expr1 = exprRange.getExpression1();
+            Expression expr2 = exprRange.getExpression2();
+
+            regFirstValue = expr1.ensurePointInTime(code,
+                            expr1.generateArgument(ctx, code, true, errs), expr2);
+            regLastValue  = code.createRegister(typeSeq);
+            code.add(new Var_I(regLastValue, expr2.generateArgument(ctx, code, true, errs)));
+
+            code.add(new Var(regDescend));
+            code.add(new IsGt(typeSeq, regFirstValue, regLastValue, regDescend));
+        }
 
         // from here down - almost identical to the emitConstantRange logic
 
@@ -12,6 +12,8 @@ import java.lang.constant.MethodTypeDesc;
 
 import java.math.BigInteger;
 
+import java.util.List;
+
 import java.util.function.Consumer;
 
 import org.xvm.asm.Constant;
@@ -928,6 +930,59 @@ public abstract class Builder {
         }
     }
 
+    /**
+     * Generate the guarded direct calls of the specified method on each of the specified receiver
+     * classes, followed by the virtual call for any other receiver. Since each receiver has to be
+     * cast before the arguments are pushed, the target and the arguments must have already been
+     * stored, so that every call only reloads them from their slots. All the calls join at the end,
+     * leaving the return value (if any) on the Java stack.
+     *
+     * @param targetSlot   the slot containing the target
+     * @param receivers    the receiver classes to call directly
+     * @param cdInvoke     the class (or interface) to use for the virtual call
+     * @param isInterface  true iff the virtual call is an interface call
+     * @param paramSlots   the slots containing the parameters (in the descriptor order)
+     */
+    public static void invokeGuarded(CodeBuilder code, ClassDesc cdTarget, int targetSlot,
+                                     List<ClassDesc> receivers, ClassDesc cdInvoke,
+                                     boolean isInterface, String methodName, MethodTypeDesc md,
+                                     int[] paramSlots) {
+        Label joinLabel = code.newLabel();
+
+        for (ClassDesc cdRecv : receivers) {
+            Label nextLabel = code.newLabel();
+
+            load(code, cdTarget, targetSlot);
+            code.dup()
+                .instanceOf(cdRecv)
+                .ifeq(nextLabel)
+                .checkcast(cdRecv);
+            loadParameters(code, md, paramSlots);
+            code.invokevirtual(cdRecv, methodName, md)
+                .goto_(joinLabel)
+                .labelBinding(nextLabel)
+                .pop();
+        }
+
+        load(code, cdTarget, targetSlot);
+        loadParameters(code, md, paramSlots);
+        if (isInterface) {
+            code.invokeinterface(cdInvoke, methodName, md);
+        } else {
+            code.invokevirtual(cdInvoke, methodName, md);
+        }
+        code.labelBinding(joinLabel);
+    }
+
+    /**
+     * Generate the "load" of the method parameters from the specified slots.
+     */
+    private static void loadParameters(CodeBuilder code, MethodTypeDesc md, int[] paramSlots) {
+        for (int i = 0, c = md.parameterCount(); i < c; i++) {
+            load(code, md.parameterType(i), paramSlots[i]);
+        }
+    }
+
     /**
      * Generate a default value "load" for the specified Java class.
      */
@@ -0,0 +1,579 @@
+package org.xvm.javajit;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.net.URISyntaxException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+import java.nio.channels.FileChannel;
+
+import java.nio.charset.StandardCharsets;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import java.security.CodeSource;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import java.util.function.Supplier;
+
+import org.xvm.asm.BuildInfo;
+import org.xvm.asm.Constant;
+import org.xvm.asm.ConstantPool;
+import org.xvm.asm.ModuleStructure;
+
+import org.xvm.asm.constants.PropertyConstant;
+import org.xvm.asm.constants.SignatureConstant;
+
+import static org.xvm.util.Handy.byteArrayToHexString;
+
+/**
+ * A persistent on-disk cache of the Java ClassFiles generated by a {@link TypeSystem}, which allows
+ * a process to skip the class generation for the classes that an earlier process has already
+ * generated for the very same TypeSystem.
+ * <p>
+ * Each TypeSystem uses a separate archive file, which is named by a key that is computed from the
+ * XVM build (the location, size and timestamp of the jar that contains the JIT implementation),
+ * the package names assigned to the modules, and the name, version and {@link
+ * ModuleStructure#getDigest() digest} of every module in the TypeSystem. The archive is memory
+ * mapped read-only, so it is shared between all the processes that use it; the new classes are
+ * written out to a new archive at the process exit, which atomically replaces the old one.
+ * <p>
+ * The generated code is not fully determined by the key. It also depends on the state of the
+ * process that generated it: the positions of the constants that were registered at run time, and
+ * the "unique" JIT names that are assigned to the method signatures and properties in the order of
+ * their use. For that reason, every cached class carries the list of these "linkage" assumptions
+ * (recorded during its generation) and the class is only used if all of them hold in the current
+ * process; otherwise the class is generated anew.
+ * <p>
+ * The cache is turned off unless the "xvm.jit.classCache" system property specifies the directory
+ * to store the archives in.
+ */
+public class ClassCache {
+    /**
+     * Construct a ClassCache.
+     *
+     * @param file  the archive file
+     * @param key   the TypeSystem key
+     */
+    ClassCache(Path file, byte[] key) {
+        this.file = file;
+        this.key  = key;
+
+        Map<String, Entry> entries = read(file, key);
+        this.entries = entries == null ? Collections.emptyMap() : entries;
+    }
+
+    /**
+     * Create a ClassCache for the specified TypeSystem.
+     *
+     * @param ts  the TypeSystem
+     *
+     * @return a new ClassCache or null if the cache is disabled
+     */
+    static ClassCache create(TypeSystem ts) {
+        if (DIRECTORY == null || BUILD == null) {
+            return null;
+        }
+
+        byte[] key;
+        try {
+            DigestOutputStream dos = new DigestOutputStream(OutputStream.nullOutputStream(),
+                                        MessageDigest.getInstance("SHA-256"));
+            DataOutputStream   out = new DataOutputStream(dos);
+
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(BUILD);
+            out.writeBoolean(ts instanceof NativeTypeSystem);
+            for (ModuleLoader[] loaders : new ModuleLoader[][] {ts.owned, ts.shared}) {
+                out.writeInt(loaders.length);
+                for (ModuleLoader loader : loaders) {
+                    ModuleStructure module  = loader.module;
+                    String          version = module.getVersionString();
+                    out.writeUTF(loader.prefix);
+                    out.writeUTF(module.getName());
+                    out.writeUTF(version == null ? "" : version);
+                    out.write(module.getDigest());
+                }
+            }
+            out.close();
+
+            key = dos.getMessageDigest().digest();
+        } catch (Exception e) {
+            return null;
+        }
+
+        ClassCache cache = new ClassCache(
+                DIRECTORY.resolve(byteArrayToHexString(key) + FILE_SUFFIX), key);
+        synchronized (CACHES) {
+            if (CACHES.isEmpty()) {
+                Runtime.getRuntime().addShutdownHook(
+                        new Thread(ClassCache::storeAll, "ClassCache"));
+            }
+            CACHES.add(cache);
+        }
+        return cache;
+    }
+
+    /**
+     * The archive file.
+     */
+    public final Path file;
+
+    /**
+     * The TypeSystem key.
+     */
+    private final byte[] key;
+
+    /**
+     * The classes read from the archive.
+     */
+    private final Map<String, Entry> entries;
+
+    /**
+     * The classes generated by this process that are not in the archive yet.
+     */
+    private final Map<String, Entry> pending = new ConcurrentHashMap<>();
+
+    // ----- cache API -----------------------------------------------------------------------------
+
+    /**
+     * Obtain the bytes of the specified class from the cache, as long as the linkage assumptions
+     * made by the process that generated the class hold for the specified TypeSystem.
+     *
+     * @param ts         the TypeSystem that is loading the class
+     * @param className  the Java class name
+     *
+     * @return the ClassFile bytes or null if the class has to be generated
+     */
+    public byte[] get(TypeSystem ts, String className) {
+        Entry entry = entries.get(className);
+        if (entry == null) {
+            return null;
+        }
+
+        for (Dependency dep : entry.deps()) {
+            if (!dep.holds(ts)) {
+                return null;
+            }
+        }
+        return entry.classBytes();
+    }
+
+    /**
+     * Generate the specified class, recording the linkage assumptions made by the generator, and
+     * schedule the class to be written to the archive.
+     *
+     * @param className  the Java class name
+     * @param generator  the class generator
+     *
+     * @return the ClassFile bytes or null if the class does not exist
+     */
+    public byte[] generate(String className, Supplier<byte[]> generator) {
+        Linkage linkage = new Linkage(LINKAGE.get());
+        LINKAGE.set(linkage);
+
+        byte[] classBytes;
+        try {
+            classBytes = generator.get();
+        } finally {
+            LINKAGE.set(linkage.outer);
+        }
+
+        if (classBytes != null && linkage.deps != null) {
+            pending.put(className, new Entry(List.copyOf(linkage.deps), ByteBuffer.wrap(classBytes)));
+        }
+        return classBytes;
+    }
+
+    /**
+     * Write the archived and newly generated classes out to a new archive, replacing the old one.
+     */
+    public void store() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<String, Entry> all = new HashMap<>(entries);
+        all.putAll(pending);
+        try {
+            write(file, key, all);
+            pending.clear();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to store the JIT class cache " + file + ": " + e);
+        }
+    }
+
+    /**
+     * Store all the caches; called at the process exit.
+     */
+    private static void storeAll() {
+        List<ClassCache> caches;
+        synchronized (CACHES) {
+            caches = new ArrayList<>(CACHES);
+        }
+        caches.forEach(ClassCache::store);
+    }
+
+    // ----- linkage -------------------------------------------------------------------------------
+
+    /**
+     * Record the assumption that the specified constant occupies its current position in its
+     * ConstantPool; called by the generators that refer to a constant by its position.
+     *
+     * @param constant  a registered constant
+     */
+    public static void recordPosition(Constant constant) {
+        Linkage linkage = ENABLED ? LINKAGE.get() : null;
+        if (linkage != null) {
+            linkage.add(Dependency.POSITION, constant, null);
+        }
+    }
+
+    /**
+     * Record the assumption that the specified constant has the specified JIT name; called by the
+     * generators when the name assignment depends on the order of the name requests.
+     *
+     * @param constant  a SignatureConstant or a PropertyConstant
+     * @param sJitName  the JIT name
+     */
+    public static void recordJitName(Constant constant, String sJitName) {
+        Linkage linkage = ENABLED ? LINKAGE.get() : null;
+        if (linkage != null) {
+            linkage.add(Dependency.JIT_NAME, constant, sJitName);
+        }
+    }
+
+    /**
+     * The linkage assumptions made during the generation of a single class.
+     */
+    private static class Linkage {
+        Linkage(Linkage outer) {
+            this.outer = outer;
+        }
+
+        void add(byte kind, Constant constant, String sJitName) {
+            List<Dependency> deps = this.deps;
+            if (deps == null) {
+                // the class has already been deemed non-cacheable
+                return;
+            }
+
+            int position = constant.getPosition();
+            if (position < 0) {
+                // an unregistered constant cannot be located by a different process
+                this.deps = null;
+                return;
+            }
+
+            deps.add(new Dependency(kind, moduleOf(constant.getConstantPool()), position,
+                    constant.getValueString(), sJitName == null ? "" : sJitName));
+        }
+
+        /**
+         * The linkage of the class whose generation has caused the generation of this one.
+         */
+        final Linkage outer;
+
+        /**
+         * The assumptions; null if the class cannot be cached.
+         */
+        List<Dependency> deps = new ArrayList<>();
+    }
+
+    /**
+     * A single linkage assumption.
+     *
+     * @param kind      the dependency kind
+     * @param module    the name of the module that owns the ConstantPool
+     * @param position  the position of the constant in the ConstantPool
+     * @param value     the value string of the constant
+     * @param jitName   the JIT name of the constant (JIT_NAME only)
+     */
+    record Dependency(byte kind, String module, int position, String value, String jitName) {
+        static final byte POSITION = 0;
+        static final byte JIT_NAME = 1;
+
+        /**
+         * @return true iff the assumption holds for the specified TypeSystem
+         */
+        boolean holds(TypeSystem ts) {
+            ConstantPool pool = findPool(ts, module);
+            if (pool == null || position >= pool.size()) {
+                return false;
+            }
+
+            Constant constant = pool.getConstant(position);
+            if (constant == null || !constant.getValueString().equals(value)) {
+                return false;
+            }
+
+            return switch (kind) {
+                case POSITION -> true;
+                case JIT_NAME -> jitName.equals(switch (constant) {
+                    case SignatureConstant sig  -> sig.ensureJitMethodName(ts);
+                    case PropertyConstant  prop -> prop.ensureJitPropertyName(ts);
+                    default                     -> null;
+                });
+                default -> false;
+            };
+        }
+    }
+
+    /**
+     * @return the name of the module that owns the specified ConstantPool
+     */
+    private static String moduleOf(ConstantPool pool) {
+        return pool.getFileStructure().getModuleId().getName();
+    }
+
+    /**
+     * @return the ConstantPool of the specified module as seen by the specified TypeSystem
+     */
+    private static ConstantPool findPool(TypeSystem ts, String module) {
+        for (ModuleLoader[] loaders : new ModuleLoader[][]
+                {ts.owned, ts.shared, ts.xvm.nativeTypeSystem.owned}) {
+            for (ModuleLoader loader : loaders) {
+                if (loader.module.getName().equals(module)) {
+                    return loader.module.getConstantPool();
+                }
+            }
+        }
+        return null;
+    }
+
+    // ----- archive format ------------------------------------------------------------------------
+
+    /**
+     * A cached class.
+     *
+     * @param deps   the linkage assumptions
+     * @param bytes  the ClassFile bytes (a read-only view for the memory-mapped classes)
+     */
+    record Entry(List<Dependency> deps, ByteBuffer bytes) {
+        byte[] classBytes() {
+            byte[] ab = new byte[bytes.remaining()];
+            bytes.get(bytes.position(), ab);
+            return ab;
+        }
+    }
+
+    /**
+     * Read the archive:
+     * <pre>
+     *   int    MAGIC
+     *   int    FORMAT_VERSION
+     *   byte[] key               (SHA-256)
+     *   int    entry count
+     *   entries:
+     *     string className
+     *     int    dependency count
+     *     dependencies:
+     *       byte kind, string module, int position, string value, string jitName
+     *     int    length
+     *     byte[] ClassFile bytes
+     * </pre>
+     * where a string is an int length followed by the UTF-8 bytes.
+     *
+     * @param file  the archive file
+     * @param key   the expected TypeSystem key
+     *
+     * @return the cached classes or null if the archive does not exist or is not valid
+     */
+    static Map<String, Entry> read(Path file, byte[] key) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long cb = channel.size();
+            if (cb > Integer.MAX_VALUE) {
+                return null;
+            }
+
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, cb);
+            if (buf.getInt() != MAGIC || buf.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+
+            byte[] abKey = new byte[key.length];
+            buf.get(abKey);
+            if (!Arrays.equals(abKey, key)) {
+                return null;
+            }
+
+            int                cEntries = checkCount(buf.getInt(), buf);
+            Map<String, Entry> entries  = new HashMap<>(cEntries);
+            for (int i = 0; i < cEntries; i++) {
+                String           className = readString(buf);
+                int              cDeps     = checkCount(buf.getInt(), buf);
+                List<Dependency> deps      = new ArrayList<>(cDeps);
+                for (int j = 0; j < cDeps; j++) {
+                    deps.add(new Dependency(buf.get(), readString(buf), buf.getInt(),
+                            readString(buf), readString(buf)));
+                }
+
+                int of     = buf.position();
+                int cbData = checkCount(buf.getInt(of), buf);
+                entries.put(className, new Entry(deps,
+                        buf.slice(of + 4, cbData).asReadOnlyBuffer()));
+                buf.position(of + 4 + cbData);
+            }
+            return entries;
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException |
+                 IllegalArgumentException e) {
+            // a corrupted or truncated archive is simply ignored (and replaced at the exit)
+            return null;
+        }
+    }
+
+    /**
+     * Write the archive to a temporary file and atomically move it into place.
+     *
+     * @param file     the archive file
+     * @param key      the TypeSystem key
+     * @param entries  the classes to write
+     */
+    static void write(Path file, byte[] key, Map<String, Entry> entries)
+            throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.write(key);
+                out.writeInt(entries.size());
+                for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                    Entry entry = e.getValue();
+                    writeString(out, e.getKey());
+                    out.writeInt(entry.deps().size());
+                    for (Dependency dep : entry.deps()) {
+                        out.writeByte(dep.kind());
+                        writeString(out, dep.module());
+                        out.writeInt(dep.position());
+                        writeString(out, dep.value());
+                        writeString(out, dep.jitName());
+                    }
+
+                    byte[] ab = entry.classBytes();
+                    out.writeInt(ab.length);
+                    out.write(ab);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+                                   StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String readString(ByteBuffer buf) {
+        int    cb = checkCount(buf.getInt(), buf);
+        byte[] ab = new byte[cb];
+        buf.get(ab);
+        return new String(ab, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String s)
+            throws IOException {
+        byte[] ab = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(ab.length);
+        out.write(ab);
+    }
+
+    /**
+     * Validate a count or a length read from the archive against the remaining bytes.
+     */
+    private static int checkCount(int c, ByteBuffer buf) {
+        if (c < 0 || c > buf.limit()) {
+            throw new IllegalArgumentException("corrupted archive");
+        }
+        return c;
+    }
+
+    /**
+     * @return a String identifying the XVM build, or null if it cannot be identified
+     */
+    private static String identifyBuild() {
+        try {
+            CodeSource source = ClassCache.class.getProtectionDomain().getCodeSource();
+            File       jar    = source == null ? null : new File(source.getLocation().toURI());
+            if (jar == null || !jar.isFile()) {
+                // the classes are not coming from a jar (e.g. an IDE build), so there is no way
+                // to tell whether the JIT implementation has changed
+                return null;
+            }
+            return BuildInfo.getXdkVersion() + ' ' + BuildInfo.getGitCommit() + ' '
+                    + jar.getAbsolutePath() + ' ' + jar.length() + ' ' + jar.lastModified();
+        } catch (URISyntaxException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // ----- constants -----------------------------------------------------------------------------
+
+    /**
+     * The directory to store the archives in; null if the cache is disabled.
+     */
+    private static final Path DIRECTORY;
+    static {
+        String sDir = System.getProperty("xvm.jit.classCache");
+        DIRECTORY = sDir == null || sDir.isEmpty() ? null : Path.of(sDir);
+    }
+
+    /**
+     * True iff the cache is enabled.
+     */
+    private static final boolean ENABLED = DIRECTORY != null;
+
+    /**
+     * The XVM build identity; null if unknown.
+     */
+    private static final String BUILD = ENABLED ? identifyBuild() : null;
+
+    /**
+     * The archive file suffix.
+     */
+    private static final String FILE_SUFFIX = ".xjc";
+
+    /**
+     * The archive header.
+     */
+    private static final int MAGIC          = 0x584A4343; // "XJCC"
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * The linkage of the class being generated by the current thread.
+     */
+    private static final ThreadLocal<Linkage> LINKAGE = new ThreadLocal<>();
+
+    /**
+     * The caches to store at the process exit.
+     */
+    private static final Set<ClassCache> CACHES = Collections.newSetFromMap(new WeakHashMap<>());
+}
@@ -11,13 +11,25 @@ import java.lang.classfile.ClassModel;
 
 import java.lang.classfile.constantpool.ClassEntry;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 import java.util.function.Predicate;
 
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.Component;
+import org.xvm.asm.ConstantPool;
 import org.xvm.asm.ModuleStructure;
+import org.xvm.asm.PackageStructure;
+
+import org.xvm.javajit.TypeSystem.ClassfileShape;
 
 import static org.xvm.util.Handy.isHexit;
 import static org.xvm.util.Handy.require;
@@ -29,6 +41,11 @@ import static org.xvm.util.Handy.require;
  */
 public class ModuleLoader
         extends ClassLoader {
+    static {
+        // the classes of different names can be generated and defined concurrently
+        registerAsParallelCapable();
+    }
+
     /**
      * Construct a ModuleLoader. Since modules can be dependent on other modules within the same
      * TypeSystem, the parent ClassLoader is always the TypeSystemLoader responsible for introducing
@@ -85,20 +102,26 @@ public class ModuleLoader
     protected Class<?> findClass(String name)
             throws ClassNotFoundException {
         if (name.startsWith(prefix)) {
-            Class clz = findLoadedClass(name);
-            if (clz != null) {
-                assert clz.getClassLoader() == this;
-                return clz;
-            }
+            // this method is also called directly by the TypeSystemLoader, so the class loading
+            // lock needs to be taken here as well
+            synchronized (getClassLoadingLock(name)) {
+                Class clz = findLoadedClass(name);
+                if (clz != null) {
+                    assert clz.getClassLoader() == this;
+                    return clz;
+                }
 
-            String suffix     = name.substring(prefix.length());
-            byte[] classBytes = typeSystem.genClass(this, suffix);
-            if (classBytes == null) {
-                throw new ClassNotFoundException(name);
+                byte[] classBytes = pregenerated.remove(name);
+                if (classBytes == null) {
+                    classBytes = typeSystem.ensureClass(this, name.substring(prefix.length()));
+                }
+                if (classBytes == null) {
+                    throw new ClassNotFoundException(name);
+                }
+                clz = defineClass(name, classBytes, 0, classBytes.length);
+                loadedClasses.put(name, classBytes);
+                return clz;
             }
-            clz = defineClass(name, classBytes, 0, classBytes.length);
-            loadedClasses.put(name, classBytes);
-            return clz;
         } else if (getParent() instanceof TypeSystemLoader tsLoader) {
             return tsLoader.findClass(name);
         } else {
@@ -111,6 +134,142 @@ public class ModuleLoader
         return module.toString();
     }
 
+    // ----- eager generation ----------------------------------------------------------------------
+
+    /**
+     * Eagerly generate the Java classes for all the classes of the module (except the ones local
+     * to methods and properties) using the specified pool, and then define them in the dependency
+     * order: each class is defined after its (pre-generated) super class and interfaces.
+     * <p>
+     * Not every class can be generated ahead of its use; the classes that fail to generate or to
+     * define are skipped, and are left to be loaded on demand (which reports any real problem).
+     *
+     * @param pool  the ForkJoinPool to generate the classes on
+     *
+     * @return the number of classes that have been defined
+     */
+    public int pregenerate(ForkJoinPool pool) {
+        List<String> names = new ArrayList<>();
+        collectClassNames(module, names);
+
+        ConstantPool        poolConst = typeSystem.pool();
+        Map<String, byte[]> generated = new ConcurrentHashMap<>();
+        pool.submit(() -> names.parallelStream().forEach(name -> {
+            if (findLoadedClass(name) == null) {
+                try (var ignore = ConstantPool.withPool(poolConst)) {
+                    byte[] classBytes = typeSystem.ensureClass(this,
+                            name.substring(prefix.length()));
+                    if (classBytes != null) {
+                        generated.put(name, classBytes);
+                    }
+                } catch (RuntimeException | LinkageError e) {
+                    // leave it to be loaded on demand
+                }
+            }
+        })).join();
+
+        // hand the generated classes over to findClass(), except for the ones that have been
+        // loaded on demand in the meantime (nothing would ever remove their bytes)
+        generated.forEach((name, classBytes) -> {
+            synchronized (getClassLoadingLock(name)) {
+                if (findLoadedClass(name) == null) {
+                    pregenerated.put(name, classBytes);
+                }
+            }
+        });
+
+        int count = 0;
+        try {
+            for (String name : sortByDependency(generated)) {
+                try {
+                    loadClass(name);
+                    count++;
+                } catch (ClassNotFoundException | RuntimeException | LinkageError e) {
+                    // leave it to be loaded on demand
+                }
+            }
+        } finally {
+            // the classes that failed to define are left to be generated again on demand
+            generated.keySet().forEach(pregenerated::remove);
+        }
+        return count;
+    }
+
+    /**
+     * Collect the JIT class names for the classes nested in the specified component.
+     */
+    private void collectClassNames(Component component, List<String> names) {
+        if (component instanceof ModuleStructure) {
+            names.add(prefix + Builder.MODULE);
+        }
+
+        for (Component child : component.children()) {
+            if (child instanceof PackageStructure pkg && pkg.isModuleImport()) {
+                // the imported module's classes belong to its own loader
+                continue;
+            }
+
+            if (child instanceof ClassStructure clz) {
+                if (!(clz instanceof PackageStructure)) {
+                    try {
+                        String name = typeSystem.ensureJitClassName(
+                                clz.getIdentityConstant().getType(), ClassfileShape.Impl);
+                        if (name.startsWith(prefix)) {
+                            names.add(name);
+                        }
+                    } catch (RuntimeException e) {
+                        // no Java class for this one
+                    }
+                }
+                collectClassNames(clz, names);
+            }
+        }
+    }
+
+    /**
+     * Order the specified classes, so that each class follows its super class and interfaces that
+     * are also among the specified classes. The independent classes are ordered by name to make
+     * the order predictable.
+     *
+     * @param classes  the class bytes keyed by the '.'-delimited class names
+     *
+     * @return the class names in the dependency order
+     */
+    static List<String> sortByDependency(Map<String, byte[]> classes) {
+        List<String> sorted  = new ArrayList<>(classes.size());
+        Set<String>  visited = new HashSet<>();
+        for (String name : new TreeSet<>(classes.keySet())) {
+            addByDependency(name, classes, visited, sorted);
+        }
+        return sorted;
+    }
+
+    /**
+     * Add the specified class to the sorted list after the classes it depends on.
+     */
+    private static void addByDependency(String name, Map<String, byte[]> classes,
+                                        Set<String> visited, List<String> sorted) {
+        byte[] classBytes = classes.get(name);
+        if (classBytes == null || !visited.add(name)) {
+            return;
+        }
+
+        try {
+            ClassModel model = ClassFile.of().parse(classBytes);
+            if (model.superclass().isPresent()) {
+                addByDependency(model.superclass().get().asInternalName().replace('/', '.'),
+                        classes, visited, sorted);
+            }
+            for (ClassEntry iface : model.interfaces()) {
+                addByDependency(iface.asInternalName().replace('/', '.'),
+                        classes, visited, sorted);
+            }
+        } catch (RuntimeException e) {
+            // malformed bytes; defining the class will report it
+        }
+        sorted.add(name);
+    }
+
     // ----- debugging -----------------------------------------------------------------------------
 
     public void dump(File dir, Predicate<String> filter) {
@@ -121,7 +280,7 @@ public class ModuleLoader
         int iters = 2;
         do {
             Map<String, byte[]> currentlyLoaded = loadedClasses;
-            loadedClasses = new HashMap<>();
+            loadedClasses = new ConcurrentHashMap<>();
             for (Map.Entry<String, byte[]> entry : currentlyLoaded.entrySet()) {
                 String className = entry.getKey();
                 if (!filter.test(className)) {
@@ -191,5 +350,11 @@ public class ModuleLoader
         return sb == null ? s : sb.toString();
     }
 
-    private Map<String, byte[]> loadedClasses = new HashMap<>();
+    private Map<String, byte[]> loadedClasses = new ConcurrentHashMap<>();
+
+    /**
+     * The classes that have been generated ahead of their use by {@link #pregenerate}, but have not
+     * been defined yet.
+     */
+    private final Map<String, byte[]> pregenerated = new ConcurrentHashMap<>();
 }
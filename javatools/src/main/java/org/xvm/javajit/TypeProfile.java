@@ -0,0 +1,329 @@
+package org.xvm.javajit;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+
+import java.nio.charset.StandardCharsets;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.Component;
+import org.xvm.asm.MethodStructure;
+import org.xvm.asm.ModuleStructure;
+
+import org.xvm.asm.constants.IdentityConstant;
+import org.xvm.asm.constants.TypeConstant;
+
+/**
+ * The receiver type profile of the virtual call sites, which allows the JIT {@link Builder} to
+ * emit the guarded direct calls for the call sites that have only been observed with one or two
+ * receiver classes (see {@link org.xvm.asm.OpInvocable}).
+ * <p>
+ * A call site is identified by the method that contains it and the address of the invoking op;
+ * a receiver is identified by its class (module name and path). The profile is collected by the
+ * interpreter at the slow (inline cache miss) path of the call sites, and is written out at the
+ * process exit to the file specified by the "xvm.profile.out" system property. The JIT reads the
+ * profile from the file specified by the "xvm.jit.profile" system property; the receivers that
+ * are recorded by the interpreter running in the same process are used as well.
+ * <p>
+ * The file is a text file with one call site per line: the site key followed by the receiver
+ * class keys, separated by tabs; a call site that has seen more than {@link #MAX_RECEIVERS}
+ * classes is marked as megamorphic with a single {@link #MEGAMORPHIC} receiver.
+ */
+public class TypeProfile {
+    /**
+     * Construct an empty TypeProfile.
+     */
+    TypeProfile() {
+    }
+
+    /**
+     * @return the process-wide TypeProfile
+     */
+    public static TypeProfile getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Obtain the profile of the specified call site, creating it if necessary.
+     *
+     * @param method  the method containing the call site
+     * @param iPC     the address of the invoking op
+     *
+     * @return the call site profile
+     */
+    public Site ensureSite(MethodStructure method, int iPC) {
+        return sites.computeIfAbsent(siteKey(method, iPC), k -> new Site());
+    }
+
+    /**
+     * Obtain the receiver classes of the specified call site.
+     *
+     * @param method  the method containing the call site
+     * @param iPC     the address of the invoking op
+     *
+     * @return the list of the class keys (see {@link #resolveClass}) of the observed receivers;
+     *         empty if the call site has not been profiled or is megamorphic
+     */
+    public List<String> getReceivers(MethodStructure method, int iPC) {
+        Site site = sites.get(siteKey(method, iPC));
+        return site == null ? Collections.emptyList() : site.getReceivers();
+    }
+
+    /**
+     * Resolve the specified receiver class key against the modules of a TypeSystem.
+     *
+     * @param ts        the TypeSystem
+     * @param classKey  the class key
+     *
+     * @return the ClassStructure or null if the class is not known to the TypeSystem
+     */
+    public static ClassStructure resolveClass(TypeSystem ts, String classKey) {
+        int ofPath = classKey.indexOf(':');
+        if (ofPath <= 0) {
+            return null;
+        }
+
+        String moduleName = classKey.substring(0, ofPath);
+        String path       = classKey.substring(ofPath + 1);
+        for (ModuleLoader[] loaders : new ModuleLoader[][] {ts.owned, ts.shared}) {
+            for (ModuleLoader loader : loaders) {
+                ModuleStructure module = loader.module;
+                if (module.getName().equals(moduleName)) {
+                    Component child = module.getChildByPath(path);
+                    return child instanceof ClassStructure clz ? clz : null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Read the profile from the specified file into this TypeProfile. The lines that cannot be
+     * parsed are ignored.
+     *
+     * @param file  the profile file
+     */
+    void read(Path file) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] parts = line.split("\t");
+                if (parts.length < 2 || parts[0].isEmpty()) {
+                    continue;
+                }
+
+                Site site = sites.computeIfAbsent(parts[0], k -> new Site());
+                for (int i = 1; i < parts.length; i++) {
+                    site.record(parts[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Write this profile out to the specified file.
+     *
+     * @param file  the profile file
+     */
+    void write(Path file) throws IOException {
+        // sort the sites to produce the same file for the same profile
+        Map<String, Site> sorted = new TreeMap<>(sites);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Site> entry : sorted.entrySet()) {
+                Site site = entry.getValue();
+                if (site.isEmpty()) {
+                    continue;
+                }
+
+                out.write(entry.getKey());
+                if (site.isMegamorphic()) {
+                    out.write('\t');
+                    out.write(MEGAMORPHIC);
+                } else {
+                    for (String receiver : site.getReceivers()) {
+                        out.write('\t');
+                        out.write(receiver);
+                    }
+                }
+                out.newLine();
+            }
+        }
+    }
+
+    /**
+     * Write the process-wide profile to the {@link #OUTPUT} file.
+     */
+    private static void store() {
+        try {
+            getInstance().write(OUTPUT);
+        } catch (IOException e) {
+            System.err.println("Failed to write the type profile " + OUTPUT + ": " + e);
+        }
+    }
+
+    /**
+     * @return the key for the specified call site
+     */
+    static String siteKey(MethodStructure method, int iPC) {
+        IdentityConstant id = method.getIdentityConstant();
+        return id.getModuleConstant().getName() + ':' + id.getPathString() + '@' + iPC;
+    }
+
+    /**
+     * @return the key for the class of the specified receiver type, or null if the type is not
+     *         based on a single class
+     */
+    static String classKey(TypeConstant type) {
+        if (!type.isSingleUnderlyingClass(true)) {
+            return null;
+        }
+
+        IdentityConstant id = type.getSingleUnderlyingClass(true);
+        return id.getModuleConstant().getName() + ':' + id.getPathString();
+    }
+
+
+    // ----- inner class: Site ---------------------------------------------------------------------
+
+    /**
+     * The profile of a single call site.
+     */
+    public static class Site {
+        /**
+         * Record the specified receiver type.
+         *
+         * @param type  the receiver type
+         */
+        public void record(TypeConstant type) {
+            if (!megamorphic) {
+                String classKey = classKey(type);
+                record(classKey == null ? MEGAMORPHIC : classKey);
+            }
+        }
+
+        /**
+         * Record the specified receiver class.
+         *
+         * @param classKey  the receiver class key or {@link #MEGAMORPHIC}
+         */
+        synchronized void record(String classKey) {
+            if (megamorphic || receivers.contains(classKey)) {
+                return;
+            }
+
+            if (classKey.equals(MEGAMORPHIC) || receivers.size() >= MAX_RECEIVERS) {
+                megamorphic = true;
+                receivers   = Collections.emptyList();
+            } else {
+                List<String> list = new ArrayList<>(receivers);
+                list.add(classKey);
+                receivers = List.copyOf(list);
+            }
+        }
+
+        /**
+         * @return the observed receiver class keys; empty if the site is megamorphic
+         */
+        public List<String> getReceivers() {
+            return receivers;
+        }
+
+        /**
+         * @return true iff the site has seen more than {@link #MAX_RECEIVERS} classes
+         */
+        public boolean isMegamorphic() {
+            return megamorphic;
+        }
+
+        /**
+         * @return true iff nothing has been recorded for the site
+         */
+        boolean isEmpty() {
+            return !megamorphic && receivers.isEmpty();
+        }
+
+        /**
+         * The receiver class keys.
+         */
+        private volatile List<String> receivers = Collections.emptyList();
+
+        /**
+         * True iff the site is megamorphic.
+         */
+        private volatile boolean megamorphic;
+    }
+
+
+    // ----- inner class: Holder -------------------------------------------------------------------
+
+    /**
+     * The lazily initialized process-wide profile.
+     */
+    private static class Holder {
+        static final TypeProfile INSTANCE = load();
+
+        private static TypeProfile load() {
+            TypeProfile profile = new TypeProfile();
+
+            String input = System.getProperty("xvm.jit.profile");
+            if (input != null) {
+                try {
+                    profile.read(Path.of(input));
+                } catch (IOException e) {
+                    System.err.println("Failed to read the type profile " + input + ": " + e);
+                }
+            }
+
+            if (OUTPUT != null) {
+                Runtime.getRuntime().addShutdownHook(
+                        new Thread(TypeProfile::store, "TypeProfile"));
+            }
+            return profile;
+        }
+    }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * The maximum number of receiver classes for a call site to be considered for the guarded
+     * direct calls (a "bimorphic" call site).
+     */
+    public static final int MAX_RECEIVERS = 2;
+
+    /**
+     * The receiver key that marks a megamorphic call site.
+     */
+    public static final String MEGAMORPHIC = "*";
+
+    /**
+     * The file to write the profile to; null if the interpreter should not collect the profile.
+     */
+    private static final Path OUTPUT;
+    static {
+        String output = System.getProperty("xvm.profile.out");
+        OUTPUT = output == null ? null : Path.of(output);
+    }
+
+    /**
+     * True iff the interpreter should collect the profile.
+     */
+    public static final boolean RECORDING = OUTPUT != null;
+
+    /**
+     * The call site profiles keyed by the site key.
+     */
+    private final Map<String, Site> sites = new ConcurrentHashMap<>();
+}
@@ -9,6 +9,8 @@ import java.lang.classfile.attribute.SourceFileAttribute;
 
 import java.lang.constant.ClassDesc;
 
+import java.util.concurrent.ForkJoinPool;
+
 import java.util.function.Consumer;
 
 import org.xvm.asm.ClassStructure;
@@ -151,6 +153,16 @@ public class TypeSystem {
      */
     public final ModuleLoader[] owned;
 
+    /**
+     * The persistent cache of the generated classes (lazily created; null if disabled).
+     */
+    private volatile ClassCache classCache;
+
+    /**
+     * True iff the {@link #classCache} has been created (or has been found to be disabled).
+     */
+    private volatile boolean classCacheChecked;
+
     // special identifier characters used for encoding class/method/field names in Java ClassFiles
     public static final int  ESC      = 0x10458; // "𐑘"
     public static final char CLASS    = 'c';     // prefix
@@ -285,6 +297,62 @@ public class TypeSystem {
         return xvm.createLinker().addSharedModules(this);
     }
 
+    /**
+     * Obtain the Java ClassFile for the specified class name, either from the persistent
+     * {@link ClassCache} or by {@link #genClass generating} it.
+     *
+     * @param moduleLoader the ModuleLoader that contains the structure information for the
+     *                     containing module and all its classes
+     * @param name         the suffix of the Java class name (sans the module prefix)
+     *
+     * @return the bytes of the ClassFile for the specified class name
+     */
+    public byte[] ensureClass(ModuleLoader moduleLoader, String name) {
+        ClassCache cache = ensureClassCache();
+        if (cache == null) {
+            return genClass(moduleLoader, name);
+        }
+
+        String className  = moduleLoader.prefix + name;
+        byte[] classBytes = cache.get(this, className);
+        return classBytes == null
+                ? cache.generate(className, () -> genClass(moduleLoader, name))
+                : classBytes;
+    }
+
+    /**
+     * Eagerly generate and define the Java classes for all the owned modules (see
+     * {@link ModuleLoader#pregenerate}).
+     *
+     * @param pool  the ForkJoinPool to generate the classes on
+     *
+     * @return the number of classes that have been defined
+     */
+    public int pregenerate(ForkJoinPool pool) {
+        int count = 0;
+        for (ModuleLoader moduleLoader : owned) {
+            count += moduleLoader.pregenerate(pool);
+        }
+        return count;
+    }
+
+    /**
+     * @return the ClassCache for this TypeSystem or null if the cache is disabled
+     */
+    protected ClassCache ensureClassCache() {
+        ClassCache cache = classCache;
+        if (cache == null && !classCacheChecked) {
+            synchronized (this) {
+                if (!classCacheChecked) {
+                    classCache        = ClassCache.create(this);
+                    classCacheChecked = true;
+                }
+                cache = classCache;
+            }
+        }
+        return cache;
+    }
+
     /**
      * Create a Java ClassFile for the specified class name. The name follows a very exact
      * convention for how it is constructed, and that convention is well understood by the
@@ -18,6 +18,11 @@ import static org.xvm.util.Handy.require;
  */
 public class TypeSystemLoader
         extends ClassLoader {
+    static {
+        // the classes of different names can be generated and defined concurrently
+        registerAsParallelCapable();
+    }
+
     /**
      * Create a TypeSystemLoader which aggregates some set of {@link ModuleLoader} instances.
      *
@@ -8,6 +8,7 @@ import java.util.Iterator;
 import java.util.Map;
 
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.xvm.asm.ConstantPool;
@@ -64,6 +65,10 @@ public class Xvm {
         this.ecstasyLoader = ecstasy;
         this.bridgeLoader = _native;
         this.ecstasyPool   = ecstasy.module.getConstantPool();
+
+        if (PREGENERATE) {
+            nativeTypeSystem.pregenerate(ForkJoinPool.commonPool());
+        }
     }
 
     /**
@@ -72,6 +77,12 @@ public class Xvm {
      */
     private static final Injector FailEverythingInjector = new Injector();
 
+    /**
+     * True iff the classes of every new TypeSystem should be generated eagerly and in parallel,
+     * rather than one at a time on demand (see {@link TypeSystem#pregenerate}).
+     */
+    static final boolean PREGENERATE = Boolean.getBoolean("xvm.jit.pregenerate");
+
     /**
      * The ModuleRepository that the system modules are loaded from.
      */
@@ -352,6 +363,7 @@ public class Xvm {
 
         // given the requested shape of the TypeSystem, make sure no other thread is simultaneously
         // racing us to build the same TypeSystem; note: this method will deadlock if it recurses
+        TypeSystem ts;
         synchronized (mutex(typeSystemKey(owned.length > 0 ? owned : modulesOf(shared)))) {
             // look for an existing TypeSystem with the same exact set of owned and shared modules
             String[] pkgNames = packagesByModule.get(moduleName);
@@ -362,9 +374,9 @@ public class Xvm {
                         if (ref != null) {
                             ModuleLoader loader = ref.get();
                             if (loader != null && loader.module.getName().equals(moduleName)) {
-                                TypeSystem ts = loader.typeSystem;
-                                if (sameTypeSystem(ts, shared, owned)) {
-                                    return ts;
+                                TypeSystem existing = loader.typeSystem;
+                                if (sameTypeSystem(existing, shared, owned)) {
+                                    return existing;
                                 }
                             }
                         }
@@ -373,10 +385,16 @@ public class Xvm {
             }
 
             // no such TypeSystem already exists; create one
-            TypeSystem ts = new TypeSystem(this, shared, owned);
+            ts = new TypeSystem(this, shared, owned);
             register(ts);
-            return ts;
         }
+
+        // the classes are generated outside of the mutex, since the generation of a class can
+        // require other TypeSystems
+        if (PREGENERATE) {
+            ts.pregenerate(ForkJoinPool.commonPool());
+        }
+        return ts;
     }
 
     /**
@@ -46,6 +46,7 @@ import org.xvm.asm.constants.UnionTypeConstant;
 
 import org.xvm.javajit.BuildContext;
 import org.xvm.javajit.Builder;
+import org.xvm.javajit.ClassCache;
 import org.xvm.javajit.Ctx;
 import org.xvm.javajit.JitCtorDesc;
 import org.xvm.javajit.JitFlavor;
@@ -703,6 +704,7 @@ public class CommonBuilder
                         type = pool.register(type);
 
                         int index = type.getPosition();
+                        ClassCache.recordPosition(type);
                         if (nativeTS) {
                             index = -index;
                         }
@@ -151,7 +151,7 @@ public class CallChain {
                 invokeNativeN(frame, getTop(), hTarget, Utils.OBJECTS_NONE, iReturn);
         }
 
-        ObjectHandle[] ahVar = new ObjectHandle[getMaxVars()];
+        ObjectHandle[] ahVar = frame.allocateVars(getMaxVars());
 
         return hTarget.getTemplate().invoke1(frame, this, hTarget, ahVar, iReturn);
     }
@@ -165,7 +165,7 @@ public class CallChain {
                 invokeNative1(frame, getTop(), hTarget, hArg, iReturn);
         }
 
-        ObjectHandle[] ahVar = new ObjectHandle[Math.max(getMaxVars(), 1)];
+        ObjectHandle[] ahVar = frame.allocateVars(Math.max(getMaxVars(), 1));
         ahVar[0] = hArg;
 
         return hTarget.getTemplate().invoke1(frame, this, hTarget, ahVar, iReturn);
@@ -180,7 +180,7 @@ public class CallChain {
                 invokeNativeNN(frame, getTop(), hTarget, new ObjectHandle[]{hArg}, aiReturn);
         }
 
-        ObjectHandle[] ahVar = new ObjectHandle[Math.max(getMaxVars(), 1)];
+        ObjectHandle[] ahVar = frame.allocateVars(Math.max(getMaxVars(), 1));
         ahVar[0] = hArg;
 
         return hTarget.getTemplate().invokeN(frame, this, hTarget, ahVar, aiReturn);
@@ -225,7 +225,7 @@ public class CallChain {
                 invokeNativeT(frame, getTop(), hTarget, new ObjectHandle[] {hArg}, iReturn);
         }
 
-        ObjectHandle[] ahVar = new ObjectHandle[Math.max(getMaxVars(), 1)];
+        ObjectHandle[] ahVar = frame.allocateVars(Math.max(getMaxVars(), 1));
         ahVar[0] = hArg;
 
         return hTarget.getTemplate().invokeT(frame, this, hTarget, ahVar, iReturn);
@@ -600,8 +600,9 @@ public class CallChain {
             TypeComposition clzTarget  = hTarget.getComposition();
             TypeConstant    typeTarget = clzTarget.getType();
 
+            // the target's composition is not retained, since the chain is cached by the
+            // composition (see OpInvocable.getCallChain)
             f_idConstructor = idConstructor;
-            f_clzTarget     = clzTarget;
 
             TypeInfo   infoTarget = typeTarget.ensureTypeInfo();
             MethodInfo infoCtor   = infoTarget.findVirtualConstructor(idConstructor.getSignature());
@@ -657,11 +658,12 @@ public class CallChain {
             if (f_constructor == null) {
                 return frame.raiseException("Failed to find a virtual constructor " +
                         f_idConstructor.getValueString() + " at " +
-                        f_clzTarget.getType().getValueString());
+                        hTarget.getType().getValueString());
             }
 
             ObjectHandle hCtor = xRTFunction.makeConstructorHandle(
-                    frame, f_constructor, f_typeCtor, f_clzTarget, f_constructor.getParamArray(), false);
+                    frame, f_constructor, f_typeCtor, hTarget.getComposition(),
+                    f_constructor.getParamArray(), false);
             if (hTarget instanceof ServiceHandle hService) {
                 if (Op.isDeferred(hCtor)) {
                     frame.m_frameNext.addContinuation(frameCaller ->
@@ -680,7 +682,6 @@ public class CallChain {
         private final MethodConstant  f_idConstructor;
         private final MethodStructure f_constructor;
         private final TypeConstant    f_typeCtor;
-        private final TypeComposition f_clzTarget;
     }
 
     /**
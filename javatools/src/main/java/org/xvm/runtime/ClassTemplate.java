@@ -305,6 +305,18 @@ public abstract class ClassTemplate
         return true;
     }
 
+    /**
+     * Specifies whether the properties of this template's objects that are implemented as plain
+     * (not transient and not inflated) fields can be read and written directly, bypassing the
+     * {@link #getPropertyValue}, {@link #getFieldValue}, {@link #setPropertyValue} and
+     * {@link #setFieldValue} methods. This allows the property ops to cache the field positions.
+     * <p>
+     * Any template that customizes any of those methods must return false.
+     */
+    public boolean isPlainFieldAccess() {
+        return isGenericHandle();
+    }
+
     /**
      * Create an object handle for the specified constant and push it on the frame's local stack.
      * <p/>
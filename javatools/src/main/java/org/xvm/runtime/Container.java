@@ -1,6 +1,8 @@
 package org.xvm.runtime;
 
 
+import java.lang.ref.WeakReference;
+
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
@@ -60,6 +62,10 @@ public abstract class Container
         f_heap     = new ConstHeap(this);
         f_idModule = idModule;
 
+        m_nanosTimeSlice = containerParent == null
+                ? runtime.getDefaultTimeSliceNanos()
+                : containerParent.getTimeSliceNanos();
+
         // don't register the native container
         if (containerParent != null) {
             f_runtime.registerContainer(this);
@@ -68,6 +74,14 @@ public abstract class Container
 
     // ----- accessors -----------------------------------------------------------------------------
 
+    /**
+     * @return a weak reference to this Container, which allows caching the Container related
+     *         information without keeping a terminated Container alive
+     */
+    public WeakReference<Container> getWeakReference() {
+        return f_refSelf;
+    }
+
     /**
      * Obtain the "main" service context for this Container.
      */
@@ -141,8 +155,10 @@ public abstract class Container
         // processing directly to the top level runtime.
 
         f_pendingWorkCount.incrementAndGet();
-        f_runtime.submitService(() -> {
+        long nanosSubmit = System.nanoTime();
+        f_runtime.submitService(service, () -> {
             try {
+                service.recordScheduleWait(System.nanoTime() - nanosSubmit);
                 service.execute(true);
             } catch (Throwable e) {
                 // must not happen
@@ -172,6 +188,17 @@ public abstract class Container
      */
     public <R> CompletableFuture<R> scheduleIO(Callable<R> task) {
         CompletableFuture<R> cf = new CompletableFuture<>();
+        if (f_runtime.isDirectIO() && Thread.currentThread().isVirtual()) {
+            // blocking here only parks the service's virtual thread; the returned future is
+            // already done, so the caller proceeds without being rescheduled
+            try {
+                cf.complete(task.call());
+            } catch (Throwable e) {
+                cf.completeExceptionally(e);
+            }
+            return cf;
+        }
+
         f_runtime.submitIO(() -> {
             try {
                 cf.complete(task.call());
@@ -446,6 +473,29 @@ public abstract class Container
         return parent != null && (this == parent || this.isParent(parent));
     }
 
+    /**
+     * @return the time slice (in nanoseconds) a service of this container is allowed to run until
+     *         it must yield to other services
+     */
+    public long getTimeSliceNanos() {
+        return m_nanosTimeSlice;
+    }
+
+    /**
+     * Set the time slice for the services of this container. Containers created after this call
+     * inherit this value.
+     *
+     * @param cNanos  the time slice in nanoseconds; a larger value favors the throughput of
+     *                CPU-bound services, while a smaller one reduces the latency for the other
+     *                services that share the same worker thread
+     */
+    public void setTimeSliceNanos(long cNanos) {
+        if (cNanos <= 0) {
+            throw new IllegalArgumentException("Invalid time slice: " + cNanos);
+        }
+        m_nanosTimeSlice = cNanos;
+    }
+
     /**
      * @return the current time in milliseconds for this container
      */
@@ -709,6 +759,11 @@ public abstract class Container
      */
     protected final ModuleConstant f_idModule;
 
+    /**
+     * The weak reference to this container (see {@link #getWeakReference}).
+     */
+    private final WeakReference<Container> f_refSelf = new WeakReference<>(this);
+
     /**
      * The service context for the container itself.
      */
@@ -759,4 +814,9 @@ public abstract class Container
      * The time stamp when the container was frozen.
      */
     private long m_ldtFrozen;
+
+    /**
+     * The time slice (in nanoseconds) for the services of this container.
+     */
+    private volatile long m_nanosTimeSlice;
 }
@@ -200,6 +200,7 @@ public class Fiber
             f_context.m_cRuntimeNanos += cNanos;
             m_frame = f_context.getCurrentFrame();
             m_cOps += cOps;
+            m_cSuspends++;
             break;
 
         case Terminating:
@@ -208,6 +209,13 @@ public class Fiber
         }
     }
 
+    /**
+     * @return the number of times this fiber has been suspended (i.e. paused or waiting)
+     */
+    public int getSuspendCount() {
+        return m_cSuspends;
+    }
+
     /**
      * Obtain the current frame for this Fiber.
      */
@@ -363,6 +371,12 @@ public class Fiber
      */
     public void onResponse() {
         m_fResponded = true;
+
+        // the flag must be set before the status check; if the fiber is not waiting yet, the
+        // FiberQueue will see the flag when the fiber gets suspended
+        if (m_status == FiberStatus.Waiting) {
+            f_context.signalFiber(this);
+        }
     }
 
     /**
@@ -609,6 +623,11 @@ public class Fiber
      */
     private Frame m_frame;
 
+    /**
+     * The number of times the fiber has been suspended.
+     */
+    private int m_cSuspends;
+
     /**
      * This flag serves a hint that the execution could possibly be resumed; it's set by the
      * responding fiber and reset when the execution resumes; the use of this flag is tolerant to
@@ -1,42 +1,85 @@
 package org.xvm.runtime;
 
 
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
 import org.xvm.runtime.Fiber.FiberStatus;
 
 
 /**
  * {@link FiberQueue} represents a queue-like data structure holding all pending Fibers and
  * facilitating a quick selection algorithm for the scheduler.
+ * <p>
+ * The suspended frames are split into:
+ * <ul>
+ *   <li>the "ready" FIFO queue holding frames that could be executed;</li>
+ *   <li>the "waiting" map holding frames of fibers that are blocked on some responses;</li>
+ *   <li>the timeout heap, ordering the waiting frames by their timeout stamps.</li>
+ * </ul>
+ * A waiting frame is moved to the ready queue either when its fiber is {@link #signal signaled}
+ * by a response (which could happen on any thread) or when its timeout expires; that only happens
+ * when the next frame is {@link #getReady retrieved}. New and resumed frames share the same queue,
+ * so a steady stream of responses cannot starve new requests. As a result, the next ready frame is
+ * selected in constant time, unless the service synchronicity or a presence of non-reentrant
+ * waiting frames requires checking whether the ready candidates can be resumed, in which case only
+ * the ready frames are examined.
+ * <p>
+ * With the exception of {@link #signal} and {@link #mayBeReady}, the methods of this class are not
+ * thread-safe and must be called only by the thread that holds the service scheduling lock.
  */
 public class FiberQueue {
-    private final ServiceContext f_context;
-
-    // a circular array
-    private Frame[] m_aFrame = new Frame[16];
-
-    private int m_ixHead = -1; // head
-    private int m_ixTail = 0;  // past the tail - insertion point
-    private int m_cSize  = 0;
-
     public FiberQueue(ServiceContext ctx) {
         f_context = ctx;
     }
 
     public void add(Frame frame) {
-        Frame[] aFrame = ensureCapacity(++m_cSize);
+        Fiber fiber = frame.f_fiber;
+        switch (fiber.getStatus()) {
+        case Initial:
+            f_qReady.addLast(frame);
+            break;
 
-        int iInsert = m_ixTail;
+        case Waiting:
+            if (!frame.isSafeStack()) {
+                f_setUnsafe.add(frame);
+            }
 
-        if (aFrame[iInsert] != null) {
-            compact();
-            iInsert = m_ixTail;
-        }
-        aFrame[iInsert] = frame;
+            if (fiber.isReady()) {
+                f_qReady.addLast(frame);
+            } else {
+                f_mapWaiting.put(fiber, frame);
+
+                long ldtTimeout = fiber.getTimeoutStamp();
+                if (ldtTimeout > 0) {
+                    addTimeout(ldtTimeout, frame);
+                }
+            }
+            break;
 
-        if (m_ixHead < 0) {
-            m_ixHead = iInsert;
+        default:
+            throw new IllegalStateException("Invalid fiber status: " + fiber);
         }
-        m_ixTail = (iInsert + 1) % aFrame.length;
+        m_cSize++;
+    }
+
+    /**
+     * Notify the queue that the specified fiber may have become ready (e.g. a response has
+     * arrived). This method can be called on any thread.
+     *
+     * @param fiber  the fiber that has been signaled
+     */
+    public void signal(Fiber fiber) {
+        f_queueSignaled.add(fiber);
     }
 
     public boolean isEmpty() {
@@ -44,26 +87,59 @@ public class FiberQueue {
     }
 
     /**
-     * @return {@code true} iff there are fibers which are ready for processing.
+     * Check whether there are fibers which are ready for processing. Unlike {@link #getReady},
+     * this method doesn't change the state of the queue.
+     *
+     * @return {@code true} iff there are fibers which are ready for processing
      */
     public boolean isReady() {
         if (m_cSize == 0) {
             return false;
         }
 
-        int cFrames = m_aFrame.length;
-        int ixHead  = m_ixHead;
-        for (int i = 0; i < cFrames; i++) {
-            int ix = (i + ixHead) % cFrames;
+        boolean fUnrestricted = isUnrestricted();
+        for (Frame frame : f_qReady) {
+            if (fUnrestricted || checkPriority(frame, false) >= 0) {
+                return true;
+            }
+        }
 
-            int iPriority = checkPriority(ix);
-            if (iPriority >= 0) {
+        Map<Fiber, Frame> mapWaiting = f_mapWaiting;
+        for (Fiber fiber : f_queueSignaled) {
+            Frame frame = mapWaiting.get(fiber);
+            if (frame != null && (fUnrestricted || checkPriority(frame, false) >= 0)) {
                 return true;
             }
         }
+
+        PriorityQueue<TimeoutEntry> heapTimeout = f_heapTimeout;
+        TimeoutEntry                entryFirst  = heapTimeout.peek();
+        if (entryFirst != null) {
+            long ldtNow = f_context.f_container.currentTimeMillis();
+            if (entryFirst.ldtTimeout < ldtNow) {
+                for (TimeoutEntry entry : heapTimeout) {
+                    Frame frame = entry.frame;
+                    Fiber fiber = frame.f_fiber;
+                    if (entry.ldtTimeout < ldtNow && mapWaiting.get(fiber) == frame &&
+                            fiber.isReady() && (fUnrestricted || checkPriority(frame, false) >= 0)) {
+                        return true;
+                    }
+                }
+            }
+        }
         return false;
     }
 
+    /**
+     * Check whether there may be fibers which are ready for processing. Unlike {@link #isReady},
+     * this method can be called on any thread, but the answer is only a hint.
+     *
+     * @return {@code true} if there may be fibers which are ready for processing
+     */
+    public boolean mayBeReady() {
+        return m_cSize > 0 && (!f_qReady.isEmpty() || !f_queueSignaled.isEmpty());
+    }
+
     public int size() {
         return m_cSize;
     }
@@ -76,17 +152,26 @@ public class FiberQueue {
             return null;
         }
 
-        int cFrames = m_aFrame.length;
-        int ixHead  = m_ixHead;
-        for (int i = 0; i < cFrames; i++) {
-            int ix = (i + ixHead) % cFrames;
+        collectReady();
 
-            int iPriority = checkPriority(ix);
-            if (iPriority >= 0) {
-                return remove(ix);
-            }
+        ArrayDeque<Frame> qReady = f_qReady;
+        if (qReady.isEmpty()) {
+            return null;
         }
 
+        if (isUnrestricted()) {
+            Frame frame = qReady.pollFirst();
+            frame.f_fiber.setBlocker(null);
+            return removed(frame);
+        }
+
+        for (Iterator<Frame> iter = qReady.iterator(); iter.hasNext();) {
+            Frame frame = iter.next();
+            if (checkPriority(frame, true) >= 0) {
+                iter.remove();
+                return removed(frame);
+            }
+        }
         return null;
     }
 
@@ -98,14 +183,16 @@ public class FiberQueue {
             return null;
         }
 
-        int cFrames = m_aFrame.length;
-        int ixHead  = m_ixHead;
-        for (int i = 0; i < cFrames; i++) {
-            int ix = (i + ixHead) % cFrames;
+        Frame frame = f_qReady.pollFirst();
+        if (frame != null) {
+            return removed(frame);
+        }
 
-            if (m_aFrame[ix] != null) {
-                return remove(ix);
-            }
+        Iterator<Frame> iter = f_mapWaiting.values().iterator();
+        if (iter.hasNext()) {
+            frame = iter.next();
+            iter.remove();
+            return removed(frame);
         }
         return null;
     }
@@ -119,37 +206,109 @@ public class FiberQueue {
         }
 
         StringBuilder sb = new StringBuilder();
-        int cFrames = m_aFrame.length;
-        int ixHead  = m_ixHead;
-        for (int i = 0; i < cFrames; i++) {
-            int ix = (i + ixHead) % cFrames;
-
-            int iPriority = checkPriority(ix);
-            if (iPriority == -1) {
-                Frame frame = m_aFrame[ix];
+        for (Frame frame : f_mapWaiting.values()) {
+            if (checkPriority(frame, false) == -1) {
                 if (sb.isEmpty()) {
                     sb.append(frame.f_context);
                 }
                 sb.append("\nframe=")
-                  .append(frame);
+                  .append(frame)
+                  .append(" waiting");
+            }
+        }
+        return sb.toString();
+    }
 
-                Fiber fiber = frame.f_fiber;
-                switch (fiber.getStatus()) {
-                case Waiting:
-                    sb.append(" waiting");
-                    break;
+    /**
+     * Move all the waiting frames that have been signaled or timed out to the ready queue.
+     */
+    private void collectReady() {
+        Queue<Fiber>      queueSignaled = f_queueSignaled;
+        Map<Fiber, Frame> mapWaiting    = f_mapWaiting;
+        ArrayDeque<Frame> qReady        = f_qReady;
+
+        Fiber fiber;
+        while ((fiber = queueSignaled.poll()) != null) {
+            Frame frame = mapWaiting.remove(fiber);
+            if (frame != null) {
+                qReady.addLast(frame);
+            }
+        }
 
-                case Initial:
-                    sb.append(" new");
-                    break;
+        PriorityQueue<TimeoutEntry> heapTimeout = f_heapTimeout;
+        if (!heapTimeout.isEmpty()) {
+            long         ldtNow = f_context.f_container.currentTimeMillis();
+            TimeoutEntry entry;
+            while ((entry = heapTimeout.peek()) != null && entry.ldtTimeout < ldtNow) {
+                heapTimeout.poll();
+
+                Frame frame = entry.frame;
+                fiber = frame.f_fiber;
+                if (mapWaiting.get(fiber) == frame && fiber.isReady()) {
+                    mapWaiting.remove(fiber);
+                    qReady.addLast(frame);
                 }
             }
         }
-        return sb.toString();
     }
 
     /**
-     * Calculate the priority of the fiber at the specified index.
+     * @return the earliest timeout stamp (using Container.currentTimeMillis()) among the waiting
+     *         frames; Long.MAX_VALUE if none of them has a timeout
+     */
+    public long getNextTimeout() {
+        PriorityQueue<TimeoutEntry> heapTimeout = f_heapTimeout;
+        Map<Fiber, Frame>           mapWaiting  = f_mapWaiting;
+
+        TimeoutEntry entry;
+        while ((entry = heapTimeout.peek()) != null) {
+            if (mapWaiting.get(entry.frame.f_fiber) == entry.frame) {
+                return entry.ldtTimeout;
+            }
+            // the frame is no longer waiting
+            heapTimeout.poll();
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Register the timeout for the specified waiting frame.
+     */
+    private void addTimeout(long ldtTimeout, Frame frame) {
+        PriorityQueue<TimeoutEntry> heapTimeout = f_heapTimeout;
+        if (heapTimeout.size() > 2 * f_mapWaiting.size() + 16) {
+            // the heap is mostly made of stale entries for frames that have been resumed;
+            // purge them to keep the heap (and the frames it holds on) from growing
+            Map<Fiber, Frame> mapWaiting = f_mapWaiting;
+            heapTimeout.removeIf(entry -> mapWaiting.get(entry.frame.f_fiber) != entry.frame);
+        }
+        heapTimeout.add(new TimeoutEntry(ldtTimeout, frame));
+    }
+
+    /**
+     * Update the bookkeeping for a frame that has been removed from the queue.
+     *
+     * @return the specified frame
+     */
+    private Frame removed(Frame frame) {
+        if (!f_setUnsafe.isEmpty()) {
+            f_setUnsafe.remove(frame);
+        }
+        m_cSize--;
+        return frame;
+    }
+
+    /**
+     * @return true iff any ready frame can be resumed without checking the synchronicity
+     *         constraints
+     */
+    private boolean isUnrestricted() {
+        return f_setUnsafe.isEmpty()
+            && f_context.getSynchronicity() == ServiceContext.Synchronicity.Concurrent;
+    }
+
+    /**
+     * Calculate the priority of the specified frame.
      * The return values are:
      * <ul>
      *   <li/>[2]  running
@@ -157,15 +316,11 @@ public class FiberQueue {
      *   <li/>[0]  initial new
      *   <li/>[-1] not ready
      *   <li/>[-2] blocked
-     *   <li/>[-3] empty
      * </ul>
+     *
+     * @param fUpdate  if false, the state of the queue and the fibers must not be changed
      */
-    private int checkPriority(int ix) {
-        Frame frame = m_aFrame[ix];
-        if (frame == null) {
-            return -3;
-        }
-
+    private int checkPriority(Frame frame, boolean fUpdate) {
         Fiber fiber = frame.f_fiber;
         switch (fiber.getStatus()) {
         case Running:
@@ -179,11 +334,11 @@ public class FiberQueue {
             // native waiting stack indicates a terminating fiber waiting on a future result
             return frame.isNativeStack()
                 || fiber == f_context.getSynchronizationOwner()
-                || canResume(fiber)
+                || canResume(fiber, fUpdate)
                     ? 1 : -2;
 
         case Initial:
-            return canResume(fiber) ? 0 : -2;
+            return canResume(fiber, fUpdate) ? 0 : -2;
 
         default:
             throw new IllegalStateException();
@@ -191,9 +346,11 @@ public class FiberQueue {
     }
 
     /**
+     * @param fUpdate  if false, the state of the queue and the fibers must not be changed
+     *
      * @return true iff a frame (which is not the synchronization owner) can be started or resumed
      */
-    private boolean canResume(Fiber fiber) {
+    private boolean canResume(Fiber fiber, boolean fUpdate) {
         switch (f_context.getSynchronicity()) {
         case Critical:
             return false;
@@ -204,7 +361,7 @@ public class FiberQueue {
                     fiberCaller.isContinuationOf(f_context.getSynchronizationOwner());
 
         case Concurrent:
-            return !isAnyNonConcurrentWaiting(fiber);
+            return !isAnyNonConcurrentWaiting(fiber, fUpdate);
 
         default:
             throw new IllegalStateException();
@@ -216,113 +373,96 @@ public class FiberQueue {
      * specified fiber.
      *
      * Note1: this method should be called only if the service is Concurrent (i.e. frame-dependent)
-     * Note2: if this method returns true, it also sets the "blocker" on the evaluating fiber
+     * Note2: if this method returns true and fUpdate is true, it also sets the "blocker" on the
+     *        evaluating fiber
      *
      * @param fiberCandidate  the fiber that the service is evaluating for execution (either Initial
      *                        or Waiting)
+     * @param fUpdate         if false, the state of the queue and the fibers must not be changed
      *
      * @return true iff there are any non-concurrent waiting frames
      */
-    private boolean isAnyNonConcurrentWaiting(Fiber fiberCandidate) {
-        Frame[] aFrame      = m_aFrame;
-        Fiber   fiberCaller = fiberCandidate.getCaller();
-
-        for (Frame frame : aFrame) {
-            if (frame == null) {
-                continue;
-            }
+    private boolean isAnyNonConcurrentWaiting(Fiber fiberCandidate, boolean fUpdate) {
+        Fiber fiberCaller = fiberCandidate.getCaller();
 
+        for (Iterator<Frame> iter = f_setUnsafe.iterator(); iter.hasNext();) {
+            Frame frame = iter.next();
             Fiber fiber = frame.f_fiber;
             if (fiber != fiberCandidate) {
-                if (fiber.getStatus() == FiberStatus.Waiting) {
-                    if (frame.isSafeStack() ||
-                        fiberCaller != null && fiberCaller.isContinuationOf(fiber)) {
-                        continue;
+                if (frame.isSafeStack()) {
+                    // the frame's target has been frozen since the frame was suspended
+                    if (fUpdate) {
+                        iter.remove();
                     }
+                    continue;
+                }
+
+                if (fiberCaller != null && fiberCaller.isContinuationOf(fiber)) {
+                    continue;
+                }
+                if (fUpdate) {
                     fiberCandidate.setBlocker(frame);
-                    return true;
                 }
+                return true;
             }
         }
-        fiberCandidate.setBlocker(null);
+        if (fUpdate) {
+            fiberCandidate.setBlocker(null);
+        }
         return false;
     }
 
-    private Frame remove(int ix) {
-        Frame frame = m_aFrame[ix];
-
-        assert frame != null;
+    public String toString() {
+        return "size=" + m_cSize;
+    }
 
-        m_aFrame[ix] = null;
 
-        if (--m_cSize > 0) {
-            // move the head if necessary
-            if (ix == m_ixHead) {
-                int cCapacity = m_aFrame.length;
-                do {
-                    ix = (ix + 1) % cCapacity;
-                } while (m_aFrame[ix] == null);
+    // ----- inner classes -------------------------------------------------------------------------
 
-                m_ixHead = ix;
-            }
-        } else {
-            m_ixHead = -1;
-            m_ixTail = 0;
+    /**
+     * An entry in the timeout heap.
+     */
+    private record TimeoutEntry(long ldtTimeout, Frame frame)
+            implements Comparable<TimeoutEntry> {
+        @Override
+        public int compareTo(TimeoutEntry that) {
+            return Long.compare(this.ldtTimeout, that.ldtTimeout);
         }
-        return frame;
     }
 
-    private Frame[] ensureCapacity(int cCapacity) {
-        Frame[] aFrame = m_aFrame;
-        int     cOld   = aFrame.length;
-        if (cCapacity > cOld) {
-            int     cNew = Math.max(cCapacity, cOld + (cOld >> 2)); // 1.25
-            Frame[] aNew = new Frame[cNew];
 
-            assert m_ixHead == m_ixTail;
-            if (m_ixHead == 0) {
-                System.arraycopy(aFrame, 0, aNew, 0, cOld);
-            } else {
-                // copy and re-arrange
-                int cHead = cOld - m_ixHead;
-                System.arraycopy(aFrame, m_ixHead, aNew, 0,     cHead);
-                System.arraycopy(aFrame, 0       , aNew, cHead, m_ixHead);
-                m_ixHead = 0;
-                m_ixTail = cOld;
-            }
-            m_aFrame = aFrame = aNew;
-        }
-        return aFrame;
-    }
+    // ----- constants and fields ------------------------------------------------------------------
 
-    // move all the not-empty spaces toward the head
-    private void compact() {
-        Frame[] aFrame  = m_aFrame;
-        int     cFrames = aFrame.length;
+    private final ServiceContext f_context;
 
-        assert aFrame[m_ixHead] != null;
+    /**
+     * The FIFO queue of ready frames (both new and resumed).
+     */
+    private final ArrayDeque<Frame> f_qReady = new ArrayDeque<>();
 
-        int iFrom = (m_ixHead + 1) % cFrames;
-        int iTo   = iFrom;
+    /**
+     * The frames of waiting fibers that are not ready, keyed by the fibers.
+     */
+    private final Map<Fiber, Frame> f_mapWaiting = new HashMap<>();
 
-        for (int i = 1; i < cFrames; i++) {
-            Frame frame = aFrame[iFrom];
-            if (frame != null) {
-                if (iFrom != iTo) {
-                    assert aFrame[iTo] == null;
-                    aFrame[iTo] = frame;
-                    aFrame[iFrom] = null;
-                }
-                iTo = (iTo + 1) % cFrames;
-            }
-            iFrom = (iFrom + 1) % cFrames;
-        }
+    /**
+     * The timeouts of the waiting frames; may contain stale entries for frames that are no longer
+     * waiting.
+     */
+    private final PriorityQueue<TimeoutEntry> f_heapTimeout = new PriorityQueue<>();
 
-        assert aFrame[iTo] == null;
-        m_ixTail = iTo;
-    }
+    /**
+     * The waiting frames (ready or not) that are not concurrent safe.
+     */
+    private final Set<Frame> f_setUnsafe = Collections.newSetFromMap(new IdentityHashMap<>());
 
-    public String toString() {
-        return "size=" + m_cSize;
-    }
+    /**
+     * The fibers that have been signaled by (potentially) other threads.
+     */
+    private final Queue<Fiber> f_queueSignaled = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The total number of frames in the queue.
+     */
+    private int m_cSize;
 }
@@ -1,6 +1,9 @@
 package org.xvm.runtime;
 
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
@@ -103,6 +106,10 @@ public class Frame
 
     public DebugConsole.DebugStash  m_debug;        // a field that the debugger can stash stuff in
 
+    private boolean                 m_fPooled;      // the register arrays are owned by the FramePool
+    private boolean                 m_fEscaped;     // the registers could be accessed after return
+    private int                     m_cSuspends;    // the fiber's suspend count at the frame creation
+
     public static final int VAR_MASK        = 0x1;
     public static final int VAR_STANDARD    = 0x0;
     public static final int VAR_DYNAMIC_REF = 0x1;
@@ -130,7 +137,7 @@ public class Frame
         f_framePrev = framePrev;
         f_iPCPrev   = framePrev.m_iPC;
         f_function  = function;
-        f_aOp       = function.getOps();
+        f_aOp       = function.getExecutableOps();
         f_hTarget   = hTarget;
         f_hThis     = hTarget == null
                     ? null
@@ -138,10 +145,18 @@ public class Frame
                         ? hTarget
                         : hTarget.revealOrigin();
         f_ahVar     = ahVar;
-        f_aInfo     = new VarInfo[ahVar.length];
 
-        int cScopes = function == null ? 1 : function.getMaxScopes();
-        f_anNextVar = new int[cScopes];
+        int       cScopes = function == null ? 1 : function.getMaxScopes();
+        FramePool pool    = f_context.f_framePool;
+        if (pool.adopt(ahVar)) {
+            f_aInfo     = pool.allocateInfo(ahVar.length);
+            f_anNextVar = pool.allocateScopes(cScopes);
+            m_fPooled   = true;
+            m_cSuspends = f_fiber.getSuspendCount();
+        } else {
+            f_aInfo     = new VarInfo[ahVar.length];
+            f_anNextVar = new int[cScopes];
+        }
         f_anNextVar[0] = function == null ? 0 : function.getParamCount();
 
         f_iReturn   = iReturn;
@@ -220,6 +235,55 @@ public class Frame
         return new Frame(this, method, hTarget, ahVar, Op.A_MULTI, aiReturn);
     }
 
+    /**
+     * Allocate the registers for a new frame that is going to be created by this frame. The
+     * registers must be passed to the new frame's constructor before any other registers are
+     * allocated, which allows them to be recycled when the new frame returns.
+     *
+     * @param cVars  the number of registers
+     *
+     * @return the registers
+     */
+    public ObjectHandle[] allocateVars(int cVars) {
+        return f_context.f_framePool.allocateVars(cVars);
+    }
+
+    /**
+     * @return true iff this frame's registers can be recycled after the frame has returned
+     */
+    public boolean isRecyclable() {
+        return m_fPooled && !m_fEscaped && m_continuation == null
+                && m_cSuspends == f_fiber.getSuspendCount();
+    }
+
+    /**
+     * Return this frame's register arrays to the pool. This method is called after the frame has
+     * returned, and only if {@link #isRecyclable()} is true.
+     */
+    public void recycle() {
+        assert isRecyclable();
+
+        m_fPooled = false;
+        f_context.f_framePool.release(f_ahVar, f_aInfo, f_anNextVar);
+    }
+
+    /**
+     * Replace the op at the specified address of this frame's executable ops. Since the executable
+     * ops are shared by all the frames of the same method, the replacement is atomic, and only
+     * happens if the op at the address is still the expected one.
+     *
+     * @param iPC    the address of the op
+     * @param opOld  the expected op
+     * @param opNew  the replacement op
+     *
+     * @return true iff the op has been replaced
+     */
+    public boolean replaceOp(int iPC, Op opOld, Op opNew) {
+        Op[] aOp = f_aOp;
+        return aOp != null && iPC >= 0 && iPC < aOp.length
+                && OPS_HANDLE.compareAndSet(aOp, iPC, opOld, opNew);
+    }
+
     /**
      * Create a new pseudo-frame on the same target as this frame.
      */
@@ -519,9 +583,12 @@ public class Frame
         return call(frameNext);
     }
 
-    // a convenience method for futures that complete on the IO thread
+    // a convenience method for futures that complete on the IO thread; the future may already be
+    // done if the IO was performed directly on the service thread (see Runtime.isDirectIO)
     public int waitForIO(CompletableFuture cf, Continuation continuation) {
-        return call(createWaitIOFrame(cf, continuation));
+        return cf.isDone()
+                ? continuation.proceed(this)
+                : call(createWaitIOFrame(cf, continuation));
     }
 
     // a convenience method for futures that complete outside the service response queue
@@ -2408,6 +2475,11 @@ public class Frame
             m_nTypeId = type.getPosition();
             f_nNameId = nNameId;
             m_nStyle  = nStyle;
+
+            if ((nStyle & (VAR_DYNAMIC_REF | FUTURE_HANDLE)) != 0) {
+                // a dynamic var could be assigned asynchronously
+                m_fEscaped = true;
+            }
         }
 
         /**
@@ -2506,6 +2578,9 @@ public class Frame
 
         public void setRef(RefHandle ref) {
             m_ref = ref;
+
+            // the Ref could outlive the frame
+            m_fEscaped = true;
         }
 
         // this VarInfo goes out of scope
@@ -2675,6 +2750,11 @@ public class Frame
         private int index = -1;
     }
 
+    /**
+     * VarHandle for the elements of the executable op arrays (see {@link #replaceOp}).
+     */
+    private static final VarHandle OPS_HANDLE = MethodHandles.arrayElementVarHandle(Op[].class);
+
     /**
      * Wait for the completion of a FutureHandle associated with a service request.
      */
@@ -0,0 +1,317 @@
+package org.xvm.runtime;
+
+
+import java.util.Arrays;
+
+import org.xvm.runtime.Frame.VarInfo;
+
+
+/**
+ * A service-local pool of the arrays that back the {@link Frame} registers.
+ * <p>
+ * Every call of a natural method allocates an array of registers, an array of {@link VarInfo}s and
+ * an array of scope indexes. For the short-lived calls (e.g. property getters and lambdas) these
+ * allocations dominate; the pool allows the arrays of a frame that has returned to be reused by
+ * the subsequent calls.
+ * <p>
+ * A frame's arrays are only recycled if the pool "owns" them and the frame has not escaped:
+ * <ul>
+ *   <li>the caller has allocated the registers using {@link #allocateVars}, and the frame was
+ *       constructed with those registers, transferring their ownership to the frame;</li>
+ *   <li>the frame has returned normally and has no continuation;</li>
+ *   <li>none of the frame's registers was referred to by a Ref or was dynamic (e.g. a future);</li>
+ *   <li>the fiber has not been suspended during the frame execution, and no debugger is
+ *       active.</li>
+ * </ul>
+ * <p>
+ * Since only one fiber can run on a service context at any time, the pool is not thread-safe.
+ * <p>
+ * The pool can be configured via the system properties: "xvm.framePool=false" disables the
+ * recycling, and "xvm.framePool.poison=true" turns on the correctness mode, in which the arrays of
+ * a returned frame are not reused, but rather "poisoned", so that any use-after-return of the
+ * frame's registers fails fast.
+ */
+public class FramePool {
+    /**
+     * Construct a pool configured by the system properties.
+     */
+    public FramePool() {
+        this(ENABLED, POISON);
+    }
+
+    /**
+     * Construct a pool.
+     *
+     * @param fEnabled  if false, nothing is ever recycled
+     * @param fPoison   if true, the returned arrays are poisoned instead of being recycled
+     */
+    public FramePool(boolean fEnabled, boolean fPoison) {
+        f_fEnabled = fEnabled;
+        f_fPoison  = fPoison;
+    }
+
+    /**
+     * Allocate an array of registers for a new frame. The array is owned by the pool until it's
+     * {@link #adopt adopted} by a frame.
+     *
+     * @param cVars  the number of registers
+     *
+     * @return an array of nulls
+     */
+    public ObjectHandle[] allocateVars(int cVars) {
+        if (!f_fEnabled) {
+            return new ObjectHandle[cVars];
+        }
+
+        if (cVars == 0) {
+            return Utils.OBJECTS_NONE;
+        }
+
+        ObjectHandle[] ahVar = null;
+        if (cVars <= MAX_POOLED_SIZE) {
+            ObjectHandle[][] aahVar = m_aaahVar[cVars];
+            int              cFree  = m_acVars[cVars];
+            if (cFree > 0) {
+                ahVar = aahVar[--cFree];
+                aahVar[cFree]    = null;
+                m_acVars[cVars] = cFree;
+                m_cReused++;
+            }
+        }
+
+        if (ahVar == null) {
+            ahVar = new ObjectHandle[cVars];
+        }
+        return m_ahPending = ahVar;
+    }
+
+    /**
+     * Transfer the ownership of the specified registers from the pool to a new frame.
+     *
+     * @param ahVar  the registers passed to the frame
+     *
+     * @return true iff the array was the last one allocated by {@link #allocateVars} and has not
+     *         been adopted yet
+     */
+    public boolean adopt(ObjectHandle[] ahVar) {
+        if (ahVar == m_ahPending && ahVar != null) {
+            m_ahPending = null;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Allocate an array of VarInfo for a frame that has {@link #adopt adopted} its registers.
+     *
+     * @param cVars  the number of registers
+     *
+     * @return an array of nulls
+     */
+    public VarInfo[] allocateInfo(int cVars) {
+        if (cVars > 0 && cVars <= MAX_POOLED_SIZE) {
+            int cFree = m_acInfo[cVars];
+            if (cFree > 0) {
+                VarInfo[][] aaInfo = m_aaaInfo[cVars];
+                VarInfo[]   aInfo  = aaInfo[--cFree];
+                aaInfo[cFree]    = null;
+                m_acInfo[cVars] = cFree;
+                return aInfo;
+            }
+        }
+        return new VarInfo[cVars];
+    }
+
+    /**
+     * Allocate an array of scope indexes for a frame that has {@link #adopt adopted} its
+     * registers.
+     *
+     * @param cScopes  the number of scopes
+     *
+     * @return an array of zeros
+     */
+    public int[] allocateScopes(int cScopes) {
+        if (cScopes <= MAX_POOLED_SIZE) {
+            int cFree = m_acScopes[cScopes];
+            if (cFree > 0) {
+                int[][] aanScope = m_aaanScopes[cScopes];
+                int[]   anScope  = aanScope[--cFree];
+                aanScope[cFree]      = null;
+                m_acScopes[cScopes] = cFree;
+                return anScope;
+            }
+        }
+        return new int[cScopes];
+    }
+
+    /**
+     * Return the arrays of a frame that has returned to the pool.
+     *
+     * @param ahVar      the frame's registers
+     * @param aInfo      the frame's VarInfo array
+     * @param anNextVar  the frame's scope indexes
+     */
+    public void release(ObjectHandle[] ahVar, VarInfo[] aInfo, int[] anNextVar) {
+        if (f_fPoison) {
+            Arrays.fill(ahVar, POISONED);
+            Arrays.fill(aInfo, null);
+            Arrays.fill(anNextVar, Integer.MIN_VALUE);
+            m_cPoisoned++;
+            return;
+        }
+
+        int cVars = ahVar.length;
+        if (cVars <= MAX_POOLED_SIZE) {
+            int cFree = m_acVars[cVars];
+            if (cFree < MAX_POOLED_ARRAYS) {
+                Arrays.fill(ahVar, null);
+                ensureVars(cVars)[cFree] = ahVar;
+                m_acVars[cVars] = cFree + 1;
+            }
+
+            cFree = m_acInfo[cVars];
+            if (cFree < MAX_POOLED_ARRAYS && aInfo.length == cVars) {
+                Arrays.fill(aInfo, null);
+                ensureInfo(cVars)[cFree] = aInfo;
+                m_acInfo[cVars] = cFree + 1;
+            }
+        }
+
+        int cScopes = anNextVar.length;
+        if (cScopes <= MAX_POOLED_SIZE) {
+            int cFree = m_acScopes[cScopes];
+            if (cFree < MAX_POOLED_ARRAYS) {
+                Arrays.fill(anNextVar, 0);
+                ensureScopes(cScopes)[cFree] = anNextVar;
+                m_acScopes[cScopes] = cFree + 1;
+            }
+        }
+    }
+
+    /**
+     * @return true iff the recycling is enabled
+     */
+    public boolean isEnabled() {
+        return f_fEnabled;
+    }
+
+    /**
+     * @return the number of register arrays that have been reused
+     */
+    public long getReuseCount() {
+        return m_cReused;
+    }
+
+    /**
+     * @return the number of frames that have been poisoned
+     */
+    public long getPoisonCount() {
+        return m_cPoisoned;
+    }
+
+    /**
+     * @return true iff the specified handle is the marker placed into the registers of a returned
+     *         frame in the "poison" mode
+     */
+    public static boolean isPoisoned(ObjectHandle hValue) {
+        return hValue == POISONED;
+    }
+
+    private ObjectHandle[][] ensureVars(int cVars) {
+        ObjectHandle[][] aahVar = m_aaahVar[cVars];
+        return aahVar == null
+                ? m_aaahVar[cVars] = new ObjectHandle[MAX_POOLED_ARRAYS][]
+                : aahVar;
+    }
+
+    private VarInfo[][] ensureInfo(int cVars) {
+        VarInfo[][] aaInfo = m_aaaInfo[cVars];
+        return aaInfo == null
+                ? m_aaaInfo[cVars] = new VarInfo[MAX_POOLED_ARRAYS][]
+                : aaInfo;
+    }
+
+    private int[][] ensureScopes(int cScopes) {
+        int[][] aanScope = m_aaanScopes[cScopes];
+        return aanScope == null
+                ? m_aaanScopes[cScopes] = new int[MAX_POOLED_ARRAYS][]
+                : aanScope;
+    }
+
+
+    // ----- inner class: PoisonedHandle -----------------------------------------------------------
+
+    /**
+     * The handle placed into the registers of a returned frame in the "poison" mode.
+     */
+    private static class PoisonedHandle
+            extends ObjectHandle {
+        private PoisonedHandle() {
+            super(null);
+        }
+
+        @Override
+        public TypeComposition getComposition() {
+            throw new IllegalStateException("Use of a register of a returned frame");
+        }
+
+        @Override
+        public String toString() {
+            return "<poisoned>";
+        }
+    }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * True iff the recycling is enabled by default.
+     */
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("xvm.framePool", "true"));
+
+    /**
+     * True iff the "poison" mode is turned on by default.
+     */
+    private static final boolean POISON =
+            Boolean.parseBoolean(System.getProperty("xvm.framePool.poison", "false"));
+
+    /**
+     * The marker handle for the poisoned registers.
+     */
+    private static final ObjectHandle POISONED = new PoisonedHandle();
+
+    /**
+     * The largest array size that is pooled.
+     */
+    public static final int MAX_POOLED_SIZE = 32;
+
+    /**
+     * The maximum number of pooled arrays of any given size.
+     */
+    public static final int MAX_POOLED_ARRAYS = 16;
+
+    private final boolean f_fEnabled;
+    private final boolean f_fPoison;
+
+    /**
+     * The pooled arrays and their counts, indexed by the array size.
+     */
+    private final ObjectHandle[][][] m_aaahVar    = new ObjectHandle[MAX_POOLED_SIZE + 1][][];
+    private final int[]              m_acVars     = new int[MAX_POOLED_SIZE + 1];
+    private final VarInfo[][][]      m_aaaInfo    = new VarInfo[MAX_POOLED_SIZE + 1][][];
+    private final int[]              m_acInfo     = new int[MAX_POOLED_SIZE + 1];
+    private final int[][][]          m_aaanScopes = new int[MAX_POOLED_SIZE + 1][][];
+    private final int[]              m_acScopes   = new int[MAX_POOLED_SIZE + 1];
+
+    /**
+     * The registers allocated by {@link #allocateVars} that have not been adopted yet.
+     */
+    private ObjectHandle[] m_ahPending;
+
+    /**
+     * Statistics.
+     */
+    private long m_cReused;
+    private long m_cPoisoned;
+}
@@ -0,0 +1,302 @@
+package org.xvm.runtime;
+
+
+import java.lang.ref.WeakReference;
+
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * A polymorphic inline cache embedded into an op.
+ * <p>
+ * The cache holds up to {@link #MAX_ENTRIES} immutable (key, value) entries, where a key is
+ * usually a {@link TypeComposition} and a value is the information the op derived from it, such
+ * as a {@link CallChain}. Once the op has seen more than {@link #MAX_ENTRIES} distinct keys, the
+ * call site is considered "megamorphic"; from then on the cache stays empty, and the op resolves
+ * the information on every execution. Since a call site could be polymorphic only for a phase of
+ * the program, the cache gives it another chance after {@link #MEGAMORPHIC_RETRY} megamorphic
+ * lookups.
+ * <p>
+ * Since the ops are shared by all the containers and services that execute the same code, the
+ * cache is safe to use concurrently: the entries are immutable, and the entries array is replaced
+ * as a whole (a racing update may lose an entry, which merely causes another miss). To prevent
+ * the cache from holding on to the containers, the keys and the scopes are held weakly. The values
+ * are held weakly as well, unless the cache is created to hold them strongly, which is necessary
+ * for the values that nothing else refers to (for example, the call chains created by the op
+ * itself); such values must not refer to their keys or scopes.
+ * <p>
+ * If the "xvm.inlineCache.stats" system property is set, the cache maintains the global hit and
+ * miss counters, which are reported via {@link RuntimeMetricsMXBean}.
+ */
+public class InlineCache {
+    /**
+     * Construct an inline cache that holds the values weakly.
+     */
+    public InlineCache() {
+        this(false);
+    }
+
+    /**
+     * Construct an inline cache.
+     *
+     * @param fStrongValues  true if the values are to be held strongly
+     */
+    public InlineCache(boolean fStrongValues) {
+        f_fStrongValues = fStrongValues;
+    }
+
+    /**
+     * Retrieve the value cached for the specified key.
+     *
+     * @param key  the key; compared by identity first and then by "equals"
+     *
+     * @return the cached value or null
+     */
+    public Object get(Object key) {
+        return get(null, key);
+    }
+
+    /**
+     * Retrieve the value cached for the specified key within the specified scope.
+     *
+     * @param scope  the scope (for example, a {@link Container}) the value is specific to;
+     *               compared by identity
+     * @param key    the key; compared by identity first and then by "equals"
+     *
+     * @return the cached value or null
+     */
+    public Object get(Object scope, Object key) {
+        Entry[] aEntry = m_aEntry;
+        if (aEntry != null) {
+            for (Entry entry : aEntry) {
+                Object keyEntry = entry.get();
+                if ((keyEntry == key || keyEntry != null && keyEntry.equals(key))
+                        && entry.isScope(scope)) {
+                    Object value = entry.getValue();
+                    if (value != null) {
+                        if (STATS) {
+                            HITS.increment();
+                        }
+                        return value;
+                    }
+                }
+            }
+        }
+
+        if (STATS) {
+            MISSES.increment();
+        }
+        return null;
+    }
+
+    /**
+     * Cache the specified value. This method is called after a {@link #get} miss.
+     *
+     * @param key    the key
+     * @param value  the value
+     */
+    public void put(Object key, Object value) {
+        put(null, key, value);
+    }
+
+    /**
+     * Cache the specified value within the specified scope. This method is called after a
+     * {@link #get} miss.
+     *
+     * @param scope  the scope the value is specific to (optional)
+     * @param key    the key
+     * @param value  the value
+     */
+    public void put(Object scope, Object key, Object value) {
+        if (m_fMegamorphic) {
+            if (STATS) {
+                MEGAMORPHIC.increment();
+            }
+            // the counter is not synchronized; a lost update merely delays the retry
+            if (++m_cMegamorphic >= MEGAMORPHIC_RETRY) {
+                clear();
+            }
+            return;
+        }
+
+        Entry   entryNew = new Entry(scope, key, value, f_fStrongValues);
+        Entry[] aEntry   = m_aEntry;
+        Entry[] aEntryNew;
+        if (aEntry == null) {
+            aEntryNew = new Entry[] {entryNew};
+        } else {
+            // reuse the slots of the entries whose key or value has been collected
+            int cLive = 0;
+            for (Entry entry : aEntry) {
+                if (entry.isLive()) {
+                    cLive++;
+                }
+            }
+
+            if (cLive >= MAX_ENTRIES) {
+                m_fMegamorphic = true;
+                m_aEntry       = null;
+                if (STATS) {
+                    MEGAMORPHIC.increment();
+                }
+                return;
+            }
+
+            aEntryNew = new Entry[cLive + 1];
+            int i = 0;
+            for (Entry entry : aEntry) {
+                if (entry.isLive()) {
+                    aEntryNew[i++] = entry;
+                }
+            }
+            aEntryNew[i] = entryNew;
+        }
+        m_aEntry = aEntryNew;
+    }
+
+    /**
+     * @return true iff the call site has seen too many distinct keys to be cached
+     */
+    public boolean isMegamorphic() {
+        return m_fMegamorphic;
+    }
+
+    /**
+     * Remove all the entries and forget that the call site was megamorphic.
+     */
+    public void clear() {
+        m_aEntry       = null;
+        m_cMegamorphic = 0;
+        m_fMegamorphic = false;
+    }
+
+    /**
+     * @return the total number of cache hits across all the inline caches (always zero unless
+     *         the {@link #STATS} are enabled)
+     */
+    public static long getHitCount() {
+        return HITS.sum();
+    }
+
+    /**
+     * @return the total number of cache misses across all the inline caches
+     */
+    public static long getMissCount() {
+        return MISSES.sum();
+    }
+
+    /**
+     * @return the total number of lookups that were not cached because the call site was
+     *         megamorphic
+     */
+    public static long getMegamorphicCount() {
+        return MEGAMORPHIC.sum();
+    }
+
+    @Override
+    public String toString() {
+        Entry[] aEntry = m_aEntry;
+        return m_fMegamorphic ? "InlineCache{megamorphic}"
+                              : "InlineCache{entries=" + (aEntry == null ? 0 : aEntry.length) + '}';
+    }
+
+
+    // ----- inner class: Entry --------------------------------------------------------------------
+
+    /**
+     * An immutable cache entry; the referent is the key.
+     */
+    protected static class Entry
+            extends WeakReference<Object> {
+        protected Entry(Object scope, Object key, Object value, boolean fStrongValue) {
+            super(key);
+
+            f_refScope = scope == null ? null : new WeakReference<>(scope);
+            f_value    = fStrongValue ? value : null;
+            f_refValue = fStrongValue ? null  : new WeakReference<>(value);
+        }
+
+        /**
+         * @return the value or null if it has been collected
+         */
+        protected Object getValue() {
+            return f_refValue == null ? f_value : f_refValue.get();
+        }
+
+        /**
+         * @return true iff the entry belongs to the specified scope
+         */
+        protected boolean isScope(Object scope) {
+            return f_refScope == null ? scope == null : f_refScope.get() == scope;
+        }
+
+        /**
+         * @return true iff none of the entry's referents has been collected
+         */
+        protected boolean isLive() {
+            return get() != null && getValue() != null
+                    && (f_refScope == null || f_refScope.get() != null);
+        }
+
+        /**
+         * The scope reference (null if the entry is not scoped).
+         */
+        protected final WeakReference<Object> f_refScope;
+
+        /**
+         * The strongly held value (null if the value is held weakly).
+         */
+        protected final Object f_value;
+
+        /**
+         * The weak value reference (null if the value is held strongly).
+         */
+        protected final WeakReference<Object> f_refValue;
+    }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * The maximum number of entries before the cache becomes megamorphic.
+     */
+    public static final int MAX_ENTRIES = 4;
+
+    /**
+     * The number of megamorphic lookups after which the cache is cleared to give the call site
+     * another chance.
+     */
+    public static final int MEGAMORPHIC_RETRY = 16_384;
+
+    /**
+     * True iff the global counters are maintained.
+     */
+    public static final boolean STATS = Boolean.getBoolean("xvm.inlineCache.stats");
+
+    /**
+     * The global counters.
+     */
+    private static final LongAdder HITS        = new LongAdder();
+    private static final LongAdder MISSES      = new LongAdder();
+    private static final LongAdder MEGAMORPHIC = new LongAdder();
+
+    /**
+     * True iff the values are held strongly.
+     */
+    private final boolean f_fStrongValues;
+
+    /**
+     * The entries; null if the cache is empty or megamorphic.
+     */
+    private volatile Entry[] m_aEntry;
+
+    /**
+     * True iff the call site is megamorphic.
+     */
+    private volatile boolean m_fMegamorphic;
+
+    /**
+     * The number of lookups since the call site became megamorphic.
+     */
+    private int m_cMegamorphic;
+}
@@ -1,6 +1,8 @@
 package org.xvm.runtime;
 
 
+import java.lang.ref.WeakReference;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.IdentityHashMap;
@@ -342,6 +344,60 @@ public abstract class ObjectHandle
         return "(" + (m_fMutable || clz.getType().isImmutable() ? "" : "immutable ") + clz + ") ";
     }
 
+    /**
+     * The last two containers an immutable object graph has been found to be shared with. It is
+     * used by the handles that refer to other handles (GenericHandle, TupleHandle and the generic
+     * array delegate) to make the repeated {@link #isShared} checks O(1), even if the same graph
+     * is passed alternately to two containers.
+     * <p>
+     * Since neither the immutable object graph nor the container's type system can change, a
+     * successful check is final. The outcome must only be recorded for the root of the object
+     * graph, since an outcome for any nested handle may rely on the "visited" status of its
+     * referrers. The instances are immutable, so the races are benign: a lost update merely causes
+     * the graph to be walked again.
+     */
+    public static final class KnownShared {
+        private KnownShared(WeakReference<Container> refLast, WeakReference<Container> refPrev) {
+            f_refLast = refLast;
+            f_refPrev = refPrev;
+        }
+
+        /**
+         * @param known      the known containers (could be null)
+         * @param container  the "receiving" container
+         *
+         * @return true iff the object graph is known to be shared with the specified container
+         */
+        public static boolean contains(KnownShared known, Container container) {
+            return known != null &&
+                    (known.f_refLast.get() == container ||
+                     known.f_refPrev != null && known.f_refPrev.get() == container);
+        }
+
+        /**
+         * @param known      the known containers (could be null)
+         * @param container  the container the object graph has been found to be shared with
+         *
+         * @return the known containers with the specified one as the most recent one
+         */
+        public static KnownShared add(KnownShared known, Container container) {
+            // the containers' own weak references are used, so no references are allocated here
+            WeakReference<Container> ref = container.getWeakReference();
+            return known == null
+                    ? new KnownShared(ref, null)
+                    : known.f_refLast == ref
+                            ? known
+                            : new KnownShared(ref, known.f_refLast);
+        }
+
+        /**
+         * The most recent and the previous containers (weakly referenced, so a terminated container
+         * is not kept alive).
+         */
+        private final WeakReference<Container> f_refLast;
+        private final WeakReference<Container> f_refPrev;
+    }
+
     public static class GenericHandle
             extends ObjectHandle {
         public GenericHandle(TypeComposition clazz) {
@@ -484,6 +540,8 @@ public abstract class ObjectHandle
             GenericHandle  hClone  = (GenericHandle) super.cloneAs(clazz);
             ObjectHandle[] aFields = m_aFields;
 
+            hClone.m_knownShared = null;
+
             if (fUpdateOuter && aFields != null) {
                 for (FieldInfo field : clazz.getFieldLayout().values()) {
                     if (field.isInflated() && !field.isTransient()) {
@@ -596,6 +654,10 @@ public abstract class ObjectHandle
 
         @Override
         public boolean isShared(Container container, Map<ObjectHandle, Boolean> mapVisited) {
+            if (KnownShared.contains(m_knownShared, container)) {
+                return true;
+            }
+
             TypeConstant type = getType();
             if (!type.isShared(container.getConstantPool())) {
                 return false;
@@ -605,12 +667,19 @@ public abstract class ObjectHandle
                 return true;
             }
 
-            if (mapVisited == null) {
+            boolean fRoot = mapVisited == null;
+            if (fRoot) {
                 mapVisited = new IdentityHashMap<>();
             }
 
-            if (mapVisited.put(this, Boolean.TRUE) != null ||
-                    areShared(m_aFields, container, mapVisited)) {
+            if (mapVisited.put(this, Boolean.TRUE) != null) {
+                return true;
+            }
+
+            if (areShared(m_aFields, container, mapVisited)) {
+                if (fRoot && !isMutable()) {
+                    m_knownShared = KnownShared.add(m_knownShared, container);
+                }
                 return true;
             }
             return false;
@@ -621,6 +690,11 @@ public abstract class ObjectHandle
          */
         private final ObjectHandle[] m_aFields;
 
+        /**
+         * The containers this immutable object graph has been found to be shared with.
+         */
+        private KnownShared m_knownShared;
+
         /**
          * The "m_owner" field is most commonly not set, unless this object is a service, a module,
          * was injected or explicitly "masked as".
@@ -1,6 +1,8 @@
 package org.xvm.runtime;
 
 
+import java.lang.management.ManagementFactory;
+
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -12,8 +14,13 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
 import org.xvm.asm.ConstantPool;
 
 import org.xvm.util.concurrent.ConcurrentLinkedBlockingQueue;
@@ -37,17 +44,46 @@ public class Runtime {
             return thread;
         };
 
-        // TODO: replace with a fair scheduling based ExecutorService
-        f_executorXVM = new ThreadPoolExecutor(parallelism, parallelism, 0, TimeUnit.SECONDS,
-                new ConcurrentLinkedBlockingQueue<>(), factoryXVM);
+        long cMicros = Long.parseLong(System.getProperty("xvm.timeslice", "0"));
+        f_nanosTimeSlice = cMicros > 0
+                ? TimeUnit.MICROSECONDS.toNanos(cMicros)
+                : DEFAULT_TIME_SLICE_NANOS;
+
+        String sScheduler = System.getProperty("xvm.scheduler", SCHEDULER_STEALING);
+        f_sScheduler  = sScheduler;
+        f_executorXVM = switch (sScheduler) {
+            case SCHEDULER_POOL -> new ThreadPoolExecutor(parallelism, parallelism, 0, TimeUnit.SECONDS,
+                    new ConcurrentLinkedBlockingQueue<>(), factoryXVM);
+
+            case SCHEDULER_STEALING -> new ServiceScheduler(parallelism, factoryXVM);
+
+            case SCHEDULER_VIRTUAL -> Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+                    .name("XvmVirtual@", 0)
+                    .factory());
+
+            default -> throw new IllegalArgumentException(
+                    "Invalid \"xvm.scheduler\" value: " + sScheduler);
+        };
 
         ThreadFactory factoryIO = Thread.ofVirtual()
                 .name("IOWorker@", 0)
                 .factory();
         f_executorIO = Executors.newThreadPerTaskExecutor(factoryIO);
+        f_fDirectIO  = sScheduler.equals(SCHEDULER_VIRTUAL)
+                && Boolean.parseBoolean(System.getProperty("xvm.directIO", "true"));
     }
 
     public void start() {
+        if (Boolean.parseBoolean(System.getProperty("xvm.jmx", "true"))) {
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                ObjectName  name   = new ObjectName("org.xvm:type=Runtime,id=" + s_cRuntimes.getAndIncrement());
+                server.registerMBean(new RuntimeMetrics(this), name);
+                m_nameMBean = name;
+            } catch (JMException | SecurityException e) {
+                System.err.println("Failed to register the runtime metrics: " + e);
+            }
+        }
     }
 
     /**
@@ -60,7 +96,7 @@ public class Runtime {
     }
 
     /**
-     * @return a set of Container objects (used only for debugging)
+     * @return a set of Container objects (used only for debugging and metrics)
      */
     public Set<Container> containers() {
         synchronized (f_containers) {
@@ -83,10 +119,24 @@ public class Runtime {
     /**
      * Submit ServiceContext work for eventual processing by the runtime.
      *
-     * @param task the task to process
+     * @param service the service to process
+     * @param task    the task to process
      */
-    protected void submitService(Runnable task) {
-        f_executorXVM.submit(task);
+    protected void submitService(ServiceContext service, Runnable task) {
+        if (f_executorXVM instanceof ServiceScheduler scheduler) {
+            scheduler.schedule(service.f_affinity, task);
+        } else if (f_executorXVM instanceof ThreadPoolExecutor) {
+            f_executorXVM.execute(task);
+        } else {
+            f_executorXVM.execute(() -> {
+                f_cVirtualActive.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    f_cVirtualActive.decrementAndGet();
+                }
+            });
+        }
         m_lastXvmSubmitNanos = System.nanoTime();
     }
 
@@ -99,6 +149,28 @@ public class Runtime {
         f_executorIO.submit(task);
     }
 
+    /**
+     * When services run on virtual threads, a blocking native IO call only parks the virtual
+     * thread, so it is cheaper to perform it directly on the service thread than to hand it off to
+     * the IO executor and resume the waiting fiber via a future. The price is that the service
+     * cannot process any other fiber until the IO call completes.
+     *
+     * @return true iff the blocking native IO should be performed directly on the service thread;
+     *         only allowed for the "virtual" scheduler and can be disabled via the "xvm.directIO"
+     *         property
+     */
+    public boolean isDirectIO() {
+        return f_fDirectIO;
+    }
+
+    /**
+     * @return the default time slice (in nanoseconds) for services of the top level containers; it
+     *         can be specified via the "xvm.timeslice" property (in microseconds)
+     */
+    public long getDefaultTimeSliceNanos() {
+        return f_nanosTimeSlice;
+    }
+
     /**
      * @return a unique id
      */
@@ -109,12 +181,46 @@ public class Runtime {
     public void shutdownXVM() {
         f_executorIO .shutdown();
         f_executorXVM.shutdown();
+
+        ObjectName name = m_nameMBean;
+        if (name != null) {
+            m_nameMBean = null;
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+            } catch (JMException ignore) {}
+        }
     }
 
     public boolean isIdle() {
         // TODO: very naive; replace
         return m_lastXvmSubmitNanos < System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(10)
-            && f_executorXVM.getActiveCount() == 0;
+            && getActiveServiceWorkers() == 0;
+    }
+
+    /**
+     * @return the "xvm.scheduler" property value this runtime was created with
+     */
+    public String getSchedulerName() {
+        return f_sScheduler;
+    }
+
+    /**
+     * @return the number of service tasks waiting for a worker thread; always zero for the
+     *         "virtual" scheduler
+     */
+    public long getQueuedServiceTasks() {
+        return f_executorXVM instanceof ServiceScheduler scheduler ? scheduler.getQueuedTaskCount()
+             : f_executorXVM instanceof ThreadPoolExecutor pool     ? pool.getQueue().size()
+             : 0;
+    }
+
+    /**
+     * @return the number of XVM worker threads that are currently processing services
+     */
+    public int getActiveServiceWorkers() {
+        return f_executorXVM instanceof ServiceScheduler scheduler ? scheduler.getActiveCount()
+             : f_executorXVM instanceof ThreadPoolExecutor pool     ? pool.getActiveCount()
+             : f_cVirtualActive.get();
     }
 
     public boolean isDebuggerActive() {
@@ -129,9 +235,53 @@ public class Runtime {
     // ----- constants and fields ------------------------------------------------------------------
 
     /**
-     * The executor for XVM services.
+     * The "xvm.scheduler" property value for the fair work-stealing {@link ServiceScheduler}
+     * (default).
+     */
+    public static final String SCHEDULER_STEALING = "stealing";
+
+    /**
+     * The "xvm.scheduler" property value for a fixed size ThreadPoolExecutor over a single shared
+     * queue.
+     */
+    public static final String SCHEDULER_POOL = "pool";
+
+    /**
+     * The "xvm.scheduler" property value for running each service task on its own virtual thread.
+     */
+    public static final String SCHEDULER_VIRTUAL = "virtual";
+
+    /**
+     * The "xvm.scheduler" property value.
+     */
+    private final String f_sScheduler;
+
+    /**
+     * The executor for XVM services; either a {@link ServiceScheduler}, a
+     * {@link ThreadPoolExecutor} or a virtual thread per task executor, depending on the
+     * "xvm.scheduler" property.
+     */
+    public final ExecutorService f_executorXVM;
+
+    /**
+     * The number of service tasks that are currently running on virtual threads.
+     */
+    private final AtomicInteger f_cVirtualActive = new AtomicInteger();
+
+    /**
+     * @see #isDirectIO()
+     */
+    private final boolean f_fDirectIO;
+
+    /**
+     * The default time slice for services (10 milliseconds).
+     */
+    public static final long DEFAULT_TIME_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * The default time slice for services of the top level containers.
      */
-    public final ThreadPoolExecutor f_executorXVM;
+    private final long f_nanosTimeSlice;
 
     /**
      * The executor for IO services.
@@ -153,6 +303,16 @@ public class Runtime {
      */
     private volatile long m_lastXvmSubmitNanos;
 
+    /**
+     * The name the metrics MBean is registered under; null if not registered.
+     */
+    private ObjectName m_nameMBean;
+
+    /**
+     * The number of runtimes created (used to produce unique MBean names).
+     */
+    private static final AtomicLong s_cRuntimes = new AtomicLong();
+
     /**
      * The "debugger is active" flag.
      */
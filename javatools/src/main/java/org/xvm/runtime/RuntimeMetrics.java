@@ -0,0 +1,100 @@
+package org.xvm.runtime;
+
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+
+/**
+ * The {@link RuntimeMetricsMXBean} implementation.
+ */
+public class RuntimeMetrics
+        implements RuntimeMetricsMXBean {
+    public RuntimeMetrics(Runtime runtime) {
+        f_runtime = runtime;
+    }
+
+    @Override
+    public String getScheduler() {
+        return f_runtime.getSchedulerName();
+    }
+
+    @Override
+    public int getActiveServiceWorkers() {
+        return f_runtime.getActiveServiceWorkers();
+    }
+
+    @Override
+    public long getQueuedServiceTasks() {
+        return f_runtime.getQueuedServiceTasks();
+    }
+
+    @Override
+    public int getContainerCount() {
+        return f_runtime.containers().size();
+    }
+
+    @Override
+    public int getServiceCount() {
+        int cServices = 0;
+        for (Container container : f_runtime.containers()) {
+            cServices += container.getServices().size();
+        }
+        return cServices;
+    }
+
+    @Override
+    public boolean isIdle() {
+        return f_runtime.isIdle();
+    }
+
+    @Override
+    public ServiceMetrics[] getServiceMetrics() {
+        return collectMetrics().toArray(ServiceMetrics[]::new);
+    }
+
+    @Override
+    public ServiceMetrics[] getHotServices(int cTop) {
+        List<ServiceMetrics> listMetrics = collectMetrics();
+        listMetrics.sort(Comparator.comparingLong(ServiceMetrics::getExecuteNanos).reversed());
+        return listMetrics.subList(0, Math.max(0, Math.min(cTop, listMetrics.size())))
+                          .toArray(ServiceMetrics[]::new);
+    }
+
+    @Override
+    public long getInlineCacheHits() {
+        return InlineCache.getHitCount();
+    }
+
+    @Override
+    public long getInlineCacheMisses() {
+        return InlineCache.getMissCount();
+    }
+
+    @Override
+    public long getInlineCacheMegamorphicMisses() {
+        return InlineCache.getMegamorphicCount();
+    }
+
+    /**
+     * @return the metrics snapshots for all the live services
+     */
+    protected List<ServiceMetrics> collectMetrics() {
+        List<ServiceMetrics> listMetrics = new ArrayList<>();
+        for (Container container : f_runtime.containers()) {
+            for (ServiceContext ctx : container.getServices()) {
+                listMetrics.add(ctx.getMetrics());
+            }
+        }
+        return listMetrics;
+    }
+
+
+    // ----- fields --------------------------------------------------------------------------------
+
+    /**
+     * The runtime.
+     */
+    private final Runtime f_runtime;
+}
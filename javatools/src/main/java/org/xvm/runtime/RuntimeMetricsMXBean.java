@@ -0,0 +1,66 @@
+package org.xvm.runtime;
+
+
+/**
+ * The JMX management interface for the XVM {@link Runtime} metrics. The instances are registered
+ * under the "org.xvm:type=Runtime,id=<n>" names.
+ */
+public interface RuntimeMetricsMXBean {
+    /**
+     * @return the name of the service scheduler (the "xvm.scheduler" property value)
+     */
+    String getScheduler();
+
+    /**
+     * @return the number of XVM worker threads that are currently processing services
+     */
+    int getActiveServiceWorkers();
+
+    /**
+     * @return the number of service tasks waiting for a worker thread
+     */
+    long getQueuedServiceTasks();
+
+    /**
+     * @return the number of live containers
+     */
+    int getContainerCount();
+
+    /**
+     * @return the number of live services
+     */
+    int getServiceCount();
+
+    /**
+     * @return true iff the runtime is idle
+     */
+    boolean isIdle();
+
+    /**
+     * @return the metrics snapshots for all the live services
+     */
+    ServiceMetrics[] getServiceMetrics();
+
+    /**
+     * @param cTop  the number of services to report
+     *
+     * @return the metrics snapshots for the services that have spent the most time executing
+     */
+    ServiceMetrics[] getHotServices(int cTop);
+
+    /**
+     * @return the total number of the op inline cache hits (see {@link InlineCache}); only
+     *         maintained if the "xvm.inlineCache.stats" system property is set
+     */
+    long getInlineCacheHits();
+
+    /**
+     * @return the total number of the op inline cache misses
+     */
+    long getInlineCacheMisses();
+
+    /**
+     * @return the total number of the op inline cache misses at the megamorphic call sites
+     */
+    long getInlineCacheMegamorphicMisses();
+}
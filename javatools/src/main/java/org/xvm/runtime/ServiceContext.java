@@ -10,15 +10,14 @@ import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.Set;
-import java.util.TimerTask;
 import java.util.WeakHashMap;
 
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentSkipListSet;
 
+import java.util.concurrent.atomic.LongAdder;
+
 import org.xvm.asm.ConstantPool;
 import org.xvm.asm.GenericTypeResolver;
 import org.xvm.asm.LinkerContext;
@@ -62,6 +61,8 @@ import org.xvm.runtime.template._native.reflect.xRTFunction.NativeFunctionHandle
 
 import org.xvm.runtime.template._native.temporal.xLocalClock;
 
+import org.xvm.util.concurrent.ConcurrentMailbox;
+import org.xvm.util.concurrent.TimerWheel;
 import org.xvm.util.concurrent.VarHandles;
 
 
@@ -381,34 +382,32 @@ public class ServiceContext {
      * Release the context lock.
      */
     protected void releaseSchedulingLock() {
-        // If isContended is true then the service requires more processing, so we can immediately
+        // If hasPendingWork is true then the service requires more processing, so we can immediately
         // reschedule, thus transferring our lock ownership. Between checking that state and releasing
-        // the lock isContended could transition to true and the thread doing that transition would
-        // fail to get our yet to be released lock. We could defend against this by checking isContended
-        // after releasing but portions (FiberQueue) of isContended are not thread-safe, and thus we
+        // the lock hasPendingWork could transition to true and the thread doing that transition would
+        // fail to get our yet to be released lock. We could defend against this by checking hasPendingWork
+        // after releasing but portions (FiberQueue) of hasPendingWork are not thread-safe, and thus we
         // shouldn't query it after releasing the lock. Instead, we defend against this by detecting
         // contention on the lock itself and inferring that the contending thread must have injected
         // more work, so we must reschedule on their behalf. Note if we're wrong and the contention
         // doesn't represent new work then the scheduled task will be a no-op and just come back here
         // to release again, and is thus safe.
 
-        long lLockPreState = m_lLockScheduling; // read lock state prior to isContended check
-        if (isContended() || !SCHEDULING_LOCK_HANDLE.compareAndSet(this, lLockPreState, 0L)) {
-            // we've detected service or lock contention, reschedule
+        long lLockPreState = m_lLockScheduling; // read lock state prior to hasPendingWork check
+        if (hasPendingWork()) {
+            // we've detected service contention, reschedule
             f_container.schedule(this);
-        } else if (!f_setFibers.isEmpty()) {
-            // make sure to wake up for the nearest timeout
-            long ldtTimeout = Long.MAX_VALUE;
-            for (Fiber fiber : f_setFibers) {
-                long ldtTimeoutFiber = fiber.getTimeoutStamp();
-                if (ldtTimeoutFiber > 0) {
-                    ldtTimeout = Math.min(ldtTimeout, ldtTimeoutFiber);
-                }
-            }
+            return;
+        }
 
-            if (ldtTimeout != Long.MAX_VALUE) {
-                f_wakeUpScheduler.schedule(ldtTimeout);
-            }
+        // the nearest timeout must be collected while the lock is still held
+        long ldtTimeout = f_queueSuspended.getNextTimeout();
+        if (!SCHEDULING_LOCK_HANDLE.compareAndSet(this, lLockPreState, 0L)) {
+            // we've detected lock contention, reschedule
+            f_container.schedule(this);
+        } else if (ldtTimeout != Long.MAX_VALUE) {
+            // make sure to wake up for the nearest timeout
+            f_wakeUpScheduler.schedule(ldtTimeout);
         }
     }
 
@@ -418,33 +417,114 @@ public class ServiceContext {
      * @return true if the service has become "overwhelmed" - too many outstanding messages
      */
     public boolean addRequest(Message msg) {
-        f_queueMsg.add(msg);
-        ensureScheduled(msg.isAsync());
+        // only the request that finds the queue empty needs to schedule the service; all the
+        // requests that follow will be picked up along with it
+        f_cMsgReceived.increment();
+        if (f_queueMsg.add(msg)) {
+            ensureScheduled(msg.isAsync());
+        }
         return isOverwhelmed();
     }
 
     /**
-     * @return true if the service has too many outstanding fibers
+     * Add an invocation request to the service request queue. If the request comes from another
+     * service and this service {@link #isRejecting rejects} new requests, the message is not
+     * queued, and its future is completed with the "overloaded" exception instead. All other
+     * requests (e.g. property access, "call later" or constant initialization) are never rejected.
+     *
+     * @param frameCaller  the caller's frame
+     * @param msg          the request
+     *
+     * @return true if the service has become "overwhelmed" - too many outstanding messages
+     */
+    private boolean addInvokeRequest(Frame frameCaller, Message msg) {
+        if (frameCaller.f_context != this && isRejecting()) {
+            msg.f_future.completeExceptionally(
+                    xException.serviceOverloaded(frameCaller, f_sName).getException());
+            return true;
+        }
+        return addRequest(msg);
+    }
+
+    /**
+     * @return true if the service has too many outstanding requests
      */
     public boolean isOverwhelmed() {
-        return f_queueSuspended.size() > QUEUE_THRESHOLD;
+        return getBacklogDepth() > m_cBacklogLimit;
+    }
+
+    /**
+     * @return true if the service is overwhelmed and new requests should be rejected rather than
+     *         deferred
+     */
+    public boolean isRejecting() {
+        return m_policyOverload == OverloadPolicy.Reject && isOverwhelmed();
+    }
+
+    /**
+     * Note: the backlog is maintained by the service thread without any synchronization, so the
+     *       value reported to other threads is approximate.
+     *
+     * @return the number of outstanding requests: the messages that are in the request queue and
+     *         the suspended (initial or waiting) fibers
+     */
+    public long getBacklogDepth() {
+        return getMessageDepth() + f_queueSuspended.size();
+    }
+
+    /**
+     * @return the number of outstanding requests above which the service is considered overwhelmed
+     */
+    public int getBacklogLimit() {
+        return m_cBacklogLimit;
+    }
+
+    /**
+     * @return the policy for the requests that arrive when the service is overwhelmed
+     */
+    public OverloadPolicy getOverloadPolicy() {
+        return m_policyOverload;
+    }
+
+    /**
+     * Configure the admission control for this service.
+     *
+     * @param cLimit  the number of outstanding requests above which the service is considered
+     *                overwhelmed
+     * @param policy  the policy for the requests that arrive when the service is overwhelmed
+     */
+    public void limitBacklog(int cLimit, OverloadPolicy policy) {
+        if (cLimit <= 0) {
+            throw new IllegalArgumentException("Invalid backlog limit: " + cLimit);
+        }
+        m_cBacklogLimit  = cLimit;
+        m_policyOverload = policy;
     }
 
     /**
      * Add a response to the service response queue.
      */
     private void respond(Response response) {
-        f_queueResponse.add(response);
-        ensureScheduled(true);
+        if (f_queueResponse.add(response)) {
+            ensureScheduled(true);
+        }
+    }
+
+    /**
+     * Notify this service that the specified waiting fiber may have become ready. This method can
+     * be called on any thread.
+     */
+    void signalFiber(Fiber fiber) {
+        f_queueSuspended.signal(fiber);
     }
 
     /**
      * Process all queued responses.
      */
     private void processResponses() {
-        Response response;
-        while ((response = f_queueResponse.poll()) != null) {
-            response.run();
+        ConcurrentMailbox<Response> queueResponse = f_queueResponse;
+        while (queueResponse.drain(Response::run) > 0) {
+            // pick up the responses that have arrived while the batch was being processed
         }
     }
 
@@ -462,10 +542,7 @@ public class ServiceContext {
         // pickup all the messages, but keep them in the "initial" state
         FiberQueue qFiber = f_queueSuspended;
 
-        Message message;
-        while ((message = f_queueMsg.poll()) != null) {
-            qFiber.add(message.createFrame(this));
-        }
+        m_cMsgProcessed += f_queueMsg.drain(message -> qFiber.add(message.createFrame(this)));
 
         // allow initial timeouts to be processed always, since they won't run any natural code
         // TODO: return ?f_queueSuspended.getInitialTimeout();
@@ -509,6 +586,13 @@ public class ServiceContext {
         int   iPC     = frame.m_iPC;
         int   iPCLast = iPC;
 
+        // the time is sampled every "m_cOpsPerSample" ops, which is calibrated to take a small
+        // fraction of the time slice
+        long nanosStart  = System.nanoTime();
+        long nanosSlice  = f_container.getTimeSliceNanos();
+        int  cOpsSample  = m_cOpsPerSample;
+        int  cOpsNext    = cOpsSample;
+
         m_frameCurrent = frame;
 
         switch (fiber.prepareRun(frame)) {
@@ -527,7 +611,7 @@ public class ServiceContext {
             break;
 
         case Op.R_BLOCK: // there are still some non-completed futures
-            return frame;
+            return completeRun(frame, 0, nanosStart);
 
         default:
             throw new IllegalStateException();
@@ -541,9 +625,12 @@ public class ServiceContext {
             while (iPC >= 0) { // most common op return loop
                 frame.m_iPC = iPC;
 
-                if (++cOps > MAX_OPS_PER_RUN && !isDebuggerActive()) {
-                    fiber.setStatus(FiberStatus.Paused, cOps);
-                    return frame;
+                if (++cOps >= cOpsNext) {
+                    if (System.nanoTime() - nanosStart >= nanosSlice && !isDebuggerActive()) {
+                        fiber.setStatus(FiberStatus.Paused, cOps);
+                        return completeRun(frame, cOps, nanosStart);
+                    }
+                    cOpsNext += cOpsSample;
                 }
 
                 try {
@@ -575,6 +662,8 @@ public class ServiceContext {
             case Op.R_RETURN: {
                 if (isDebuggerActive()) {
                     getDebugger().onReturn(frame);
+                } else if (frame.isRecyclable()) {
+                    frame.recycle();
                 }
 
                 Frame.Continuation continuation = frame.m_continuation;
@@ -623,7 +712,7 @@ public class ServiceContext {
                 if (frame == null) {
                     // all done
                     terminateFiber(fiber, cOps);
-                    return m_frameCurrent = null;
+                    return completeRun(m_frameCurrent = null, cOps, nanosStart);
                 }
 
                 aOp = frame.f_aOp;
@@ -701,16 +790,16 @@ public class ServiceContext {
 
             case Op.R_REPEAT:
                 fiber.setStatus(FiberStatus.Waiting, cOps);
-                return frame;
+                return completeRun(frame, cOps, nanosStart);
 
             case Op.R_BLOCK:
                 frame.m_iPC = iPCLast + 1;
                 fiber.setStatus(FiberStatus.Waiting, cOps);
-                return frame;
+                return completeRun(frame, cOps, nanosStart);
 
             case Op.R_PAUSE:
                 fiber.setStatus(FiberStatus.Paused, cOps);
-                return frame;
+                return completeRun(frame, cOps, nanosStart);
 
             case Op.R_RESET:
                 // this is only possible as a return value by the debugger
@@ -728,6 +817,35 @@ public class ServiceContext {
         }
     }
 
+    /**
+     * Update the run metrics and re-calibrate the time sampling frequency at the end of a run.
+     *
+     * @param frame       the frame to return
+     * @param cOps        the number of ops executed by the run
+     * @param nanosStart  the time the run has started at
+     *
+     * @return the specified frame
+     */
+    private Frame completeRun(Frame frame, int cOps, long nanosStart) {
+        long cNanos = System.nanoTime() - nanosStart;
+
+        m_cRuns++;
+        m_cRunOps   += cOps;
+        m_cRunNanos += cNanos;
+
+        if (cOps >= MIN_OPS_PER_SAMPLE && cNanos > 0) {
+            // estimate the number of ops per sample that would give us SAMPLES_PER_SLICE samples
+            // per time slice and smooth it out with the previous value
+            double dOpsPerNano = (double) cOps / cNanos;
+            double dEstimate   = dOpsPerNano * f_container.getTimeSliceNanos() / SAMPLES_PER_SLICE;
+            int    cEstimate   = (int) Math.max(MIN_OPS_PER_SAMPLE,
+                                        Math.min(MAX_OPS_PER_SAMPLE, dEstimate));
+
+            m_cOpsPerSample = (3 * m_cOpsPerSample + cEstimate) >>> 2;
+        }
+        return frame;
+    }
+
     /**
      * Replace an op at the specified index with a synthetic "checkBreakPoint" op.
      */
@@ -837,10 +955,7 @@ public class ServiceContext {
             FiberQueue qFiber = f_queueSuspended;
 
             // process all outstanding messages
-            Message message;
-            while ((message = f_queueMsg.poll()) != null) {
-                qFiber.add(message.createFrame(this));
-            }
+            m_cMsgProcessed += f_queueMsg.drain(message -> qFiber.add(message.createFrame(this)));
 
             Set<Fiber> setFibers = f_setFibers;
             Fiber      fiberThis = frame == null ? null : frame.f_fiber;
@@ -881,6 +996,10 @@ public class ServiceContext {
             return ServiceStatus.Terminated;
         }
 
+        if (isOverwhelmed()) {
+            return ServiceStatus.Overloaded;
+        }
+
         FiberStatus statusActive = null;
         for (Fiber fiber : f_setFibers) {
             FiberStatus status = fiber.getStatus();
@@ -910,10 +1029,155 @@ public class ServiceContext {
      * @return true iff the service is contended
      */
     public boolean isContended() {
+        return m_frameCurrent != null || !f_queueResponse.isEmpty() ||
+                !f_queueMsg.isEmpty() || f_queueSuspended.mayBeReady();
+    }
+
+    /**
+     * Unlike {@link #isContended}, this method must only be called by the thread that holds the
+     * scheduling lock.
+     *
+     * @return true iff the service has any work that could be processed right away
+     */
+    private boolean hasPendingWork() {
         return m_frameCurrent != null || !f_queueResponse.isEmpty() ||
                 !f_queueMsg.isEmpty() || f_queueSuspended.isReady();
     }
 
+    /**
+     * Note: the metrics are updated by the service thread without any synchronization, so the
+     *       values reported to other threads are approximate.
+     *
+     * @return the average number of ops per run (time slice)
+     */
+    public double getOpsPerRun() {
+        long cRuns = m_cRuns;
+        return cRuns == 0 ? 0.0 : (double) m_cRunOps / cRuns;
+    }
+
+    /**
+     * @return the average number of runs (time slices) per second since the service creation
+     */
+    public double getRunsPerSecond() {
+        long cNanos = System.nanoTime() - f_nanosCreated;
+        return cNanos <= 0 ? 0.0 : m_cRuns * 1E9 / cNanos;
+    }
+
+    /**
+     * @return the average duration (in nanos) of a run (time slice)
+     */
+    public double getAverageSliceNanos() {
+        long cRuns = m_cRuns;
+        return cRuns == 0 ? 0.0 : (double) m_cRunNanos / cRuns;
+    }
+
+    /**
+     * @return the total number of ops executed by this service
+     */
+    public long getOpCount() {
+        return m_cRunOps;
+    }
+
+    /**
+     * @return the total number of runs (time slices) executed by this service
+     */
+    public long getRunCount() {
+        return m_cRuns;
+    }
+
+    /**
+     * @return the total time (in nanos) spent executing this service code
+     */
+    public long getExecuteNanos() {
+        return m_cRunNanos;
+    }
+
+    /**
+     * @return the time (in nanos) since this service was created
+     */
+    public long getUpTimeNanos() {
+        return System.nanoTime() - f_nanosCreated;
+    }
+
+    /**
+     * @return the number of live fibers
+     */
+    public int getFiberCount() {
+        return f_setFibers.size();
+    }
+
+    /**
+     * @return the number of messages that are in the request queue
+     */
+    public long getMessageDepth() {
+        return Math.max(0, f_cMsgReceived.sum() - m_cMsgProcessed);
+    }
+
+    /**
+     * @return the number of requests this service has processed
+     */
+    public long getCallCount() {
+        return m_cCalls;
+    }
+
+    /**
+     * @return the average latency (in nanos) of the requests processed by this service
+     */
+    public long getAverageCallNanos() {
+        long cCalls = m_cCalls;
+        return cCalls == 0 ? 0 : m_cCallNanos / cCalls;
+    }
+
+    /**
+     * @return the average time (in nanos) this service has waited for a worker thread once
+     *         scheduled
+     */
+    public long getAverageScheduleWaitNanos() {
+        long cWaits = m_cScheduleWaits;
+        return cWaits == 0 ? 0 : m_cScheduleWaitNanos / cWaits;
+    }
+
+    /**
+     * Record the time a scheduled run of this service has waited for a worker thread.
+     *
+     * @param cNanos  the wait time in nanoseconds
+     */
+    public void recordScheduleWait(long cNanos) {
+        m_cScheduleWaits++;
+        m_cScheduleWaitNanos += cNanos;
+        if (cNanos > m_cScheduleWaitNanosMax) {
+            m_cScheduleWaitNanosMax = cNanos;
+        }
+    }
+
+    /**
+     * Record the latency of a request processed by this service, measured from the time the
+     * request was sent until the response is sent back.
+     *
+     * @param cNanos  the latency in nanoseconds
+     */
+    protected void recordCall(long cNanos) {
+        m_cCalls++;
+        m_cCallNanos += cNanos;
+        if (cNanos > m_cCallNanosMax) {
+            m_cCallNanosMax = cNanos;
+        }
+    }
+
+    /**
+     * @return a snapshot of the metrics for this service
+     */
+    public ServiceMetrics getMetrics() {
+        long cReceived = f_cMsgReceived.sum();
+        return new ServiceMetrics(f_sName, f_container.toString(), getStatus().name(),
+                Math.max(0, cReceived - m_cMsgProcessed), cReceived,
+                f_setFibers.size(), f_queueSuspended.size(),
+                m_cRuns, m_cRunOps, m_cRunNanos,
+                m_cScheduleWaits, m_cScheduleWaitNanos, m_cScheduleWaitNanosMax,
+                m_cCalls, m_cCallNanos, m_cCallNanosMax,
+                System.nanoTime() - f_nanosCreated);
+    }
+
     /**
      * @return true iff the service is Idle
      */
@@ -1085,7 +1349,6 @@ public class ServiceContext {
 
         Message request = new CallLaterRequest(frame, hFunction, ahArg, cReturns);
 
-        // TODO: should we reject (throw) if the service overwhelmed?
         addRequest(request);
 
         return request.f_future;
@@ -1252,7 +1515,7 @@ public class ServiceContext {
         TypeSupplier supplier = resolveFormalReturnTypes(hFunction, ahArg);
         OpRequest    request  = new OpRequest(frame, opCall, cReturns, fAsync, supplier);
 
-        boolean fOverwhelmed = addRequest(request);
+        boolean fOverwhelmed = addInvokeRequest(frame, request);
 
         Fiber                           fiber  = frame.f_fiber;
         CompletableFuture<ObjectHandle> future = request.f_future;
@@ -1318,7 +1581,7 @@ public class ServiceContext {
         OpRequest    request  = new OpRequest(frame, opCall, cReturns, fAsync, supplier);
 
         CompletableFuture<ObjectHandle[]> future       = request.f_future;
-        boolean                           fOverwhelmed = addRequest(request);
+        boolean                           fOverwhelmed = addInvokeRequest(frame, request);
 
         if (cReturns == 0) {
             frame.f_fiber.registerUncapturedRequest(request);
@@ -1334,7 +1597,7 @@ public class ServiceContext {
             return frame.assignFutureResult(aiReturn[0], cfReturn);
         }
 
-        if (fAsync) {
+        if (fAsync && !future.isDone()) {
             for (int i = 0; i < cReturns; i++) {
                 final int iReturn = i;
                 int iResult =
@@ -1583,7 +1846,8 @@ public class ServiceContext {
                 f_mapTokens   = frameCaller.f_fiber.getTokens();
             }
 
-            f_future = new CompletableFuture();
+            f_future    = new CompletableFuture();
+            f_nanosSent = System.nanoTime();
         }
 
         /**
@@ -1618,6 +1882,8 @@ public class ServiceContext {
         protected void sendResponse(Fiber fiberCaller, Frame frame, CompletableFuture future, int cReturns) {
             ServiceContext ctxDst = fiberCaller.f_context;
 
+            frame.f_context.recordCall(System.nanoTime() - f_nanosSent);
+
             switch (cReturns) {
             case 0:
                 ctxDst.respond(new Response<ObjectHandle>(
@@ -1675,6 +1941,11 @@ public class ServiceContext {
          */
         public final CompletableFuture f_future;
 
+        /**
+         * The time (in nanos) this message was created at (used for metrics).
+         */
+        public final long f_nanosSent;
+
         /**
          * The Fiber this message runs on (assigned by {@link #createFrame}).
          */
@@ -1998,10 +2269,11 @@ public class ServiceContext {
     }
 
     /**
-     * The wake-up scheduler.
+     * The wake-up scheduler. Since it could be called by any thread that has just released the
+     * scheduling lock, it is synchronized.
      */
     protected class WakeUpScheduler {
-        protected void schedule(long ldtWakeUp) {
+        protected synchronized void schedule(long ldtWakeUp) {
             long ldtNow = f_container.currentTimeMillis();
             if (f_ldtScheduled > 0) {
                 if (ldtNow <= f_ldtScheduled && f_ldtScheduled <= ldtWakeUp) {
@@ -2015,7 +2287,7 @@ public class ServiceContext {
             }
 
             f_ldtScheduled = ldtWakeUp;
-            m_taskCurrent  = new TimerTask() {
+            m_taskCurrent  = new TimerWheel.Task() {
                 public void run() {
                     ensureScheduled(true); // don't use this thread - schedule async
                 }
@@ -2024,8 +2296,8 @@ public class ServiceContext {
             xLocalClock.TIMER.schedule(m_taskCurrent, Math.max(1, ldtWakeUp - ldtNow));
         }
 
-        private long      f_ldtScheduled; // when
-        private TimerTask m_taskCurrent;  // what
+        private long            f_ldtScheduled; // when
+        private TimerWheel.Task m_taskCurrent;  // what
     }
 
     /**
@@ -2043,14 +2315,24 @@ public class ServiceContext {
     public final Container f_container;
 
     /**
-     * The queue size threshold at which the caller should be pushed back.
+     * The default queue size threshold at which the caller should be pushed back.
      */
     public static final int QUEUE_THRESHOLD = 128;
 
     /**
-     * The number of ops the service is allowed to execute until it must yield to other services.
+     * The number of time samples per time slice the op sampling frequency is calibrated for.
+     */
+    private static final int SAMPLES_PER_SLICE = 16;
+
+    /**
+     * The minimum number of ops between the time samples.
+     */
+    private static final int MIN_OPS_PER_SAMPLE = 64;
+
+    /**
+     * The maximum number of ops between the time samples.
      */
-    public static final int MAX_OPS_PER_RUN = 1_000_000;
+    private static final int MAX_OPS_PER_SAMPLE = 1 << 16;
 
     /**
      * The container's ConstantPool.
@@ -2092,20 +2374,76 @@ public class ServiceContext {
      */
     protected long m_cRuntimeNanos;
 
+    /**
+     * Metrics: the time (in nanos) the service was created at.
+     */
+    private final long f_nanosCreated = System.nanoTime();
+
+    /**
+     * Metrics: the number of runs (time slices) this service has executed.
+     */
+    private long m_cRuns;
+
+    /**
+     * Metrics: the total number of ops executed by all the runs.
+     */
+    private long m_cRunOps;
+
+    /**
+     * Metrics: the total time (in nanos) spent by all the runs.
+     */
+    private long m_cRunNanos;
+
+    /**
+     * Metrics: the number of messages added to the request queue.
+     */
+    private final LongAdder f_cMsgReceived = new LongAdder();
+
+    /**
+     * Metrics: the number of messages taken from the request queue.
+     */
+    private long m_cMsgProcessed;
+
+    /**
+     * Metrics: the number of times the service has been picked up by a worker thread, the total
+     * and the maximum time (in nanos) it has waited for that.
+     */
+    private long m_cScheduleWaits;
+    private long m_cScheduleWaitNanos;
+    private long m_cScheduleWaitNanosMax;
+
+    /**
+     * Metrics: the number of requests processed by the service, the total and the maximum latency
+     * (in nanos) of those requests.
+     */
+    private long m_cCalls;
+    private long m_cCallNanos;
+    private long m_cCallNanosMax;
+
+    /**
+     * The calibrated number of ops between the time samples in {@link #execute(Frame)}.
+     */
+    private int m_cOpsPerSample = 1024;
+
     /**
      * The current frame.
      */
     private Frame m_frameCurrent;
 
+    /**
+     * The pool of the frame register arrays.
+     */
+    final FramePool f_framePool = new FramePool();
+
     /**
      * The queue of incoming messages.
      */
-    private final Queue<Message> f_queueMsg = new ConcurrentLinkedQueue<>();
+    private final ConcurrentMailbox<Message> f_queueMsg = new ConcurrentMailbox<>();
 
     /**
      * The queue of responses.
      */
-    private final Queue<Response> f_queueResponse = new ConcurrentLinkedQueue<>();
+    private final ConcurrentMailbox<Response> f_queueResponse = new ConcurrentMailbox<>();
 
     /**
      * The set of active fibers. It can be [read] accessed by outside threads.
@@ -2144,6 +2482,21 @@ public class ServiceContext {
      */
     volatile long m_lLockScheduling;
 
+    /**
+     * The {@link ServiceScheduler} worker that processed this service last.
+     */
+    final ServiceScheduler.Affinity f_affinity = new ServiceScheduler.Affinity();
+
+    /**
+     * The number of outstanding requests above which the service is considered overwhelmed.
+     */
+    private volatile int m_cBacklogLimit = QUEUE_THRESHOLD;
+
+    /**
+     * The policy for the requests that arrive when the service is overwhelmed.
+     */
+    private volatile OverloadPolicy m_policyOverload = OverloadPolicy.Defer;
+
     /**
      * The current service status. Must be the same names as in natural Service.StatusIndicator.
      */
@@ -2153,7 +2506,25 @@ public class ServiceContext {
         Busy,
         BusyWaiting,
         ShuttingDown,
-        Terminated
+        Terminated,
+        Overloaded
+    }
+
+    /**
+     * The policy for the requests that arrive when the service is overwhelmed. Must be the same
+     * names as in natural Service.OverloadPolicy.
+     */
+    public enum OverloadPolicy {
+        /**
+         * Accept the request, but push back on the caller by suspending its fiber until the
+         * request is processed.
+         */
+        Defer,
+
+        /**
+         * Reject the request by raising an exception on the caller's fiber.
+         */
+        Reject
     }
 
     /**
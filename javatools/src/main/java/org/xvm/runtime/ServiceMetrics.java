@@ -0,0 +1,188 @@
+package org.xvm.runtime;
+
+
+/**
+ * An immutable snapshot of the run-time metrics for a {@link ServiceContext}.
+ * <p>
+ * Note: the metrics are updated by the service thread without any synchronization, so the values
+ *       reported to other threads are approximate.
+ * <p>
+ * The accessors follow the Java bean conventions, which allows the snapshots to be exposed via the
+ * {@link RuntimeMetricsMXBean}.
+ */
+public class ServiceMetrics {
+    public ServiceMetrics(String sName, String sContainer, String sStatus,
+                          long cMessageDepth, long cMessages, int cFibers, int cBacklog,
+                          long cRuns, long cOps, long cExecuteNanos,
+                          long cScheduleWaits, long cScheduleWaitNanos, long cScheduleWaitNanosMax,
+                          long cCalls, long cCallNanos, long cCallNanosMax,
+                          long cUpTimeNanos) {
+        f_sName                 = sName;
+        f_sContainer            = sContainer;
+        f_sStatus               = sStatus;
+        f_cMessageDepth         = cMessageDepth;
+        f_cMessages             = cMessages;
+        f_cFibers               = cFibers;
+        f_cBacklog              = cBacklog;
+        f_cRuns                 = cRuns;
+        f_cOps                  = cOps;
+        f_cExecuteNanos         = cExecuteNanos;
+        f_cScheduleWaits        = cScheduleWaits;
+        f_cScheduleWaitNanos    = cScheduleWaitNanos;
+        f_cScheduleWaitNanosMax = cScheduleWaitNanosMax;
+        f_cCalls                = cCalls;
+        f_cCallNanos            = cCallNanos;
+        f_cCallNanosMax         = cCallNanosMax;
+        f_cUpTimeNanos          = cUpTimeNanos;
+    }
+
+    /**
+     * @return the service name
+     */
+    public String getName() {
+        return f_sName;
+    }
+
+    /**
+     * @return the description of the container the service belongs to
+     */
+    public String getContainer() {
+        return f_sContainer;
+    }
+
+    /**
+     * @return the name of the service status (see {@link ServiceContext.ServiceStatus})
+     */
+    public String getStatus() {
+        return f_sStatus;
+    }
+
+    /**
+     * @return the number of messages that are in the request queue
+     */
+    public long getMessageDepth() {
+        return f_cMessageDepth;
+    }
+
+    /**
+     * @return the total number of messages the service has received
+     */
+    public long getMessageCount() {
+        return f_cMessages;
+    }
+
+    /**
+     * @return the number of live fibers
+     */
+    public int getFiberCount() {
+        return f_cFibers;
+    }
+
+    /**
+     * @return the number of suspended (initial or waiting) fibers
+     */
+    public int getBacklogDepth() {
+        return f_cBacklog;
+    }
+
+    /**
+     * @return the number of runs (time slices) the service has executed
+     */
+    public long getRunCount() {
+        return f_cRuns;
+    }
+
+    /**
+     * @return the number of ops the service has executed
+     */
+    public long getOpCount() {
+        return f_cOps;
+    }
+
+    /**
+     * @return the total time (in nanos) spent executing the service code
+     */
+    public long getExecuteNanos() {
+        return f_cExecuteNanos;
+    }
+
+    /**
+     * @return the average time (in nanos) the service has waited for a worker thread once
+     *         scheduled
+     */
+    public long getAverageScheduleWaitNanos() {
+        return f_cScheduleWaits == 0 ? 0 : f_cScheduleWaitNanos / f_cScheduleWaits;
+    }
+
+    /**
+     * @return the maximum time (in nanos) the service has waited for a worker thread
+     */
+    public long getMaxScheduleWaitNanos() {
+        return f_cScheduleWaitNanosMax;
+    }
+
+    /**
+     * @return the number of requests the service has processed
+     */
+    public long getCallCount() {
+        return f_cCalls;
+    }
+
+    /**
+     * @return the average latency (in nanos) of the requests processed by the service, from the
+     *         time a request was sent until the response was sent back
+     */
+    public long getAverageCallNanos() {
+        return f_cCalls == 0 ? 0 : f_cCallNanos / f_cCalls;
+    }
+
+    /**
+     * @return the maximum latency (in nanos) of the requests processed by the service
+     */
+    public long getMaxCallNanos() {
+        return f_cCallNanosMax;
+    }
+
+    /**
+     * @return the time (in nanos) since the service was created
+     */
+    public long getUpTimeNanos() {
+        return f_cUpTimeNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ServiceMetrics{name=" + f_sName
+                + ", status="            + f_sStatus
+                + ", messageDepth="      + f_cMessageDepth
+                + ", fibers="            + f_cFibers
+                + ", backlog="           + f_cBacklog
+                + ", ops="               + f_cOps
+                + ", executeNanos="      + f_cExecuteNanos
+                + ", avgScheduleWait="   + getAverageScheduleWaitNanos()
+                + ", calls="             + f_cCalls
+                + ", avgCallNanos="      + getAverageCallNanos()
+                + '}';
+    }
+
+
+    // ----- fields --------------------------------------------------------------------------------
+
+    private final String f_sName;
+    private final String f_sContainer;
+    private final String f_sStatus;
+    private final long   f_cMessageDepth;
+    private final long   f_cMessages;
+    private final int    f_cFibers;
+    private final int    f_cBacklog;
+    private final long   f_cRuns;
+    private final long   f_cOps;
+    private final long   f_cExecuteNanos;
+    private final long   f_cScheduleWaits;
+    private final long   f_cScheduleWaitNanos;
+    private final long   f_cScheduleWaitNanosMax;
+    private final long   f_cCalls;
+    private final long   f_cCallNanos;
+    private final long   f_cCallNanosMax;
+    private final long   f_cUpTimeNanos;
+}
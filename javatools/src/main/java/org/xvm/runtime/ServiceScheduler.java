@@ -0,0 +1,458 @@
+package org.xvm.runtime;
+
+
+import java.util.ArrayList;
+import java.util.List;
+
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * A fair, work-stealing scheduler for {@link ServiceContext} processing.
+ * <p>
+ * Each worker owns a deque of tasks; in addition, there is a shared "injection" queue for tasks
+ * submitted without any affinity by threads that are not workers. The scheduling rules are:
+ * <ul>
+ *   <li>a service remembers the worker that processed it last, and when rescheduled, its task is
+ *       pushed to the same worker's deque (service affinity), which keeps the service state in
+ *       that worker's CPU caches;</li>
+ *   <li>a worker processes its own deque in FIFO order, so all the services that share a worker
+ *       are served round-robin;</li>
+ *   <li>every {@link #FAIRNESS_INTERVAL} tasks a worker polls the injection queue before its own
+ *       deque, so external submissions cannot be starved by a busy deque;</li>
+ *   <li>an idle worker steals the oldest task from other workers' deques before parking.</li>
+ * </ul>
+ * As a result, no task waits for longer than it takes its worker to process the tasks ahead of it
+ * in the deque, and any such wait is shortened by idle workers stealing the oldest tasks.
+ */
+public class ServiceScheduler
+        extends AbstractExecutorService {
+    /**
+     * Construct the scheduler.
+     *
+     * @param cWorkers  the number of worker threads
+     * @param factory   the factory for the worker threads
+     */
+    public ServiceScheduler(int cWorkers, ThreadFactory factory) {
+        assert cWorkers > 0;
+
+        Worker[] aWorker = new Worker[cWorkers];
+        for (int i = 0; i < cWorkers; i++) {
+            aWorker[i] = new Worker(i);
+        }
+        f_aWorker = aWorker;
+
+        for (Worker worker : aWorker) {
+            Thread thread = factory.newThread(worker);
+            worker.m_thread = thread;
+            thread.start();
+        }
+    }
+
+
+    // ----- scheduling ----------------------------------------------------------------------------
+
+    /**
+     * Schedule a task that processes the specified service. The task is pushed to the worker that
+     * processed the service last; if there is none, to the current worker (if called on a worker
+     * thread) or to the injection queue.
+     *
+     * @param affinity  the worker affinity of the service the task is processing
+     * @param task      the task
+     */
+    public void schedule(Affinity affinity, Runnable task) {
+        if (m_fShutdown) {
+            throw new RejectedExecutionException();
+        }
+
+        Worker[] aWorker = f_aWorker;
+        int      nWorker = affinity.m_nWorker;
+        Worker   worker;
+        if (nWorker >= 0 && nWorker < aWorker.length) {
+            worker = aWorker[nWorker];
+        } else {
+            Worker workerThis = currentWorker();
+            if (workerThis == null) {
+                push(null, new AffineTask(affinity, task));
+                return;
+            }
+            worker = workerThis;
+        }
+        push(worker, new AffineTask(affinity, task));
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (m_fShutdown) {
+            throw new RejectedExecutionException();
+        }
+        push(currentWorker(), task);
+    }
+
+    /**
+     * @return the number of workers that are currently running tasks
+     */
+    public int getActiveCount() {
+        return f_cActive.get();
+    }
+
+    /**
+     * @return the number of workers
+     */
+    public int getWorkerCount() {
+        return f_aWorker.length;
+    }
+
+    /**
+     * @return the approximate number of tasks waiting to be processed
+     */
+    public int getQueuedTaskCount() {
+        int cTasks = f_queueInject.size();
+        for (Worker worker : f_aWorker) {
+            cTasks += worker.f_deque.size();
+        }
+        return cTasks;
+    }
+
+    /**
+     * Push the task to the specified worker's deque (or the injection queue if the worker is not
+     * specified) and make sure someone is going to process it.
+     */
+    private void push(Worker worker, Runnable task) {
+        if (worker == null) {
+            f_queueInject.add(task);
+            signalIdle();
+        } else {
+            worker.f_deque.addLast(task);
+            if (!worker.unpark() && worker.m_fBusy) {
+                // the target worker is busy; let an idle worker steal the task if it can (a worker
+                // that is neither parked nor busy is going to check its deque before parking)
+                signalIdle();
+            }
+        }
+    }
+
+    /**
+     * Wake up one parked worker, if any.
+     */
+    private void signalIdle() {
+        if (f_cIdle.get() > 0) {
+            Worker[] aWorker = f_aWorker;
+            int      cWorker = aWorker.length;
+            int      iStart  = ThreadLocalRandom.current().nextInt(cWorker);
+            for (int i = 0; i < cWorker; i++) {
+                if (aWorker[(iStart + i) % cWorker].unpark()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the worker for the current thread or null if the current thread is not a worker
+     *         of this scheduler
+     */
+    private Worker currentWorker() {
+        Worker worker = s_tloWorker.get();
+        return worker != null && worker.getScheduler() == this ? worker : null;
+    }
+
+
+    // ----- ExecutorService interface -------------------------------------------------------------
+
+    @Override
+    public void shutdown() {
+        m_fShutdown = true;
+        for (Worker worker : f_aWorker) {
+            LockSupport.unpark(worker.m_thread);
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown();
+
+        List<Runnable> listTasks = new ArrayList<>();
+        Runnable       task;
+        while ((task = f_queueInject.poll()) != null) {
+            listTasks.add(task);
+        }
+        for (Worker worker : f_aWorker) {
+            while ((task = worker.f_deque.pollFirst()) != null) {
+                listTasks.add(task);
+            }
+        }
+        return listTasks;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return m_fShutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        if (!m_fShutdown) {
+            return false;
+        }
+        for (Worker worker : f_aWorker) {
+            if (worker.m_thread.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit)
+            throws InterruptedException {
+        long ldtDeadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Worker worker : f_aWorker) {
+            long cNanos = ldtDeadline - System.nanoTime();
+            if (cNanos <= 0) {
+                return isTerminated();
+            }
+            TimeUnit.NANOSECONDS.timedJoin(worker.m_thread, cNanos);
+        }
+        return isTerminated();
+    }
+
+
+    // ----- inner classes -------------------------------------------------------------------------
+
+    /**
+     * The worker affinity of a service: the index of the worker that processed the service last.
+     * This is just a scheduling hint, so the access to it doesn't need to be synchronized.
+     */
+    public static class Affinity {
+        /**
+         * @return the index of the worker that processed the service last or -1 if none
+         */
+        public int getWorker() {
+            return m_nWorker;
+        }
+
+        /**
+         * The worker index (-1 if none).
+         */
+        private int m_nWorker = -1;
+    }
+
+    /**
+     * A task that records the affinity of the service it processes to the worker running it.
+     */
+    private record AffineTask(Affinity affinity, Runnable task)
+            implements Runnable {
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+
+    /**
+     * A worker with its own task deque.
+     */
+    private class Worker
+            implements Runnable {
+        Worker(int nIndex) {
+            f_nIndex = nIndex;
+        }
+
+        ServiceScheduler getScheduler() {
+            return ServiceScheduler.this;
+        }
+
+        @Override
+        public void run() {
+            s_tloWorker.set(this);
+
+            while (!m_fShutdown) {
+                Runnable task = nextTask();
+                if (task == null) {
+                    park();
+                    continue;
+                }
+
+                f_cActive.incrementAndGet();
+                m_fBusy = true;
+                try {
+                    if (task instanceof AffineTask taskAffine) {
+                        taskAffine.affinity.m_nWorker = f_nIndex;
+                    }
+                    task.run();
+                } catch (Throwable e) {
+                    // must not happen, since the service tasks handle their own exceptions; report
+                    // it the same way a thread pool would, but keep the worker running
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                } finally {
+                    m_fBusy = false;
+                    f_cActive.decrementAndGet();
+                }
+            }
+        }
+
+        /**
+         * @return the next task to process or null if there are none
+         */
+        private Runnable nextTask() {
+            Runnable task;
+            if (++m_cTicks % FAIRNESS_INTERVAL == 0 && (task = f_queueInject.poll()) != null) {
+                return task;
+            }
+
+            if ((task = f_deque.pollFirst()) != null ||
+                (task = f_queueInject.poll()) != null) {
+                return task;
+            }
+            return steal();
+        }
+
+        /**
+         * @return the oldest task of some other worker or null if all the deques are empty
+         */
+        private Runnable steal() {
+            Worker[] aWorker = f_aWorker;
+            int      cWorker = aWorker.length;
+            int      iStart  = ThreadLocalRandom.current().nextInt(cWorker);
+            for (int i = 0; i < cWorker; i++) {
+                Worker victim = aWorker[(iStart + i) % cWorker];
+                if (victim != this) {
+                    Runnable task = victim.f_deque.pollFirst();
+                    if (task != null) {
+                        return task;
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Park the worker until there is more work to do.
+         */
+        private void park() {
+            // the "parked" flag must be visible before re-checking for tasks; a pushing thread
+            // writes the task before checking the flag, so at least one of them sees the other
+            m_fParked = true;
+            f_cIdle.incrementAndGet();
+            try {
+                if (f_deque.isEmpty() && f_queueInject.isEmpty() && !isAnyStealable() &&
+                        !m_fShutdown) {
+                    LockSupport.parkNanos(this, PARK_NANOS);
+                }
+            } finally {
+                f_cIdle.decrementAndGet();
+                m_fParked = false;
+            }
+        }
+
+        /**
+         * @return true iff any other worker has tasks in its deque
+         */
+        private boolean isAnyStealable() {
+            for (Worker worker : f_aWorker) {
+                if (worker != this && !worker.f_deque.isEmpty()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Unpark this worker if it's parked.
+         *
+         * @return true iff the worker was parked
+         */
+        boolean unpark() {
+            if (m_fParked) {
+                LockSupport.unpark(m_thread);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * The worker index.
+         */
+        private final int f_nIndex;
+
+        /**
+         * The worker's task deque.
+         */
+        private final ConcurrentLinkedDeque<Runnable> f_deque = new ConcurrentLinkedDeque<>();
+
+        /**
+         * The worker thread.
+         */
+        private Thread m_thread;
+
+        /**
+         * The number of tasks taken by this worker (used for fairness).
+         */
+        private int m_cTicks;
+
+        /**
+         * True iff the worker is running a task.
+         */
+        private volatile boolean m_fBusy;
+
+        /**
+         * True iff the worker is (or is about to get) parked.
+         */
+        private volatile boolean m_fParked;
+    }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * The number of tasks after which a worker gives the injection queue a priority over its own
+     * deque.
+     */
+    public static final int FAIRNESS_INTERVAL = 61;
+
+    /**
+     * The maximum time an idle worker stays parked before re-checking for work.
+     */
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    /**
+     * The worker served by the current thread.
+     */
+    private static final ThreadLocal<Worker> s_tloWorker = new ThreadLocal<>();
+
+    /**
+     * The workers.
+     */
+    private final Worker[] f_aWorker;
+
+    /**
+     * The queue for tasks submitted by non-worker threads without any affinity.
+     */
+    private final ConcurrentLinkedQueue<Runnable> f_queueInject = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The number of workers that are currently running tasks.
+     */
+    private final AtomicInteger f_cActive = new AtomicInteger();
+
+    /**
+     * The number of parked workers.
+     */
+    private final AtomicInteger f_cIdle = new AtomicInteger();
+
+    /**
+     * The "shutdown" flag.
+     */
+    private volatile boolean m_fShutdown;
+}
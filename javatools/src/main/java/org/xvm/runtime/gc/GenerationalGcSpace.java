@@ -0,0 +1,915 @@
+package org.xvm.runtime.gc;
+
+
+import org.xvm.util.LongMuterator;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * A generational collector with a copying young generation and a {@code mark-and-sweep} old
+ * generation.
+ * <p>
+ * New objects are allocated by bumping an index into the current young "semi-space". Once it fills
+ * up, a minor collection copies the live young objects (Cheney style) into the other semi-space, or
+ * promotes them into the old generation once they have survived {@link #f_nTenureAge} collections.
+ * The minor collection only visits the roots, the live young objects and the old objects recorded in
+ * the remembered set by the {@link #setField write barrier}, so its pause is proportional to the
+ * amount of the live young data rather than the size of the whole space.
+ * <p>
+ * The old generation is collected by a full {@link #gc}, which is triggered when the old generation
+ * doubles in size since the previous full collection, or when the soft limit is exceeded.
+ * <p>
+ * Since the young objects move, the addresses held by the roots are updated via
+ * {@link LongMuterator#set}; the old objects never move.
+ */
+public class GenerationalGcSpace<V>
+        implements GcSpace {
+
+    /**
+     * Construct a {@link GenerationalGcSpace}.
+     *
+     * @param accessor        the accessor of accessing the contents of an object
+     * @param clearedListener a function to invoke with a pointer to a weak-ref once it's been cleared
+     */
+    public GenerationalGcSpace(ObjectManager<V> accessor, LongConsumer clearedListener) {
+        this(accessor, clearedListener, DEFAULT_YOUNG_CAPACITY, DEFAULT_TENURE_AGE,
+                Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Construct a {@link GenerationalGcSpace} with limits.
+     *
+     * @param accessor        the accessor of accessing the contents of an object
+     * @param clearedListener a function to invoke with a pointer to a weak-ref once it's been cleared
+     * @param cYoungCapacity  the number of objects that fit into a young semi-space
+     * @param nTenureAge      the number of minor collections an object has to survive to be promoted
+     * @param cbLimitSoft     the byte size to try to stay within
+     * @param cbLimitHard     the maximum allowable byte size
+     */
+    @SuppressWarnings("unchecked")
+    public GenerationalGcSpace(ObjectManager<V> accessor,
+                               LongConsumer clearedListener,
+                               int cYoungCapacity,
+                               int nTenureAge,
+                               long cbLimitSoft,
+                               long cbLimitHard) {
+        if (cYoungCapacity <= 0) {
+            throw new IllegalArgumentException("young capacity must be positive");
+        }
+        if (nTenureAge < 1 || nTenureAge > (AGE_MASK >>> AGE_SHIFT)) {
+            throw new IllegalArgumentException("illegal tenure age: " + nTenureAge);
+        }
+
+        f_accessor        = accessor;
+        f_clearedListener = clearedListener;
+        f_cYoungCapacity  = cYoungCapacity;
+        f_nTenureAge      = nTenureAge;
+        f_cbLimitSoft     = cbLimitSoft;
+        f_cbLimitHard     = cbLimitHard;
+        f_aaYoung         = (V[][]) new Object[2][cYoungCapacity];
+        f_alForward       = new long[cYoungCapacity];
+
+        for (int i = 0; i < m_anFreeSlots.length; ++i) {
+            m_anFreeSlots[i] = i;
+        }
+        m_nTopFree = m_anFreeSlots.length - 1;
+    }
+
+    @Override
+    public long allocate(int cFields)
+            throws OutOfMemoryError {
+        if (m_cBytes > f_cbLimitSoft) {
+            gc();
+            if (m_cBytes > f_cbLimitHard) {
+                throw new OutOfMemoryError("hard limit exceeded");
+            }
+        }
+
+        if (m_iYoungTop == f_cYoungCapacity) {
+            gcYoung();
+            if (m_cbOld > m_cbOldThreshold) {
+                gc();
+            }
+        }
+
+        V resource = f_accessor.allocate(cFields);
+        setFieldCount(resource, cFields);
+        m_cBytes += f_accessor.getByteSize(resource);
+
+        int nSpace = m_nSpace;
+        int index  = m_iYoungTop++;
+        f_aaYoung[nSpace][index] = resource;
+        return youngAddress(nSpace, index);
+    }
+
+    @Override
+    public long allocateWeak(int cFields) throws OutOfMemoryError {
+        if (cFields == 0) {
+            throw new IllegalArgumentException("weak-refs must have at least one field");
+        }
+
+        long address = allocate(cFields);
+        getAndSetHeaderBit(ensure(address), WEAK_MASK, true);
+        return address;
+    }
+
+    @Override
+    public boolean isValid(long address) {
+        if (!isLocal(address)) {
+            return false;
+        }
+
+        int index = index(address);
+        if (isOld(address)) {
+            return index < m_aOld.length && m_aOld[index] != null;
+        }
+
+        return space(address) == m_nSpace && index < m_iYoungTop && f_aaYoung[m_nSpace][index] != null;
+    }
+
+    /**
+     * Tests if the address is valid and if so return the storage object.
+     *
+     * @param address the address of the object
+     * @return the object
+     * @throws SegFault if the address is invalid
+     */
+    private V ensure(long address)
+        throws SegFault {
+        if (address == NULL) {
+            throw new NullPointerException();
+        } else if (!isValid(address)) {
+            throw new SegFault();
+        }
+
+        return resolve(address);
+    }
+
+    /**
+     * Return the storage object for the specified address without validating it.
+     *
+     * @param address the address of the object
+     * @return the object or {@code null}
+     */
+    private V resolve(long address) {
+        return isOld(address)
+                ? m_aOld[index(address)]
+                : f_aaYoung[space(address)][index(address)];
+    }
+
+    @Override
+    public long getField(long address, int index) throws SegFault {
+        return f_accessor.getField(ensure(address), index);
+    }
+
+    @Override
+    public void setField(long address, int index, long handle) throws SegFault {
+        V o = ensure(address);
+        f_accessor.setField(o, index, handle);
+
+        // the write barrier: an old object referring to a young one is a root for minor collections
+        if (isOld(address) && isYoung(handle)) {
+            remember(o, index(address));
+        }
+    }
+
+    @Override
+    public void addRoot(Supplier<? extends LongMuterator> root) {
+        f_setRoots.add(root);
+    }
+
+    @Override
+    public void removeRoot(Supplier<? extends LongMuterator> root) {
+        f_setRoots.remove(root);
+    }
+
+    @Override
+    public long getByteCount() {
+        return m_cBytes;
+    }
+
+    /**
+     * @return the amount of memory consumed by the objects in the old generation
+     */
+    public long getOldByteCount() {
+        return m_cbOld;
+    }
+
+    /**
+     * @return the number of minor (young generation) collections performed so far
+     */
+    public long getYoungCollectionCount() {
+        return m_cYoungCollections;
+    }
+
+    /**
+     * @return the number of full collections performed so far
+     */
+    public long getFullCollectionCount() {
+        return m_cFullCollections;
+    }
+
+    @Override
+    public void gc() {
+        // empty the young generation, so the old generation can be collected in place
+        collectYoung(true);
+        collectOld();
+    }
+
+    /**
+     * Perform a minor collection, which only reclaims the unreachable young objects.
+     */
+    public void gcYoung() {
+        collectYoung(false);
+    }
+
+
+    // ----- young generation ----------------------------------------------------------------------
+
+    /**
+     * Evacuate all the reachable young objects out of the current semi-space.
+     *
+     * @param fPromoteAll  if {@code true}, all the reachable young objects are promoted
+     */
+    private void collectYoung(boolean fPromoteAll) {
+        int nFrom  = m_nSpace;
+        int nTo    = nFrom ^ 1;
+        int cFrom  = m_iYoungTop;
+        V[] aFrom  = f_aaYoung[nFrom];
+        V[] aTo    = f_aaYoung[nTo];
+
+        m_fPromoteAll = fPromoteAll;
+        m_iToTop      = 0;
+        m_cWeaks      = 0;
+
+        // the roots
+        for (var root : f_setRoots) {
+            for (var liter = root.get(); liter.hasNext(); ) {
+                long address = liter.nextLong();
+                if (isYoung(address)) {
+                    liter.set(evacuate(address));
+                }
+            }
+        }
+
+        // the remembered set; the objects that still refer to the young ones get re-remembered
+        int[] anRemembered = m_anRemembered;
+        int   cRemembered  = m_cRemembered;
+        m_anRemembered = new int[Math.max(16, cRemembered)];
+        m_cRemembered  = 0;
+        for (int i = 0; i < cRemembered; ++i) {
+            int slot = anRemembered[i];
+            V   o    = m_aOld[slot];
+            if (o != null) {
+                getAndSetHeaderBit(o, REMEMBERED_MASK, false);
+                scan(o, oldAddress(slot));
+            }
+        }
+
+        // the transitive closure; the to-space itself serves as the queue of the copied objects
+        for (int iScan = 0; ; ) {
+            if (iScan < m_iToTop) {
+                scan(aTo[iScan], youngAddress(nTo, iScan));
+                ++iScan;
+            } else if (m_cPromoted > 0) {
+                int slot = m_anPromoted[--m_cPromoted];
+                scan(m_aOld[slot], oldAddress(slot));
+            } else {
+                break;
+            }
+        }
+
+        // the weak-refs that were reached
+        long[] alNotify = null;
+        int    cNotify  = 0;
+        for (int i = 0, c = m_cWeaks; i < c; ++i) {
+            long pWeak     = m_alWeaks[i];
+            V    weak      = resolve(pWeak);
+            long pReferent = f_accessor.getField(weak, WEAK_REFERENT_FIELD);
+            if (isYoung(pReferent) && space(pReferent) == nFrom) {
+                long pForward = f_alForward[index(pReferent)];
+                if (pForward == NULL) {
+                    f_accessor.setField(weak, WEAK_REFERENT_FIELD, NULL); // clear referent
+                    if (getFieldCount(weak) > WEAK_NOTIFIER_FIELD
+                            && f_accessor.getField(weak, WEAK_NOTIFIER_FIELD) != NULL) {
+                        if (alNotify == null) {
+                            alNotify = new long[8];
+                        } else if (cNotify == alNotify.length) {
+                            alNotify = Arrays.copyOf(alNotify, cNotify * 2);
+                        }
+                        alNotify[cNotify++] = pWeak;
+                    }
+                } else {
+                    f_accessor.setField(weak, WEAK_REFERENT_FIELD, pForward);
+                    if (isOld(pWeak) && isYoung(pForward)) {
+                        remember(weak, index(pWeak));
+                    }
+                }
+            }
+        }
+
+        // free whatever was left behind
+        for (int i = 0; i < cFrom; ++i) {
+            V o = aFrom[i];
+            if (o != null) {
+                aFrom[i] = null;
+                m_cBytes -= f_accessor.getByteSize(o);
+                f_accessor.free(o);
+            }
+        }
+        Arrays.fill(f_alForward, 0, cFrom, NULL);
+
+        m_nSpace    = nTo;
+        m_iYoungTop = m_iToTop;
+        ++m_cYoungCollections;
+
+        for (int i = 0; i < cNotify; ++i) {
+            f_clearedListener.accept(alNotify[i]);
+        }
+    }
+
+    /**
+     * Update the fields of an object that has been copied, promoted or remembered, evacuating the
+     * young objects it refers to.
+     *
+     * @param o       the object to scan
+     * @param address the (new) address of the object
+     */
+    private void scan(V o, long address) {
+        int cFields = getFieldCount(o);
+        int iField  = 0;
+        if (getHeaderBit(o, WEAK_MASK)) {
+            // the referent is not traced; it's processed once the closure is known
+            if (m_cWeaks == m_alWeaks.length) {
+                m_alWeaks = Arrays.copyOf(m_alWeaks, m_cWeaks * 2);
+            }
+            m_alWeaks[m_cWeaks++] = address;
+            iField = 1;
+        }
+
+        boolean fOld = isOld(address);
+        for (; iField < cFields; ++iField) {
+            long pField = f_accessor.getField(o, iField);
+            if (isYoung(pField)) {
+                pField = evacuate(pField);
+                f_accessor.setField(o, iField, pField);
+                if (fOld && isYoung(pField)) {
+                    remember(o, index(address));
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy a young object out of the from-space, unless it has already been copied.
+     *
+     * @param address the young object address
+     * @return the new address of the object
+     */
+    private long evacuate(long address) {
+        int nFrom = m_nSpace;
+        if (space(address) != nFrom) {
+            // already in the to-space
+            return address;
+        }
+
+        int  index    = index(address);
+        long pForward = f_alForward[index];
+        if (pForward != NULL) {
+            return pForward;
+        }
+
+        V[] aFrom = f_aaYoung[nFrom];
+        V   oFrom = index < m_iYoungTop ? aFrom[index] : null;
+        if (oFrom == null) {
+            throw new SegFault();
+        }
+
+        long header  = f_accessor.getHeader(oFrom);
+        int  cFields = getFieldCount(oFrom);
+        int  nAge    = (int) ((header & AGE_MASK) >>> AGE_SHIFT) + 1;
+        V    oTo     = f_accessor.allocate(cFields);
+        for (int i = 0; i < cFields; ++i) {
+            f_accessor.setField(oTo, i, f_accessor.getField(oFrom, i));
+        }
+
+        long cbFrom = f_accessor.getByteSize(oFrom);
+        long cbTo   = f_accessor.getByteSize(oTo);
+        header &= ~(AGE_MASK | REMEMBERED_MASK | MARKER_MASK);
+
+        // promote if old enough, or if keeping it young would leave less than half of the
+        // semi-space for the new allocations
+        if (m_fPromoteAll || nAge >= f_nTenureAge || m_iToTop >= f_cYoungCapacity / 2) {
+            f_accessor.setHeader(oTo, header);
+            if (m_nTopFree < 0) {
+                grow();
+            }
+            int slot = m_anFreeSlots[m_nTopFree--];
+            m_aOld[slot] = oTo;
+            m_cbOld     += cbTo;
+
+            if (m_cPromoted == m_anPromoted.length) {
+                m_anPromoted = Arrays.copyOf(m_anPromoted, m_cPromoted * 2);
+            }
+            m_anPromoted[m_cPromoted++] = slot;
+            pForward = oldAddress(slot);
+        } else {
+            f_accessor.setHeader(oTo, header | ((long) nAge << AGE_SHIFT));
+            int iTo = m_iToTop++;
+            f_aaYoung[nFrom ^ 1][iTo] = oTo;
+            pForward = youngAddress(nFrom ^ 1, iTo);
+        }
+
+        aFrom[index] = null;
+        m_cBytes += cbTo - cbFrom;
+        f_accessor.free(oFrom);
+
+        f_alForward[index] = pForward;
+        return pForward;
+    }
+
+    /**
+     * Add an old object to the remembered set.
+     *
+     * @param o    the old object
+     * @param slot the object's slot
+     */
+    private void remember(V o, int slot) {
+        if (!getAndSetHeaderBit(o, REMEMBERED_MASK, true)) {
+            if (m_cRemembered == m_anRemembered.length) {
+                m_anRemembered = Arrays.copyOf(m_anRemembered, m_cRemembered * 2);
+            }
+            m_anRemembered[m_cRemembered++] = slot;
+        }
+    }
+
+
+    // ----- old generation ------------------------------------------------------------------------
+
+    /**
+     * Mark and sweep the old generation; the young generation must be empty.
+     */
+    private void collectOld() {
+        V[] aOld = m_aOld;
+
+        // mark
+        int cTop = 0;
+        for (var root : f_setRoots) {
+            for (var liter = root.get(); liter.hasNext(); ) {
+                cTop = mark(liter.nextLong(), cTop);
+            }
+        }
+
+        int[] anWeaks = null;
+        int   cWeaks  = 0;
+        while (cTop > 0) {
+            int slot    = m_anMark[--cTop];
+            V   o       = aOld[slot];
+            int cFields = getFieldCount(o);
+            int iField  = 0;
+            if (getHeaderBit(o, WEAK_MASK)) {
+                if (anWeaks == null) {
+                    anWeaks = new int[8];
+                } else if (cWeaks == anWeaks.length) {
+                    anWeaks = Arrays.copyOf(anWeaks, cWeaks * 2);
+                }
+                anWeaks[cWeaks++] = slot;
+                iField = 1;
+            }
+
+            for (; iField < cFields; ++iField) {
+                cTop = mark(f_accessor.getField(o, iField), cTop);
+            }
+        }
+
+        // clear the weak-refs to the unmarked objects; this must be done before the sweep clears
+        // the markers
+        long[] alNotify = null;
+        int    cNotify  = 0;
+        for (int i = 0; i < cWeaks; ++i) {
+            V    weak      = aOld[anWeaks[i]];
+            long pReferent = f_accessor.getField(weak, WEAK_REFERENT_FIELD);
+            if (isOld(pReferent)) {
+                V referent = aOld[index(pReferent)];
+                if (referent == null || !getHeaderBit(referent, MARKER_MASK)) {
+                    f_accessor.setField(weak, WEAK_REFERENT_FIELD, NULL); // clear referent
+                    if (getFieldCount(weak) > WEAK_NOTIFIER_FIELD
+                            && f_accessor.getField(weak, WEAK_NOTIFIER_FIELD) != NULL) {
+                        if (alNotify == null) {
+                            alNotify = new long[8];
+                        } else if (cNotify == alNotify.length) {
+                            alNotify = Arrays.copyOf(alNotify, cNotify * 2);
+                        }
+                        alNotify[cNotify++] = oldAddress(anWeaks[i]);
+                    }
+                }
+            }
+        }
+
+        // sweep
+        for (int i = 0; i < aOld.length; ++i) {
+            V o = aOld[i];
+            if (o != null && !getAndSetHeaderBit(o, MARKER_MASK, false)) {
+                aOld[i] = null;
+                m_anFreeSlots[++m_nTopFree] = i;
+                long cb = f_accessor.getByteSize(o);
+                m_cBytes -= cb;
+                m_cbOld  -= cb;
+                f_accessor.free(o);
+            }
+        }
+
+        m_cbOldThreshold = Math.max(MIN_OLD_THRESHOLD, m_cbOld * 2);
+        ++m_cFullCollections;
+
+        for (int i = 0; i < cNotify; ++i) {
+            f_clearedListener.accept(alNotify[i]);
+        }
+    }
+
+    /**
+     * Mark an old object as reachable and push it onto the mark stack if it was not marked yet.
+     *
+     * @param address the object address
+     * @param cTop    the current mark stack size
+     * @return the new mark stack size
+     */
+    private int mark(long address, int cTop) {
+        if (isOld(address)) {
+            int slot = index(address);
+            V   o    = slot < m_aOld.length ? m_aOld[slot] : null;
+            if (o == null) {
+                throw new SegFault();
+            }
+
+            if (!getAndSetHeaderBit(o, MARKER_MASK, true)) {
+                if (cTop == m_anMark.length) {
+                    m_anMark = Arrays.copyOf(m_anMark, cTop * 2);
+                }
+                m_anMark[cTop++] = slot;
+            }
+        }
+        return cTop;
+    }
+
+    /**
+     * Expand the size of the old generation.
+     */
+    private void grow()
+            throws OutOfMemoryError {
+        int capOld = m_aOld.length;
+        int capNew = capOld * 2;
+        if (capNew < 0) {
+            throw new OutOfMemoryError("old generation is full");
+        }
+
+        int[] anFreeSlotsNew = new int[capNew];
+        for (int i = 0, c = capNew - capOld; i < c; ++i) {
+            anFreeSlotsNew[i] = capNew - 1 - i;
+        }
+
+        m_nTopFree    = capNew - capOld - 1;
+        m_anFreeSlots = anFreeSlotsNew;
+        m_aOld        = Arrays.copyOf(m_aOld, capNew);
+    }
+
+
+    // ----- addresses and headers -----------------------------------------------------------------
+
+    /**
+     * Return the address of a young object.
+     *
+     * @param nSpace the semi-space
+     * @param index  the index within the semi-space
+     * @return the address
+     */
+    private static long youngAddress(int nSpace, int index) {
+        return (((long) index) << 32) | ((long) nSpace << 2) | LOCAL_BIT;
+    }
+
+    /**
+     * Return the address of an old object.
+     *
+     * @param slot the slot
+     * @return the address
+     */
+    private static long oldAddress(int slot) {
+        return (((long) slot) << 32) | OLD_BIT | LOCAL_BIT;
+    }
+
+    /**
+     * Return the slot or semi-space index for a given address.
+     *
+     * @param address the address
+     * @return the index
+     */
+    private static int index(long address) {
+        return (int) (address >>> 32);
+    }
+
+    /**
+     * Return the semi-space of a young address.
+     *
+     * @param address the address
+     * @return the semi-space (0 or 1)
+     */
+    private static int space(long address) {
+        return (int) (address & SPACE_BIT) >>> 2;
+    }
+
+    /**
+     * Return {@code true} if the address represents a local address.
+     *
+     * @param address the address
+     * @return {@code true} if the address represents a local address
+     */
+    private static boolean isLocal(long address) {
+        return (address & LOCAL_BIT) != 0;
+    }
+
+    /**
+     * Return {@code true} if the address represents a local young object.
+     *
+     * @param address the address
+     * @return {@code true} if the address represents a young object
+     */
+    private static boolean isYoung(long address) {
+        return (address & (LOCAL_BIT | OLD_BIT)) == LOCAL_BIT;
+    }
+
+    /**
+     * Return {@code true} if the address represents a local old object.
+     *
+     * @param address the address
+     * @return {@code true} if the address represents an old object
+     */
+    private static boolean isOld(long address) {
+        return (address & (LOCAL_BIT | OLD_BIT)) == (LOCAL_BIT | OLD_BIT);
+    }
+
+    /**
+     * Get a single bit from the header.
+     *
+     * @param o    the object to query
+     * @param mask the header mask to check against
+     * @return the marker
+     */
+    private boolean getHeaderBit(V o, long mask) {
+        return (f_accessor.getHeader(o) & mask) != 0;
+    }
+
+    /**
+     * Get and set the header bit for the given mask.
+     *
+     * @param o     the object
+     * @param mask  the header mask
+     * @param value the updated bit value
+     * @return the old bit value
+     */
+    private boolean getAndSetHeaderBit(V o, long mask, boolean value) {
+        long header = f_accessor.getHeader(o);
+        if (value) {
+            f_accessor.setHeader(o, header | mask);
+        } else {
+            f_accessor.setHeader(o, header & ~mask);
+        }
+
+        return (header & mask) != 0;
+    }
+
+    /**
+     * Return the number of fields contained in the object.
+     *
+     * @param o the object
+     * @return the field count
+     */
+    private int getFieldCount(V o) {
+        return (int) ((f_accessor.getHeader(o) & FIELD_COUNT_MASK) >>> FIELD_COUNT_SHIFT);
+    }
+
+    /**
+     * Set the field count for an object.
+     *
+     * @param o the object
+     * @param cFields the field count
+     */
+    private void setFieldCount(V o, int cFields) {
+        if (cFields < 0 || cFields > (FIELD_COUNT_MASK >> FIELD_COUNT_SHIFT)) {
+            throw new IllegalArgumentException();
+        }
+
+        f_accessor.setHeader(o, (f_accessor.getHeader(o) & ~FIELD_COUNT_MASK) | ((long) cFields << FIELD_COUNT_SHIFT));
+    }
+
+    /**
+     * The address bit indicating a local address.
+     */
+    static final long LOCAL_BIT = 0x1;
+
+    /**
+     * The address bit indicating an old object.
+     */
+    static final long OLD_BIT = 0x2;
+
+    /**
+     * The address bit holding the semi-space of a young object.
+     */
+    static final long SPACE_BIT = 0x4;
+
+    /**
+     * The bit-mask in the header used to mark the object as being reachable.
+     */
+    static final long MARKER_MASK = 0x1;
+
+    /**
+     * The bit-mask in the header used to indicate if the object represents a "weak" ref which
+     * requires special handling.
+     */
+    static final long WEAK_MASK = 0x2;
+
+    /**
+     * The bit-mask in the header encoding the field count.
+     */
+    static final long FIELD_COUNT_MASK = 0xFFC;
+
+    /**
+     * The right shift of the post masked {@link #FIELD_COUNT_MASK} to obtain the field count.
+     */
+    static final int FIELD_COUNT_SHIFT = 2;
+
+    /**
+     * The bit-mask in the header indicating that an old object is in the remembered set.
+     */
+    static final long REMEMBERED_MASK = 0x1000;
+
+    /**
+     * The bit-mask in the header encoding the number of minor collections a young object survived.
+     */
+    static final long AGE_MASK = 0x1E000;
+
+    /**
+     * The right shift of the post masked {@link #AGE_MASK} to obtain the age.
+     */
+    static final int AGE_SHIFT = 13;
+
+    /**
+     * The default number of objects in a young semi-space.
+     */
+    public static final int DEFAULT_YOUNG_CAPACITY = 8 * 1024;
+
+    /**
+     * The default number of minor collections an object has to survive to be promoted.
+     */
+    public static final int DEFAULT_TENURE_AGE = 2;
+
+    /**
+     * The minimum old generation size (in bytes) that triggers a full collection.
+     */
+    static final long MIN_OLD_THRESHOLD = 4 * 1024 * 1024;
+
+    /**
+     * The means by which we access an objects storage.
+     */
+    final ObjectManager<V> f_accessor;
+
+    /**
+     * The listener to notify when weak-refs become clearable
+     */
+    final LongConsumer f_clearedListener;
+
+    /**
+     * The number of objects in a young semi-space.
+     */
+    final int f_cYoungCapacity;
+
+    /**
+     * The number of minor collections an object has to survive to be promoted.
+     */
+    final int f_nTenureAge;
+
+    /**
+     * The size in bytes we will try to stay below.
+     */
+    final long f_cbLimitSoft;
+
+    /**
+     * The maximum size (in bytes) we can grow to.
+     */
+    final long f_cbLimitHard;
+
+    /**
+     * The two young semi-spaces.
+     */
+    final V[][] f_aaYoung;
+
+    /**
+     * The forwarding addresses of the evacuated objects, indexed by their from-space index.
+     */
+    final long[] f_alForward;
+
+    /**
+     * The current young semi-space (0 or 1).
+     */
+    int m_nSpace;
+
+    /**
+     * The allocation ("bump") index into the current young semi-space.
+     */
+    int m_iYoungTop;
+
+    /**
+     * The allocation index into the to-space during a minor collection.
+     */
+    int m_iToTop;
+
+    /**
+     * {@code true} if the current minor collection promotes all the reachable objects.
+     */
+    boolean m_fPromoteAll;
+
+    /**
+     * The amount of memory retained by this {@link GenerationalGcSpace}.
+     */
+    long m_cBytes;
+
+    /**
+     * The amount of memory retained by the old generation.
+     */
+    long m_cbOld;
+
+    /**
+     * The old generation size which triggers a full collection.
+     */
+    long m_cbOldThreshold = MIN_OLD_THRESHOLD;
+
+    /**
+     * The index of the top element in {@link #m_anFreeSlots} that represents a free slot in
+     * {@link #m_aOld}.
+     */
+    int m_nTopFree;
+
+    /**
+     * The slots available in {@link #m_aOld}
+     */
+    int[] m_anFreeSlots = new int[1024];
+
+    /**
+     * References to the old objects, based on their {@link #index(long)}.
+     */
+    @SuppressWarnings("unchecked")
+    V[] m_aOld = (V[]) new Object[m_anFreeSlots.length];
+
+    /**
+     * The slots of the old objects which may refer to young objects.
+     */
+    int[] m_anRemembered = new int[16];
+
+    /**
+     * The number of entries in {@link #m_anRemembered}.
+     */
+    int m_cRemembered;
+
+    /**
+     * The slots of the objects promoted by the current minor collection, which are yet to be scanned.
+     */
+    int[] m_anPromoted = new int[16];
+
+    /**
+     * The number of entries in {@link #m_anPromoted}.
+     */
+    int m_cPromoted;
+
+    /**
+     * The addresses of the weak-refs reached by the current minor collection.
+     */
+    long[] m_alWeaks = new long[16];
+
+    /**
+     * The number of entries in {@link #m_alWeaks}.
+     */
+    int m_cWeaks;
+
+    /**
+     * The mark stack for the full collections.
+     */
+    int[] m_anMark = new int[128];
+
+    /**
+     * The number of minor collections.
+     */
+    long m_cYoungCollections;
+
+    /**
+     * The number of full collections.
+     */
+    long m_cFullCollections;
+
+    /**
+     * The "gc" roots for this space.
+     */
+    final Set<Supplier<? extends LongMuterator>> f_setRoots = new HashSet<>();
+}
@@ -0,0 +1,309 @@
+package org.xvm.runtime.gc;
+
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+import java.lang.invoke.VarHandle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An {@link ObjectManager} implementation which stores objects in off-heap memory.
+ * <p>
+ * The memory is reserved from a shared {@link Arena} in chunks (up to the configured maximum size),
+ * and the objects are bump-allocated from the chunks; the freed objects are kept in per-size free
+ * lists which are threaded through the freed memory itself. As a result, the only Java heap
+ * footprint of an object is its {@link MemorySegment} slice, and the object contents don't add to
+ * the JVM collector's work.
+ * <p>
+ * Unlike the {@link LongArrayObjectManager}, the memory of a freed object is reused, so a dangling
+ * reference is only detected until the memory is handed out again.
+ * <p>
+ * This class is not thread-safe; each {@link GcSpace} should use its own instance, and
+ * {@link #close} it once the space is discarded.
+ */
+public class OffHeapObjectManager
+        implements ObjectManager<MemorySegment>, AutoCloseable {
+    /**
+     * Construct an {@link OffHeapObjectManager}.
+     *
+     * @param cbMax the maximum amount of off-heap memory (in bytes) to reserve
+     */
+    public OffHeapObjectManager(long cbMax) {
+        this(cbMax, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Construct an {@link OffHeapObjectManager}.
+     *
+     * @param cbMax    the maximum amount of off-heap memory (in bytes) to reserve
+     * @param cbChunk  the amount of memory (in bytes) to reserve at once
+     */
+    public OffHeapObjectManager(long cbMax, int cbChunk) {
+        if (cbChunk < MAX_OBJECT_SIZE || cbChunk % Long.BYTES != 0) {
+            throw new IllegalArgumentException("illegal chunk size: " + cbChunk);
+        }
+
+        f_cbMax   = cbMax;
+        f_cbChunk = cbChunk;
+    }
+
+    @Override
+    public MemorySegment allocate(int cFields) {
+        int cWords = cFields + 1;
+        if (cWords > MAX_OBJECT_SIZE / Long.BYTES) {
+            throw new IllegalArgumentException("too many fields: " + cFields);
+        }
+
+        long cb    = (long) cWords * Long.BYTES;
+        long lFree = m_alFree[cWords];
+        if (lFree != NO_BLOCK) {
+            // pop the free list; the freed header holds the next free block
+            MemorySegment o = slice(lFree, cb);
+            m_alFree[cWords] = (long) LONG.get(o, 0L) & ~INVALIDATION_MASK;
+            o.fill((byte) 0);
+            return o;
+        }
+
+        MemorySegment chunk = m_chunk;
+        if (chunk == null || m_ofNext + cb > chunk.byteSize()) {
+            chunk = reserve(cb);
+        }
+
+        long of = m_ofNext;
+        m_ofNext = of + cb;
+        return chunk.asSlice(of, cb);
+    }
+
+    @Override
+    public void free(MemorySegment o) {
+        validate(o);
+
+        // find the chunk that holds the object
+        long   lAddr   = o.address();
+        long[] alBase  = m_alChunkBase;
+        int    iLow    = 0;
+        int    iHigh   = m_cChunks - 1;
+        while (iLow <= iHigh) {
+            int  iMid  = (iLow + iHigh) >>> 1;
+            long lBase = alBase[iMid];
+            if (lAddr < lBase) {
+                iHigh = iMid - 1;
+            } else if (lAddr >= lBase + f_listChunks.get(m_anChunk[iMid]).byteSize()) {
+                iLow = iMid + 1;
+            } else {
+                int cWords = (int) (o.byteSize() / Long.BYTES);
+
+                // mark as invalid in case there are any dangling references, and link the block
+                // into the free list
+                LONG.set(o, 0L, INVALIDATION_MASK | m_alFree[cWords]);
+                m_alFree[cWords] = block(m_anChunk[iMid], lAddr - lBase);
+                return;
+            }
+        }
+        throw new SegFault();
+    }
+
+    @Override
+    public long getByteSize(MemorySegment o) {
+        return validate(o).byteSize();
+    }
+
+    @Override
+    public long getHeader(MemorySegment o) {
+        return (long) LONG.get(validate(o), 0L);
+    }
+
+    @Override
+    public void setHeader(MemorySegment o, long header) {
+        LONG.set(validate(o), 0L, header);
+    }
+
+    @Override
+    public long getField(MemorySegment o, int index) {
+        return (long) LONG.get(validate(o), (index + 1L) * Long.BYTES);
+    }
+
+    @Override
+    public void setField(MemorySegment o, int index, long address) {
+        LONG.set(validate(o), (index + 1L) * Long.BYTES, address);
+    }
+
+    /**
+     * @return the amount of off-heap memory (in bytes) reserved so far
+     */
+    public long getReservedByteCount() {
+        return m_cbReserved;
+    }
+
+    /**
+     * Release all the off-heap memory; any subsequent access to the objects fails.
+     */
+    @Override
+    public void close() {
+        f_arena.close();
+        f_listChunks.clear();
+        m_cChunks = 0;
+        m_chunk   = null;
+    }
+
+    /**
+     * Verify that the object is valid, i.e. not freed.
+     *
+     * @param o the object to validate
+     * @return the valid object
+     * @throws SegFault if invalid
+     */
+    protected MemorySegment validate(MemorySegment o) {
+        if (((long) LONG.get(o, 0L) & INVALIDATION_MASK) != 0) {
+            throw new SegFault();
+        }
+        return o;
+    }
+
+    /**
+     * Reserve a new chunk large enough to hold the specified number of bytes.
+     *
+     * @param cb the number of bytes that must fit into the chunk
+     * @return the new chunk
+     * @throws OutOfMemoryError if the maximum size would be exceeded
+     */
+    private MemorySegment reserve(long cb) {
+        long cbChunk = Math.min(f_cbChunk, f_cbMax - m_cbReserved);
+        if (cbChunk < cb) {
+            throw new OutOfMemoryError("off-heap limit exceeded");
+        }
+
+        MemorySegment chunk = f_arena.allocate(cbChunk, Long.BYTES);
+
+        // keep the chunk base addresses sorted for the lookup by free()
+        int    iChunk  = f_listChunks.size();
+        long   lBase   = chunk.address();
+        int    cChunks = m_cChunks;
+        if (cChunks == m_alChunkBase.length) {
+            m_alChunkBase = Arrays.copyOf(m_alChunkBase, cChunks * 2);
+            m_anChunk     = Arrays.copyOf(m_anChunk, cChunks * 2);
+        }
+        int iPos = Arrays.binarySearch(m_alChunkBase, 0, cChunks, lBase);
+        iPos = iPos < 0 ? -iPos - 1 : iPos;
+        System.arraycopy(m_alChunkBase, iPos, m_alChunkBase, iPos + 1, cChunks - iPos);
+        System.arraycopy(m_anChunk, iPos, m_anChunk, iPos + 1, cChunks - iPos);
+        m_alChunkBase[iPos] = lBase;
+        m_anChunk[iPos]     = iChunk;
+        m_cChunks           = cChunks + 1;
+
+        f_listChunks.add(chunk);
+        m_cbReserved += cbChunk;
+        m_chunk       = chunk;
+        m_ofNext      = 0;
+        return chunk;
+    }
+
+    /**
+     * Return a slice for a free list block.
+     *
+     * @param lBlock the block, as encoded by {@link #block}
+     * @param cb     the block size
+     * @return the slice
+     */
+    private MemorySegment slice(long lBlock, long cb) {
+        return f_listChunks.get((int) (lBlock >>> 32) - 1).asSlice(lBlock & 0xFFFF_FFFFL, cb);
+    }
+
+    /**
+     * Encode a free list block.
+     *
+     * @param iChunk the chunk index
+     * @param of     the offset within the chunk
+     * @return the encoded block
+     */
+    private static long block(int iChunk, long of) {
+        return ((iChunk + 1L) << 32) | of;
+    }
+
+    /**
+     * The VarHandle used to access the header and the fields; the coordinates are the segment and
+     * the byte offset.
+     */
+    private static final VarHandle LONG = ValueLayout.JAVA_LONG.varHandle();
+
+    /**
+     * The bitmask indicating that an object has been freed and is no longer valid.
+     */
+    private static final long INVALIDATION_MASK = 1L << 63;
+
+    /**
+     * The "empty" free list value.
+     */
+    private static final long NO_BLOCK = 0L;
+
+    /**
+     * The maximum object size (in bytes), which corresponds to the largest field count that a
+     * header can encode.
+     */
+    static final int MAX_OBJECT_SIZE = 1024 * Long.BYTES;
+
+    /**
+     * The default chunk size.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+    /**
+     * The maximum amount of off-heap memory to reserve.
+     */
+    private final long f_cbMax;
+
+    /**
+     * The amount of memory to reserve at once.
+     */
+    private final int f_cbChunk;
+
+    /**
+     * The arena that owns all the reserved memory.
+     */
+    private final Arena f_arena = Arena.ofShared();
+
+    /**
+     * The reserved chunks.
+     */
+    private final List<MemorySegment> f_listChunks = new ArrayList<>();
+
+    /**
+     * The base addresses of the chunks, in ascending order.
+     */
+    private long[] m_alChunkBase = new long[16];
+
+    /**
+     * The indexes into {@link #f_listChunks} that correspond to {@link #m_alChunkBase}.
+     */
+    private int[] m_anChunk = new int[16];
+
+    /**
+     * The number of chunks.
+     */
+    private int m_cChunks;
+
+    /**
+     * The chunk being allocated from.
+     */
+    private MemorySegment m_chunk;
+
+    /**
+     * The offset of the next allocation in {@link #m_chunk}.
+     */
+    private long m_ofNext;
+
+    /**
+     * The amount of memory reserved so far.
+     */
+    private long m_cbReserved;
+
+    /**
+     * The heads of the free lists, indexed by the object size in words.
+     */
+    private final long[] m_alFree = new long[MAX_OBJECT_SIZE / Long.BYTES + 1];
+}
@@ -55,6 +55,11 @@ public class Child
             : makeAsyncHandle(hChild, chain).callT(frame, hService, ahVar, iReturn);
     }
 
+    @Override
+    public boolean isPlainFieldAccess() {
+        return false;
+    }
+
     @Override
     public int getPropertyValue(Frame frame, ObjectHandle hChild, PropertyConstant idProp, int iReturn) {
         ServiceHandle hService = hChild.getService();
@@ -21,6 +21,7 @@ import org.xvm.runtime.Container;
 import org.xvm.runtime.Frame;
 import org.xvm.runtime.ObjectHandle;
 import org.xvm.runtime.ObjectHandle.JavaLong;
+import org.xvm.runtime.ObjectHandle.KnownShared;
 import org.xvm.runtime.TypeComposition;
 import org.xvm.runtime.Utils;
 
@@ -817,6 +818,11 @@ public class xRTDelegate
             extends DelegateHandle {
         protected ObjectHandle[] m_ahValue;
 
+        /**
+         * The containers this immutable object graph has been found to be shared with.
+         */
+        private KnownShared m_knownShared;
+
         /**
          * Construct an array with specified content and mutability.
          */
@@ -836,6 +842,13 @@ public class xRTDelegate
             m_cSize   = cSize;
         }
 
+        @Override
+        public ObjectHandle cloneAs(TypeComposition clazz) {
+            GenericArrayDelegate hClone = (GenericArrayDelegate) super.cloneAs(clazz);
+            hClone.m_knownShared = null;
+            return hClone;
+        }
+
         /**
          * Get the ObjectHandle at the specified index in the array.
          *
@@ -861,14 +874,28 @@ public class xRTDelegate
 
         @Override
         public boolean isShared(Container container, Map<ObjectHandle, Boolean> mapVisited) {
-            // despite the shared array type, the individual elements could be narrower
-            // and need to be checked
-            if (mapVisited == null) {
+            if (KnownShared.contains(m_knownShared, container)) {
+                return true;
+            }
+
+            boolean fRoot = mapVisited == null;
+            if (fRoot) {
                 mapVisited = new IdentityHashMap<>();
             }
 
-            return mapVisited.put(this, Boolean.TRUE) != null ||
-                   areShared(m_ahValue, container, mapVisited);
+            if (mapVisited.put(this, Boolean.TRUE) != null) {
+                return true;
+            }
+
+            // despite the shared array type, the individual elements could be narrower
+            // and need to be checked
+            if (areShared(m_ahValue, container, mapVisited)) {
+                if (fRoot && !isMutable()) {
+                    m_knownShared = KnownShared.add(m_knownShared, container);
+                }
+                return true;
+            }
+            return false;
         }
 
         @Override
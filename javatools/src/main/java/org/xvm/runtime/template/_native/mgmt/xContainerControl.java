@@ -1,6 +1,9 @@
 package org.xvm.runtime.template._native.mgmt;
 
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.xvm.asm.ClassStructure;
 import org.xvm.asm.ConstantPool;
 import org.xvm.asm.MethodStructure;
@@ -18,10 +21,12 @@ import org.xvm.runtime.NestedContainer;
 import org.xvm.runtime.ObjectHandle;
 import org.xvm.runtime.ServiceContext;
 import org.xvm.runtime.TypeComposition;
+import org.xvm.runtime.Utils;
 
 import org.xvm.runtime.template.xNullable;
 import org.xvm.runtime.template.xService.ServiceHandle;
 
+import org.xvm.runtime.template.collections.xArray;
 import org.xvm.runtime.template.collections.xTuple;
 import org.xvm.runtime.template.collections.xTuple.TupleHandle;
 
@@ -56,6 +61,7 @@ public class xContainerControl
         m_clzControl = ensureClass(f_container, getCanonicalType(), typeMask);
 
         markNativeProperty("mainService");
+        markNativeProperty("nestedServices");
         markNativeProperty("innerTypeSystem");
 
         markNativeMethod("invoke", null, null);
@@ -75,6 +81,21 @@ public class xContainerControl
 
         case "innerTypeSystem":
             return getPropertyTypeSystem(frame, container, iReturn);
+
+        case "nestedServices": {
+            List<ObjectHandle> listServices = new ArrayList<>();
+            for (ServiceContext ctx : container.getServices()) {
+                ServiceHandle hService = ctx.getService();
+                if (hService != null) {
+                    listServices.add(hService);
+                }
+            }
+            ConstantPool    pool     = frame.poolContext();
+            TypeComposition clzArray = frame.f_context.f_container.ensureClassComposition(
+                    pool.ensureArrayType(pool.typeService()), xArray.INSTANCE);
+            return frame.assignValue(iReturn, xArray.createImmutableArray(clzArray,
+                    listServices.toArray(Utils.OBJECTS_NONE)));
+        }
         }
 
         return super.invokeNativeGet(frame, sPropName, hTarget, iReturn);
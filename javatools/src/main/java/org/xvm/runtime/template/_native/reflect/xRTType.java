@@ -191,6 +191,11 @@ public class xRTType
                 makeForeignHandle(((TypeHandle) hTarget).getUnsafeDataType()));
     }
 
+    @Override
+    public boolean isPlainFieldAccess() {
+        return false;
+    }
+
     @Override
     public int getPropertyValue(Frame frame, ObjectHandle hTarget, PropertyConstant idProp, int iReturn) {
         TypeHandle hType = (TypeHandle) hTarget;
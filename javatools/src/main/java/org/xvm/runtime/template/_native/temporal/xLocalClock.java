@@ -2,8 +2,6 @@ package org.xvm.runtime.template._native.temporal;
 
 
 import java.util.TimeZone;
-import java.util.Timer;
-import java.util.TimerTask;
 
 import org.xvm.asm.ClassStructure;
 import org.xvm.asm.MethodStructure;
@@ -32,6 +30,8 @@ import org.xvm.runtime.template.numbers.xInt64;
 import org.xvm.runtime.template._native.reflect.xRTFunction.FunctionHandle;
 import org.xvm.runtime.template._native.reflect.xRTFunction.NativeFunctionHandle;
 
+import org.xvm.util.concurrent.TimerWheel;
+
 
 /**
  * Native implementation of a simple wall clock using Java's millisecond-resolution "System" clock.
@@ -213,7 +213,7 @@ public class xLocalClock
         }
 
         /**
-         * Called when the alarm is triggered by the Java timer.
+         * Called when the alarm is triggered by the timer.
          */
         public void run() {
             ServiceContext context = f_refCallback.get();
@@ -254,10 +254,10 @@ public class xLocalClock
         }
 
         /**
-         * A TimerTask that is scheduled on the Java timer and is used to trigger the alarm.
+         * A task that is scheduled on the timer wheel and is used to trigger the alarm.
          */
         protected static class Trigger
-                extends TimerTask {
+                extends TimerWheel.Task {
             protected Trigger(Alarm alarm) {
                 f_alarm = alarm;
             }
@@ -279,7 +279,10 @@ public class xLocalClock
 
     // ----- constants and fields ------------------------------------------------------------------
 
-    public static Timer TIMER = new Timer("ecstasy:LocalClock", true);
+    /**
+     * The runtime-wide timer used by the clocks, timers and service wake-ups.
+     */
+    public static final TimerWheel TIMER = new TimerWheel("ecstasy:Timer");
 
     /**
      * Cached LocalClock handle.
@@ -1,8 +1,6 @@
 package org.xvm.runtime.template._native.temporal;
 
 
-import java.util.TimerTask;
-
 import org.xvm.asm.ClassStructure;
 import org.xvm.asm.MethodStructure;
 import org.xvm.asm.Op;
@@ -32,6 +30,8 @@ import org.xvm.runtime.template._native.reflect.xRTFunction.NativeFunctionHandle
 
 import org.xvm.util.ListSet;
 
+import org.xvm.util.concurrent.TimerWheel;
+
 
 /**
  * Native implementation of a simple timer (stop-watch) using Java's nanosecond-resolution "System"
@@ -119,7 +119,7 @@ public class xNanosTimer
      */
     public ObjectHandle ensureTimer(Frame frame, ObjectHandle hOpts) {
         // quite intentionally the NanoTimer service always belongs to the native container, holding
-        // onto Alarm objects that are registered with Java's Timer (xLocalClock.TIMER);
+        // onto Alarm objects that are registered with the runtime timer (xLocalClock.TIMER);
         // in turn, the Alarm holds a user-supplied function via a WeakRef, allowing the
         // corresponding container to be shut down and garbage collected
         return createServiceHandle(
@@ -127,6 +127,24 @@ public class xNanosTimer
                     getCanonicalClass(), getCanonicalType());
     }
 
+    /**
+     * Helper method to create a Duration handle for the specified number of nanoseconds.
+     */
+    public static GenericHandle makeDurationHandle(long cNanos) {
+        GenericHandle hDuration = new GenericHandle(s_clzDuration);
+        LongLong      llPicos   = new LongLong(cNanos).mulChecked(PICOS_PER_NANO_LL);
+
+        if (llPicos == LongLong.OVERFLOW) {
+            // unimaginable scenario - replace with a practical infinity
+            llPicos = new LongLong(Long.MAX_VALUE);
+        }
+
+        hDuration.setField(null, "picoseconds", xInt128.INSTANCE.makeHandle(llPicos));
+        hDuration.makeImmutable();
+
+        return hDuration;
+    }
+
     /**
      * Helper method to get a "milliseconds" value from the Duration handle.
      */
@@ -141,7 +159,7 @@ public class xNanosTimer
      */
     private int invokeSchedule(Frame frame, TimerHandle hTimer, GenericHandle hDuration,
                                FunctionHandle hAlarm, BooleanHandle hKeepAlive, int iReturn) {
-        // Java's Timer uses millisecond scheduling, but we're given duration in picoseconds
+        // the timer uses millisecond scheduling, but we're given duration in picoseconds
         LongLongHandle llPicos = (LongLongHandle) hDuration.getField(frame, "picoseconds");
         long           cNanos  = Math.max(0, llPicos.getValue().divUnsigned(PICOS_PER_NANO).getLowValue());
 
@@ -237,18 +255,7 @@ public class xNanosTimer
          * @return the elapsed time, as an Ecstasy Duration object
          */
         public GenericHandle elapsedDuration(Frame frame) {
-            GenericHandle hDuration = new GenericHandle(s_clzDuration);
-            LongLong      llPicos   = new LongLong(elapsed(frame)).mulChecked(PICOS_PER_NANO_LL);
-
-            if (llPicos == LongLong.OVERFLOW) {
-                // unimaginable scenario - replace with a practical infinity
-                llPicos = new LongLong(Long.MAX_VALUE);
-            }
-
-            hDuration.setField(null, "picoseconds", xInt128.INSTANCE.makeHandle(llPicos));
-            hDuration.makeImmutable();
-
-            return hDuration;
+            return makeDurationHandle(elapsed(frame));
         }
 
         /**
@@ -362,7 +369,7 @@ public class xNanosTimer
             }
 
             /**
-             * Called when the alarm is triggered by the Java timer.
+             * Called when the alarm is triggered by the timer.
              */
             public void run() {
                 synchronized (this) {
@@ -442,10 +449,10 @@ public class xNanosTimer
             }
 
             /**
-             * A TimerTask that is scheduled on the Java timer and is used to trigger the alarm.
+             * A task that is scheduled on the timer wheel and is used to trigger the alarm.
              */
             protected static class Trigger
-                    extends TimerTask {
+                    extends TimerWheel.Task {
                 protected Trigger(Alarm alarm) {
                     m_alarm = alarm;
                 }
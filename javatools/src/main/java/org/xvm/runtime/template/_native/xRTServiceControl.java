@@ -11,17 +11,25 @@ import org.xvm.runtime.ClassTemplate;
 import org.xvm.runtime.Container;
 import org.xvm.runtime.Frame;
 import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
 import org.xvm.runtime.ServiceContext;
+import org.xvm.runtime.ServiceContext.OverloadPolicy;
 import org.xvm.runtime.TypeComposition;
 import org.xvm.runtime.Utils;
 
 import org.xvm.runtime.template.xBoolean;
 import org.xvm.runtime.template.xEnum;
+import org.xvm.runtime.template.xEnum.EnumHandle;
+import org.xvm.runtime.template.xException;
 
 import org.xvm.runtime.template.xService.ServiceHandle;
 
+import org.xvm.runtime.template.numbers.xInt64;
+
 import org.xvm.runtime.template._native.reflect.xRTFunction;
 
+import org.xvm.runtime.template._native.temporal.xNanosTimer;
+
 
 /**
  * Native implementation of _native.RTServiceControl class.
@@ -56,10 +64,17 @@ public class xRTServiceControl
         markNativeProperty("upTime");
         markNativeProperty("cpuTime");
         markNativeProperty("contended");
+        markNativeProperty("backlogDepth");
+        markNativeProperty("fiberCount");
+        markNativeProperty("messageDepth");
+        markNativeProperty("requestCount");
+        markNativeProperty("requestLatency");
+        markNativeProperty("scheduleWait");
 
         markNativeMethod("gc", VOID, VOID);
         markNativeMethod("shutdown", VOID, VOID);
         markNativeMethod("kill", VOID, VOID);
+        markNativeMethod("limitBacklog", null, VOID);
 
         typeInception.invalidateTypeInfo();
     }
@@ -84,6 +99,23 @@ public class xRTServiceControl
 
         case "kill":
             // TODO GG
+            break;
+
+        case "limitBacklog": {
+            long cLimit = ((JavaLong) ahArg[0]).getValue();
+            if (cLimit <= 0 || cLimit > Integer.MAX_VALUE) {
+                return frame.raiseException(xException.illegalArgument(frame,
+                        "Invalid backlog limit: " + cLimit));
+            }
+
+            ObjectHandle   hPolicy = ahArg[1];
+            OverloadPolicy policy  = hPolicy == ObjectHandle.DEFAULT
+                    ? OverloadPolicy.Defer
+                    : OverloadPolicy.values()[((EnumHandle) hPolicy).getOrdinal()];
+
+            hControl.getContext().limitBacklog((int) cLimit, policy);
+            return Op.R_NEXT;
+        }
         }
 
         return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
@@ -98,8 +130,41 @@ public class xRTServiceControl
             return frame.assignValue(iReturn,
                     xBoolean.makeHandle(hControl.getContext().isContended()));
 
+        case "backlogDepth":
+            return frame.assignValue(iReturn,
+                    xInt64.makeHandle(hControl.getContext().getBacklogDepth()));
+
+        case "upTime":
+            return frame.assignValue(iReturn,
+                    xNanosTimer.makeDurationHandle(hControl.getContext().getUpTimeNanos()));
+
+        case "cpuTime":
+            return frame.assignValue(iReturn,
+                    xNanosTimer.makeDurationHandle(hControl.getContext().getExecuteNanos()));
+
+        case "fiberCount":
+            return frame.assignValue(iReturn,
+                    xInt64.makeHandle(hControl.getContext().getFiberCount()));
+
+        case "messageDepth":
+            return frame.assignValue(iReturn,
+                    xInt64.makeHandle(hControl.getContext().getMessageDepth()));
+
+        case "requestCount":
+            return frame.assignValue(iReturn,
+                    xInt64.makeHandle(hControl.getContext().getCallCount()));
+
+        case "requestLatency":
+            return frame.assignValue(iReturn,
+                    xNanosTimer.makeDurationHandle(hControl.getContext().getAverageCallNanos()));
+
+        case "scheduleWait":
+            return frame.assignValue(iReturn,
+                    xNanosTimer.makeDurationHandle(
+                            hControl.getContext().getAverageScheduleWaitNanos()));
+
         case "statusIndicator": {
-            xEnum.EnumHandle hStatus = SERVICE_STATUS.getEnumByName(
+            EnumHandle hStatus = SERVICE_STATUS.getEnumByName(
                     hControl.getContext().getStatus().name());
             return Utils.assignInitializedEnum(frame, hStatus, iReturn);
         }
@@ -21,6 +21,7 @@ import org.xvm.runtime.Frame;
 import org.xvm.runtime.ObjectHandle;
 import org.xvm.runtime.ObjectHandle.GenericHandle;
 import org.xvm.runtime.ObjectHandle.JavaLong;
+import org.xvm.runtime.ObjectHandle.KnownShared;
 import org.xvm.runtime.ObjectHandle.ExceptionHandle;
 import org.xvm.runtime.ServiceContext;
 import org.xvm.runtime.TypeComposition;
@@ -670,6 +671,11 @@ public class xTuple
             extends ObjectHandle {
         public ObjectHandle[] m_ahValue;
 
+        /**
+         * The containers this immutable object graph has been found to be shared with.
+         */
+        private KnownShared m_knownShared;
+
         protected TupleHandle(TypeComposition clazz, ObjectHandle[] ahValue, boolean fMutable) {
             super(clazz);
 
@@ -677,6 +683,13 @@ public class xTuple
             m_fMutable = fMutable;
         }
 
+        @Override
+        public ObjectHandle cloneAs(TypeComposition clazz) {
+            TupleHandle hClone = (TupleHandle) super.cloneAs(clazz);
+            hClone.m_knownShared = null;
+            return hClone;
+        }
+
         @Override
         public boolean makeImmutable() {
             if (m_fMutable) {
@@ -728,12 +741,26 @@ public class xTuple
 
         @Override
         public boolean isShared(Container container, Map<ObjectHandle, Boolean> mapVisited) {
-            if (mapVisited == null) {
+            if (KnownShared.contains(m_knownShared, container)) {
+                return true;
+            }
+
+            boolean fRoot = mapVisited == null;
+            if (fRoot) {
                 mapVisited = new IdentityHashMap<>();
             }
 
-            return mapVisited.put(this, Boolean.TRUE) != null ||
-                   areShared(m_ahValue, container, mapVisited);
+            if (mapVisited.put(this, Boolean.TRUE) != null) {
+                return true;
+            }
+
+            if (areShared(m_ahValue, container, mapVisited)) {
+                if (fRoot && !isMutable()) {
+                    m_knownShared = KnownShared.add(m_knownShared, container);
+                }
+                return true;
+            }
+            return false;
         }
 
         @Override
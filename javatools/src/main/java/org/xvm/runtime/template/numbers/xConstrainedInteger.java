@@ -9,6 +9,7 @@ import org.xvm.asm.Op;
 import org.xvm.asm.constants.IntConstant;
 import org.xvm.asm.constants.TypeConstant;
 
+import org.xvm.runtime.ClassComposition;
 import org.xvm.runtime.ClassTemplate;
 import org.xvm.runtime.Container;
 import org.xvm.runtime.Frame;
@@ -97,7 +98,7 @@ public abstract class xConstrainedInteger
     @Override
     public int createConstHandle(Frame frame, Constant constant) {
         if (constant instanceof IntConstant constInt) {
-            return frame.pushStack(new JavaLong(getCanonicalClass(), constInt.getValue().getLong()));
+            return frame.pushStack(makeJavaLong(constInt.getValue().getLong()));
         }
 
         return super.createConstHandle(frame, constant);
@@ -641,9 +642,41 @@ public abstract class xConstrainedInteger
                 lValue -= (f_lValueMask + 1);
             }
         }
+
+        if (lValue >= SMALL_MIN && lValue <= SMALL_MAX && lValue >= f_cMinValue) {
+            JavaLong[] ahSmall = m_ahSmall;
+            if (ahSmall == null) {
+                m_ahSmall = ahSmall = createSmallCache();
+            }
+
+            int ix = (int) (lValue - SMALL_MIN);
+            if (ix < ahSmall.length) {
+                return ahSmall[ix];
+            }
+        }
         return new JavaLong(getCanonicalClass(), lValue);
     }
 
+    /**
+     * Create the canonical handles for the small values that this template can represent.
+     *
+     * @return an array of handles for the values starting at {@link #SMALL_MIN}; the entries for
+     *         the values below the template's minimum value are null
+     */
+    private JavaLong[] createSmallCache() {
+        // the maximum value of the unsigned templates must be compared as unsigned (the UInt64
+        // maximum value is -1)
+        ClassComposition clz     = getCanonicalClass();
+        long             lMax    = f_fSigned
+                ? Math.min(SMALL_MAX, f_cMaxValue)
+                : Long.compareUnsigned(SMALL_MAX, f_cMaxValue) < 0 ? SMALL_MAX : f_cMaxValue;
+        JavaLong[]       ahSmall = new JavaLong[(int) (lMax - SMALL_MIN + 1)];
+        for (long l = Math.max(SMALL_MIN, f_cMinValue); l <= lMax; ++l) {
+            ahSmall[(int) (l - SMALL_MIN)] = new JavaLong(clz, l);
+        }
+        return ahSmall;
+    }
+
 
     // ----- helpers -------------------------------------------------------------------------------
 
@@ -797,4 +830,16 @@ public abstract class xConstrainedInteger
 
     protected final boolean f_fChecked;
     protected final boolean f_fSigned;
+
+    /**
+     * The range of values that have canonical (shared) handles.
+     */
+    public static final long SMALL_MIN = -128;
+    public static final long SMALL_MAX = 1023;
+
+    /**
+     * The canonical handles for the small values (lazily created); the handles are immutable, so
+     * a race between the services that create the cache is benign.
+     */
+    private volatile JavaLong[] m_ahSmall;
 }
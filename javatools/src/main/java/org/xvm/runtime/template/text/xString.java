@@ -1,6 +1,8 @@
 package org.xvm.runtime.template.text;
 
 
+import java.nio.charset.StandardCharsets;
+
 import java.util.Arrays;
 
 import org.xvm.asm.ClassStructure;
@@ -136,11 +138,11 @@ public class xString
 
         switch (sPropName) {
         case "size":
-            return frame.assignValue(iReturn, xInt64.makeHandle(hThis.m_achValue.length));
+            return frame.assignValue(iReturn, xInt64.makeHandle(hThis.length()));
 
         case "chars":
             return frame.assignValue(iReturn,
-                    xArray.makeCharArrayHandle(hThis.m_achValue, Mutability.Constant));
+                    xArray.makeCharArrayHandle(hThis.getValue(), Mutability.Constant));
         }
 
         return super.invokeNativeGet(frame, sPropName, hTarget, iReturn);
@@ -166,12 +168,10 @@ public class xString
                     // (Boolean, Int) indexOf(Char value, Int startAt)
                     char chValue = (char) hChar.getValue();
 
-                    ofResult = indexOf(hThis.m_achValue, chValue, ofStart);
+                    ofResult = hThis.indexOf(chValue, ofStart);
                 } else {
                     // (Boolean, Int) indexOf(String value, Int startAt)
-                    String sValue = ((StringHandle) hValue).getStringValue();
-
-                    ofResult = hThis.getStringValue().indexOf(sValue, ofStart);
+                    ofResult = hThis.indexOf((StringHandle) hValue, ofStart);
                 }
                 return ofResult < 0
                         ? frame.assignValue(aiReturn[0], xBoolean.FALSE)
@@ -187,12 +187,12 @@ public class xString
 
     @Override
     public int extractArrayValue(Frame frame, ObjectHandle hTarget, long lIndex, int iReturn) {
-        char[] ach = ((StringHandle) hTarget).getValue();
-        int    nIx = (int) lIndex;
+        StringHandle hString = (StringHandle) hTarget;
+        int          cch     = hString.length();
 
-        return nIx < 0 || nIx >= ach.length
-                ? frame.raiseException(xException.outOfBounds(frame, lIndex, ach.length))
-                : frame.assignValue(iReturn, xChar.makeHandle(ach[nIx]));
+        return lIndex < 0 || lIndex >= cch
+                ? frame.raiseException(xException.outOfBounds(frame, lIndex, cch))
+                : frame.assignValue(iReturn, xChar.makeHandle(hString.charAt((int) lIndex)));
     }
 
     @Override
@@ -207,7 +207,7 @@ public class xString
 
     @Override
     public long size(ObjectHandle hTarget) {
-        return ((StringHandle) hTarget).getValue().length;
+        return ((StringHandle) hTarget).length();
     }
 
 
@@ -226,7 +226,7 @@ public class xString
         StringHandle h2 = (StringHandle) hValue2;
 
         return frame.assignValue(iReturn,
-                xOrdered.makeHandle(Arrays.compare(h1.m_achValue, h2.m_achValue)));
+                xOrdered.makeHandle(h1.compareChars(h2)));
     }
 
     @Override
@@ -234,7 +234,7 @@ public class xString
         StringHandle h1 = (StringHandle) hValue1;
         StringHandle h2 = (StringHandle) hValue2;
 
-        return Arrays.equals(h1.m_achValue, h2.m_achValue);
+        return h1.equals(h2);
     }
 
     @Override
@@ -263,23 +263,14 @@ public class xString
     }
 
     private static StringHandle concat(StringHandle h1, StringHandle h2) {
-        char[] ach1 = h1.m_achValue;
-        char[] ach2 = h2.m_achValue;
-
-        int c1 = ach1.length;
-        int c2 = ach2.length;
-
-        if (c1 == 0) {
+        if (h1.length() == 0) {
             return h2;
         }
-        if (c2 == 0) {
+        if (h2.length() == 0) {
             return h1;
         }
 
-        char[] ach = new char[c1 + c2];
-        System.arraycopy(ach1, 0, ach, 0, c1);
-        System.arraycopy(ach2, 0, ach, c1, c2);
-        return makeHandle(ach);
+        return RopeHandle.concat(INSTANCE.getCanonicalClass(), h1, h2);
     }
 
     private static int indexOf(char[] achSource, char chTarget, int ofStart) {
@@ -324,33 +315,234 @@ public class xString
 
     // ----- handle --------------------------------------------------------------------------------
 
+    /**
+     * The String handle.
+     * <p>
+     * Similarly to the JDK's compact strings, a String that consists of Latin-1 characters only is
+     * stored as a byte array (one byte per character); any other String is stored as a char array.
+     * The {@link #getValue() char array} for a Latin-1 String is inflated on every request and is
+     * not retained, so the natives should prefer the accessors that work on either representation
+     * (such as {@link #length}, {@link #charAt} and {@link #copyTo(char[], int)}).
+     * <p>
+     * The representation is canonical: a String that could be stored as Latin-1 always is, so two
+     * handles with different coders are never equal.
+     * <p>
+     * A long String produced by a concatenation is represented by a {@link RopeHandle}, which
+     * defers copying the characters until they are needed.
+     */
     public static class StringHandle
             extends ObjectHandle {
-        private final     char[]   m_achValue;
-        private transient JavaLong m_hash;   // cached hash value
-        private transient String   m_sValue; // cached String value
+        private final     byte[]   m_abValue;  // Latin-1 value or null
+        private final     char[]   m_achValue; // UTF-16 value or null
+        private transient JavaLong m_hash;     // cached hash value
+        private transient String   m_sValue;   // cached String value
 
         protected StringHandle(TypeComposition clazz, char[] achValue) {
+            this(clazz, compress(achValue), achValue);
+        }
+
+        /**
+         * Construct a StringHandle from a Latin-1 byte array.
+         *
+         * @param clazz    the class
+         * @param abValue  the Latin-1 characters (not copied)
+         */
+        protected StringHandle(TypeComposition clazz, byte[] abValue) {
+            super(clazz);
+
+            m_abValue  = abValue;
+            m_achValue = null;
+        }
+
+        private StringHandle(TypeComposition clazz, byte[] abValue, char[] achValue) {
             super(clazz);
 
-            m_achValue = achValue;
+            m_abValue  = abValue;
+            m_achValue = abValue == null ? achValue : null;
         }
 
+        /**
+         * Construct a StringHandle that doesn't hold the characters itself; the subclass must
+         * override all the methods that access the characters.
+         */
+        protected StringHandle(TypeComposition clazz) {
+            super(clazz);
+
+            m_abValue  = null;
+            m_achValue = null;
+        }
+
+        /**
+         * @return the characters of this String; the caller must not modify the returned array
+         *         (for a Latin-1 String, the array is a new copy)
+         */
         public char[] getValue() {
-            return m_achValue;
+            char[] achValue = m_achValue;
+            if (achValue == null) {
+                achValue = new char[m_abValue.length];
+                copyTo(achValue, 0);
+            }
+            return achValue;
+        }
+
+        /**
+         * @return the coder of this String: {@link #LATIN1} or {@link #UTF16}
+         */
+        public byte getCoder() {
+            return isLatin1() ? LATIN1 : UTF16;
+        }
+
+        /**
+         * @return true iff all the characters of this String are Latin-1
+         */
+        public boolean isLatin1() {
+            return m_abValue != null;
+        }
+
+        /**
+         * @return the number of characters in this String
+         */
+        public int length() {
+            byte[] abValue = m_abValue;
+            return abValue == null ? m_achValue.length : abValue.length;
+        }
+
+        /**
+         * @return the character at the specified index
+         */
+        public char charAt(int of) {
+            byte[] abValue = m_abValue;
+            return abValue == null ? m_achValue[of] : (char) (abValue[of] & 0xFF);
         }
 
         public String getStringValue() {
             String sValue = m_sValue;
-            return sValue == null
-                    ? (m_sValue = new String(m_achValue))
-                    : sValue;
+            if (sValue == null) {
+                byte[] abValue = m_abValue;
+                m_sValue = sValue = abValue == null
+                        ? new String(m_achValue)
+                        : new String(abValue, StandardCharsets.ISO_8859_1);
+            }
+            return sValue;
+        }
+
+        /**
+         * Find the specified character in this String.
+         *
+         * @param chTarget  the character to find
+         * @param ofStart   the offset to start the search at
+         *
+         * @return the offset of the character or -1 if not found
+         */
+        public int indexOf(char chTarget, int ofStart) {
+            byte[] abValue = m_abValue;
+            if (abValue == null) {
+                return xString.indexOf(m_achValue, chTarget, ofStart);
+            }
+
+            if (chTarget > 0xFF) {
+                return -1;
+            }
+
+            byte bTarget = (byte) chTarget;
+            for (int of = Math.max(ofStart, 0), cb = abValue.length; of < cb; of++) {
+                if (abValue[of] == bTarget) {
+                    return of;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Find the specified String in this String.
+         *
+         * @param hTarget  the String to find
+         * @param ofStart  the offset to start the search at
+         *
+         * @return the offset of the String or -1 if not found
+         */
+        public int indexOf(StringHandle hTarget, int ofStart) {
+            byte[] abThis   = flatten().m_abValue;
+            byte[] abTarget = hTarget.flatten().m_abValue;
+            if (abThis == null || abTarget == null) {
+                // a Latin-1 String can't contain any non-Latin-1 String
+                return abThis != null
+                        ? -1
+                        : getStringValue().indexOf(hTarget.getStringValue(), ofStart);
+            }
+
+            int cbThis   = abThis.length;
+            int cbTarget = abTarget.length;
+            if (ofStart < 0) {
+                ofStart = 0;
+            }
+            if (cbTarget == 0) {
+                return Math.min(ofStart, cbThis);
+            }
+
+            byte bFirst = abTarget[0];
+            for (int of = ofStart, ofLast = cbThis - cbTarget; of <= ofLast; of++) {
+                if (abThis[of] == bFirst
+                        && Arrays.equals(abThis, of + 1, of + cbTarget, abTarget, 1, cbTarget)) {
+                    return of;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Compare this String with the specified String lexicographically.
+         *
+         * @return a negative number, zero or a positive number
+         */
+        public int compareChars(StringHandle that) {
+            StringHandle hThis  = this.flatten();
+            StringHandle hThat  = that.flatten();
+            byte[]       abThis = hThis.m_abValue;
+            byte[]       abThat = hThat.m_abValue;
+            if (abThis == null && abThat == null) {
+                return Arrays.compare(hThis.m_achValue, hThat.m_achValue);
+            }
+            if (abThis != null && abThat != null) {
+                return Arrays.compareUnsigned(abThis, abThat);
+            }
+
+            // mixed coders; compare without inflating the Latin-1 String
+            int cchThis = hThis.length();
+            int cchThat = hThat.length();
+            for (int of = 0, cch = Math.min(cchThis, cchThat); of < cch; of++) {
+                int nDiff = hThis.charAt(of) - hThat.charAt(of);
+                if (nDiff != 0) {
+                    return nDiff;
+                }
+            }
+            return cchThis - cchThat;
         }
 
         public int calcHashCode() {
-            char[] ach  = m_achValue;
-            int    cch  = ach.length;
-            int    hash = 982_451_653;
+            byte[] abValue = m_abValue;
+            if (abValue == null) {
+                return calcHashCode(m_achValue);
+            }
+
+            // must produce the same value as calcHashCode(getValue())
+            int cb   = abValue.length;
+            int hash = 982_451_653;
+            if (cb <= 0x40) {
+                for (byte b : abValue) {
+                    hash = hash * 31 + (b & 0xFF);
+                }
+            } else {
+                for (int of = 0, cbStep = (cb >>> 6) + 1; of < cb; of += cbStep) {
+                    hash = hash * 31 + (abValue[of] & 0xFF);
+                }
+            }
+            return hash;
+        }
+
+        private static int calcHashCode(char[] ach) {
+            int cch  = ach.length;
+            int hash = 982_451_653;
             if (cch <= 0x40) {
                 for (char ch : ach) {
                     hash = hash * 31 + ch;
@@ -379,7 +571,16 @@ public class xString
         @Override
         public boolean equals(Object obj) {
             if (obj instanceof StringHandle that) {
-                return Arrays.equals(this.m_achValue, that.m_achValue);
+                // the representation is canonical; see compress()
+                if (this.length() != that.length() || this.isLatin1() != that.isLatin1()) {
+                    return false;
+                }
+
+                StringHandle h1 = this.flatten();
+                StringHandle h2 = that.flatten();
+                return h1.isLatin1()
+                        ? Arrays.equals(h1.m_abValue, h2.m_abValue)
+                        : Arrays.equals(h1.m_achValue, h2.m_achValue);
             }
             return false;
         }
@@ -398,10 +599,419 @@ public class xString
             Handy.appendString(sb, getStringValue());
             return sb.append('\"').toString();
         }
+
+        /**
+         * @return the handle that holds the characters of this String
+         */
+        protected StringHandle flatten() {
+            return this;
+        }
+
+        /**
+         * Copy the characters of this String into the specified array.
+         *
+         * @param achDest  the destination array
+         * @param ofDest   the offset in the destination array
+         */
+        protected void copyTo(char[] achDest, int ofDest) {
+            byte[] abValue = m_abValue;
+            if (abValue == null) {
+                char[] achValue = m_achValue;
+                System.arraycopy(achValue, 0, achDest, ofDest, achValue.length);
+            } else {
+                for (int i = 0, cb = abValue.length; i < cb; i++) {
+                    achDest[ofDest + i] = (char) (abValue[i] & 0xFF);
+                }
+            }
+        }
+
+        /**
+         * Copy the characters of this Latin-1 String into the specified array.
+         *
+         * @param abDest  the destination array
+         * @param ofDest  the offset in the destination array
+         */
+        protected void copyTo(byte[] abDest, int ofDest) {
+            byte[] abValue = m_abValue;
+            System.arraycopy(abValue, 0, abDest, ofDest, abValue.length);
+        }
+
+        /**
+         * Compress the specified chars into a Latin-1 byte array.
+         *
+         * @return the Latin-1 bytes or null if any of the chars is not Latin-1
+         */
+        private static byte[] compress(char[] achValue) {
+            int cch = achValue.length;
+            for (int i = 0; i < cch; i++) {
+                if (achValue[i] > 0xFF) {
+                    return null;
+                }
+            }
+
+            byte[] abValue = new byte[cch];
+            for (int i = 0; i < cch; i++) {
+                abValue[i] = (byte) achValue[i];
+            }
+            return abValue;
+        }
+
+        /**
+         * The coder for the Strings that consist of Latin-1 characters only.
+         */
+        public static final byte LATIN1 = 0;
+
+        /**
+         * The coder for all other Strings.
+         */
+        public static final byte UTF16 = 1;
+    }
+
+    /**
+     * A String handle that represents a concatenation of two Strings, which are held as a balanced
+     * (AVL) binary tree. The characters are copied ("flattened") into a regular StringHandle only
+     * when an operation needs the entire content; the length, the coder, the indexed access
+     * (logarithmic in the number of concatenations) and the hash code don't require flattening.
+     * <p>
+     * Short Strings are always concatenated eagerly, and the adjacent short leaves are merged, so
+     * appending one character at a time produces the leaves of up to {@link #MIN_LENGTH} chars.
+     * <p>
+     * Once flattened, a rope releases its subtrees and acts as a leaf in any further
+     * concatenation. Since a rope could be flattened by another thread at any time, the subtrees
+     * are read only once per access, and a missing subtree means that the flattened String is
+     * available.
+     */
+    public static class RopeHandle
+            extends StringHandle {
+        private RopeHandle(TypeComposition clazz, StringHandle hLeft, StringHandle hRight) {
+            super(clazz);
+
+            m_hLeft   = hLeft;
+            m_hRight  = hRight;
+            f_cchLeft = hLeft.length();
+            f_cch     = f_cchLeft + hRight.length();
+            f_nDepth  = Math.max(depth(hLeft), depth(hRight)) + 1;
+            f_fLatin1 = hLeft.isLatin1() && hRight.isLatin1();
+        }
+
+        /**
+         * Concatenate the specified non-empty Strings.
+         *
+         * @param clazz  the class of the resulting handle
+         * @param h1     the first String
+         * @param h2     the second String
+         *
+         * @return the resulting handle
+         */
+        public static StringHandle concat(TypeComposition clazz, StringHandle h1, StringHandle h2) {
+            long cch = (long) h1.length() + h2.length();
+            if (cch > Integer.MAX_VALUE) {
+                throw new OutOfMemoryError("String length out of range: " + cch);
+            }
+
+            return cch < MIN_LENGTH
+                    ? merge(clazz, h1, h2)
+                    : join(clazz, h1, h2);
+        }
+
+        @Override
+        public char[] getValue() {
+            return flatten().getValue();
+        }
+
+        @Override
+        public boolean isLatin1() {
+            return f_fLatin1;
+        }
+
+        @Override
+        public int length() {
+            return f_cch;
+        }
+
+        @Override
+        public char charAt(int of) {
+            StringHandle h = this;
+            while (h instanceof RopeHandle hRope) {
+                StringHandle hFlat = hRope.m_hFlat;
+                if (hFlat != null) {
+                    h = hFlat;
+                    break;
+                }
+
+                int          cchLeft = hRope.f_cchLeft;
+                boolean      fLeft   = of < cchLeft;
+                StringHandle hChild  = fLeft ? hRope.m_hLeft : hRope.m_hRight;
+                if (hChild == null) {
+                    // the rope has just been flattened; retry using the flattened String
+                    continue;
+                }
+
+                if (!fLeft) {
+                    of -= cchLeft;
+                }
+                h = hChild;
+            }
+            return h.charAt(of);
+        }
+
+        @Override
+        public String getStringValue() {
+            return flatten().getStringValue();
+        }
+
+        @Override
+        public int indexOf(char chTarget, int ofStart) {
+            return f_fLatin1 && chTarget > 0xFF
+                    ? -1
+                    : flatten().indexOf(chTarget, ofStart);
+        }
+
+        @Override
+        public int calcHashCode() {
+            StringHandle hFlat = m_hFlat;
+            if (hFlat != null) {
+                return hFlat.calcHashCode();
+            }
+
+            // a rope is longer than 0x40 chars, so the hash only samples the characters, which
+            // doesn't require flattening
+            int cch  = f_cch;
+            int hash = 982_451_653;
+            for (int of = 0, cchStep = (cch >>> 6) + 1; of < cch; of += cchStep) {
+                hash = hash * 31 + charAt(of);
+            }
+            return hash;
+        }
+
+        @Override
+        protected StringHandle flatten() {
+            StringHandle hFlat = m_hFlat;
+            if (hFlat == null) {
+                if (f_fLatin1) {
+                    byte[] ab = new byte[f_cch];
+                    copyTo(ab, 0);
+                    hFlat = new StringHandle(getComposition(), ab);
+                } else {
+                    char[] ach = new char[f_cch];
+                    copyTo(ach, 0);
+                    hFlat = new StringHandle(getComposition(), null, ach);
+                }
+                m_hFlat = hFlat;
+
+                // the subtrees are no longer needed; they must be cleared after the flattened
+                // String has been published
+                m_hLeft  = null;
+                m_hRight = null;
+            }
+            return hFlat;
+        }
+
+        @Override
+        protected void copyTo(char[] achDest, int ofDest) {
+            StringHandle hFlat = m_hFlat;
+            if (hFlat == null) {
+                StringHandle hLeft  = m_hLeft;
+                StringHandle hRight = m_hRight;
+                if (hLeft != null && hRight != null) {
+                    hLeft .copyTo(achDest, ofDest);
+                    hRight.copyTo(achDest, ofDest + f_cchLeft);
+                    return;
+                }
+                hFlat = m_hFlat;
+            }
+            hFlat.copyTo(achDest, ofDest);
+        }
+
+        @Override
+        protected void copyTo(byte[] abDest, int ofDest) {
+            StringHandle hFlat = m_hFlat;
+            if (hFlat == null) {
+                StringHandle hLeft  = m_hLeft;
+                StringHandle hRight = m_hRight;
+                if (hLeft != null && hRight != null) {
+                    hLeft .copyTo(abDest, ofDest);
+                    hRight.copyTo(abDest, ofDest + f_cchLeft);
+                    return;
+                }
+                hFlat = m_hFlat;
+            }
+            hFlat.copyTo(abDest, ofDest);
+        }
+
+        /**
+         * @return the depth of the tree
+         */
+        int getDepth() {
+            return f_nDepth;
+        }
+
+        /**
+         * @return true iff this rope has been flattened (and doesn't hold its subtrees anymore)
+         */
+        boolean isFlattened() {
+            return m_hFlat != null;
+        }
+
+        /**
+         * @return the depth of the specified String's tree; a flattened rope is a leaf
+         */
+        private static int depth(StringHandle h) {
+            return h instanceof RopeHandle hRope && hRope.m_hFlat == null ? hRope.f_nDepth : 0;
+        }
+
+        /**
+         * @return the left subtree or, if this rope has been flattened in the meantime, a copy of
+         *         the corresponding part of the flattened String
+         */
+        private StringHandle getLeft() {
+            StringHandle hLeft = m_hLeft;
+            return hLeft == null ? slice(0, f_cchLeft) : hLeft;
+        }
+
+        /**
+         * @return the right subtree or, if this rope has been flattened in the meantime, a copy of
+         *         the corresponding part of the flattened String
+         */
+        private StringHandle getRight() {
+            StringHandle hRight = m_hRight;
+            return hRight == null ? slice(f_cchLeft, f_cch - f_cchLeft) : hRight;
+        }
+
+        /**
+         * @return a regular StringHandle for the specified part of the flattened String
+         */
+        private StringHandle slice(int of, int cch) {
+            StringHandle hFlat   = m_hFlat;
+            byte[]       abValue = hFlat.m_abValue;
+            return abValue == null
+                    ? new StringHandle(getComposition(),
+                            Arrays.copyOfRange(hFlat.m_achValue, of, of + cch))
+                    : new StringHandle(getComposition(),
+                            Arrays.copyOfRange(abValue, of, of + cch));
+        }
+
+        /**
+         * Concatenate the specified Strings into a regular StringHandle.
+         */
+        private static StringHandle merge(TypeComposition clazz, StringHandle h1, StringHandle h2) {
+            int c1 = h1.length();
+            int c2 = h2.length();
+            if (h1.isLatin1() && h2.isLatin1()) {
+                // the result is Latin-1 as well; no need to inflate or re-check the chars
+                byte[] ab = new byte[c1 + c2];
+                h1.copyTo(ab, 0);
+                h2.copyTo(ab, c1);
+                return new StringHandle(clazz, ab);
+            }
+
+            // the result contains at least one non-Latin-1 char
+            char[] ach = new char[c1 + c2];
+            h1.copyTo(ach, 0);
+            h2.copyTo(ach, c1);
+            return new StringHandle(clazz, null, ach);
+        }
+
+        /**
+         * Join the specified trees, keeping the result balanced.
+         */
+        private static StringHandle join(TypeComposition clazz, StringHandle hL, StringHandle hR) {
+            int nDepthL = depth(hL);
+            int nDepthR = depth(hR);
+            if (nDepthL > nDepthR + 1) {
+                RopeHandle hRope = (RopeHandle) hL;
+                return balance(clazz, hRope.getLeft(), join(clazz, hRope.getRight(), hR));
+            }
+            if (nDepthR > nDepthL + 1) {
+                RopeHandle hRope = (RopeHandle) hR;
+                return balance(clazz, join(clazz, hL, hRope.getLeft()), hRope.getRight());
+            }
+
+            // merge the adjacent short leaves
+            if (nDepthL == 0 && nDepthR == 0) {
+                if (hL.length() + hR.length() < MIN_LENGTH) {
+                    return merge(clazz, hL, hR);
+                }
+            } else if (nDepthL == 1 && nDepthR == 0) {
+                RopeHandle   hRope = (RopeHandle) hL;
+                StringHandle hLast = hRope.getRight();
+                if (hLast.length() + hR.length() < MIN_LENGTH) {
+                    return new RopeHandle(clazz, hRope.getLeft(), merge(clazz, hLast, hR));
+                }
+            } else if (nDepthL == 0 && nDepthR == 1) {
+                RopeHandle   hRope  = (RopeHandle) hR;
+                StringHandle hFirst = hRope.getLeft();
+                if (hL.length() + hFirst.length() < MIN_LENGTH) {
+                    return new RopeHandle(clazz, merge(clazz, hL, hFirst), hRope.getRight());
+                }
+            }
+            return new RopeHandle(clazz, hL, hR);
+        }
+
+        /**
+         * Create a node for the specified trees, whose depths differ by no more than two,
+         * rotating the trees if necessary.
+         */
+        private static StringHandle balance(TypeComposition clazz, StringHandle hL, StringHandle hR) {
+            int nDepthL = depth(hL);
+            int nDepthR = depth(hR);
+            if (nDepthL > nDepthR + 1) {
+                RopeHandle   hRope = (RopeHandle) hL;
+                StringHandle hLL   = hRope.getLeft();
+                StringHandle hLR   = hRope.getRight();
+                if (depth(hLL) >= depth(hLR)) {
+                    return new RopeHandle(clazz, hLL, new RopeHandle(clazz, hLR, hR));
+                }
+                RopeHandle hLRRope = (RopeHandle) hLR;
+                return new RopeHandle(clazz,
+                        new RopeHandle(clazz, hLL, hLRRope.getLeft()),
+                        new RopeHandle(clazz, hLRRope.getRight(), hR));
+            }
+            if (nDepthR > nDepthL + 1) {
+                RopeHandle   hRope = (RopeHandle) hR;
+                StringHandle hRL   = hRope.getLeft();
+                StringHandle hRR   = hRope.getRight();
+                if (depth(hRR) >= depth(hRL)) {
+                    return new RopeHandle(clazz, new RopeHandle(clazz, hL, hRL), hRR);
+                }
+                RopeHandle hRLRope = (RopeHandle) hRL;
+                return new RopeHandle(clazz,
+                        new RopeHandle(clazz, hL, hRLRope.getLeft()),
+                        new RopeHandle(clazz, hRLRope.getRight(), hRR));
+            }
+            return new RopeHandle(clazz, hL, hR);
+        }
+
+        /**
+         * Strings shorter than this are concatenated eagerly.
+         */
+        public static final int MIN_LENGTH = 256;
+
+        /**
+         * The subtrees (null once flattened).
+         */
+        private volatile StringHandle m_hLeft;
+        private volatile StringHandle m_hRight;
+
+        private final int          f_cchLeft;
+        private final int          f_cch;
+        private final int          f_nDepth;
+        private final boolean      f_fLatin1;
+
+        /**
+         * The flattened String (null until requested).
+         */
+        private volatile StringHandle m_hFlat;
     }
 
     public static StringHandle makeHandle(String sValue) {
-        return makeHandle(sValue.toCharArray());
+        if (sValue.isEmpty()) {
+            return EMPTY_STRING;
+        }
+
+        StringHandle hString = makeHandle(sValue.toCharArray());
+        hString.m_sValue = sValue;
+        return hString;
     }
 
     public static StringHandle makeHandle(char[] achValue) {
@@ -411,6 +1021,7 @@ public class xString
     }
 
 
+
     // ----- Composition and handle caching --------------------------------------------------------
 
     /**
@@ -77,6 +77,11 @@ public class xException
         return makeMutableStruct(frame, clazz, null);
     }
 
+    @Override
+    public boolean isPlainFieldAccess() {
+        return false;
+    }
+
     @Override
     public int getFieldValue(Frame frame, ObjectHandle hTarget, PropertyConstant idProp, int iReturn) {
         ExceptionHandle hException = (ExceptionHandle) hTarget;
@@ -132,6 +137,10 @@ public class xException
         return makeHandle(frame, "Service terminated: " + sService);
     }
 
+    public static ExceptionHandle serviceOverloaded(Frame frame, String sService) {
+        return makeHandle(frame, "Service overloaded: " + sService);
+    }
+
     public static ExceptionHandle deadlock(Frame frame, String sMsg) {
         return makeHandle(frame, s_clzDeadlock, sMsg);
     }
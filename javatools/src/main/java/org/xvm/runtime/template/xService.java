@@ -74,6 +74,7 @@ public class xService
             Set<String> setAtomic = new HashSet<>();
             setAtomic.add("serviceName");
             setAtomic.add("serviceControl");
+            setAtomic.add("overloaded");
             setAtomic.add("timeout");
             s_setAtomicProperties = setAtomic;
 
@@ -325,6 +326,9 @@ public class xService
         case "serviceControl":
             return frame.assignValue(iReturn, xRTServiceControl.makeHandle(hService.f_context));
 
+        case "overloaded":
+            return frame.assignValue(iReturn, xBoolean.makeHandle(hService.f_context.isOverwhelmed()));
+
         case "timeout":
             return frame.f_context == hService.f_context
                     ? frame.assignValue(iReturn, frame.f_fiber.getTimeoutHandle())
@@ -415,6 +419,11 @@ public class xService
         return hService.f_context.sendProperty10Request(frame, hService, idProp, hArg, this::invokePropertySub);
     }
 
+    @Override
+    public boolean isPlainFieldAccess() {
+        return false;
+    }
+
     @Override
     public int getPropertyValue(Frame frame, ObjectHandle hTarget, PropertyConstant idProp, int iReturn) {
         ServiceHandle hService = (ServiceHandle) hTarget;
@@ -0,0 +1,101 @@
+package org.xvm.javajit;
+
+
+import java.io.File;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.xvm.asm.DirRepository;
+import org.xvm.asm.LinkedRepository;
+import org.xvm.asm.ModuleRepository;
+
+
+/**
+ * A startup benchmark for the JIT class generation: it creates a new {@link Xvm} and the
+ * TypeSystems for all the modules in the specified repository directories (for example, the
+ * XDK "lib" directory, which holds the {@code lib_*} modules, and the "javatools" directory,
+ * which holds the native bridge module), and eagerly generates all of their classes, first on a
+ * single thread and then on a ForkJoinPool.
+ * <p>
+ * The class cache should be turned off (the "xvm.jit.classCache" property is not set), otherwise
+ * the classes are not generated.
+ * <p>
+ * Usage: {@code ClassGenerationBenchmark [-threads n] dir...}
+ */
+public class ClassGenerationBenchmark {
+    public static void main(String[] args) {
+        int          threads = Runtime.getRuntime().availableProcessors();
+        List<String> dirs    = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else {
+                dirs.add(args[i]);
+            }
+        }
+        if (dirs.isEmpty()) {
+            System.err.println("Usage: ClassGenerationBenchmark [-threads n] dir...");
+            return;
+        }
+
+        ModuleRepository[] repos = new ModuleRepository[dirs.size()];
+        for (int i = 0; i < repos.length; i++) {
+            repos[i] = new DirRepository(new File(dirs.get(i)), true);
+        }
+        ModuleRepository repo = new LinkedRepository(repos);
+
+        for (int parallelism : new int[] {1, threads}) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                // warm up
+                run(repo, pool);
+
+                long   start   = System.nanoTime();
+                int    classes = run(repo, pool);
+                double millis  = (System.nanoTime() - start) / 1e6;
+                System.out.printf("threads=%3d  classes=%,7d  %,10.1f ms  %,8.1f us/class%n",
+                        parallelism, classes, millis, millis * 1e3 / Math.max(classes, 1));
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Create a new Xvm and generate the classes for all the modules in the repository.
+     *
+     * @return the number of the classes generated
+     */
+    static int run(ModuleRepository repo, ForkJoinPool pool) {
+        Xvm xvm     = new Xvm(repo);
+        int classes = xvm.nativeTypeSystem.pregenerate(pool);
+
+        for (String module : repo.getModuleNames()) {
+            if (isNative(xvm, module)) {
+                // already loaded by the native TypeSystem
+                continue;
+            }
+
+            TypeSystem ts = xvm.createTypeSystem(repo, module, null, null);
+            if (ts != null) {
+                classes += ts.pregenerate(pool);
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * @return true iff the specified module is owned by the native TypeSystem
+     */
+    private static boolean isNative(Xvm xvm, String module) {
+        for (ModuleLoader loader : xvm.nativeTypeSystem.owned) {
+            if (loader.module.getName().equals(module)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,136 @@
+package org.xvm.runtime;
+
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.xvm.asm.FileStructure;
+import org.xvm.asm.Op;
+
+import org.xvm.asm.constants.ModuleConstant;
+import org.xvm.asm.constants.TypeConstant;
+
+import org.xvm.asm.op.Return_0;
+
+import org.xvm.runtime.Fiber.FiberStatus;
+
+
+/**
+ * A microbenchmark for the {@link FiberQueue} scheduling decisions.
+ * <p>
+ * Each iteration signals a random waiting fiber (as a response would do), asks the queue for the
+ * next ready frame and then suspends that frame again, so the queue size stays constant. The
+ * benchmark only uses the public FiberQueue and Fiber API, so it can be run against different
+ * FiberQueue implementations to compare them.
+ * <p>
+ * Usage: {@code FiberQueueBenchmark [iterations]}
+ */
+public class FiberQueueBenchmark {
+    public static void main(String[] args) {
+        int cIters = 1_000_000;
+        if (args.length > 0) {
+            cIters = Integer.parseInt(args[0]);
+        }
+
+        Runtime        runtime   = new Runtime();
+        ModuleConstant idModule  = new FileStructure("bench.xqiz.it").getModuleId();
+        Container      container = new BenchContainer(runtime, idModule);
+        ServiceContext ctx       = container.createServiceContext("FiberQueueBenchmark");
+
+        for (int cFibers : new int[] {10, 100, 10_000}) {
+            // warm up
+            run(ctx, cFibers, cIters / 10);
+
+            long cNanos = run(ctx, cFibers, cIters);
+            System.out.printf("fibers=%,7d  %,10.1f ns/decision%n", cFibers, (double) cNanos / cIters);
+        }
+
+        runtime.shutdownXVM();
+    }
+
+    /**
+     * Run the benchmark for the specified number of waiting fibers.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    static long run(ServiceContext ctx, int cFibers, int cIters) {
+        FiberQueue queue   = new FiberQueue(ctx);
+        Frame[]    aFrame  = new Frame[cFibers];
+        for (int i = 0; i < cFibers; i++) {
+            Frame frame = new BenchMessage().createFrame(ctx);
+            frame.f_fiber.setStatus(FiberStatus.Waiting, 0);
+            aFrame[i] = frame;
+            queue.add(frame);
+        }
+
+        ThreadLocalRandom rnd     = ThreadLocalRandom.current();
+        long              lStart  = System.nanoTime();
+        for (int i = 0; i < cIters; i++) {
+            aFrame[rnd.nextInt(cFibers)].f_fiber.onResponse();
+
+            if (!queue.isReady()) {
+                throw new IllegalStateException("not ready");
+            }
+
+            Frame frame = queue.getReady();
+            frame.f_fiber.m_fResponded = false;
+            queue.add(frame);
+        }
+        long cNanos = System.nanoTime() - lStart;
+
+        while (!queue.isEmpty()) {
+            ctx.terminateFiber(queue.getAny().f_fiber, 0);
+        }
+        return cNanos;
+    }
+
+    /**
+     * A message that creates an empty service entry frame.
+     */
+    static class BenchMessage
+            extends ServiceContext.Message {
+        BenchMessage() {
+            super(null);
+        }
+
+        @Override
+        public boolean isAsync() {
+            return true;
+        }
+
+        @Override
+        public int getCallDepth() {
+            return 0;
+        }
+
+        @Override
+        public ObjectHandle getTimeoutHandle() {
+            return null;
+        }
+
+        @Override
+        public long getTimeoutStamp() {
+            return 0L;
+        }
+
+        @Override
+        Frame createFrame(ServiceContext context) {
+            return context.createServiceEntryFrame(this, 0, new Op[] {Return_0.INSTANCE});
+        }
+    }
+
+    /**
+     * A bare-bones container that is sufficient to create service contexts.
+     */
+    static class BenchContainer
+            extends Container {
+        BenchContainer(Runtime runtime, ModuleConstant idModule) {
+            super(runtime, null, idModule);
+        }
+
+        @Override
+        public ObjectHandle getInjectable(Frame frame, String sName, TypeConstant type,
+                                          ObjectHandle hOpts) {
+            return null;
+        }
+    }
+}
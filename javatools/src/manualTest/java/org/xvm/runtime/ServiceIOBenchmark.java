@@ -0,0 +1,219 @@
+package org.xvm.runtime;
+
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.xvm.asm.FileStructure;
+
+import org.xvm.asm.constants.ModuleConstant;
+import org.xvm.asm.constants.TypeConstant;
+
+
+/**
+ * A benchmark that compares the service execution modes on a socket-heavy workload.
+ * <p>
+ * Every client "service" performs a number of request/response round trips against a loopback
+ * echo server. Each round trip is done via {@link Container#scheduleIO}, exactly as the native
+ * socket operations do it; if the IO is handed off to the IO executor, the client continues by
+ * re-submitting itself to the runtime when the future completes (which is how a waiting fiber gets
+ * resumed), otherwise it continues directly on the service thread.
+ * <p>
+ * Usage: {@code ServiceIOBenchmark [clients [rounds]]}
+ */
+public class ServiceIOBenchmark {
+    public static void main(String[] args) throws Exception {
+        int cClients = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int cRounds  = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+
+        try (ServerSocket server = startEchoServer()) {
+            for (String sMode : new String[] {Runtime.SCHEDULER_STEALING, Runtime.SCHEDULER_POOL,
+                                              Runtime.SCHEDULER_VIRTUAL}) {
+                System.setProperty("xvm.scheduler", sMode);
+
+                // warm up
+                run(server.getLocalPort(), cClients, cRounds / 10);
+
+                long cNanos  = run(server.getLocalPort(), cClients, cRounds);
+                long cTotal  = (long) cClients * cRounds;
+                System.out.printf("%-9s clients=%,6d  %,10.0f round trips/s  %,8.1f us/round trip%n",
+                        sMode, cClients, cTotal * 1e9 / cNanos,
+                        cNanos / 1e3 / cRounds);
+            }
+        } finally {
+            System.clearProperty("xvm.scheduler");
+        }
+    }
+
+    /**
+     * Run the benchmark using a new Runtime.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    static long run(int nPort, int cClients, int cRounds) throws Exception {
+        Runtime        runtime   = new Runtime();
+        ModuleConstant idModule  = new FileStructure("bench.xqiz.it").getModuleId();
+        Container      container = new BenchContainer(runtime, idModule);
+        CountDownLatch latch     = new CountDownLatch(cClients);
+        Client[]       aClient   = new Client[cClients];
+
+        for (int i = 0; i < cClients; i++) {
+            aClient[i] = new Client(container, container.createServiceContext("Client" + i),
+                    new Socket(InetAddress.getLoopbackAddress(), nPort), cRounds, latch);
+        }
+
+        long lStart = System.nanoTime();
+        for (Client client : aClient) {
+            client.schedule();
+        }
+        if (!latch.await(5, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("timed out");
+        }
+        long cNanos = System.nanoTime() - lStart;
+
+        for (Client client : aClient) {
+            client.f_socket.close();
+            if (client.m_eFailure != null) {
+                throw client.m_eFailure;
+            }
+        }
+        runtime.shutdownXVM();
+        return cNanos;
+    }
+
+    /**
+     * Start an echo server that serves each connection on its own virtual thread.
+     */
+    static ServerSocket startEchoServer() throws IOException {
+        ServerSocket server = new ServerSocket(0, 1024, InetAddress.getLoopbackAddress());
+        Thread.ofVirtual().start(() -> {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    socket.setTcpNoDelay(true);
+                    Thread.ofVirtual().start(() -> echo(socket));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        });
+        return server;
+    }
+
+    static void echo(Socket socket) {
+        try (socket) {
+            InputStream  in  = socket.getInputStream();
+            OutputStream out = socket.getOutputStream();
+            byte[]       ab  = new byte[MESSAGE_SIZE];
+            int          cb;
+            while ((cb = in.read(ab)) > 0) {
+                out.write(ab, 0, cb);
+            }
+        } catch (IOException ignore) {}
+    }
+
+    /**
+     * A client that emulates a service performing a sequence of blocking native IO calls.
+     */
+    static class Client {
+        Client(Container container, ServiceContext ctx, Socket socket, int cRounds,
+               CountDownLatch latch) throws IOException {
+            socket.setTcpNoDelay(true);
+
+            f_container = container;
+            f_ctx       = ctx;
+            f_socket    = socket;
+            f_latch     = latch;
+            m_cRounds   = cRounds;
+        }
+
+        void schedule() {
+            f_container.f_runtime.submitService(f_ctx, this::run);
+        }
+
+        /**
+         * Perform the round trips until an IO has to be waited for.
+         */
+        void run() {
+            while (m_cRounds > 0) {
+                CompletableFuture<Void> cf = f_container.scheduleIO(this::roundTrip);
+                if (!cf.isDone()) {
+                    cf.whenComplete((r, e) -> {
+                        if (e == null) {
+                            m_cRounds--;
+                            schedule();
+                        } else {
+                            fail(e);
+                        }
+                    });
+                    return;
+                }
+
+                if (cf.isCompletedExceptionally()) {
+                    cf.exceptionally(e -> {fail(e); return null;});
+                    return;
+                }
+                m_cRounds--;
+            }
+            f_latch.countDown();
+        }
+
+        Void roundTrip() throws IOException {
+            byte[] ab = new byte[MESSAGE_SIZE];
+            f_socket.getOutputStream().write(ab);
+
+            InputStream in = f_socket.getInputStream();
+            for (int of = 0; of < MESSAGE_SIZE; ) {
+                int cb = in.read(ab, of, MESSAGE_SIZE - of);
+                if (cb < 0) {
+                    throw new IOException("closed");
+                }
+                of += cb;
+            }
+            return null;
+        }
+
+        void fail(Throwable e) {
+            m_eFailure = e instanceof Exception ex ? ex : new RuntimeException(e);
+            m_cRounds  = 0;
+            f_latch.countDown();
+        }
+
+        final Container      f_container;
+        final ServiceContext f_ctx;
+        final Socket         f_socket;
+        final CountDownLatch f_latch;
+        volatile int         m_cRounds;
+        volatile Exception   m_eFailure;
+    }
+
+    /**
+     * A bare-bones container that is sufficient to create service contexts.
+     */
+    static class BenchContainer
+            extends Container {
+        BenchContainer(Runtime runtime, ModuleConstant idModule) {
+            super(runtime, null, idModule);
+        }
+
+        @Override
+        public ObjectHandle getInjectable(Frame frame, String sName, TypeConstant type,
+                                          ObjectHandle hOpts) {
+            return null;
+        }
+    }
+
+    /**
+     * The size of the request and response messages.
+     */
+    static final int MESSAGE_SIZE = 128;
+}
@@ -0,0 +1,127 @@
+package org.xvm.runtime.gc;
+
+
+import org.xvm.util.LongMuterator;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import java.util.function.Supplier;
+
+
+/**
+ * A benchmark that compares the allocation throughput and the collection pauses of the
+ * {@link GcSpace} implementations.
+ * <p>
+ * The workload follows the "generational hypothesis": most of the allocated objects die right
+ * away, while a small fraction replaces an entry in a large, long-lived working set; the working
+ * set entries are also linked to each other, which creates old-to-young references.
+ * <p>
+ * Every allocation is timed individually; an allocation that takes longer than
+ * {@link #PAUSE_NANOS} is considered to contain a collection pause.
+ * <p>
+ * Usage: {@code GcSpaceBenchmark [allocations [liveObjects]]}
+ */
+public class GcSpaceBenchmark {
+    public static void main(String[] args) {
+        int cAllocs = args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000;
+        int cLive   = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+
+        for (int iPass = 0; iPass < 2; iPass++) {
+            boolean fWarmup = iPass == 0;
+            int     c       = fWarmup ? cAllocs / 10 : cAllocs;
+
+            report("mark-and-sweep", fWarmup, c, run(new MarkAndSweepGcSpace<>(
+                    LongArrayObjectManager.INSTANCE, l -> {}), c, cLive));
+            report("generational", fWarmup, c, run(new GenerationalGcSpace<>(
+                    LongArrayObjectManager.INSTANCE, l -> {}), c, cLive));
+            try (OffHeapObjectManager manager = new OffHeapObjectManager(Long.MAX_VALUE)) {
+                report("gen (off-heap)", fWarmup, c, run(new GenerationalGcSpace<>(
+                        manager, l -> {}), c, cLive));
+            }
+        }
+    }
+
+    /**
+     * Run the workload against the specified space.
+     *
+     * @return the results: {elapsed nanos, pause count, total pause nanos, max pause nanos}
+     */
+    static long[] run(GcSpace space, int cAllocs, int cLive) {
+        ThreadLocalRandom rnd    = ThreadLocalRandom.current();
+        long[]            alLive = new long[cLive];
+        Supplier<LongMuterator> root = () -> new LongMuterator() {
+            int index = -1;
+
+            @Override
+            public void set(long value) {
+                alLive[index] = value;
+            }
+
+            @Override
+            public long nextLong() {
+                return alLive[++index];
+            }
+
+            @Override
+            public boolean hasNext() {
+                return index + 1 < alLive.length;
+            }
+        };
+        space.addRoot(root);
+
+        long cPauses     = 0;
+        long cPauseNanos = 0;
+        long cMaxPause   = 0;
+        long lStart      = System.nanoTime();
+        for (int i = 0; i < cAllocs; i++) {
+            long lBefore = System.nanoTime();
+            long p       = space.allocate(FIELDS);
+            long cNanos  = System.nanoTime() - lBefore;
+            if (cNanos > PAUSE_NANOS) {
+                cPauses++;
+                cPauseNanos += cNanos;
+                cMaxPause    = Math.max(cMaxPause, cNanos);
+            }
+
+            if (rnd.nextInt(100) < SURVIVOR_PERCENT) {
+                int iLive = rnd.nextInt(cLive);
+                alLive[iLive] = p;
+
+                // link a random live object to the new one
+                long pLive = alLive[rnd.nextInt(cLive)];
+                if (pLive != GcSpace.NULL) {
+                    space.setField(pLive, rnd.nextInt(FIELDS), p);
+                }
+            }
+        }
+        long cNanos = System.nanoTime() - lStart;
+
+        space.removeRoot(root);
+        return new long[] {cNanos, cPauses, cPauseNanos, cMaxPause};
+    }
+
+    static void report(String sName, boolean fWarmup, int cAllocs, long[] alResult) {
+        System.out.printf("%-15s%s %,12.0f allocs/s  pauses=%,6d  total=%,8.1fms  avg=%,8.1fus  max=%,8.1fms%n",
+                sName, fWarmup ? " (warmup)" : "",
+                cAllocs * 1e9 / alResult[0],
+                alResult[1],
+                alResult[2] / 1e6,
+                alResult[1] == 0 ? 0.0 : alResult[2] / 1e3 / alResult[1],
+                alResult[3] / 1e6);
+    }
+
+    /**
+     * The number of fields per allocated object.
+     */
+    static final int FIELDS = 4;
+
+    /**
+     * The percentage of the allocated objects that enter the working set.
+     */
+    static final int SURVIVOR_PERCENT = 2;
+
+    /**
+     * The allocation time (in nanos) that is considered to contain a collection pause.
+     */
+    static final long PAUSE_NANOS = 50_000;
+}
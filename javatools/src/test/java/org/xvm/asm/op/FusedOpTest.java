@@ -0,0 +1,85 @@
+package org.xvm.asm.op;
+
+
+import org.junit.jupiter.api.Test;
+
+import org.xvm.asm.Op;
+
+import org.xvm.runtime.Frame;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+
+/**
+ * Tests of the {@link FusedOp} fusion pass.
+ */
+public class FusedOpTest {
+    @Test
+    void shouldKeepArrayWithoutFusion() {
+        Op[] aop = {new TestOp(false), new TestOp(false), new TestOp(false)};
+        assertSame(aop, FusedOp.fuse(aop));
+    }
+
+    @Test
+    void shouldKeepAddresses() {
+        Op   op0 = new TestOp(false);
+        Op   op1 = new TestOp(true);
+        Op   op2 = new TestOp(false);
+        Op   op3 = new TestOp(false);
+        Op[] aop = {op0, op1, op2, op3};
+
+        Op[] aopExec = FusedOp.fuse(aop);
+        if (!FusedOp.ENABLED) {
+            assertSame(aop, aopExec);
+            return;
+        }
+
+        // the assembled ops are not modified
+        assertSame(op1, aop[1]);
+
+        assertSame(op0, aopExec[0]);
+        FusedOp opFused = assertInstanceOf(FusedOp.class, aopExec[1]);
+        assertSame(op1, opFused.getFirstOp());
+        assertSame(op2, opFused.getSecondOp());
+        assertSame(op2, aopExec[2]);
+        assertSame(op3, aopExec[3]);
+    }
+
+    @Test
+    void shouldNotChainFusion() {
+        Op   op0 = new TestOp(true);
+        Op   op1 = new TestOp(true);
+        Op   op2 = new TestOp(false);
+        Op[] aop = {op0, op1, op2};
+
+        Op[] aopExec = FusedOp.fuse(aop);
+        if (FusedOp.ENABLED) {
+            assertInstanceOf(FusedOp.class, aopExec[0]);
+            assertSame(op1, aopExec[1]);
+            assertSame(op2, aopExec[2]);
+        }
+    }
+
+    /**
+     * An op that fuses with any following op.
+     */
+    private static class TestOp
+            extends Op {
+        TestOp(boolean fFuse) {
+            f_fFuse = fFuse;
+        }
+
+        @Override
+        public int process(Frame frame, int iPC) {
+            return iPC + 1;
+        }
+
+        @Override
+        public Op fuseWith(Op opNext) {
+            return f_fFuse ? new FusedOp(this, opNext) : null;
+        }
+
+        private final boolean f_fFuse;
+    }
+}
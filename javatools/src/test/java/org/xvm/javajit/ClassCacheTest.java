@@ -0,0 +1,77 @@
+package org.xvm.javajit;
+
+
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.xvm.javajit.ClassCache.Dependency;
+import org.xvm.javajit.ClassCache.Entry;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+
+/**
+ * Tests of the {@link ClassCache} archive format.
+ */
+public class ClassCacheTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReadWrittenArchive() throws IOException {
+        Path       file  = tempDir.resolve("ts.xjc");
+        byte[]     key   = key(1);
+        byte[]     ab    = {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0, 1, 2};
+        Dependency dep   = new Dependency(Dependency.JIT_NAME, "test.xtclang.org", 42,
+                                          "add(Int)", "addꖛ0");
+        ClassCache.write(file, key, Map.of("test.C", new Entry(List.of(dep), ByteBuffer.wrap(ab))));
+
+        Map<String, Entry> entries = ClassCache.read(file, key);
+        assertEquals(1, entries.size());
+
+        Entry entry = entries.get("test.C");
+        assertEquals(List.of(dep), entry.deps());
+        assertArrayEquals(ab, entry.classBytes());
+    }
+
+    @Test
+    void shouldIgnoreArchiveForDifferentKey() throws IOException {
+        Path file = tempDir.resolve("ts.xjc");
+        ClassCache.write(file, key(1), Map.of("test.C",
+                new Entry(List.of(), ByteBuffer.wrap(new byte[] {1, 2, 3}))));
+
+        assertNull(ClassCache.read(file, key(2)));
+    }
+
+    @Test
+    void shouldIgnoreTruncatedArchive() throws IOException {
+        Path file = tempDir.resolve("ts.xjc");
+        ClassCache.write(file, key(1), Map.of("test.C",
+                new Entry(List.of(), ByteBuffer.wrap(new byte[] {1, 2, 3}))));
+
+        byte[] ab = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(ab, ab.length - 2));
+
+        assertNull(ClassCache.read(file, key(1)));
+        assertNull(ClassCache.read(tempDir.resolve("missing.xjc"), key(1)));
+    }
+
+    private static byte[] key(int n) {
+        byte[] key = new byte[32];
+        key[0] = (byte) n;
+        return key;
+    }
+}
@@ -0,0 +1,183 @@
+package org.xvm.javajit;
+
+
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.ClassHierarchyResolver;
+import java.lang.classfile.ClassModel;
+import java.lang.classfile.CodeModel;
+import java.lang.classfile.MethodModel;
+
+import java.lang.classfile.instruction.InvokeInstruction;
+import java.lang.classfile.instruction.ReturnInstruction;
+import java.lang.classfile.instruction.TypeCheckInstruction;
+
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import org.xvm.javajit.TypeProfile.Site;
+
+import static java.lang.constant.ConstantDescs.CD_String;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+
+/**
+ * Tests of the {@link Builder#invokeGuarded} code generated for the profiled call sites.
+ */
+public class GuardedInvokeTest {
+    @Test
+    void shouldEmitGuardedCallsForBimorphicSite() throws Throwable {
+        byte[] bytes = buildCaller(recordBimorphicSite());
+
+        ClassModel  model  = ClassFile.of().parse(bytes);
+        MethodModel method = model.methods().stream()
+                .filter(m -> m.methodName().equalsString("call"))
+                .findFirst().orElseThrow();
+        CodeModel   code   = method.code().orElseThrow();
+
+        List<String> listInvoke = new ArrayList<>();
+        List<String> listCheck  = new ArrayList<>();
+        code.forEach(e -> {
+            switch (e) {
+            case InvokeInstruction insn ->
+                listInvoke.add(insn.owner().asSymbol().displayName() + '.' +
+                               insn.name().stringValue());
+            case TypeCheckInstruction insn ->
+                listCheck.add(insn.opcode().name() + ' ' +
+                              insn.type().asSymbol().displayName());
+            default -> {}
+            }
+        });
+
+        // one guarded call per receiver followed by the virtual call; a single return at the join
+        assertEquals(List.of("GuardedInvokeTest$Circle.name", "GuardedInvokeTest$Square.name",
+                             "GuardedInvokeTest$Shape.name"), listInvoke);
+        assertEquals(List.of("INSTANCEOF GuardedInvokeTest$Circle",
+                             "CHECKCAST GuardedInvokeTest$Circle",
+                             "INSTANCEOF GuardedInvokeTest$Square",
+                             "CHECKCAST GuardedInvokeTest$Square"), listCheck);
+        assertEquals(1, code.elementStream()
+                .filter(e -> e instanceof ReturnInstruction)
+                .count());
+    }
+
+    @Test
+    void shouldDispatchGuardedCalls() throws Throwable {
+        MethodHandle mh = loadCaller(buildCaller(recordBimorphicSite()));
+
+        assertEquals("circle:a",   (String) mh.invokeExact((Shape) new Circle(),   "a"));
+        assertEquals("square:b",   (String) mh.invokeExact((Shape) new Square(),   "b"));
+        assertEquals("triangle:c", (String) mh.invokeExact((Shape) new Triangle(), "c"));
+
+        // a subclass of a profiled receiver takes the guarded branch, but is still dispatched to
+        // its own override
+        assertEquals("ellipse:d",  (String) mh.invokeExact((Shape) new Ellipse(),  "d"));
+    }
+
+    @Test
+    void shouldDispatchVirtualCallWithoutReceivers() throws Throwable {
+        MethodHandle mh = loadCaller(buildCaller(List.of()));
+
+        assertEquals("circle:a",   (String) mh.invokeExact((Shape) new Circle(),   "a"));
+        assertEquals("triangle:b", (String) mh.invokeExact((Shape) new Triangle(), "b"));
+    }
+
+    /**
+     * Record a call site that has only been observed with the Circle and Square receivers.
+     *
+     * @return the ClassDescs of the recorded receivers
+     */
+    private static List<ClassDesc> recordBimorphicSite() {
+        Site site = new Site();
+        site.record("test:Circle");
+        site.record("test:Square");
+        site.record("test:Circle");
+        assertFalse(site.isMegamorphic());
+
+        Map<String, Class<?>> mapClass = Map.of("test:Circle", Circle.class,
+                                                "test:Square", Square.class);
+        List<ClassDesc> listRecv = new ArrayList<>();
+        for (String key : site.getReceivers()) {
+            listRecv.add(mapClass.get(key).describeConstable().orElseThrow());
+        }
+        return listRecv;
+    }
+
+    /**
+     * Build a class with a static "String call(Shape shape, String prefix)" method that calls
+     * "shape.name(prefix)" via the guarded calls for the specified receivers.
+     */
+    private static byte[] buildCaller(List<ClassDesc> listRecv) {
+        ClassHierarchyResolver resolver = ClassHierarchyResolver.defaultResolver().orElse(
+                ClassHierarchyResolver.ofClassLoading(GuardedInvokeTest.class.getClassLoader()));
+
+        return ClassFile.of(ClassFile.ClassHierarchyResolverOption.of(resolver))
+                .build(CD_Caller, clz -> clz.withMethodBody("call", MD_Call,
+                        ClassFile.ACC_PUBLIC | ClassFile.ACC_STATIC, code -> {
+                    Builder.invokeGuarded(code, CD_Shape, 0, listRecv, CD_Shape, false, "name",
+                            MD_Name, new int[] {1});
+                    code.areturn();
+                }));
+    }
+
+    /**
+     * Load the class built by {@link #buildCaller} (which verifies it) and find its "call" method.
+     */
+    private static MethodHandle loadCaller(byte[] bytes) throws Throwable {
+        MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+        return lookup.findStatic(lookup.lookupClass(), "call",
+                MethodType.methodType(String.class, Shape.class, String.class));
+    }
+
+    public abstract static class Shape {
+        public abstract String name(String prefix);
+    }
+
+    public static class Circle
+            extends Shape {
+        @Override
+        public String name(String prefix) {
+            return "circle:" + prefix;
+        }
+    }
+
+    public static class Ellipse
+            extends Circle {
+        @Override
+        public String name(String prefix) {
+            return "ellipse:" + prefix;
+        }
+    }
+
+    public static class Square
+            extends Shape {
+        @Override
+        public String name(String prefix) {
+            return "square:" + prefix;
+        }
+    }
+
+    public static class Triangle
+            extends Shape {
+        @Override
+        public String name(String prefix) {
+            return "triangle:" + prefix;
+        }
+    }
+
+    private static final ClassDesc      CD_Caller = ClassDesc.of("org.xvm.javajit.GuardedCaller");
+    private static final ClassDesc      CD_Shape  = Shape.class.describeConstable().orElseThrow();
+    private static final MethodTypeDesc MD_Name   = MethodTypeDesc.of(CD_String, CD_String);
+    private static final MethodTypeDesc MD_Call   = MethodTypeDesc.of(CD_String, CD_Shape, CD_String);
+}
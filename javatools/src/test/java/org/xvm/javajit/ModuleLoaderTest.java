@@ -0,0 +1,64 @@
+package org.xvm.javajit;
+
+
+import java.lang.classfile.ClassFile;
+
+import java.lang.constant.ClassDesc;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+/**
+ * Tests of the {@link ModuleLoader} ordering of the eagerly generated classes.
+ */
+public class ModuleLoaderTest {
+    @Test
+    void shouldOrderSuperClassesAndInterfacesFirst() {
+        Map<String, byte[]> classes = new HashMap<>();
+        classes.put("test.A", makeClass("test.A", "test.B", "test.Z"));
+        classes.put("test.B", makeClass("test.B", "test.C"));
+        classes.put("test.C", makeClass("test.C", "java.lang.Object"));
+        classes.put("test.Z", makeClass("test.Z", "java.lang.Object"));
+
+        assertEquals(List.of("test.C", "test.B", "test.Z", "test.A"),
+                ModuleLoader.sortByDependency(classes));
+    }
+
+    @Test
+    void shouldOrderIndependentClassesByName() {
+        Map<String, byte[]> classes = new HashMap<>();
+        classes.put("test.Q", makeClass("test.Q", "java.lang.Thread"));
+        classes.put("test.P", makeClass("test.P", "java.lang.Object", "java.lang.Runnable"));
+        classes.put("test.R", makeClass("test.R", "java.lang.Object"));
+
+        assertEquals(List.of("test.P", "test.Q", "test.R"),
+                ModuleLoader.sortByDependency(classes));
+    }
+
+    @Test
+    void shouldTolerateCyclesAndMalformedClasses() {
+        Map<String, byte[]> classes = new HashMap<>();
+        classes.put("test.X",   makeClass("test.X", "test.Y"));
+        classes.put("test.Y",   makeClass("test.Y", "test.X"));
+        classes.put("test.Bad", new byte[] {1, 2, 3});
+
+        assertEquals(List.of("test.Bad", "test.Y", "test.X"),
+                ModuleLoader.sortByDependency(classes));
+    }
+
+    /**
+     * @return the bytes of an empty class with the specified super class and interfaces
+     */
+    private static byte[] makeClass(String name, String superName, String... interfaces) {
+        return ClassFile.of().build(ClassDesc.of(name), builder -> builder
+                .withSuperclass(ClassDesc.of(superName))
+                .withInterfaceSymbols(Arrays.stream(interfaces).map(ClassDesc::of).toList()));
+    }
+}
@@ -0,0 +1,61 @@
+package org.xvm.javajit;
+
+
+import java.io.IOException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.xvm.javajit.TypeProfile.Site;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Tests of the {@link TypeProfile}.
+ */
+public class TypeProfileTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldBecomeMegamorphic() {
+        Site site = new Site();
+        site.record("test:A");
+        site.record("test:B");
+        site.record("test:A");
+        assertEquals(List.of("test:A", "test:B"), site.getReceivers());
+        assertFalse(site.isMegamorphic());
+
+        site.record("test:C");
+        assertTrue(site.isMegamorphic());
+        assertTrue(site.getReceivers().isEmpty());
+    }
+
+    @Test
+    void shouldReadWrittenProfile() throws IOException {
+        Path file = tempDir.resolve("profile.txt");
+        Files.writeString(file, """
+                test:C.m(Int)@3\ttest:A\ttest:B
+                test:C.n()@7\t*
+                garbage
+                """);
+
+        TypeProfile profile = new TypeProfile();
+        profile.read(file);
+
+        Path copy = tempDir.resolve("copy.txt");
+        profile.write(copy);
+        assertEquals("""
+                test:C.m(Int)@3\ttest:A\ttest:B
+                test:C.n()@7\t*
+                """, Files.readString(copy).replace(System.lineSeparator(), "\n"));
+    }
+}
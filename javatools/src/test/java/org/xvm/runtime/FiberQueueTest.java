@@ -0,0 +1,209 @@
+package org.xvm.runtime;
+
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.xvm.asm.FileStructure;
+import org.xvm.asm.Op;
+
+import org.xvm.asm.constants.ModuleConstant;
+import org.xvm.asm.constants.TypeConstant;
+
+import org.xvm.asm.op.Return_0;
+
+import org.xvm.runtime.Fiber.FiberStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Tests of the {@link FiberQueue}.
+ */
+public class FiberQueueTest {
+    @BeforeEach
+    void setUp() {
+        ModuleConstant idModule = new FileStructure("test.xqiz.it").getModuleId();
+
+        m_runtime = new Runtime();
+        m_context = new TestContainer(m_runtime, idModule).createServiceContext("FiberQueueTest");
+    }
+
+    @AfterEach
+    void tearDown() {
+        m_runtime.shutdownXVM();
+    }
+
+    @Test
+    void shouldReturnReadyFramesInOrder() {
+        FiberQueue queue  = new FiberQueue(m_context);
+        Frame      frame1 = createInitialFrame();
+        Frame      frame2 = createInitialFrame();
+
+        assertFalse(queue.isReady());
+        assertNull(queue.getReady());
+
+        queue.add(frame1);
+        queue.add(frame2);
+        assertEquals(2, queue.size());
+        assertTrue(queue.isReady());
+
+        assertSame(frame1, queue.getReady());
+        assertSame(frame2, queue.getReady());
+        assertTrue(queue.isEmpty());
+        assertFalse(queue.isReady());
+    }
+
+    @Test
+    void shouldResumeSignaledFrame() {
+        FiberQueue queue  = new FiberQueue(m_context);
+        Frame      frame1 = createWaitingFrame();
+        Frame      frame2 = createWaitingFrame();
+
+        queue.add(frame1);
+        queue.add(frame2);
+        assertFalse(queue.isReady());
+        assertNull(queue.getReady());
+
+        respond(queue, frame2);
+        assertTrue(queue.mayBeReady());
+        assertTrue(queue.isReady());
+        assertSame(frame2, queue.getReady());
+        assertFalse(queue.isReady());
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    void shouldNotCollectSignaledFramesWhenChecked() {
+        FiberQueue queue    = new FiberQueue(m_context);
+        Frame      frameW   = createWaitingFrame();
+        Frame      frameN1  = createInitialFrame();
+        Frame      frameN2  = createInitialFrame();
+
+        queue.add(frameW);
+        queue.add(frameN1);
+        respond(queue, frameW);
+
+        // checking the readiness must not move the signaled frame to the ready queue, so the frame
+        // that is added after the check is still ahead of it
+        assertTrue(queue.isReady());
+        assertTrue(queue.isReady());
+        queue.add(frameN2);
+
+        assertSame(frameN1, queue.getReady());
+        assertSame(frameN2, queue.getReady());
+        assertSame(frameW,  queue.getReady());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void shouldStartNewFramesUnderContinuousResumes() {
+        FiberQueue queue   = new FiberQueue(m_context);
+        Frame[]    aFrame  = new Frame[4];
+        for (int i = 0; i < aFrame.length; i++) {
+            queue.add(aFrame[i] = createWaitingFrame());
+        }
+
+        // keep the queue busy: every time a resumed frame runs, it suspends itself again and
+        // another waiting frame gets a response
+        respond(queue, aFrame[0]);
+
+        Frame frameNew = null;
+        for (int iStep = 0; iStep < 100; iStep++) {
+            if (iStep == 10) {
+                frameNew = createInitialFrame();
+                queue.add(frameNew);
+            }
+
+            respond(queue, aFrame[(iStep + 1) % aFrame.length]);
+
+            Frame frame = queue.getReady();
+            if (frame == frameNew) {
+                // the new frame must not wait for more than the frames resumed ahead of it
+                assertTrue(iStep <= 11, "started at step " + iStep);
+                return;
+            }
+
+            frame.f_fiber.m_fResponded = false;
+            queue.add(frame);
+        }
+        throw new AssertionError("the new frame has never been started");
+    }
+
+    private Frame createInitialFrame() {
+        return new TestMessage().createFrame(m_context);
+    }
+
+    private Frame createWaitingFrame() {
+        Frame frame = createInitialFrame();
+        frame.f_fiber.setStatus(FiberStatus.Waiting, 0);
+        return frame;
+    }
+
+    /**
+     * Emulate a response for the specified waiting frame.
+     */
+    private static void respond(FiberQueue queue, Frame frame) {
+        frame.f_fiber.m_fResponded = true;
+        queue.signal(frame.f_fiber);
+    }
+
+    /**
+     * A message that creates an empty service entry frame.
+     */
+    private static class TestMessage
+            extends ServiceContext.Message {
+        TestMessage() {
+            super(null);
+        }
+
+        @Override
+        public boolean isAsync() {
+            return true;
+        }
+
+        @Override
+        public int getCallDepth() {
+            return 0;
+        }
+
+        @Override
+        public ObjectHandle getTimeoutHandle() {
+            return null;
+        }
+
+        @Override
+        public long getTimeoutStamp() {
+            return 0L;
+        }
+
+        @Override
+        Frame createFrame(ServiceContext context) {
+            return context.createServiceEntryFrame(this, 0, new Op[] {Return_0.INSTANCE});
+        }
+    }
+
+    /**
+     * A bare-bones container that is sufficient to create service contexts.
+     */
+    private static class TestContainer
+            extends Container {
+        TestContainer(Runtime runtime, ModuleConstant idModule) {
+            super(runtime, null, idModule);
+        }
+
+        @Override
+        public ObjectHandle getInjectable(Frame frame, String sName, TypeConstant type,
+                                          ObjectHandle hOpts) {
+            return null;
+        }
+    }
+
+    private Runtime        m_runtime;
+    private ServiceContext m_context;
+}
@@ -0,0 +1,125 @@
+package org.xvm.runtime;
+
+
+import org.junit.jupiter.api.Test;
+
+import org.xvm.runtime.Frame.VarInfo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Tests of the {@link FramePool}.
+ */
+public class FramePoolTest {
+    @Test
+    void shouldReuseReleasedArrays() {
+        FramePool      pool  = new FramePool(true, false);
+        ObjectHandle[] ahVar = pool.allocateVars(4);
+        assertTrue(pool.adopt(ahVar));
+        assertFalse(pool.adopt(ahVar));
+
+        VarInfo[] aInfo     = pool.allocateInfo(4);
+        int[]     anNextVar = pool.allocateScopes(2);
+        anNextVar[1] = 3;
+        pool.release(ahVar, aInfo, anNextVar);
+
+        ObjectHandle[] ahVar2 = pool.allocateVars(4);
+        assertSame(ahVar, ahVar2);
+        assertEquals(1, pool.getReuseCount());
+        assertTrue(pool.adopt(ahVar2));
+        assertSame(aInfo, pool.allocateInfo(4));
+
+        int[] anNextVar2 = pool.allocateScopes(2);
+        assertSame(anNextVar, anNextVar2);
+        assertEquals(0, anNextVar2[1]);
+
+        // a different size is not shared
+        assertNotSame(ahVar, pool.allocateVars(5));
+    }
+
+    @Test
+    void shouldClearReleasedRegisters() {
+        FramePool      pool  = new FramePool(true, false);
+        ObjectHandle[] ahVar = pool.allocateVars(2);
+        ahVar[0] = new TestHandle();
+        ahVar[1] = new TestHandle();
+        pool.release(ahVar, new VarInfo[2], new int[1]);
+
+        ObjectHandle[] ahVar2 = pool.allocateVars(2);
+        assertSame(ahVar, ahVar2);
+        assertNull(ahVar2[0]);
+        assertNull(ahVar2[1]);
+    }
+
+    @Test
+    void shouldOnlyAdoptLastAllocation() {
+        FramePool      pool   = new FramePool(true, false);
+        ObjectHandle[] ahVar1 = pool.allocateVars(3);
+        ObjectHandle[] ahVar2 = pool.allocateVars(3);
+        assertFalse(pool.adopt(ahVar1));
+        assertFalse(pool.adopt(new ObjectHandle[3]));
+        assertTrue(pool.adopt(ahVar2));
+    }
+
+    @Test
+    void shouldNotAdoptWhenDisabled() {
+        FramePool      pool  = new FramePool(false, false);
+        ObjectHandle[] ahVar = pool.allocateVars(3);
+        assertEquals(3, ahVar.length);
+        assertFalse(pool.adopt(ahVar));
+    }
+
+    @Test
+    void shouldLimitPooledArrays() {
+        FramePool pool = new FramePool(true, false);
+        int       cMax = FramePool.MAX_POOLED_SIZE + 1;
+
+        ObjectHandle[] ahLarge = pool.allocateVars(cMax);
+        pool.release(ahLarge, new VarInfo[cMax], new int[1]);
+        assertNotSame(ahLarge, pool.allocateVars(cMax));
+
+        for (int i = 0; i <= FramePool.MAX_POOLED_ARRAYS; i++) {
+            pool.release(new ObjectHandle[1], new VarInfo[1], new int[1]);
+        }
+        for (int i = 0; i < FramePool.MAX_POOLED_ARRAYS; i++) {
+            pool.allocateVars(1);
+        }
+        assertEquals(FramePool.MAX_POOLED_ARRAYS, pool.getReuseCount());
+        pool.allocateVars(1);
+        assertEquals(FramePool.MAX_POOLED_ARRAYS, pool.getReuseCount());
+    }
+
+    @Test
+    void shouldPoisonReleasedArrays() {
+        FramePool      pool  = new FramePool(true, true);
+        ObjectHandle[] ahVar = pool.allocateVars(2);
+        assertTrue(pool.adopt(ahVar));
+
+        int[] anNextVar = pool.allocateScopes(1);
+        pool.release(ahVar, pool.allocateInfo(2), anNextVar);
+        assertEquals(1, pool.getPoisonCount());
+
+        // a use-after-return fails fast
+        assertTrue(FramePool.isPoisoned(ahVar[0]));
+        assertThrows(IllegalStateException.class, () -> ahVar[1].getTemplate());
+        assertEquals(Integer.MIN_VALUE, anNextVar[0]);
+
+        // and the poisoned arrays are never reused
+        assertNotSame(ahVar, pool.allocateVars(2));
+        assertEquals(0, pool.getReuseCount());
+    }
+
+    private static class TestHandle
+            extends ObjectHandle {
+        TestHandle() {
+            super(null);
+        }
+    }
+}
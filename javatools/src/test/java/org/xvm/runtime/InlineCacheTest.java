@@ -0,0 +1,143 @@
+package org.xvm.runtime;
+
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Tests of the {@link InlineCache}.
+ */
+public class InlineCacheTest {
+    @Test
+    void shouldHitAfterPut() {
+        InlineCache cache = new InlineCache();
+        Object      key   = new Object();
+        Object      value = new Object();
+        assertNull(cache.get(key));
+
+        cache.put(key, value);
+        assertSame(value, cache.get(key));
+    }
+
+    @Test
+    void shouldRetainStrongValues() {
+        InlineCache cache = new InlineCache(true);
+        Object      key   = new Object();
+
+        // nothing but the cache refers to the value
+        cache.put(key, new StringBuilder("chain"));
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        assertEquals("chain", String.valueOf(cache.get(key)));
+    }
+
+    @Test
+    void shouldCountOnlyWithStats() {
+        InlineCache cache = new InlineCache();
+        Object      key   = new Object();
+        cache.put(key, new Object());
+
+        long cHits   = InlineCache.getHitCount();
+        long cMisses = InlineCache.getMissCount();
+        cache.get(key);
+        cache.get(new Object());
+        assertEquals(InlineCache.STATS, InlineCache.getHitCount() > cHits);
+        assertEquals(InlineCache.STATS, InlineCache.getMissCount() > cMisses);
+    }
+
+    @Test
+    void shouldMatchEqualKeys() {
+        InlineCache cache = new InlineCache();
+        Object      value = new Object();
+        String      key   = "Array<Int>";
+        cache.put(key, value);
+        assertSame(value, cache.get(new String(key)));
+    }
+
+    @Test
+    void shouldSeparateScopes() {
+        InlineCache cache  = new InlineCache();
+        Object      scope1 = new Object();
+        Object      scope2 = new Object();
+        Object      key    = new Object();
+        Object      value1 = new Object();
+        Object      value2 = new Object();
+
+        cache.put(scope1, key, value1);
+        assertNull(cache.get(scope2, key));
+        assertNull(cache.get(key));
+
+        cache.put(scope2, key, value2);
+        assertSame(value1, cache.get(scope1, key));
+        assertSame(value2, cache.get(scope2, key));
+    }
+
+    @Test
+    void shouldBecomeMegamorphic() {
+        InlineCache cache   = new InlineCache();
+        Object[]    aKey    = new Object[InlineCache.MAX_ENTRIES + 1];
+        Object[]    aValue  = new Object[aKey.length];
+        for (int i = 0; i < InlineCache.MAX_ENTRIES; i++) {
+            aKey[i]   = new Object();
+            aValue[i] = new Object();
+            cache.put(aKey[i], aValue[i]);
+        }
+        for (int i = 0; i < InlineCache.MAX_ENTRIES; i++) {
+            assertSame(aValue[i], cache.get(aKey[i]));
+        }
+        assertFalse(cache.isMegamorphic());
+
+        int i = InlineCache.MAX_ENTRIES;
+        aKey[i]   = new Object();
+        aValue[i] = new Object();
+        cache.put(aKey[i], aValue[i]);
+        assertTrue(cache.isMegamorphic());
+        assertNull(cache.get(aKey[0]));
+        assertNull(cache.get(aKey[i]));
+    }
+
+    @Test
+    void shouldRetryMegamorphicSite() {
+        InlineCache cache = new InlineCache();
+        for (int i = 0; i <= InlineCache.MAX_ENTRIES; i++) {
+            cache.put(new Object(), new Object());
+        }
+        assertTrue(cache.isMegamorphic());
+
+        // the site turns monomorphic
+        Object key   = new Object();
+        Object value = new Object();
+        for (int i = 1; i < InlineCache.MEGAMORPHIC_RETRY; i++) {
+            cache.put(key, value);
+        }
+        assertTrue(cache.isMegamorphic());
+        assertNull(cache.get(key));
+
+        cache.put(key, value);
+        assertFalse(cache.isMegamorphic());
+        cache.put(key, value);
+        assertSame(value, cache.get(key));
+    }
+
+    @Test
+    void shouldClear() {
+        InlineCache cache = new InlineCache();
+        Object      key   = new Object();
+        cache.put(key, new Object());
+        for (int i = 0; i < InlineCache.MAX_ENTRIES; i++) {
+            cache.put(new Object(), new Object());
+        }
+        assertTrue(cache.isMegamorphic());
+
+        cache.clear();
+        assertFalse(cache.isMegamorphic());
+        assertNull(cache.get(key));
+    }
+}
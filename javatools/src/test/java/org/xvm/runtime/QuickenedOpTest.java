@@ -0,0 +1,437 @@
+package org.xvm.runtime;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.xvm.asm.FileStructure;
+import org.xvm.asm.Op;
+import org.xvm.asm.OpGeneral;
+import org.xvm.asm.OpQuickened;
+import org.xvm.asm.OpTest;
+
+import org.xvm.asm.constants.ModuleConstant;
+import org.xvm.asm.constants.TypeConstant;
+
+import org.xvm.asm.op.Return_0;
+
+import org.xvm.runtime.ObjectHandle.ExceptionHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import static org.xvm.util.Handy.writePackedLong;
+
+
+/**
+ * Tests of the {@link OpQuickened} replacement of the generic ops in the executable ops shared by
+ * the frames of a method.
+ */
+public class QuickenedOpTest {
+    @BeforeEach
+    void setUp() {
+        ModuleConstant idModule = new FileStructure("test.xqiz.it").getModuleId();
+
+        m_runtime = new Runtime();
+        m_context = new TestContainer(m_runtime, idModule).createServiceContext("QuickenedOpTest");
+    }
+
+    @AfterEach
+    void tearDown() {
+        m_runtime.shutdownXVM();
+    }
+
+    @Test
+    void shouldInstallOnFirstRun() throws IOException {
+        AddOp opGeneric = new AddOp();
+        Op[]  aop       = {opGeneric, Return_0.INSTANCE};
+
+        Frame frame = createFrame(aop, 1, 2);
+        execute(frame, 0);
+        assertEquals(3, result(frame));
+        if (!OpQuickened.ENABLED) {
+            assertSame(opGeneric, aop[0]);
+            return;
+        }
+
+        QuickAddOp opQuick = assertInstanceOf(QuickAddOp.class, aop[0]);
+        assertSame(opGeneric, opQuick.getGenericOp());
+        assertEquals(opGeneric.getOpCode(), opQuick.getOpCode());
+
+        // any other frame sharing the same ops runs the quickened op
+        Frame frame2 = createFrame(aop, 5, 7);
+        execute(frame2, 0);
+        assertEquals(12, result(frame2));
+        assertEquals(1, opGeneric.m_cExecuted);
+        assertEquals(1, opQuick.m_cExecuted);
+    }
+
+    @Test
+    void shouldNotQuickenUnsupportedOperands() throws IOException {
+        AddOp opGeneric = new AddOp();
+        Op[]  aop       = {opGeneric, Return_0.INSTANCE};
+
+        execute(createFrame(aop, new TestHandle(1), new TestHandle(2)), 0);
+        assertSame(opGeneric, aop[0]);
+
+        // the generic op doesn't try again
+        execute(createFrame(aop, 1, 2), 0);
+        assertSame(opGeneric, aop[0]);
+    }
+
+    @Test
+    void shouldDeoptimizeOnOperandTypeChange() throws IOException {
+        if (!OpQuickened.ENABLED) {
+            return;
+        }
+
+        AddOp opGeneric = new AddOp();
+        Op[]  aop       = {opGeneric, Return_0.INSTANCE};
+
+        execute(createFrame(aop, 1, 2), 0);
+        QuickAddOp opQuick = assertInstanceOf(QuickAddOp.class, aop[0]);
+
+        long  cDeopt = OpQuickened.getDeoptimizedCount();
+        Frame frame  = createFrame(aop, new TestHandle(20), new TestHandle(22));
+        execute(frame, 0);
+
+        // the generic op has computed the result and the address has been reverted
+        assertEquals(42, result(frame));
+        assertSame(opGeneric, aop[0]);
+        assertEquals(1, opQuick.m_cExecuted);
+        assertEquals(2, opGeneric.m_cExecuted);
+        assertEquals(cDeopt + 1, OpQuickened.getDeoptimizedCount());
+    }
+
+    @Test
+    void shouldNotQuickenAgainAfterDeoptimization() throws IOException {
+        if (!OpQuickened.ENABLED) {
+            return;
+        }
+
+        AddOp opGeneric = new AddOp();
+        Op[]  aop       = {opGeneric, Return_0.INSTANCE};
+
+        execute(createFrame(aop, 1, 2), 0);
+        execute(createFrame(aop, new TestHandle(1), new TestHandle(2)), 0);
+        assertSame(opGeneric, aop[0]);
+
+        // the supported operands no longer quicken the polymorphic site
+        long cQuickened = OpQuickened.getQuickenedCount();
+        for (int i = 0; i < 10; i++) {
+            Frame frame = createFrame(aop, i, i);
+            execute(frame, 0);
+            assertEquals(2 * i, result(frame));
+            assertSame(opGeneric, aop[0]);
+        }
+        assertEquals(cQuickened, OpQuickened.getQuickenedCount());
+    }
+
+    @Test
+    void shouldQuickenTestOps() throws IOException {
+        if (!OpQuickened.ENABLED) {
+            return;
+        }
+
+        CmpOp opGeneric = new CmpOp();
+        Op[]  aop       = {opGeneric, Return_0.INSTANCE};
+
+        Frame frame = createFrame(aop, 1, 2);
+        execute(frame, 0);
+        assertEquals(-1, result(frame));
+        QuickCmpOp opQuick = assertInstanceOf(QuickCmpOp.class, aop[0]);
+
+        frame = createFrame(aop, 2, 2);
+        execute(frame, 0);
+        assertEquals(0, result(frame));
+        assertEquals(1, opQuick.m_cExecuted);
+
+        frame = createFrame(aop, new TestHandle(3), new TestHandle(2));
+        execute(frame, 0);
+        assertEquals(1, result(frame));
+        assertSame(opGeneric, aop[0]);
+
+        execute(createFrame(aop, 1, 2), 0);
+        assertSame(opGeneric, aop[0]);
+        assertEquals(3, opGeneric.m_cExecuted);
+    }
+
+    // ----- helpers -------------------------------------------------------------------------------
+
+    /**
+     * Create a frame that executes the specified ops with two Int values in the first two registers
+     * and the result in the third one.
+     */
+    private Frame createFrame(Op[] aop, long l1, long l2) {
+        return createFrame(aop, new JavaLong(null, l1), new JavaLong(null, l2));
+    }
+
+    /**
+     * Create a frame that executes the specified ops with the specified values in the first two
+     * registers and the result in the third one.
+     */
+    private Frame createFrame(Op[] aop, ObjectHandle h1, ObjectHandle h2) {
+        Frame frame0 = m_context.createServiceEntryFrame(new TestMessage(), 0,
+                new Op[] {Return_0.INSTANCE});
+        return frame0.createNativeFrame(aop, new ObjectHandle[] {h1, h2, null}, Op.A_IGNORE, null);
+    }
+
+    /**
+     * Execute the op at the specified address, the way the interpreter does.
+     */
+    private static void execute(Frame frame, int iPC) {
+        frame.m_iPC = iPC;
+        assertEquals(iPC + 1, frame.f_aOp[iPC].process(frame, iPC));
+    }
+
+    /**
+     * @return the value of the result register
+     */
+    private static long result(Frame frame) {
+        return valueOf(frame.f_ahVar[2]);
+    }
+
+    /**
+     * @return a DataInput for the specified register numbers
+     */
+    private static DataInput registers(int... anReg) throws IOException {
+        ByteArrayOutputStream outBytes = new ByteArrayOutputStream();
+        DataOutputStream      out      = new DataOutputStream(outBytes);
+        for (int nReg : anReg) {
+            writePackedLong(out, nReg);
+        }
+        return new DataInputStream(new ByteArrayInputStream(outBytes.toByteArray()));
+    }
+
+    /**
+     * @return the value of the specified handle
+     */
+    private static long valueOf(ObjectHandle h) {
+        return h instanceof JavaLong hLong ? hLong.getValue() : ((TestHandle) h).f_lValue;
+    }
+
+    /**
+     * A generic "add" op that quickens itself for the JavaLong operands.
+     */
+    private static class AddOp
+            extends OpGeneral {
+        AddOp() throws IOException {
+            super(registers(0, 1, 2), null);
+        }
+
+        @Override
+        public int getOpCode() {
+            return OP_GP_ADD;
+        }
+
+        @Override
+        public int process(Frame frame, int iPC) {
+            try {
+                int iResult = completeBinary(frame,
+                        frame.getArgument(m_nTarget), frame.getArgument(m_nArgValue));
+                return iResult == R_NEXT ? iPC + 1 : iResult;
+            } catch (ExceptionHandle.WrapperException e) {
+                return frame.raiseException(e);
+            }
+        }
+
+        @Override
+        protected int completeBinary(Frame frame, ObjectHandle hTarget, ObjectHandle hArg) {
+            quicken(frame, hTarget, hArg);
+            m_cExecuted++;
+            frame.f_ahVar[m_nRetValue] = new TestHandle(valueOf(hTarget) + valueOf(hArg));
+            return R_NEXT;
+        }
+
+        @Override
+        protected OpQuickened createQuickenedOp(ObjectHandle hTarget, ObjectHandle hArg) {
+            return hTarget instanceof JavaLong && hArg instanceof JavaLong
+                    ? new QuickAddOp(this)
+                    : null;
+        }
+
+        int m_cExecuted;
+    }
+
+    /**
+     * The quickened version of the {@link AddOp}.
+     */
+    private static class QuickAddOp
+            extends OpQuickened {
+        QuickAddOp(AddOp opGeneric) {
+            super(opGeneric);
+        }
+
+        @Override
+        public int process(Frame frame, int iPC) {
+            ObjectHandle h1 = frame.f_ahVar[0];
+            ObjectHandle h2 = frame.f_ahVar[1];
+            if (h1 instanceof JavaLong hLong1 && h2 instanceof JavaLong hLong2) {
+                m_cExecuted++;
+                frame.f_ahVar[2] = new JavaLong(null, hLong1.getValue() + hLong2.getValue());
+                return iPC + 1;
+            }
+
+            deoptimize(frame, iPC);
+            return f_opGeneric.process(frame, iPC);
+        }
+
+        int m_cExecuted;
+    }
+
+    /**
+     * A generic "compare" op that quickens itself for the JavaLong values.
+     */
+    private static class CmpOp
+            extends OpTest {
+        CmpOp() throws IOException {
+            super(registers(0, 0, 1, 2), null);
+        }
+
+        @Override
+        public int getOpCode() {
+            return OP_CMP;
+        }
+
+        @Override
+        protected boolean isBinaryOp() {
+            return true;
+        }
+
+        @Override
+        public int process(Frame frame, int iPC) {
+            try {
+                int iResult = completeBinaryOp(frame, null,
+                        frame.getArgument(m_nValue1), frame.getArgument(m_nValue2));
+                return iResult == R_NEXT ? iPC + 1 : iResult;
+            } catch (ExceptionHandle.WrapperException e) {
+                return frame.raiseException(e);
+            }
+        }
+
+        @Override
+        protected int completeBinaryOp(Frame frame, TypeConstant type,
+                                       ObjectHandle hValue1, ObjectHandle hValue2) {
+            quicken(frame, hValue1, hValue2);
+            m_cExecuted++;
+            frame.f_ahVar[m_nRetValue] =
+                    new TestHandle(Long.compare(valueOf(hValue1), valueOf(hValue2)));
+            return R_NEXT;
+        }
+
+        @Override
+        protected OpQuickened createQuickenedOp(Frame frame, ObjectHandle hValue1,
+                                                ObjectHandle hValue2) {
+            return hValue1 instanceof JavaLong && hValue2 instanceof JavaLong
+                    ? new QuickCmpOp(this)
+                    : null;
+        }
+
+        int m_cExecuted;
+    }
+
+    /**
+     * The quickened version of the {@link CmpOp}.
+     */
+    private static class QuickCmpOp
+            extends OpQuickened {
+        QuickCmpOp(CmpOp opGeneric) {
+            super(opGeneric);
+        }
+
+        @Override
+        public int process(Frame frame, int iPC) {
+            ObjectHandle h1 = frame.f_ahVar[0];
+            ObjectHandle h2 = frame.f_ahVar[1];
+            if (h1 instanceof JavaLong hLong1 && h2 instanceof JavaLong hLong2) {
+                m_cExecuted++;
+                frame.f_ahVar[2] = new JavaLong(null,
+                        Long.compare(hLong1.getValue(), hLong2.getValue()));
+                return iPC + 1;
+            }
+
+            deoptimize(frame, iPC);
+            return f_opGeneric.process(frame, iPC);
+        }
+
+        int m_cExecuted;
+    }
+
+    /**
+     * A value the quickened ops don't support.
+     */
+    private static class TestHandle
+            extends ObjectHandle {
+        TestHandle(long lValue) {
+            super(null);
+
+            f_lValue = lValue;
+        }
+
+        final long f_lValue;
+    }
+
+    /**
+     * A message that creates an empty service entry frame.
+     */
+    private static class TestMessage
+            extends ServiceContext.Message {
+        TestMessage() {
+            super(null);
+        }
+
+        @Override
+        public boolean isAsync() {
+            return true;
+        }
+
+        @Override
+        public int getCallDepth() {
+            return 0;
+        }
+
+        @Override
+        public ObjectHandle getTimeoutHandle() {
+            return null;
+        }
+
+        @Override
+        public long getTimeoutStamp() {
+            return 0L;
+        }
+
+        @Override
+        Frame createFrame(ServiceContext context) {
+            return context.createServiceEntryFrame(this, 0, new Op[] {Return_0.INSTANCE});
+        }
+    }
+
+    /**
+     * A bare-bones container that is sufficient to create service contexts.
+     */
+    private static class TestContainer
+            extends Container {
+        TestContainer(Runtime runtime, ModuleConstant idModule) {
+            super(runtime, null, idModule);
+        }
+
+        @Override
+        public ObjectHandle getInjectable(Frame frame, String sName, TypeConstant type,
+                                          ObjectHandle hOpts) {
+            return null;
+        }
+    }
+
+    private Runtime        m_runtime;
+    private ServiceContext m_context;
+}
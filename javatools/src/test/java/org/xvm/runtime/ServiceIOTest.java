@@ -0,0 +1,196 @@
+package org.xvm.runtime;
+
+
+import java.io.IOException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.xvm.asm.FileStructure;
+
+import org.xvm.asm.constants.ModuleConstant;
+import org.xvm.asm.constants.TypeConstant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Tests of the {@link Container#scheduleIO} in the different service execution modes.
+ */
+public class ServiceIOTest {
+    @AfterEach
+    void tearDown() {
+        System.clearProperty("xvm.scheduler");
+        System.clearProperty("xvm.directIO");
+    }
+
+    @Test
+    void shouldPerformIODirectlyOnVirtualServiceThread() throws Exception {
+        System.setProperty("xvm.scheduler", Runtime.SCHEDULER_VIRTUAL);
+
+        Runtime runtime = new Runtime();
+        try {
+            assertTrue(runtime.isDirectIO());
+
+            IOResult result = runIO(runtime);
+            assertTrue(result.fDone, "the future must be completed on return");
+            assertTrue(result.threadService.isVirtual());
+            assertSame(result.threadService, result.cf.get());
+        } finally {
+            runtime.shutdownXVM();
+        }
+    }
+
+    @Test
+    void shouldHandOffIOWhenDirectIODisabled() throws Exception {
+        System.setProperty("xvm.scheduler", Runtime.SCHEDULER_VIRTUAL);
+        System.setProperty("xvm.directIO", "false");
+
+        Runtime runtime = new Runtime();
+        try {
+            assertFalse(runtime.isDirectIO());
+
+            IOResult result = runIO(runtime);
+            assertNotSame(result.threadService, result.cf.get(10, TimeUnit.SECONDS));
+        } finally {
+            runtime.shutdownXVM();
+        }
+    }
+
+    @Test
+    void shouldHandOffIOInPlatformThreadModes() throws Exception {
+        for (String sMode : new String[] {Runtime.SCHEDULER_STEALING, Runtime.SCHEDULER_POOL}) {
+            System.setProperty("xvm.scheduler", sMode);
+
+            Runtime runtime = new Runtime();
+            try {
+                assertFalse(runtime.isDirectIO(), sMode);
+
+                IOResult result = runIO(runtime);
+                Thread   threadIO = result.cf.get(10, TimeUnit.SECONDS);
+                assertFalse(result.threadService.isVirtual(), sMode);
+                assertTrue(threadIO.isVirtual(), sMode);
+            } finally {
+                runtime.shutdownXVM();
+            }
+        }
+    }
+
+    @Test
+    void shouldReportDirectIOFailure() throws Exception {
+        System.setProperty("xvm.scheduler", Runtime.SCHEDULER_VIRTUAL);
+
+        Runtime runtime = new Runtime();
+        try {
+            ServiceContext                           ctx   = createContext(runtime);
+            AtomicReference<CompletableFuture<Void>> refCf = new AtomicReference<>();
+            CountDownLatch                           latch = new CountDownLatch(1);
+
+            runtime.submitService(ctx, () -> {
+                refCf.set(ctx.f_container.scheduleIO(() -> {
+                    throw new IOException("test");
+                }));
+                latch.countDown();
+            });
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+            CompletableFuture<Void> cf = refCf.get();
+            assertTrue(cf.isCompletedExceptionally());
+            Exception e = assertThrows(Exception.class, cf::join);
+            assertInstanceOf(IOException.class, e.getCause());
+        } finally {
+            runtime.shutdownXVM();
+        }
+    }
+
+    @Test
+    void shouldCountActiveVirtualServiceTasks() throws Exception {
+        System.setProperty("xvm.scheduler", Runtime.SCHEDULER_VIRTUAL);
+
+        Runtime runtime = new Runtime();
+        try {
+            ServiceContext ctx     = createContext(runtime);
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch block   = new CountDownLatch(1);
+            CountDownLatch done    = new CountDownLatch(1);
+
+            runtime.submitService(ctx, () -> {
+                started.countDown();
+                try {
+                    block.await();
+                } catch (InterruptedException ignore) {}
+                done.countDown();
+            });
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            assertEquals(1, runtime.getActiveServiceWorkers());
+
+            block.countDown();
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            while (runtime.getActiveServiceWorkers() > 0) {
+                Thread.onSpinWait();
+            }
+        } finally {
+            runtime.shutdownXVM();
+        }
+    }
+
+    /**
+     * Schedule an IO call from a service task; the IO reports the thread it was performed on.
+     */
+    private static IOResult runIO(Runtime runtime) throws InterruptedException {
+        ServiceContext ctx    = createContext(runtime);
+        IOResult       result = new IOResult();
+        CountDownLatch latch  = new CountDownLatch(1);
+
+        runtime.submitService(ctx, () -> {
+            result.threadService = Thread.currentThread();
+            result.cf            = ctx.f_container.scheduleIO(Thread::currentThread);
+            result.fDone         = result.cf.isDone();
+            latch.countDown();
+        });
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        return result;
+    }
+
+    private static ServiceContext createContext(Runtime runtime) {
+        ModuleConstant idModule = new FileStructure("test.xqiz.it").getModuleId();
+        return new TestContainer(runtime, idModule).createServiceContext("ServiceIOTest");
+    }
+
+    /**
+     * The outcome of an IO call scheduled by a service task.
+     */
+    private static class IOResult {
+        volatile Thread                    threadService;
+        volatile CompletableFuture<Thread> cf;
+        volatile boolean                   fDone;
+    }
+
+    /**
+     * A bare-bones container that is sufficient to create service contexts.
+     */
+    private static class TestContainer
+            extends Container {
+        TestContainer(Runtime runtime, ModuleConstant idModule) {
+            super(runtime, null, idModule);
+        }
+
+        @Override
+        public ObjectHandle getInjectable(Frame frame, String sName, TypeConstant type,
+                                          ObjectHandle hOpts) {
+            return null;
+        }
+    }
+}
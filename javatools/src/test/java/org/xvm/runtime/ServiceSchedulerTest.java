@@ -0,0 +1,204 @@
+package org.xvm.runtime;
+
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import org.xvm.runtime.ServiceScheduler.Affinity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Tests of the {@link ServiceScheduler}.
+ */
+public class ServiceSchedulerTest {
+    static ServiceScheduler makeScheduler(int cWorkers) {
+        return makeScheduler(cWorkers, null);
+    }
+
+    static ServiceScheduler makeScheduler(int cWorkers, Thread.UncaughtExceptionHandler handler) {
+        // the workers are created in the index order, so the thread name carries the worker index
+        AtomicInteger cThreads = new AtomicInteger();
+        return new ServiceScheduler(cWorkers, r -> {
+            Thread thread = new Thread(r, WORKER_PREFIX + cThreads.getAndIncrement());
+            thread.setDaemon(true);
+            if (handler != null) {
+                thread.setUncaughtExceptionHandler(handler);
+            }
+            return thread;
+        });
+    }
+
+    /**
+     * @return the index of the worker the current thread belongs to
+     */
+    static int currentWorkerIndex() {
+        return Integer.parseInt(Thread.currentThread().getName().substring(WORKER_PREFIX.length()));
+    }
+
+    @Test
+    void shouldRunExternalSubmissions() throws InterruptedException {
+        ServiceScheduler scheduler = makeScheduler(4);
+        try {
+            int            cTasks = 10_000;
+            CountDownLatch latch  = new CountDownLatch(cTasks);
+            for (int i = 0; i < cTasks; i++) {
+                scheduler.execute(latch::countDown);
+            }
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void shouldStealFromBusyWorker() throws InterruptedException {
+        ServiceScheduler scheduler = makeScheduler(4);
+        try {
+            int            cTasks = 64;
+            CountDownLatch latch  = new CountDownLatch(cTasks);
+            CountDownLatch block  = new CountDownLatch(1);
+            AtomicInteger  cDone  = new AtomicInteger();
+
+            // a task that pushes all the work onto its own worker's deque and then blocks;
+            // all that work must be done by other workers
+            scheduler.execute(() -> {
+                for (int i = 0; i < cTasks; i++) {
+                    scheduler.execute(() -> {
+                        cDone.incrementAndGet();
+                        latch.countDown();
+                    });
+                }
+                try {
+                    block.await();
+                } catch (InterruptedException ignore) {}
+            });
+
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            assertEquals(cTasks, cDone.get());
+            block.countDown();
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void shouldRecordAndKeepServiceAffinity() throws InterruptedException {
+        ServiceScheduler scheduler = makeScheduler(4);
+        try {
+            Affinity affinity = new Affinity();
+            assertEquals(-1, affinity.getWorker());
+
+            int[] anWorker = new int[100];
+            for (int i = 0; i < anWorker.length; i++) {
+                int            iTask = i;
+                CountDownLatch latch = new CountDownLatch(1);
+                scheduler.schedule(affinity, () -> {
+                    anWorker[iTask] = currentWorkerIndex();
+                    latch.countDown();
+                });
+                assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+                // the affinity always reflects the worker that processed the task
+                assertEquals(anWorker[iTask], affinity.getWorker());
+
+                // reschedule only after the worker is done, as a service would
+                while (scheduler.getActiveCount() > 0) {
+                    Thread.onSpinWait();
+                }
+            }
+
+            // an idle worker could steal a task before the affine worker wakes up, but that
+            // should be a rare exception
+            int cAffine = 0;
+            for (int nWorker : anWorker) {
+                if (nWorker == anWorker[0]) {
+                    cAffine++;
+                }
+            }
+            assertTrue(cAffine >= anWorker.length * 9 / 10, "affine tasks: " + cAffine);
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void shouldStealAffineTaskFromBusyWorker() throws InterruptedException {
+        ServiceScheduler scheduler = makeScheduler(4);
+        try {
+            Affinity       affinity = new Affinity();
+            CountDownLatch started  = new CountDownLatch(1);
+            CountDownLatch block    = new CountDownLatch(1);
+            int[]          anWorker = new int[2];
+
+            // occupy the worker the service is affine to
+            scheduler.schedule(affinity, () -> {
+                anWorker[0] = currentWorkerIndex();
+                started.countDown();
+                try {
+                    block.await();
+                } catch (InterruptedException ignore) {}
+            });
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            assertEquals(anWorker[0], affinity.getWorker());
+
+            // the next task is pushed to the busy worker's deque and must be stolen
+            CountDownLatch done = new CountDownLatch(1);
+            scheduler.schedule(affinity, () -> {
+                anWorker[1] = currentWorkerIndex();
+                done.countDown();
+            });
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertNotEquals(anWorker[0], anWorker[1]);
+            assertEquals(anWorker[1], affinity.getWorker());
+            block.countDown();
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void shouldReportFailureAndKeepRunning() throws InterruptedException {
+        CountDownLatch             reported = new CountDownLatch(1);
+        AtomicReference<Throwable> failure  = new AtomicReference<>();
+        ServiceScheduler scheduler = makeScheduler(1, (thread, e) -> {
+            failure.set(e);
+            reported.countDown();
+        });
+        try {
+            IllegalStateException e = new IllegalStateException("test");
+            scheduler.schedule(new Affinity(), () -> {
+                throw e;
+            });
+            assertTrue(reported.await(10, TimeUnit.SECONDS));
+            assertSame(e, failure.get());
+
+            // the only worker must still be alive
+            CountDownLatch done = new CountDownLatch(1);
+            scheduler.schedule(new Affinity(), done::countDown);
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void shouldTerminateOnShutdown() throws InterruptedException {
+        ServiceScheduler scheduler = makeScheduler(2);
+        scheduler.shutdown();
+        assertTrue(scheduler.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(scheduler.isTerminated());
+        assertEquals(0, scheduler.getActiveCount());
+    }
+
+    private static final String WORKER_PREFIX = "TestWorker-";
+}
@@ -0,0 +1,422 @@
+package org.xvm.runtime.gc;
+
+
+import org.xvm.util.LongMuterator;
+import org.xvm.util.ShallowSizeOf;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.LongConsumer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Tests of the {@link GenerationalGcSpace}.
+ */
+public class GenerationalGcSpaceTests {
+    GenerationalGcSpace<long[]> makeSpace() {
+        return makeSpace(l -> {}, Long.MAX_VALUE);
+    }
+
+    GenerationalGcSpace<long[]> makeSpace(LongConsumer cleared, long capacity) {
+        return new GenerationalGcSpace<>(LongArrayObjectManager.INSTANCE, cleared,
+                YOUNG_CAPACITY, GenerationalGcSpace.DEFAULT_TENURE_AGE, capacity, capacity);
+    }
+
+    /**
+     * A root set that allows the collector to update the addresses of the objects it moves.
+     */
+    static class RootSet {
+        long[] retained = new long[0];
+
+        int add(long address) {
+            retained = Arrays.copyOf(retained, retained.length + 1);
+            retained[retained.length - 1] = address;
+            return retained.length - 1;
+        }
+
+        long get(int index) {
+            return retained[index];
+        }
+
+        void clear(int index) {
+            retained[index] = GcSpace.NULL;
+        }
+
+        public LongMuterator retained() {
+            return new LongMuterator() {
+                int index = -1;
+
+                @Override
+                public void set(long value) {
+                    if (index < 0) {
+                        throw new IllegalStateException();
+                    }
+                    retained[index] = value;
+                }
+
+                @Override
+                public long nextLong() {
+                    return retained[++index];
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return index + 1 < retained.length;
+                }
+            };
+        }
+    }
+
+    @Test
+    public void shouldAllocateAndGet() {
+        GcSpace space = makeSpace();
+        long p = space.allocate(0);
+        assertTrue(space.isValid(p));
+    }
+
+    @Test
+    public void shouldCollectUnreachables() {
+        GcSpace space = makeSpace();
+        RootSet root = new RootSet();
+        space.addRoot(root::retained);
+        int i1 = root.add(space.allocate(3));
+        int i2 = root.add(space.allocate(3));
+        assertNotEquals(root.get(i1), root.get(i2));
+
+        // force a gc and verify that we didn't lose anything
+        space.gc();
+        assertTrue(space.isValid(root.get(i1)));
+        assertTrue(space.isValid(root.get(i2)));
+        assertNotEquals(root.get(i1), root.get(i2));
+
+        // remove an object from the root; gc, and verify it has been removed from the space
+        long p2 = root.get(i2);
+        root.clear(i2);
+
+        space.gc();
+        assertTrue(space.isValid(root.get(i1)));
+        assertFalse(space.isValid(p2));
+    }
+
+    @Test
+    public void shouldMoveYoungSurvivors() {
+        GenerationalGcSpace<long[]> space = makeSpace();
+        RootSet root = new RootSet();
+        space.addRoot(root::retained);
+        long p1 = space.allocate(1);
+        long p2 = space.allocate(1);
+        int  i1 = root.add(p1);
+        space.setField(p1, 0, space.allocate(0));
+
+        long cb = space.getByteCount();
+        space.gcYoung();
+
+        // the survivor was moved and the root updated; the garbage was freed
+        long p1New = root.get(i1);
+        assertNotEquals(p1, p1New);
+        assertFalse(space.isValid(p1));
+        assertFalse(space.isValid(p2));
+        assertTrue(space.isValid(p1New));
+        assertTrue(space.isValid(space.getField(p1New, 0)));
+        assertTrue(space.getByteCount() < cb);
+        assertEquals(1, space.getYoungCollectionCount());
+        assertEquals(0, space.getFullCollectionCount());
+    }
+
+    @Test
+    public void shouldPromoteAfterTenureAge() {
+        GenerationalGcSpace<long[]> space = makeSpace();
+        RootSet root = new RootSet();
+        space.addRoot(root::retained);
+        int i1 = root.add(space.allocate(2));
+
+        for (int i = 0; i < GenerationalGcSpace.DEFAULT_TENURE_AGE; ++i) {
+            assertEquals(0, space.getOldByteCount());
+            space.gcYoung();
+        }
+
+        // once promoted, the object doesn't move anymore
+        long p1 = root.get(i1);
+        assertTrue(space.getOldByteCount() > 0);
+        space.gcYoung();
+        assertEquals(p1, root.get(i1));
+        assertTrue(space.isValid(p1));
+    }
+
+    @Test
+    public void shouldRememberOldToYoungReferences() {
+        GenerationalGcSpace<long[]> space = makeSpace();
+        RootSet root = new RootSet();
+        space.addRoot(root::retained);
+        int i1 = root.add(space.allocate(2));
+        space.gc(); // promotes everything
+
+        // the only reference to the young objects is held by the old object
+        long pOld = root.get(i1);
+        long pYoung = space.allocate(1);
+        space.setField(pOld, 0, pYoung);
+        space.setField(pYoung, 0, space.allocate(0));
+
+        // allocate enough garbage to force several minor collections
+        for (int i = 0; i < YOUNG_CAPACITY * 4; ++i) {
+            space.allocate(1);
+        }
+        assertTrue(space.getYoungCollectionCount() >= 4);
+        assertEquals(1, space.getFullCollectionCount());
+
+        assertEquals(pOld, root.get(i1));
+        long pYoungNew = space.getField(pOld, 0);
+        assertNotEquals(pYoung, pYoungNew);
+        assertTrue(space.isValid(pYoungNew));
+        assertTrue(space.isValid(space.getField(pYoungNew, 0)));
+
+        // once the old object drops the reference, the promoted objects get collected
+        space.setField(pOld, 0, GcSpace.NULL);
+        long cb = space.getOldByteCount();
+        space.gc();
+        assertTrue(space.getOldByteCount() < cb);
+    }
+
+    @Test
+    public void shouldNotCollectDeepReachables() {
+        RootSet root = new RootSet();
+        GcSpace space = makeSpace();
+        space.addRoot(root::retained);
+
+        // a chain long enough to overflow the stack of a recursive collector
+        int  cDepth = 100_000;
+        int  iHead  = root.add(space.allocate(1));
+        int  iLast  = root.add(root.get(iHead));
+        for (int i = 0; i < cDepth; ++i) {
+            long p = space.allocate(1);
+            space.setField(root.get(iLast), 0, p);
+            root.retained[iLast] = p;
+        }
+        root.clear(iLast);
+
+        space.gc();
+
+        int cReachable = 0;
+        for (long p = root.get(iHead); p != GcSpace.NULL; p = space.getField(p, 0)) {
+            assertTrue(space.isValid(p));
+            ++cReachable;
+        }
+        assertEquals(cDepth + 1, cReachable);
+    }
+
+    @Test
+    public void shouldAutoCollect() {
+        GcSpace space = makeSpace();
+
+        RootSet root = new RootSet();
+        space.addRoot(root::retained);
+        long p1 = space.allocate(3);
+        long p2 = space.allocate(3);
+        long p3 = space.allocate(3);
+        int  i1 = root.add(p1);
+
+        space.setField(p1, 0, p2);
+        space.setField(p2, 2, p3);
+
+        long cb = space.getByteCount();
+        // add objects until we auto-gc
+        long maxCb = cb;
+        long lastCb;
+        do {
+            lastCb = space.getByteCount();
+            space.allocate(1);
+            maxCb = Math.max(maxCb, space.getByteCount());
+        } while (space.getByteCount() > lastCb);
+
+        // verify we did see significant growth
+        assertTrue(maxCb > cb * 4);
+
+        // verify we've shrunk back to near our reachable set size
+        assertTrue(space.getByteCount() < cb * 2);
+
+        // verify we retained the reachable objects
+        p1 = root.get(i1);
+        p2 = space.getField(p1, 0);
+        p3 = space.getField(p2, 2);
+        assertTrue(space.isValid(p1));
+        assertTrue(space.isValid(p2));
+        assertTrue(space.isValid(p3));
+    }
+
+    @Test
+    public void shouldOOMEOnHardLimit() {
+        long cbLimit = 1024 * 1024 * 128;
+        GcSpace space = makeSpace(l -> {
+        }, cbLimit);
+        RootSet root = new RootSet();
+        space.addRoot(root::retained);
+        root.add(space.allocate(3));
+
+        // keep the tail in the root, since the collector may move it
+        int iLast = root.add(root.get(0));
+        try {
+            for (int i = 0; i < 2_000_000; ++i) {
+                long p = space.allocate(512);
+                space.setField(root.get(iLast), 0, p);
+                root.retained[iLast] = p;
+            }
+
+            fail();
+        } catch (OutOfMemoryError e) {
+            assertTrue(space.getByteCount() >= cbLimit);
+            assertTrue(space.getByteCount() <= cbLimit + ShallowSizeOf.arrayOf(long.class, 512));
+        }
+    }
+
+    @Test
+    public void shouldClearWeakRefsToUnreachables() {
+        List<Long> cleared = new ArrayList<>();
+        GenerationalGcSpace<long[]> space = makeSpace(cleared::add, Long.MAX_VALUE);
+        RootSet root = new RootSet();
+        space.addRoot(root::retained);
+        long p1  = space.allocate(0);
+        long p2  = space.allocate(1);
+        long wp1 = space.allocateWeak(2);
+        space.setField(wp1, 0, p1);
+        space.setField(wp1, 1, space.allocate(0)); // notifier
+        space.setField(p2, 0, p1);
+        int iWeak   = root.add(wp1);
+        int iStrong = root.add(p2);
+
+        space.gcYoung();
+
+        // p2 keeps p1 alive; verify that p1 was not collected, and that wp1 was updated
+        wp1 = root.get(iWeak);
+        p2  = root.get(iStrong);
+        p1  = space.getField(p2, 0);
+        assertTrue(space.isValid(p1));
+        assertEquals(p1, space.getField(wp1, 0));
+
+        // verify there have been no notifications
+        assertTrue(cleared.isEmpty());
+
+        // remove the strong ref to p1 and verify that it gets gc'd and that wp1 gets cleared
+        space.setField(p2, 0, GcSpace.NULL);
+        space.gcYoung();
+
+        wp1 = root.get(iWeak);
+        assertEquals(GcSpace.NULL, space.getField(wp1, 0));
+        assertFalse(space.isValid(p1));
+
+        // verify that cleared was notified
+        assertTrue(cleared.remove(wp1));
+    }
+
+    @Test
+    public void shouldClearOldWeakRefs() {
+        List<Long> cleared = new ArrayList<>();
+        GcSpace space = makeSpace(cleared::add, Long.MAX_VALUE);
+        RootSet root = new RootSet();
+        space.addRoot(root::retained);
+        long wp1 = space.allocateWeak(2);
+        space.setField(wp1, 1, space.allocate(0)); // notifier
+        int iWeak   = root.add(wp1);
+        int iStrong = root.add(space.allocate(0));
+        space.setField(wp1, 0, root.get(iStrong));
+
+        // promote both the weak-ref and its referent
+        space.gc();
+        wp1 = root.get(iWeak);
+        assertEquals(root.get(iStrong), space.getField(wp1, 0));
+
+        root.clear(iStrong);
+        space.gc();
+
+        assertEquals(GcSpace.NULL, space.getField(wp1, 0));
+        assertTrue(cleared.remove(wp1));
+    }
+
+    @Test
+    public void shouldPreserveWorkingSetUnderChurn() {
+        GenerationalGcSpace<long[]> space = makeSpace();
+        RootSet root = new RootSet();
+        space.addRoot(root::retained);
+
+        // most of the allocated objects die right away, while a small fraction replaces an entry
+        // in a long-lived working set and gets linked from another entry (which creates
+        // old-to-young references); the model mirrors the working set using object ids, where
+        // the id 0 stands for null
+        int         cLive   = 256;
+        int         cFields = 4;
+        int[]       anRoot  = new int[cLive];
+        List<int[]> listObj = new ArrayList<>();
+        Random      rnd     = new Random(42);
+        listObj.add(null);
+        for (int i = 0; i < cLive; ++i) {
+            root.add(GcSpace.NULL);
+        }
+
+        for (int i = 0; i < YOUNG_CAPACITY * 200; ++i) {
+            long p = space.allocate(cFields);
+            if (rnd.nextInt(100) < 2) {
+                int nId   = listObj.size();
+                int iLive = rnd.nextInt(cLive);
+                listObj.add(new int[cFields]);
+                root.retained[iLive] = p;
+                anRoot[iLive]        = nId;
+
+                int  iLink = rnd.nextInt(cLive);
+                long pLink = root.get(iLink);
+                if (pLink != GcSpace.NULL) {
+                    int iField = rnd.nextInt(cFields);
+                    space.setField(pLink, iField, p);
+                    listObj.get(anRoot[iLink])[iField] = nId;
+                }
+            }
+        }
+        assertTrue(space.getYoungCollectionCount() > 0);
+
+        // walk the model and the space side by side; every modeled object must be valid, must
+        // have the same shape and must be represented by exactly one address
+        Map<Integer, Long> mapAddress = new HashMap<>();
+        ArrayDeque<long[]> stack      = new ArrayDeque<>();
+        for (int i = 0; i < cLive; ++i) {
+            stack.push(new long[] {anRoot[i], root.get(i)});
+        }
+        while (!stack.isEmpty()) {
+            long[] alPair = stack.pop();
+            int    nId    = (int) alPair[0];
+            long   p      = alPair[1];
+            if (nId == 0) {
+                assertEquals(GcSpace.NULL, p);
+                continue;
+            }
+
+            Long pPrev = mapAddress.putIfAbsent(nId, p);
+            if (pPrev != null) {
+                assertEquals(pPrev.longValue(), p);
+                continue;
+            }
+
+            assertTrue(space.isValid(p));
+            int[] anField = listObj.get(nId);
+            for (int iField = 0; iField < cFields; ++iField) {
+                stack.push(new long[] {anField[iField], space.getField(p, iField)});
+            }
+        }
+        assertEquals(mapAddress.size(), new HashSet<>(mapAddress.values()).size());
+    }
+
+    /**
+     * The number of objects in a young semi-space used by the tests.
+     */
+    static final int YOUNG_CAPACITY = 1024;
+}
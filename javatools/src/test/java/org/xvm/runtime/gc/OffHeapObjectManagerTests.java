@@ -0,0 +1,101 @@
+package org.xvm.runtime.gc;
+
+
+import java.lang.foreign.MemorySegment;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of the {@link OffHeapObjectManager}.
+ */
+public class OffHeapObjectManagerTests {
+    @Test
+    public void shouldStoreHeaderAndFields() {
+        try (OffHeapObjectManager manager = new OffHeapObjectManager(Long.MAX_VALUE)) {
+            MemorySegment o = manager.allocate(3);
+            assertEquals(4 * Long.BYTES, manager.getByteSize(o));
+            assertEquals(0, manager.getHeader(o));
+            assertEquals(0, manager.getField(o, 2));
+
+            manager.setHeader(o, 0x7FFL);
+            manager.setField(o, 0, 42);
+            manager.setField(o, 2, -1);
+            assertEquals(0x7FFL, manager.getHeader(o));
+            assertEquals(42, manager.getField(o, 0));
+            assertEquals(0, manager.getField(o, 1));
+            assertEquals(-1, manager.getField(o, 2));
+        }
+    }
+
+    @Test
+    public void shouldInvalidateAndReuseFreedObjects() {
+        try (OffHeapObjectManager manager = new OffHeapObjectManager(Long.MAX_VALUE)) {
+            MemorySegment o1 = manager.allocate(2);
+            manager.setField(o1, 1, 42);
+            manager.free(o1);
+            assertThrows(SegFault.class, () -> manager.getField(o1, 1));
+            assertThrows(SegFault.class, () -> manager.free(o1));
+
+            // the memory of the same size is reused, and comes back cleared
+            MemorySegment o2 = manager.allocate(2);
+            assertEquals(o1.address(), o2.address());
+            assertEquals(0, manager.getField(o2, 1));
+            assertEquals(0, manager.getHeader(o2));
+        }
+    }
+
+    @Test
+    public void shouldOOMEOnMaxSize() {
+        int cbChunk = OffHeapObjectManager.MAX_OBJECT_SIZE;
+        try (OffHeapObjectManager manager = new OffHeapObjectManager(cbChunk * 4L, cbChunk)) {
+            int cPerChunk = cbChunk / (8 * Long.BYTES);
+            for (int i = 0; i < 4 * cPerChunk; ++i) {
+                manager.allocate(7);
+            }
+            assertEquals(cbChunk * 4L, manager.getReservedByteCount());
+            assertThrows(OutOfMemoryError.class, () -> manager.allocate(7));
+        }
+    }
+
+    @Test
+    public void shouldBackGenerationalSpace() {
+        try (OffHeapObjectManager manager = new OffHeapObjectManager(64 * 1024 * 1024,
+                64 * 1024)) {
+            GenerationalGcSpace<MemorySegment> space = new GenerationalGcSpace<>(manager,
+                    l -> {}, 256, GenerationalGcSpace.DEFAULT_TENURE_AGE, Long.MAX_VALUE, Long.MAX_VALUE);
+            GenerationalGcSpaceTests.RootSet root = new GenerationalGcSpaceTests.RootSet();
+            space.addRoot(root::retained);
+
+            // a linked list that survives while lots of garbage gets allocated
+            int iHead = root.add(space.allocate(2));
+            int iLast = root.add(root.get(iHead));
+            for (int i = 0; i < 100_000; ++i) {
+                long p = space.allocate(2);
+                if (i % 100 == 0) {
+                    space.setField(p, 1, i);
+                    space.setField(root.get(iLast), 0, p);
+                    root.retained[iLast] = p;
+                }
+            }
+            space.gc();
+
+            int c = 0;
+            for (long p = space.getField(root.get(iHead), 0); p != GcSpace.NULL; p = space.getField(p, 0)) {
+                assertEquals(c * 100, space.getField(p, 1));
+                ++c;
+            }
+            assertEquals(1_000, c);
+
+            // the freed memory is reused rather than reserved again
+            long cbReserved = manager.getReservedByteCount();
+            for (int i = 0; i < 100_000; ++i) {
+                space.allocate(2);
+            }
+            assertTrue(manager.getReservedByteCount() <= cbReserved + 64 * 1024);
+        }
+    }
+}
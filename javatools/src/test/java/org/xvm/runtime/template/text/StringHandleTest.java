@@ -0,0 +1,186 @@
+package org.xvm.runtime.template.text;
+
+
+import org.junit.jupiter.api.Test;
+
+import org.xvm.runtime.template.text.xString.RopeHandle;
+import org.xvm.runtime.template.text.xString.StringHandle;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Tests of the compact {@link StringHandle} representation.
+ */
+public class StringHandleTest {
+    @Test
+    void shouldCompressLatin1() {
+        StringHandle hLatin = handle("café");
+        StringHandle hUtf   = handle("€100");
+        assertTrue(hLatin.isLatin1());
+        assertEquals(StringHandle.LATIN1, hLatin.getCoder());
+        assertFalse(hUtf.isLatin1());
+        assertEquals(StringHandle.UTF16, hUtf.getCoder());
+
+        assertEquals(4, hLatin.length());
+        assertEquals('é', hLatin.charAt(3));
+        assertEquals("café", hLatin.getStringValue());
+        assertEquals("€100", hUtf.getStringValue());
+    }
+
+    @Test
+    void shouldInflateWithoutRetaining() {
+        StringHandle h   = handle("GET /index.html");
+        char[]       ach = h.getValue();
+        assertEquals("GET /index.html", new String(ach));
+        assertNotSame(ach, h.getValue());
+        assertTrue(h.isLatin1());
+
+        StringHandle hUtf = handle("€100");
+        assertSame(hUtf.getValue(), hUtf.getValue());
+    }
+
+    @Test
+    void shouldHashAndCompareIndependentlyOfCoder() {
+        String[] asValue = {"", "a", "hello", "x".repeat(200), "ÿþ", "Ā", "z€".repeat(100)};
+        for (String s : asValue) {
+            StringHandle h = handle(s);
+            assertEquals(expectedHash(s.toCharArray()), h.calcHashCode());
+            assertEquals(h, handle(s));
+            for (String s2 : asValue) {
+                assertEquals(Integer.signum(s.compareTo(s2)),
+                             Integer.signum(h.compareChars(handle(s2))));
+            }
+        }
+        assertNotEquals(handle("aĀ"), handle("aÿ"));
+    }
+
+    @Test
+    void shouldFindChars() {
+        StringHandle hLatin = handle("key=value; key2=value2");
+        assertEquals(3, hLatin.indexOf('=', 0));
+        assertEquals(15, hLatin.indexOf('=', 4));
+        assertEquals(-1, hLatin.indexOf('Ā', 0));
+        assertEquals(-1, hLatin.indexOf('=', 100));
+
+        StringHandle hUtf = handle("€=1");
+        assertEquals(1, hUtf.indexOf('=', 0));
+        assertEquals(0, hUtf.indexOf('€', 0));
+    }
+
+    @Test
+    void shouldFindStrings() {
+        String[] asSource = {"key=value; key2=value2", "€key=€; key2=value2"};
+        String[] asTarget = {"key", "key2", "value2", "", "€", "missing", "2=v"};
+        for (String sSource : asSource) {
+            StringHandle hSource = handle(sSource);
+            for (String sTarget : asTarget) {
+                for (int of = -1; of <= sSource.length() + 1; of++) {
+                    assertEquals(sSource.indexOf(sTarget, of), hSource.indexOf(handle(sTarget), of));
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldConcatShortStringsEagerly() {
+        StringHandle h = RopeHandle.concat(null, handle("abc"), handle("déf"));
+        assertFalse(h instanceof RopeHandle);
+        assertTrue(h.isLatin1());
+        assertEquals("abcdéf", h.getStringValue());
+
+        h = RopeHandle.concat(null, handle("abc"), handle("€"));
+        assertFalse(h.isLatin1());
+        assertEquals("abc€", h.getStringValue());
+    }
+
+    @Test
+    void shouldDeferLongConcatenations() {
+        StringBuilder sb = new StringBuilder();
+        StringHandle  h  = handle("");
+        for (int i = 0; i < 10_000; i++) {
+            String sPart = i == 7_777 ? "Ā" : "<td>" + i + "</td>";
+            sb.append(sPart);
+            h = h.length() == 0 ? handle(sPart) : RopeHandle.concat(null, h, handle(sPart));
+        }
+        String s = sb.toString();
+
+        RopeHandle hRope = (RopeHandle) h;
+        assertFalse(hRope.isLatin1());
+        assertEquals(s.length(), hRope.length());
+        assertTrue(hRope.getDepth() <= 2 * (32 - Integer.numberOfLeadingZeros(s.length())));
+        for (int of = 0; of < s.length(); of += 37) {
+            assertEquals(s.charAt(of), hRope.charAt(of));
+        }
+        assertEquals(expectedHash(s.toCharArray()), hRope.calcHashCode());
+
+        // the flattened String has the same content and hash
+        assertEquals(s, hRope.getStringValue());
+        assertEquals(handle(s), hRope);
+        assertEquals(hRope, handle(s));
+        assertEquals(expectedHash(s.toCharArray()), hRope.calcHashCode());
+        assertEquals(s.indexOf("Ā"), hRope.indexOf('Ā', 0));
+    }
+
+    @Test
+    void shouldPrependAndNest() {
+        String       sPart = "x".repeat(100) + "é";
+        StringBuilder sb   = new StringBuilder();
+        StringHandle  h    = handle(sPart);
+        sb.append(sPart);
+        for (int i = 0; i < 500; i++) {
+            String sHead = i + ":";
+            h = RopeHandle.concat(null, handle(sHead), h);
+            h = RopeHandle.concat(null, h, h.length() > 10_000 ? handle(sPart) : h);
+            sb.insert(0, sHead);
+            sb.append(sb.length() > 10_000 + sHead.length() ? sPart : sb.toString());
+        }
+        String s = sb.toString();
+        assertTrue(h.isLatin1());
+        assertEquals(s.length(), h.length());
+        assertTrue(((RopeHandle) h).getDepth() <= 2 * (32 - Integer.numberOfLeadingZeros(s.length())));
+        assertEquals(s, h.getStringValue());
+        assertEquals(s.indexOf("é:"), h.indexOf(handle("é:"), 0));
+        assertEquals(Integer.signum(s.compareTo(sPart)), Integer.signum(h.compareChars(handle(sPart))));
+    }
+
+    @Test
+    void shouldReleaseSubtreesOnceFlattened() {
+        String     sPart = "y".repeat(200);
+        RopeHandle hRope = (RopeHandle) RopeHandle.concat(null,
+                RopeHandle.concat(null, handle(sPart), handle(sPart + "Ā")), handle(sPart));
+        String     s     = sPart + sPart + "Ā" + sPart;
+        assertFalse(hRope.isFlattened());
+        assertEquals('Ā', hRope.charAt(2 * sPart.length()));
+
+        assertEquals(s, hRope.getStringValue());
+        assertTrue(hRope.isFlattened());
+        assertEquals('Ā', hRope.charAt(2 * sPart.length()));
+
+        // a flattened rope is a leaf for any further concatenation
+        StringHandle h = RopeHandle.concat(null, hRope, handle(sPart));
+        assertEquals(1, ((RopeHandle) h).getDepth());
+        assertEquals(s + sPart, h.getStringValue());
+
+        h = RopeHandle.concat(null, handle(sPart), hRope);
+        assertEquals(sPart + s, h.getStringValue());
+    }
+
+    private static StringHandle handle(String s) {
+        return new StringHandle(null, s.toCharArray());
+    }
+
+    private static int expectedHash(char[] ach) {
+        int cch  = ach.length;
+        int hash = 982_451_653;
+        for (int of = 0, cchStep = cch <= 0x40 ? 1 : (cch >>> 6) + 1; of < cch; of += cchStep) {
+            hash = hash * 31 + ach[of];
+        }
+        return hash;
+    }
+}
@@ -1,3 +1,4 @@
+import ecstasy.Service.OverloadPolicy;
 import ecstasy.Service.ServiceControl;
 import ecstasy.Service.ServiceStatus;
 
@@ -15,8 +16,11 @@ class RTServiceControl
     @Override @RO Int           backlogDepth   .get() {TODO("native");}
     @Override @RO Int           bytesReserved  .get() {TODO("native");}
     @Override @RO Int           bytesAllocated .get() {TODO("native");}
-
-    @Override Service.ServiceStats snapshotStats() {TODO("Native");}
+    @Override @RO Int           fiberCount     .get() {TODO("native");}
+    @Override @RO Int           messageDepth   .get() {TODO("native");}
+    @Override @RO Int           requestCount   .get() {TODO("native");}
+    @Override @RO Duration      requestLatency .get() {TODO("native");}
+    @Override @RO Duration      scheduleWait   .get() {TODO("native");}
 
 
     // ServiceControl
@@ -24,4 +28,6 @@ class RTServiceControl
     @Override void gc()       {TODO("native");}
     @Override void shutdown() {TODO("native");}
     @Override void kill()     {TODO("native");}
+
+    @Override void limitBacklog(Int limit, OverloadPolicy policy = Defer) {TODO("native");}
 }
@@ -0,0 +1,118 @@
+package org.xvm.util.concurrent;
+
+
+import java.lang.invoke.VarHandle;
+
+import java.util.function.Consumer;
+
+
+/**
+ * A lock-free multi-producer/single-consumer mailbox.
+ * <p>
+ * Producers push elements using a single CAS on the mailbox head; the consumer takes all the
+ * pending elements at once using a single atomic swap and then processes them in the FIFO order.
+ * <p>
+ * The {@link #add} method reports whether the mailbox was empty at the time of the addition, which
+ * allows the producers to coalesce the wake-ups: only the producer that transitions the mailbox
+ * from empty to non-empty needs to notify (schedule) the consumer; all the subsequent producers
+ * can rely on the elements being taken together with the one that triggered the notification.
+ *
+ * @param <E> the element type
+ */
+public class ConcurrentMailbox<E> {
+    /**
+     * Add an element to the mailbox. This method can be called by any thread.
+     *
+     * @param e  the element to add
+     *
+     * @return true iff the mailbox was empty, in which case the caller is responsible for
+     *         notifying the consumer
+     */
+    public boolean add(E e) {
+        Node<E> node = new Node<>(e);
+        Node<E> head;
+        do {
+            head      = m_head;
+            node.next = head;
+        } while (!HEAD_HANDLE.compareAndSet(this, head, node));
+
+        return head == null;
+    }
+
+    /**
+     * @return true iff the mailbox is empty
+     */
+    public boolean isEmpty() {
+        return m_head == null;
+    }
+
+    /**
+     * Take all the elements that are currently in the mailbox and pass them to the specified
+     * consumer in the order they have been added. This method must be called only by the consumer.
+     *
+     * @param consumer  the consumer for the elements
+     *
+     * @return the number of elements drained
+     */
+    public int drain(Consumer<? super E> consumer) {
+        if (m_head == null) {
+            return 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        Node<E> node = (Node<E>) HEAD_HANDLE.getAndSet(this, (Node<E>) null);
+
+        // the nodes are linked in LIFO order; reverse the list
+        Node<E> prev   = null;
+        int     cNodes = 0;
+        while (node != null) {
+            Node<E> next = node.next;
+            node.next = prev;
+            prev      = node;
+            node      = next;
+            cNodes++;
+        }
+
+        for (node = prev; node != null; node = node.next) {
+            consumer.accept(node.value);
+        }
+        return cNodes;
+    }
+
+    @Override
+    public String toString() {
+        int cNodes = 0;
+        for (Node<E> node = m_head; node != null; node = node.next) {
+            cNodes++;
+        }
+        return "size=" + cNodes;
+    }
+
+
+    // ----- inner classes -------------------------------------------------------------------------
+
+    /**
+     * A mailbox node.
+     */
+    private static final class Node<E> {
+        Node(E value) {
+            this.value = value;
+        }
+
+        final E value;
+        Node<E> next;
+    }
+
+
+    // ----- fields --------------------------------------------------------------------------------
+
+    /**
+     * The most recently added node; null if the mailbox is empty.
+     */
+    private volatile Node<E> m_head;
+
+    /**
+     * VarHandle for {@link #m_head}.
+     */
+    private static final VarHandle HEAD_HANDLE = VarHandles.of(ConcurrentMailbox.class, "m_head");
+}
@@ -0,0 +1,351 @@
+package org.xvm.util.concurrent;
+
+
+import java.lang.invoke.VarHandle;
+
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * A hierarchical timing wheel with a millisecond resolution, driven by a single ticker thread.
+ * <p>
+ * The wheel consists of {@link #LEVELS} levels of {@link #SLOTS} slots each; a slot at level
+ * {@code L} covers {@code SLOTS^L} milliseconds. A task is placed into the lowest level that can
+ * hold its deadline, and every time the level below completes a revolution, the tasks of the
+ * corresponding slot "cascade" down. As a result, both {@link #schedule} and {@link Task#cancel}
+ * are O(1), and the ticker only wakes up when there is a slot to expire or cascade, rather than
+ * on every tick.
+ * <p>
+ * The tasks are scheduled using a lock-free {@link ConcurrentMailbox}, which is drained by the
+ * ticker thread; cancelled tasks are discarded lazily when their slot is processed. The tasks are
+ * run on the ticker thread, so they must be short and must not block; the usual pattern is to
+ * hand off the actual work to another executor.
+ * <p>
+ * Unlike {@link java.util.Timer}, the delays are measured using a monotonic clock, and a task that
+ * throws an exception does not terminate the ticker.
+ */
+public class TimerWheel {
+    /**
+     * Construct a timer wheel and start its (daemon) ticker thread.
+     *
+     * @param sName  the name of the ticker thread
+     */
+    public TimerWheel(String sName) {
+        f_nanosStart = System.nanoTime();
+        f_aaSlot     = new Task[LEVELS][SLOTS];
+        f_thread     = new Thread(this::tick, sName);
+        f_thread.setDaemon(true);
+        f_thread.start();
+    }
+
+    /**
+     * Schedule the specified task to run after the specified delay. This method can be called by
+     * any thread.
+     *
+     * @param task          the task to schedule
+     * @param cMillisDelay  the delay in milliseconds
+     *
+     * @throws IllegalArgumentException  if the delay is negative
+     * @throws IllegalStateException     if the task has already been scheduled or cancelled, or
+     *                                   the timer has been shut down
+     */
+    public void schedule(Task task, long cMillisDelay) {
+        if (cMillisDelay < 0) {
+            throw new IllegalArgumentException("Negative delay: " + cMillisDelay);
+        }
+        if (m_fShutdown) {
+            throw new IllegalStateException("Timer has been shut down");
+        }
+        if (!STATE_HANDLE.compareAndSet(task, VIRGIN, SCHEDULED)) {
+            throw new IllegalStateException("Task has already been scheduled or cancelled");
+        }
+
+        long lDeadline = currentTick() + cMillisDelay;
+        task.m_lDeadline = lDeadline < 0 ? Long.MAX_VALUE : lDeadline; // overflow
+
+        if (f_mailbox.add(task)) {
+            LockSupport.unpark(f_thread);
+        }
+    }
+
+    /**
+     * Stop the ticker thread; all the pending tasks are discarded.
+     */
+    public void shutdown() {
+        m_fShutdown = true;
+        LockSupport.unpark(f_thread);
+    }
+
+    /**
+     * @return the number of tasks held by the wheel, including the cancelled ones that have not
+     *         been discarded yet; the value is approximate if called outside the ticker thread
+     */
+    public int getTaskCount() {
+        return m_cTasks;
+    }
+
+    @Override
+    public String toString() {
+        return "TimerWheel{" + f_thread.getName() + ", tasks=" + m_cTasks + '}';
+    }
+
+
+    // ----- ticker --------------------------------------------------------------------------------
+
+    /**
+     * The ticker thread loop.
+     */
+    private void tick() {
+        while (!m_fShutdown) {
+            if (m_cTasks == 0) {
+                // the wheel is empty; skip the idle ticks
+                m_lTick = Math.max(m_lTick, currentTick());
+            }
+
+            f_mailbox.drain(this::addNew);
+
+            if (m_cTasks == 0) {
+                // nothing to expire; wait for a new task
+                LockSupport.park(this);
+                continue;
+            }
+
+            long lNow = currentTick();
+            while (m_lTick < lNow) {
+                advance(m_lTick + 1);
+            }
+
+            long cNanosWait = TimeUnit.MILLISECONDS.toNanos(nextWakeTick() - currentTick());
+            if (cNanosWait > 0) {
+                LockSupport.parkNanos(this, cNanosWait);
+            }
+        }
+    }
+
+    /**
+     * Process the specified tick: cascade the higher level slots that are due and expire the
+     * tasks in the current level zero slot.
+     */
+    private void advance(long lTick) {
+        m_lTick = lTick;
+
+        // find the highest level that completed a revolution
+        int nLevel = 0;
+        while (nLevel < LEVELS - 1 && (lTick & ((1L << (SLOT_BITS * (nLevel + 1))) - 1)) == 0) {
+            nLevel++;
+        }
+
+        // cascade from the top down, so that the tasks can fall through multiple levels
+        for (; nLevel > 0; nLevel--) {
+            int  iSlot = (int) (lTick >>> (SLOT_BITS * nLevel)) & SLOT_MASK;
+            Task task  = f_aaSlot[nLevel][iSlot];
+            f_aaSlot[nLevel][iSlot] = null;
+            while (task != null) {
+                Task next = task.m_next;
+                m_cTasks--;
+                if (task.m_nState == SCHEDULED) {
+                    add(task);
+                }
+                task = next;
+            }
+        }
+
+        int  iSlot = (int) lTick & SLOT_MASK;
+        Task task  = f_aaSlot[0][iSlot];
+        f_aaSlot[0][iSlot] = null;
+        while (task != null) {
+            Task next = task.m_next;
+            m_cTasks--;
+            if (task.m_lDeadline > lTick) {
+                // the deadline was beyond the wheel's horizon
+                if (task.m_nState == SCHEDULED) {
+                    add(task);
+                }
+            } else if (STATE_HANDLE.compareAndSet(task, SCHEDULED, EXECUTED)) {
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    System.err.println("Unhandled exception in timer task " + task);
+                    e.printStackTrace(System.err);
+                }
+            }
+            task = next;
+        }
+    }
+
+    /**
+     * Place a newly scheduled task into the wheel; a task that is already due is processed on the
+     * next tick.
+     */
+    private void addNew(Task task) {
+        if (task.m_lDeadline <= m_lTick) {
+            task.m_lDeadline = m_lTick + 1;
+        }
+        add(task);
+    }
+
+    /**
+     * Place the specified task into the slot that corresponds to its deadline.
+     */
+    private void add(Task task) {
+        long lTick  = m_lTick;
+        long cDelta = task.m_lDeadline - lTick;
+        task.m_next = null;
+
+        int  nLevel;
+        long lSlot;
+        if (cDelta <= 0) {
+            // a cascading task that is due now goes into the current slot, which is processed
+            // right after the cascade
+            nLevel = 0;
+            lSlot  = lTick;
+        } else if (cDelta >= HORIZON) {
+            // the task will be re-added when it reaches the bottom level
+            nLevel = LEVELS - 1;
+            lSlot  = (lTick + HORIZON - 1) >>> (SLOT_BITS * nLevel);
+        } else {
+            nLevel = (63 - Long.numberOfLeadingZeros(cDelta)) / SLOT_BITS;
+            lSlot  = task.m_lDeadline >>> (SLOT_BITS * nLevel);
+        }
+
+        Task[] aSlot = f_aaSlot[nLevel];
+        int    iSlot = (int) lSlot & SLOT_MASK;
+        task.m_next  = aSlot[iSlot];
+        aSlot[iSlot] = task;
+        m_cTasks++;
+    }
+
+    /**
+     * @return the next tick at which the ticker has some work to do
+     */
+    private long nextWakeTick() {
+        long lTick     = m_lTick;
+        long lBoundary = (lTick | SLOT_MASK) + 1;
+        for (long l = lTick + 1; l < lBoundary; l++) {
+            if (f_aaSlot[0][(int) l & SLOT_MASK] != null) {
+                return l;
+            }
+        }
+        return lBoundary;
+    }
+
+    /**
+     * @return the number of milliseconds since the wheel has been started
+     */
+    private long currentTick() {
+        return (System.nanoTime() - f_nanosStart) / 1_000_000L;
+    }
+
+
+    // ----- inner class: Task ---------------------------------------------------------------------
+
+    /**
+     * A task that can be scheduled on the timer wheel. Each task can be scheduled only once.
+     */
+    public abstract static class Task
+            implements Runnable {
+        /**
+         * Cancel the task. This method can be called by any thread.
+         *
+         * @return true iff the task was prevented from running
+         */
+        public boolean cancel() {
+            return STATE_HANDLE.compareAndSet(this, SCHEDULED, CANCELLED)
+                || STATE_HANDLE.compareAndSet(this, VIRGIN, CANCELLED);
+        }
+
+        /**
+         * The task state.
+         */
+        private volatile int m_nState;
+
+        /**
+         * The deadline tick.
+         */
+        private long m_lDeadline;
+
+        /**
+         * The next task in the same slot.
+         */
+        private Task m_next;
+    }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * The number of bits in a slot index.
+     */
+    private static final int SLOT_BITS = 8;
+
+    /**
+     * The number of slots per level.
+     */
+    public static final int SLOTS = 1 << SLOT_BITS;
+
+    /**
+     * The slot index mask.
+     */
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    /**
+     * The number of levels; the wheel covers 2^32 milliseconds (over 49 days); the tasks with the
+     * longer delays are held at the top level until their deadline gets closer.
+     */
+    public static final int LEVELS = 4;
+
+    /**
+     * The number of ticks covered by the wheel.
+     */
+    private static final long HORIZON = 1L << (SLOT_BITS * LEVELS);
+
+    /**
+     * The task states.
+     */
+    private static final int VIRGIN    = 0;
+    private static final int SCHEDULED = 1;
+    private static final int CANCELLED = 2;
+    private static final int EXECUTED  = 3;
+
+    /**
+     * The start of the time (used as a nanoTime() base).
+     */
+    private final long f_nanosStart;
+
+    /**
+     * The slots; each slot holds a singly-linked list of tasks. Accessed only by the ticker.
+     */
+    private final Task[][] f_aaSlot;
+
+    /**
+     * The newly scheduled tasks that have not been placed into the wheel yet.
+     */
+    private final ConcurrentMailbox<Task> f_mailbox = new ConcurrentMailbox<>();
+
+    /**
+     * The ticker thread.
+     */
+    private final Thread f_thread;
+
+    /**
+     * The last processed tick. Accessed only by the ticker.
+     */
+    private long m_lTick;
+
+    /**
+     * The number of tasks in the wheel.
+     */
+    private volatile int m_cTasks;
+
+    /**
+     * The shutdown flag.
+     */
+    private volatile boolean m_fShutdown;
+
+    /**
+     * VarHandle for {@link Task#m_nState}.
+     */
+    private static final VarHandle STATE_HANDLE = VarHandles.of(Task.class, "m_nState");
+}
@@ -0,0 +1,80 @@
+package org.xvm.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.xvm.util.concurrent.ConcurrentMailbox;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link ConcurrentMailbox}
+ */
+public class ConcurrentMailboxTest {
+    @Test
+    void shouldReportEmptyTransition() {
+        ConcurrentMailbox<Integer> mailbox = new ConcurrentMailbox<>();
+        assertTrue(mailbox.isEmpty());
+        assertTrue(mailbox.add(1));
+        assertFalse(mailbox.add(2));
+        assertFalse(mailbox.isEmpty());
+
+        assertEquals(2, mailbox.drain(i -> {}));
+        assertTrue(mailbox.isEmpty());
+        assertTrue(mailbox.add(3));
+    }
+
+    @Test
+    void shouldDrainInOrder() {
+        ConcurrentMailbox<Integer> mailbox = new ConcurrentMailbox<>();
+        for (int i = 0; i < 100; i++) {
+            mailbox.add(i);
+        }
+
+        List<Integer> list = new ArrayList<>();
+        assertEquals(100, mailbox.drain(list::add));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, list.get(i));
+        }
+        assertEquals(0, mailbox.drain(list::add));
+    }
+
+    @Test
+    void shouldNotLoseConcurrentElements() throws InterruptedException {
+        ConcurrentMailbox<Integer> mailbox = new ConcurrentMailbox<>();
+        int      cThreads = 4;
+        int      cEach    = 100_000;
+        Thread[] aThread  = new Thread[cThreads];
+        for (int t = 0; t < cThreads; t++) {
+            int nBase = t * cEach;
+            aThread[t] = new Thread(() -> {
+                for (int i = 0; i < cEach; i++) {
+                    mailbox.add(nBase + i);
+                }
+            });
+            aThread[t].start();
+        }
+
+        int[] anLast = new int[cThreads];
+        Arrays.fill(anLast, -1);
+        int[] cTotal = new int[1];
+        while (cTotal[0] < cThreads * cEach) {
+            mailbox.drain(n -> {
+                // elements from the same producer must arrive in the order they were added
+                int t = n / cEach;
+                assertTrue(n > anLast[t]);
+                anLast[t] = n;
+                cTotal[0]++;
+            });
+        }
+
+        for (Thread thread : aThread) {
+            thread.join();
+        }
+        assertTrue(mailbox.isEmpty());
+        assertEquals(cThreads * cEach, cTotal[0]);
+    }
+}
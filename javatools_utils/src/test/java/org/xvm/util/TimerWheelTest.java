@@ -0,0 +1,111 @@
+package org.xvm.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.xvm.util.concurrent.TimerWheel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link TimerWheel}
+ */
+public class TimerWheelTest {
+    @Test
+    void shouldNotFireEarly() throws InterruptedException {
+        TimerWheel timer = new TimerWheel("TestTimer");
+        try {
+            // the delays cover the first two levels of the wheel
+            long[]         acDelay = {0, 1, 10, 100, 255, 256, 300, 700};
+            long[]         anFired = new long[acDelay.length];
+            CountDownLatch latch   = new CountDownLatch(acDelay.length);
+            long           lStart  = System.nanoTime();
+            for (int i = 0; i < acDelay.length; i++) {
+                int iTask = i;
+                timer.schedule(task(() -> {
+                    anFired[iTask] = System.nanoTime();
+                    latch.countDown();
+                }), acDelay[i]);
+            }
+
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < acDelay.length; i++) {
+                long cMillis = TimeUnit.NANOSECONDS.toMillis(anFired[i] - lStart);
+                assertTrue(cMillis >= acDelay[i] - 1, "task " + i + " fired after " + cMillis + "ms");
+            }
+        } finally {
+            timer.shutdown();
+        }
+    }
+
+    @Test
+    void shouldNotRunCancelledTask() throws InterruptedException {
+        TimerWheel timer = new TimerWheel("TestTimer");
+        try {
+            AtomicBoolean   fRun      = new AtomicBoolean();
+            CountDownLatch  latch     = new CountDownLatch(1);
+            TimerWheel.Task taskFirst = task(() -> fRun.set(true));
+            timer.schedule(taskFirst, 20);
+            timer.schedule(task(latch::countDown), 50);
+
+            assertTrue(taskFirst.cancel());
+            assertFalse(taskFirst.cancel());
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            assertFalse(fRun.get());
+        } finally {
+            timer.shutdown();
+        }
+    }
+
+    @Test
+    void shouldNotRescheduleTask() {
+        TimerWheel timer = new TimerWheel("TestTimer");
+        try {
+            TimerWheel.Task task = task(() -> {});
+            timer.schedule(task, 1000);
+            assertThrows(IllegalStateException.class, () -> timer.schedule(task, 1000));
+            assertThrows(IllegalArgumentException.class, () -> timer.schedule(task(() -> {}), -1));
+        } finally {
+            timer.shutdown();
+        }
+    }
+
+    @Test
+    void shouldFireConcurrentlyScheduledTasks() throws InterruptedException {
+        TimerWheel timer = new TimerWheel("TestTimer");
+        try {
+            int            cThreads = 4;
+            int            cEach    = 10_000;
+            CountDownLatch latch    = new CountDownLatch(cThreads * cEach);
+            Thread[]       aThread  = new Thread[cThreads];
+            for (int t = 0; t < cThreads; t++) {
+                aThread[t] = new Thread(() -> {
+                    for (int i = 0; i < cEach; i++) {
+                        timer.schedule(task(latch::countDown), i % 500);
+                    }
+                });
+                aThread[t].start();
+            }
+
+            for (Thread thread : aThread) {
+                thread.join();
+            }
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } finally {
+            timer.shutdown();
+        }
+    }
+
+    private static TimerWheel.Task task(Runnable runnable) {
+        return new TimerWheel.Task() {
+            @Override
+            public void run() {
+                runnable.run();
+            }
+        };
+    }
+}
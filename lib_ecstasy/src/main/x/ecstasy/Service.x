@@ -230,8 +230,33 @@ interface Service {
          * This method can be invoked from either inside or outside of the service.
          */
         void kill();
+
+        /**
+         * Configure the admission control for the service: once the number of outstanding
+         * requests exceeds the specified limit, the service is considered to be
+         * [Overloaded](ServiceStatus.Overloaded), and any subsequent requests are handled according
+         * to the specified policy until the backlog drains back to the limit.
+         *
+         * This method can be invoked from either inside or outside of the service.
+         *
+         * @param limit   the maximum number of outstanding requests for the service not to be
+         *                overloaded
+         * @param policy  the policy for requests that arrive while the service is overloaded
+         */
+        void limitBacklog(Int limit, OverloadPolicy policy = Defer);
     }
 
+    /**
+     * The policy for handling requests that arrive when a service is overloaded:
+     *
+     * * Defer indicates that the request is accepted, but the caller is pushed back by having to
+     *   wait for the request to be processed, even if the caller did not ask for the result;
+     * * Reject indicates that the request is not accepted, and the caller receives an exception;
+     *   this only applies to the method invocations coming from other services, while all other
+     *   requests (for example, the ones scheduled via [callLater]) are always accepted.
+     */
+    enum OverloadPolicy {Defer, Reject}
+
     /**
      * A service exposes its status through a status indicator:
      *
@@ -244,9 +269,11 @@ interface Service {
      *   fiber is now waiting synchronously (blocked) for a response;
      * * ShuttingDown indicates that the service has received a shutdown request;
      * * Terminated indicates that the service terminated as a result of either a shutdown or kill
-     *   request.
+     *   request;
+     * * Overloaded indicates that the service backlog has exceeded its limit, and new requests are
+     *   being either deferred or rejected (see [OverloadPolicy]).
      */
-    enum ServiceStatus {Idle, IdleWaiting, Busy, BusyWaiting, ShuttingDown, Terminated}
+    enum ServiceStatus {Idle, IdleWaiting, Busy, BusyWaiting, ShuttingDown, Terminated, Overloaded}
 
     /**
      * The various run-time statistics for a Service, with an ability to produce a snap-shot.
@@ -304,12 +331,41 @@ interface Service {
          */
         @RO Int bytesAllocated;
 
+        /**
+         * The number of fibers (both running and suspended) that currently exist within the
+         * service.
+         */
+        @RO Int fiberCount;
+
+        /**
+         * The number of requests that have been sent to the service, but not yet picked up by it.
+         */
+        @RO Int messageDepth;
+
+        /**
+         * The total number of requests that the service has processed.
+         */
+        @RO Int requestCount;
+
+        /**
+         * The average latency of the requests processed by the service, measured from the time a
+         * request is sent until the response is sent back.
+         */
+        @RO Duration requestLatency;
+
+        /**
+         * The average amount of time the service has been waiting for a thread to run on, once it
+         * had work to do.
+         */
+        @RO Duration scheduleWait;
+
         /**
          * Create an immutable snapshot of the current statistics.
          */
         ServiceStats snapshotStats() {
             return new StatsSnapshot(statusIndicator, upTime, cpuTime, contended, backlogDepth,
-                    bytesReserved, bytesAllocated);
+                    bytesReserved, bytesAllocated, fiberCount, messageDepth, requestCount,
+                    requestLatency, scheduleWait);
         }
     }
 
@@ -322,7 +378,12 @@ interface Service {
                                Boolean       contended,
                                Int           backlogDepth,
                                Int           bytesReserved,
-                               Int           bytesAllocated)
+                               Int           bytesAllocated,
+                               Int           fiberCount,
+                               Int           messageDepth,
+                               Int           requestCount,
+                               Duration      requestLatency,
+                               Duration      scheduleWait)
             implements ServiceStats {
 
         @Override
@@ -357,6 +418,13 @@ interface Service {
      */
     @RO ServiceControl serviceControl;
 
+    /**
+     * Determine if the service is overloaded, i.e. its backlog of outstanding requests has exceeded
+     * the limit. This property can be checked from the outside of the service without waiting for
+     * the service, which allows a caller to shed the load early rather than adding to the backlog.
+     */
+    @RO Boolean overloaded;
+
     /**
      * The current SynchronizedSection for the service, if any.
      */
@@ -0,0 +1,68 @@
+/**
+ * A micro-benchmark for the integer arithmetic in tight loops.
+ *
+ * Most of the loops produce values in the range that has canonical handles (see
+ * xConstrainedInteger.SMALL_MIN/SMALL_MAX), while "testLargeValues" produces values outside of it,
+ * which require a new handle per result. To compare the allocation rates, run with the JVM option
+ * "-Xlog:gc" (or a JFR recording) and compare the heap churn per iteration of each loop.
+ *
+ * To measure the effect of the interpreter's op fusion (see FusedOp), compare the timings with the
+ * JVM option "-Dxvm.fuseOps=false".
+ */
+module TestNumberLoops {
+    @Inject Console console;
+
+    void run() {
+        Int count = 10_000_000;
+
+        // warm up
+        for (Int i : 0..2) {
+            testSmallCounters(count);
+        }
+
+        measure("small counters", testSmallCounters, count);
+        measure("small Int32",    testSmallInt32,    count);
+        measure("small UInt16",   testSmallUInt16,   count);
+        measure("large values",   testLargeValues,   count);
+    }
+
+    void measure(String name, function Int(Int) test, Int count) {
+        @Inject Timer timer;
+        timer.start();
+        Int      result  = test(count);
+        Duration elapsed = timer.elapsed;
+        console.print($"{name}: {elapsed.milliseconds}ms for {count} iterations; result={result}");
+    }
+
+    Int testSmallCounters(Int count) {
+        Int sum = 0;
+        for (Int i = 0; i < count; ++i) {
+            sum = (sum + (i & 0xFF)) & 0x1FF;
+        }
+        return sum;
+    }
+
+    Int testSmallInt32(Int count) {
+        Int32 sum = 0;
+        for (Int i = 0; i < count; ++i) {
+            sum = (sum + i.toInt32() % 100) % 1000;
+        }
+        return sum.toInt64();
+    }
+
+    Int testSmallUInt16(Int count) {
+        UInt16 acc = 0;
+        for (Int i = 0; i < count; ++i) {
+            acc = (acc ^ (i & 0x3FF).toUInt16()) & 0x3FF;
+        }
+        return acc.toInt64();
+    }
+
+    Int testLargeValues(Int count) {
+        Int sum = 0;
+        for (Int i = 0; i < count; ++i) {
+            sum += i;
+        }
+        return sum;
+    }
+}
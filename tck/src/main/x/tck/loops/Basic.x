@@ -5,8 +5,20 @@ class Basic {
 
     void run() {
         testCount();
+        testRangeAscending();
+        testRangeDescending();
+        testRangeEqualBounds();
+        testRangeBoundSideEffects();
+        testRangeBoundsReassigned();
+        testRangeLoopVariables();
+        testCharRange();
     }
 
+    Int hide(Int n) = n;
+
+    Int calls = 0;
+    Int next() = ++calls;
+
     @Test
     void testCount() {
         String[] ss = [ "abc", "def", "hgi" ];
@@ -16,4 +28,118 @@ class Basic {
         }
         assert sum==3;
     }
+
+    @Test
+    void testRangeAscending() {
+        Int   first  = hide(1);
+        Int   last   = hide(4);
+        Int[] values = new Int[];
+        for (Int i : first..last) {
+            values += i;
+        }
+        assert values == [1, 2, 3, 4];
+    }
+
+    @Test
+    void testRangeDescending() {
+        Int   first  = hide(4);
+        Int   last   = hide(-1);
+        Int[] values = new Int[];
+        for (Int i : first..last) {
+            values += i;
+        }
+        assert values == [4, 3, 2, 1, 0, -1];
+    }
+
+    @Test
+    void testRangeEqualBounds() {
+        Int   bound  = hide(7);
+        Int[] values = new Int[];
+        for (Int i : bound..bound) {
+            values += i;
+        }
+        assert values == [7];
+    }
+
+    @Test
+    void testRangeBoundSideEffects() {
+        calls = 0;
+
+        // each bound is evaluated exactly once, the first one before the last one
+        Int[] values = new Int[];
+        for (Int i : next()..next()+2) {
+            values += i;
+        }
+        assert values == [1, 2, 3, 4];
+        assert calls == 2;
+
+        values = new Int[];
+        for (Int i : next()+5..next()) {
+            values += i;
+        }
+        assert values == [8, 7, 6, 5, 4];
+        assert calls == 4;
+    }
+
+    @Test
+    void testRangeBoundsReassigned() {
+        Int   first  = hide(1);
+        Int   last   = hide(3);
+        Int[] values = new Int[];
+        for (Int i : first..last) {
+            // the range is captured before the loop starts
+            first = 100;
+            last  = -100;
+            values += i;
+        }
+        assert values == [1, 2, 3];
+        assert first == 100 && last == -100;
+
+        first  = hide(3);
+        last   = hide(1);
+        values = new Int[];
+        for (Int i : first..last) {
+            first = i;
+            last  = i;
+            values += i;
+        }
+        assert values == [3, 2, 1];
+    }
+
+    @Test
+    void testRangeLoopVariables() {
+        Int   first  = hide(5);
+        Int   last   = hide(2);
+        Int   sum    = 0;
+        Int[] counts = new Int[];
+        Loop: for (Int i : first..last) {
+            if (Loop.first) {
+                assert i == 5;
+            }
+            if (Loop.last) {
+                assert i == 2;
+            }
+            counts += Loop.count;
+            sum    += i;
+        }
+        assert counts == [0, 1, 2, 3];
+        assert sum == 14;
+    }
+
+    @Test
+    void testCharRange() {
+        Char   first = 'a' + hide(0).toUInt32();
+        Char   last  = 'a' + hide(3).toUInt32();
+        String s     = "";
+        for (Char ch : first..last) {
+            s += ch;
+        }
+        assert s == "abcd";
+
+        s = "";
+        for (Char ch : last..first) {
+            s += ch;
+        }
+        assert s == "dcba";
+    }
 }